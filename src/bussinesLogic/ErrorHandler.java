@@ -11,18 +11,15 @@ package bussinesLogic;
  * </p>
  *
  * <p>
- * <b>Thread-safety:</b> This implementation is <i>not</i> thread-safe. In
- * multi-threaded environments, consider synchronizing {@link #getInstance()} or
- * using a thread-safe singleton variant.
+ * <b>Thread-safety:</b> The instance is created lazily through a holder class,
+ * which the JVM initializes exactly once. All accessors are synchronized, so an
+ * error and an info message are never mixed by concurrent callers.
  * </p>
  *
  * @author DejanKrstovski
  */
 public final class ErrorHandler {
 
-	/** The singleton instance of {@code ErrorHandler}. */
-	private static ErrorHandler instance = null;
-
 	/** The current error message; empty if none is set. */
 	private String error;
 
@@ -38,20 +35,19 @@ public final class ErrorHandler {
 		info = "";
 	}
 
+	/** Holds the singleton instance of {@code ErrorHandler}. */
+	private static class Holder {
+		private static final ErrorHandler INSTANCE = new ErrorHandler();
+	}
+
 	/**
-	 * Returns the singleton instance of {@code ErrorHandler}, creating it if it
-	 * does not exist.
-	 * <p>
-	 * <b>Note:</b> This method is not thread-safe.
-	 * </p>
+	 * Returns the singleton instance of {@code ErrorHandler}, creating it on first
+	 * use. Safe to call from any thread.
 	 *
 	 * @return the singleton instance of {@code ErrorHandler}
 	 */
 	public static ErrorHandler getInstance() {
-		if (instance == null) {
-			instance = new ErrorHandler();
-		}
-		return instance;
+		return Holder.INSTANCE;
 	}
 
 	/**
@@ -60,7 +56,7 @@ public final class ErrorHandler {
 	 *
 	 * @param error the error message to set, or {@code null} to clear it
 	 */
-	public void setError(String error) {
+	public synchronized void setError(String error) {
 		this.error = (error == null) ? "" : error;
 		this.info = "";
 	}
@@ -70,7 +66,7 @@ public final class ErrorHandler {
 	 *
 	 * @return the current error message, or an empty string if none is set
 	 */
-	public String getError() {
+	public synchronized String getError() {
 		return error;
 	}
 
@@ -80,7 +76,7 @@ public final class ErrorHandler {
 	 *
 	 * @param message the info message to set, or {@code null} to clear it
 	 */
-	public void setInfo(String message) {
+	public synchronized void setInfo(String message) {
 		this.info = (message == null) ? "" : message;
 		this.error = "";
 	}
@@ -90,7 +86,7 @@ public final class ErrorHandler {
 	 *
 	 * @return the current info message, or an empty string if none is set
 	 */
-	public String getInfo() {
+	public synchronized String getInfo() {
 		return info;
 	}
 
@@ -99,7 +95,7 @@ public final class ErrorHandler {
 	 *
 	 * @return {@code true} if an error message is set; {@code false} otherwise
 	 */
-	public boolean hasError() {
+	public synchronized boolean hasError() {
 		return error != null && !error.isEmpty();
 	}
 
@@ -108,14 +104,14 @@ public final class ErrorHandler {
 	 *
 	 * @return {@code true} if an info message is set; {@code false} otherwise
 	 */
-	public boolean hasInfo() {
+	public synchronized boolean hasInfo() {
 		return info != null && !info.isEmpty();
 	}
 
 	/**
 	 * Clears both the error and info messages.
 	 */
-	public void clear() {
+	public synchronized void clear() {
 		error = "";
 		info = "";
 	}
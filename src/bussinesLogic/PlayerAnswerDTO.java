@@ -3,10 +3,16 @@ package bussinesLogic;
 import java.time.LocalDateTime;
 
 public class PlayerAnswerDTO extends DataTransportObject {
+    private static final long serialVersionUID = 8275486773042502966L;
+
     private int id;
     private int questionId;
     private int answerId;
     private LocalDateTime createdAt;
+    /** Time from showing the question to answering it, 0 if not recorded. */
+    private int durationMillis;
+    /** The {@link PlayerDTO} who answered, 0 for an anonymous answer. */
+    private int playerId;
 
     public int getId() {
         return id;
@@ -39,4 +45,20 @@ public class PlayerAnswerDTO extends DataTransportObject {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(int durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(int playerId) {
+        this.playerId = playerId;
+    }
 }
@@ -0,0 +1,67 @@
+package bussinesLogic;
+
+/**
+ * Represents the profile of a player.
+ * <p>
+ * Player answers refer to the profile by its ID (see
+ * {@link PlayerAnswerDTO#getPlayerId()}), so the statistics can be read per
+ * player. Answers without a profile stay anonymous.
+ * </p>
+ * <p>
+ * Equality and hash code are based solely on the ID.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class PlayerDTO extends DataTransportObject {
+
+    private String name;
+
+    public PlayerDTO() {
+        super();
+    }
+
+    public PlayerDTO(int id, String name) {
+        super(id);
+        this.name = name;
+    }
+
+    /**
+     * Returns the name shown for this player; names are unique.
+     *
+     * @return the player name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name shown for this player.
+     *
+     * @param name the player name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof PlayerDTO)) return false;
+        PlayerDTO other = (PlayerDTO) obj;
+        return this.getId() == other.getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "Player{" +
+                "id=" + getId() +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -16,6 +16,7 @@ public final class ValidationMessages {
     public static final String QUESTION_LESS_THAN_TWO_ANSWERS = "Mindestens zwei Antworten müssen ausgefüllt sein.";
     public static final String QUESTION_NO_CORRECT_ANSWER = "Mindestens eine Antwort muss als richtig markiert sein.";
     public static final String NO_THEME_SELECTED = "Bitte ein Thema auswählen!";
+    public static final String QUESTION_DUPLICATE = "Die Frage gibt es schon: %s";
     public static final String EMPTY_TRUE_ANSWER = "Eine leeren Antwort kann nicht richtig sein! Bitte uberprüfen Sie die Eingabe!";
 
 }
@@ -16,6 +16,11 @@ import java.util.List;
  * This class does not throw exceptions upon validation failure but signals
  * problems via error messages and boolean return values.
  * </p>
+ * <p>
+ * The {@code check...} variants return the message instead of setting it on
+ * the shared {@link ErrorHandler}, so they can be used from several threads at
+ * once (e.g. by a bulk import).
+ * </p>
  * 
  * @author DejanKrstovski
  */
@@ -68,24 +73,47 @@ public class Validator {
 	 * @return {@code true} if the question is valid; {@code false} otherwise
 	 */
 	public static boolean validateQuestion(QuestionDTO question) {
-		ErrorHandler errorHandler = ErrorHandler.getInstance();
+		return report(checkQuestion(question));
+	}
 
+	/**
+	 * Checks a question like {@link #validateQuestion(QuestionDTO)} without
+	 * touching the {@link ErrorHandler}.
+	 *
+	 * @param question the question to check, may be null
+	 * @return {@code null} if the question is valid, the error message otherwise
+	 */
+	public static String checkQuestion(QuestionDTO question) {
 		if (question == null) {
-			errorHandler.setError(ValidationMessages.QUESTION_NULL);
-			return false;
+			return ValidationMessages.QUESTION_NULL;
 		}
-
 		if (question.getTitle() == null || question.getTitle().trim().isEmpty()) {
-			errorHandler.setError(ValidationMessages.QUESTION_TITLE_MISSING);
-			return false;
+			return ValidationMessages.QUESTION_TITLE_MISSING;
 		}
-
 		if (question.getText() == null || question.getText().trim().isEmpty()) {
-			errorHandler.setError(ValidationMessages.QUESTION_TEXT_MISSING);
-			return false;
+			return ValidationMessages.QUESTION_TEXT_MISSING;
 		}
+		return null;
+	}
 
-		return true;
+	/**
+	 * Turns the result of a duplicate lookup into an error message.
+	 *
+	 * @param duplicates the questions with the same content, may be empty
+	 * @return {@code null} if there are none, the error message otherwise
+	 */
+	public static String checkDuplicates(List<QuestionDTO> duplicates) {
+		if (duplicates == null || duplicates.isEmpty()) {
+			return null;
+		}
+		StringBuilder titles = new StringBuilder();
+		for (QuestionDTO duplicate : duplicates) {
+			if (titles.length() > 0) {
+				titles.append(", ");
+			}
+			titles.append(duplicate.getTitle());
+		}
+		return String.format(ValidationMessages.QUESTION_DUPLICATE, titles);
 	}
 
 	/**
@@ -111,9 +139,19 @@ public class Validator {
 	}
 
 	public static boolean validateAnswers(List<AnswerDTO> answers) {
+		return report(checkAnswers(answers));
+	}
+
+	/**
+	 * Checks answers like {@link #validateAnswers(List)} without touching the
+	 * {@link ErrorHandler}.
+	 *
+	 * @param answers the answers to check, may be null
+	 * @return {@code null} if the answers are valid, the error message otherwise
+	 */
+	public static String checkAnswers(List<AnswerDTO> answers) {
 	    if (answers == null || answers.size() < 2) {
-	        errorHandler.setError(ValidationMessages.QUESTION_LESS_THAN_TWO_ANSWERS);
-	        return false;
+	        return ValidationMessages.QUESTION_LESS_THAN_TWO_ANSWERS;
 	    }
 
 	    int emptyAnswerCount = 0;
@@ -124,8 +162,7 @@ public class Validator {
 
 	        // Prüfen: richtige Antwort aber kein Text
 	        if (text.isEmpty() && answer.isCorrect()) {
-	            errorHandler.setError(ValidationMessages.EMPTY_TRUE_ANSWER);
-	            return false;
+	            return ValidationMessages.EMPTY_TRUE_ANSWER;
 	        }
 
 	        // Zähle leere Antworten
@@ -141,17 +178,24 @@ public class Validator {
 
 	    // Prüfen: mindestens 2 ausgefüllte Antworten
 	    if (answers.size() - emptyAnswerCount < 2) {
-	        errorHandler.setError(ValidationMessages.QUESTION_LESS_THAN_TWO_ANSWERS);
-	        return false;
+	        return ValidationMessages.QUESTION_LESS_THAN_TWO_ANSWERS;
 	    }
 
 	    // Prüfen: mindestens eine richtige Antwort
 	    if (!hasCorrectAnswer) {
-	        errorHandler.setError(ValidationMessages.QUESTION_NO_CORRECT_ANSWER);
-	        return false;
+	        return ValidationMessages.QUESTION_NO_CORRECT_ANSWER;
 	    }
 
-	    return true;
+	    return null;
+	}
+
+	/** Sets a non-null message on the {@link ErrorHandler}. */
+	private static boolean report(String error) {
+		if (error != null) {
+			errorHandler.setError(error);
+			return false;
+		}
+		return true;
 	}
 
 }
@@ -1,31 +1,44 @@
 package bussinesLogic.datenBank;
 
 import java.security.SecureRandom;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
+import bussinesLogic.Validator;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
 import helpers.QuizDataInterface;
 import persistence.mariaDB.DBManager;
 
 public class QuizDBDataManager implements QuizDataInterface {
 
-	private static QuizDBDataManager instance = null;
 	private DBManager dbManager = DBManager.getInstance();
 
 	private QuizDBDataManager() {
 	}
 
+	private static class Holder {
+		private static final QuizDBDataManager INSTANCE = new QuizDBDataManager();
+	}
+
 	public static QuizDBDataManager getInstance() {
-		if (instance == null) {
-			instance = new QuizDBDataManager();
-		}
-		return instance;
+		return Holder.INSTANCE;
 	}
 
 	@Override
@@ -50,12 +63,139 @@ public class QuizDBDataManager implements QuizDataInterface {
 
 	@Override
 	public List<QuestionDTO> getQuestionsFor(ThemeDTO theme) {
-		return getAllQuestions().stream().filter(q -> q.getThemeId() == theme.getId()).toList();
+		return dbManager.getQuestionsFor(theme.getId());
+	}
+
+	@Override
+	public ThemeDTO getThemeById(int id) {
+		return dbManager.getThemeById(id);
+	}
+
+	@Override
+	public List<QuestionDTO> searchQuestions(String query, ThemeDTO theme, int limit) {
+		return dbManager.searchQuestions(query, theme == null ? -1 : theme.getId(), limit);
+	}
+
+	@Override
+	public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit) {
+		return dbManager.findSimilarThemes(title, minSimilarity, limit);
+	}
+
+	@Override
+	public List<QuestionDTO> findSimilarQuestions(String title, ThemeDTO theme, double minSimilarity, int limit) {
+		return dbManager.findSimilarQuestions(title, theme == null ? -1 : theme.getId(), minSimilarity, limit);
+	}
+
+	@Override
+	public List<QuestionDTO> findDuplicatesOf(QuestionDTO question) {
+		return dbManager.findDuplicatesOf(question);
+	}
+
+	@Override
+	public List<DuplicateGroup> findDuplicateGroups() {
+		return dbManager.findDuplicateGroups();
+	}
+
+	@Override
+	public AnswerTotals getQuestionTotals(QuestionDTO question, DateRange range) {
+		return dbManager.getQuestionTotals(question.getId(), range);
+	}
+
+	@Override
+	public AnswerTotals getThemeTotals(ThemeDTO theme, DateRange range) {
+		return dbManager.getThemeTotals(theme.getId(), range);
+	}
+
+	@Override
+	public DurationHistogram getQuestionDurations(QuestionDTO question) {
+		return dbManager.getQuestionDurations(question.getId());
+	}
+
+	@Override
+	public DurationHistogram getThemeDurations(ThemeDTO theme) {
+		return dbManager.getThemeDurations(theme.getId());
+	}
+
+	@Override
+	public AnswerTotals getAnswerTotals(DateRange range) {
+		return dbManager.getAnswerTotals(range);
+	}
+
+	@Override
+	public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+		return dbManager.getAnswerOptionCounts(range);
+	}
+
+	@Override
+	public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+		return dbManager.getQuestionStatistics(range);
+	}
+
+	@Override
+	public TrendSeries getAnswerSeries(ThemeDTO theme, DateRange range, TrendSeries.Resolution resolution) {
+		return dbManager.getAnswerSeries(theme == null ? 0 : theme.getId(), range, resolution);
+	}
+
+	@Override
+	public long getDataVersion() {
+		return dbManager.getDataVersion();
+	}
+
+	@Override
+	public AbilityEstimate recordResponse(String respondent, QuestionDTO question, boolean correct) {
+		return dbManager.recordResponse(respondent, question.getId(), correct);
+	}
+
+	@Override
+	public AbilityEstimate getAbility(String respondent) {
+		return dbManager.getAbility(respondent);
+	}
+
+	@Override
+	public ItemCalibration getItemCalibration(QuestionDTO question) {
+		return dbManager.getItemCalibration(question.getId());
+	}
+
+	@Override
+	public List<ItemCalibration> getItemCalibrations() {
+		return dbManager.getItemCalibrations();
+	}
+
+	@Override
+	public List<PlayerDTO> getAllPlayers() {
+		return dbManager.getAllPlayers();
+	}
+
+	@Override
+	public PlayerStatistics getPlayerStatistics(PlayerDTO player) {
+		return dbManager.getPlayerStatistics(player.getId());
+	}
+
+	@Override
+	public List<LeaderboardEntry> getLeaderboard(ThemeDTO theme, Leaderboard.Ranking ranking, int offset, int limit) {
+		return dbManager.getLeaderboard(theme == null ? Leaderboard.ALL_THEMES : theme.getId(), ranking, offset, limit);
+	}
+
+	@Override
+	public LeaderboardEntry getLeaderboardEntry(PlayerDTO player, ThemeDTO theme, Leaderboard.Ranking ranking) {
+		return dbManager.getLeaderboardEntry(player.getId(), theme == null ? Leaderboard.ALL_THEMES : theme.getId(), ranking);
+	}
+
+	@Override
+	public String savePlayer(PlayerDTO player) {
+		return dbManager.savePlayer(player);
+	}
+
+	@Override
+	public QuestionDTO getQuestionById(int id) {
+		return dbManager.getQuestionById(id);
 	}
 
 	@Override
 	public QuestionDTO getRandomQuestion() {
 		List<QuestionDTO> all = getAllQuestions();
+		if (all.isEmpty())
+			return null;
 		return all.get(new Random().nextInt(all.size()));
 	}
 
@@ -70,9 +210,7 @@ public class QuizDBDataManager implements QuizDataInterface {
 
 	@Override
 	public List<AnswerDTO> getAnswersFor(QuestionDTO question) {
-		List<AnswerDTO> list = dbManager.getAllAnswers().stream().filter(a -> a.getQuestionId() == question.getId())
-				.toList();
-		List<AnswerDTO> shuffled = new ArrayList<>(list);
+		List<AnswerDTO> shuffled = dbManager.getAnswersFor(question.getId());
 		Collections.shuffle(shuffled, new SecureRandom());
 		return shuffled;
 	}
@@ -92,11 +230,27 @@ public class QuizDBDataManager implements QuizDataInterface {
 		return dbManager.saveQuestion(q);
 	}
 
+	@Override
+	public String saveQuestion(QuestionDTO q, boolean rejectDuplicates) {
+		String duplicates = rejectDuplicates ? Validator.checkDuplicates(findDuplicatesOf(q)) : null;
+		return duplicates != null ? duplicates : saveQuestion(q);
+	}
+
+	@Override
+	public String saveQuestions(List<QuestionDTO> questions) {
+		return dbManager.saveQuestions(questions);
+	}
+
 	@Override
 	public String deleteQuestion(QuestionDTO question) {
 		return dbManager.deleteQuestion(question);
 	}
 
+	@Override
+	public String savePlayerAnswers(List<PlayerAnswerDTO> answers) {
+		return dbManager.savePlayerAnswers(answers);
+	}
+
 	@Override
 	public String savePlayerAnswer(PlayerAnswerDTO answer) {
 		return dbManager.savePlayerAnswer(answer);
@@ -0,0 +1,154 @@
+package bussinesLogic.repository;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * List of {@code int} values that shares its chunks with the list it was
+ * copied from.
+ * <p>
+ * Used as an adjacency array, e.g. the question IDs belonging to one theme.
+ * The values are kept in chunks of at most {@value #CHUNK_SIZE}; copying the
+ * list only copies the array of chunks, and a chunk is copied the first time
+ * the copy writes to it. Appending a question to a theme with a million
+ * questions thus copies one chunk, not the whole list.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe. A list that was copied
+ * must not be changed any more, since the copy still reads its chunks.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+final class PagedIntList {
+
+	static final int CHUNK_SIZE = 1024;
+
+	/** A chunk may only be changed by the list that created or copied it. */
+	private static final class Chunk {
+		private final Object owner;
+		private final int[] values;
+		private int size;
+
+		private Chunk(Object owner, int[] values, int size) {
+			this.owner = owner;
+			this.values = values;
+			this.size = size;
+		}
+	}
+
+	private static final Chunk[] NO_CHUNKS = new Chunk[0];
+
+	private Chunk[] chunks;
+	private int chunkCount;
+	private int size;
+	/** Marks the chunks this list may change in place. */
+	private final Object owner = new Object();
+
+	/**
+	 * Creates an empty list.
+	 */
+	PagedIntList() {
+		chunks = NO_CHUNKS;
+	}
+
+	/**
+	 * Creates a list with the same values as {@code other}. Costs one step per
+	 * chunk of {@code other}; the chunks themselves are shared until written.
+	 *
+	 * @param other the list to copy
+	 */
+	PagedIntList(PagedIntList other) {
+		chunks = Arrays.copyOf(other.chunks, other.chunkCount);
+		chunkCount = other.chunkCount;
+		size = other.size;
+	}
+
+	/**
+	 * Appends a value.
+	 *
+	 * @param value the value to append
+	 */
+	void add(int value) {
+		if (chunkCount == 0 || chunks[chunkCount - 1].size == CHUNK_SIZE) {
+			if (chunkCount == chunks.length) {
+				chunks = Arrays.copyOf(chunks, Math.max(4, chunkCount << 1));
+			}
+			chunks[chunkCount++] = new Chunk(owner, new int[CHUNK_SIZE], 0);
+		}
+		Chunk last = writableChunk(chunkCount - 1);
+		last.values[last.size++] = value;
+		size++;
+	}
+
+	/**
+	 * Removes the first occurrence of a value, keeping the order of the
+	 * remaining values.
+	 *
+	 * @param value the value to remove
+	 * @return {@code true} if the value was found and removed
+	 */
+	boolean removeValue(int value) {
+		for (int c = 0; c < chunkCount; c++) {
+			Chunk chunk = chunks[c];
+			for (int i = 0; i < chunk.size; i++) {
+				if (chunk.values[i] == value) {
+					chunk = writableChunk(c);
+					System.arraycopy(chunk.values, i + 1, chunk.values, i, chunk.size - i - 1);
+					chunk.size--;
+					size--;
+					if (chunk.size == 0) {
+						System.arraycopy(chunks, c + 1, chunks, c, chunkCount - c - 1);
+						chunks[--chunkCount] = null;
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private Chunk writableChunk(int index) {
+		Chunk chunk = chunks[index];
+		if (chunk.owner != owner) {
+			chunk = new Chunk(owner, Arrays.copyOf(chunk.values, CHUNK_SIZE), chunk.size);
+			chunks[index] = chunk;
+		}
+		return chunk;
+	}
+
+	/** @return the number of values */
+	int size() {
+		return size;
+	}
+
+	/** @return {@code true} if the list has no values */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Passes every value to the action, in list order.
+	 *
+	 * @param action the action to run for each value
+	 */
+	void forEach(IntConsumer action) {
+		for (int c = 0; c < chunkCount; c++) {
+			Chunk chunk = chunks[c];
+			for (int i = 0; i < chunk.size; i++) {
+				action.accept(chunk.values[i]);
+			}
+		}
+	}
+
+	/** @return the values in list order, in a new array */
+	int[] toArray() {
+		int[] result = new int[size];
+		int n = 0;
+		for (int c = 0; c < chunkCount; c++) {
+			System.arraycopy(chunks[c].values, 0, result, n, chunks[c].size);
+			n += chunks[c].size;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,150 @@
+package bussinesLogic.repository;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import helpers.IntObjectMap;
+
+/**
+ * Map from {@code int} keys to values that shares its pages with the map it was
+ * copied from.
+ * <p>
+ * The entries are split into pages of {@value #PAGE_SIZE} consecutive keys,
+ * each an {@link IntObjectMap}. Copying the map only copies the table of pages;
+ * a page is copied the first time the copy writes to it. A transaction that
+ * saves a few questions therefore copies a few pages instead of the whole bank.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe. A map that was copied
+ * must not be changed any more, since the copy still reads its pages.
+ * </p>
+ *
+ * @param <V> the value type
+ *
+ * @author DejanKrstovski
+ */
+final class PagedIntMap<V> {
+
+	private static final int PAGE_BITS = 10;
+	static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+	/** A page may only be changed by the map that created or copied it. */
+	private static final class Page<V> {
+		private final Object owner;
+		private final IntObjectMap<V> entries;
+
+		private Page(Object owner, IntObjectMap<V> entries) {
+			this.owner = owner;
+			this.entries = entries;
+		}
+	}
+
+	/** Page number (key &gt;&gt; {@link #PAGE_BITS}) &rarr; page. */
+	private final IntObjectMap<Page<V>> pages;
+	/** Marks the pages this map may change in place. */
+	private final Object owner = new Object();
+	private int size;
+
+	/**
+	 * Creates an empty map.
+	 */
+	PagedIntMap() {
+		pages = new IntObjectMap<>();
+	}
+
+	/**
+	 * Creates a map with the same entries as {@code other}. Costs one step per
+	 * page of {@code other}; the pages themselves are shared until written.
+	 *
+	 * @param other the map to copy
+	 */
+	PagedIntMap(PagedIntMap<V> other) {
+		pages = new IntObjectMap<>(other.pages);
+		size = other.size;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the value, or {@code null} if the key is not present
+	 */
+	V get(int key) {
+		Page<V> page = pages.get(key >> PAGE_BITS);
+		return page == null ? null : page.entries.get(key);
+	}
+
+	/**
+	 * Maps the key to the value, replacing any previous mapping.
+	 *
+	 * @param key   the key
+	 * @param value the value; must not be {@code null}
+	 * @return the previous value, or {@code null} if there was none
+	 */
+	V put(int key, V value) {
+		V old = writablePage(key >> PAGE_BITS).put(key, value);
+		if (old == null) {
+			size++;
+		}
+		return old;
+	}
+
+	/**
+	 * Removes the mapping for the key.
+	 *
+	 * @param key the key
+	 * @return the removed value, or {@code null} if the key was not present
+	 */
+	V remove(int key) {
+		int index = key >> PAGE_BITS;
+		Page<V> page = pages.get(index);
+		if (page == null || !page.entries.containsKey(key)) {
+			return null;
+		}
+		IntObjectMap<V> entries = writablePage(index);
+		V old = entries.remove(key);
+		size--;
+		if (entries.isEmpty()) {
+			pages.remove(index);
+		}
+		return old;
+	}
+
+	private IntObjectMap<V> writablePage(int index) {
+		Page<V> page = pages.get(index);
+		if (page == null) {
+			page = new Page<>(owner, new IntObjectMap<>());
+			pages.put(index, page);
+		} else if (page.owner != owner) {
+			page = new Page<>(owner, new IntObjectMap<>(page.entries));
+			pages.put(index, page);
+		}
+		return page.entries;
+	}
+
+	/** @return the number of entries */
+	int size() {
+		return size;
+	}
+
+	/** @return all keys in ascending order, in a new array */
+	int[] sortedKeys() {
+		int[] indexes = pages.sortedKeys();
+		int[] result = new int[size];
+		int n = 0;
+		for (int index : indexes) {
+			// pages are ordered by their keys, so sorting each page suffices
+			int[] keys = pages.get(index).entries.sortedKeys();
+			System.arraycopy(keys, 0, result, n, keys.length);
+			n += keys.length;
+		}
+		return n == result.length ? result : Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Passes every value to the action, in no particular order.
+	 *
+	 * @param action the action to run for each value
+	 */
+	void forEachValue(Consumer<? super V> action) {
+		pages.forEachValue(page -> page.entries.forEachValue(action));
+	}
+}
@@ -0,0 +1,247 @@
+package bussinesLogic.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+import bussinesLogic.PlayerAnswerDTO;
+
+/**
+ * Immutable, append-only, column-oriented store of the player answer history.
+ * <p>
+ * The answers are not kept as objects but as primitive columns: ID, question
+ * ID, answer ID, the time stamp in milliseconds, the answer duration and the
+ * player ID, about 28 bytes per answer
+ * instead of a {@link PlayerAnswerDTO} with its {@link LocalDateTime}. The
+ * columns are split into chunks of {@value #CHUNK_SIZE} rows, so growing the
+ * log never copies the history. Analytics read the columns with the
+ * {@code ...At(int)} methods in tight loops; {@link #get(int)} creates a new
+ * DTO per call for everything else.
+ * </p>
+ * <p>
+ * Time stamps are stored as the local date and time counted in milliseconds as
+ * if it were UTC, so the day of an answer is a plain division and no time zone
+ * rules are involved. Fractions of a millisecond are dropped.
+ * </p>
+ * <p>
+ * Successive versions share the chunks: appending writes into the free slot
+ * behind the current size and returns a new log with the size increased by
+ * one. Older logs never look past their own size, so they are unaffected. Only
+ * if an older version is appended to again, its last, partly filled chunk is
+ * copied, which keeps appends O(1) instead of copying the whole history for
+ * every saved answer.
+ * </p>
+ * <p>
+ * Appending is only safe from one writer at a time; {@link QuizRepository}
+ * guarantees this. Reading is safe from any thread once the log has been
+ * published.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class PlayerAnswerLog extends AbstractList<PlayerAnswerDTO> implements RandomAccess {
+
+	static final int CHUNK_SHIFT = 12;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/** Time stamp of answers without a creation time. */
+	public static final long NO_TIME = Long.MIN_VALUE;
+
+	private static final long MILLIS_PER_DAY = 86_400_000L;
+
+	static final PlayerAnswerLog EMPTY = new PlayerAnswerLog(new Chunk[0], 0, new Tail(0));
+
+	/** One block of rows of all columns. */
+	private static final class Chunk {
+		final int[] ids = new int[CHUNK_SIZE];
+		final int[] questionIds = new int[CHUNK_SIZE];
+		final int[] answerIds = new int[CHUNK_SIZE];
+		final long[] times = new long[CHUNK_SIZE];
+		final int[] durations = new int[CHUNK_SIZE];
+		final int[] playerIds = new int[CHUNK_SIZE];
+
+		Chunk copy() {
+			Chunk copy = new Chunk();
+			System.arraycopy(ids, 0, copy.ids, 0, CHUNK_SIZE);
+			System.arraycopy(questionIds, 0, copy.questionIds, 0, CHUNK_SIZE);
+			System.arraycopy(answerIds, 0, copy.answerIds, 0, CHUNK_SIZE);
+			System.arraycopy(times, 0, copy.times, 0, CHUNK_SIZE);
+			System.arraycopy(durations, 0, copy.durations, 0, CHUNK_SIZE);
+			System.arraycopy(playerIds, 0, copy.playerIds, 0, CHUNK_SIZE);
+			return copy;
+		}
+	}
+
+	/** Number of rows written into the shared chunks, by whichever version. */
+	private static final class Tail {
+		int written;
+
+		Tail(int written) {
+			this.written = written;
+		}
+	}
+
+	private final Chunk[] chunks;
+	private final int size;
+	private final Tail tail;
+
+	private PlayerAnswerLog(Chunk[] chunks, int size, Tail tail) {
+		this.chunks = chunks;
+		this.size = size;
+		this.tail = tail;
+	}
+
+	/**
+	 * Creates a log holding the given answers.
+	 *
+	 * @param all the answers
+	 * @return a new log
+	 */
+	static PlayerAnswerLog of(Collection<PlayerAnswerDTO> all) {
+		Chunk[] chunks = new Chunk[(all.size() + CHUNK_MASK) >>> CHUNK_SHIFT];
+		int row = 0;
+		for (PlayerAnswerDTO playerAnswer : all) {
+			if ((row & CHUNK_MASK) == 0) {
+				chunks[row >>> CHUNK_SHIFT] = new Chunk();
+			}
+			write(chunks[row >>> CHUNK_SHIFT], row & CHUNK_MASK, playerAnswer);
+			row++;
+		}
+		return new PlayerAnswerLog(chunks, row, new Tail(row));
+	}
+
+	/**
+	 * Returns a log with the answer appended. This log stays unchanged.
+	 *
+	 * @param answer the answer to append
+	 * @return the new log
+	 */
+	PlayerAnswerLog append(PlayerAnswerDTO answer) {
+		Chunk[] target = chunks;
+		Tail owner = tail;
+		if (tail.written != size) {
+			// a newer version already wrote behind our size: fork
+			owner = new Tail(size);
+			target = Arrays.copyOf(chunks, chunks.length);
+			Arrays.fill(target, (size + CHUNK_MASK) >>> CHUNK_SHIFT, target.length, null);
+			if ((size & CHUNK_MASK) != 0) {
+				int last = size >>> CHUNK_SHIFT;
+				target[last] = target[last].copy();
+			}
+		}
+		int chunk = size >>> CHUNK_SHIFT;
+		if (chunk == target.length) {
+			target = Arrays.copyOf(target, Math.max(4, target.length * 2));
+		}
+		if (target[chunk] == null) {
+			target[chunk] = new Chunk();
+		}
+		write(target[chunk], size & CHUNK_MASK, answer);
+		owner.written = size + 1;
+		return new PlayerAnswerLog(target, size + 1, owner);
+	}
+
+	private static void write(Chunk chunk, int row, PlayerAnswerDTO answer) {
+		chunk.ids[row] = answer.getId();
+		chunk.questionIds[row] = answer.getQuestionId();
+		chunk.answerIds[row] = answer.getAnswerId();
+		chunk.times[row] = toMillis(answer.getCreatedAt());
+		chunk.durations[row] = answer.getDurationMillis();
+		chunk.playerIds[row] = answer.getPlayerId();
+	}
+
+	/** @return the ID of the player answer at {@code index} */
+	public int idAt(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_SHIFT].ids[index & CHUNK_MASK];
+	}
+
+	/** @return the question ID of the player answer at {@code index} */
+	public int questionIdAt(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_SHIFT].questionIds[index & CHUNK_MASK];
+	}
+
+	/** @return the chosen answer ID of the player answer at {@code index} */
+	public int answerIdAt(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_SHIFT].answerIds[index & CHUNK_MASK];
+	}
+
+	/**
+	 * @return the local creation time of the player answer at {@code index} in
+	 *         milliseconds counted as if it were UTC, or {@link #NO_TIME}
+	 */
+	public long timeAt(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_SHIFT].times[index & CHUNK_MASK];
+	}
+
+	/**
+	 * @return the milliseconds the player took to answer at {@code index}, 0 if
+	 *         not recorded
+	 */
+	public int durationAt(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_SHIFT].durations[index & CHUNK_MASK];
+	}
+
+	/** @return the player ID of the player answer at {@code index}, 0 if anonymous */
+	public int playerIdAt(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_SHIFT].playerIds[index & CHUNK_MASK];
+	}
+
+	/**
+	 * @param time a time stamp as returned by {@link #timeAt(int)}
+	 * @return the epoch day of the local date of the time stamp
+	 */
+	public static int epochDay(long time) {
+		return (int) Math.floorDiv(time, MILLIS_PER_DAY);
+	}
+
+	@Override
+	public PlayerAnswerDTO get(int index) {
+		checkIndex(index);
+		Chunk chunk = chunks[index >>> CHUNK_SHIFT];
+		int row = index & CHUNK_MASK;
+		PlayerAnswerDTO answer = new PlayerAnswerDTO();
+		answer.setId(chunk.ids[row]);
+		answer.setQuestionId(chunk.questionIds[row]);
+		answer.setAnswerId(chunk.answerIds[row]);
+		answer.setCreatedAt(toDateTime(chunk.times[row]));
+		answer.setDurationMillis(chunk.durations[row]);
+		answer.setPlayerId(chunk.playerIds[row]);
+		return answer;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+	}
+
+	private static long toMillis(LocalDateTime time) {
+		if (time == null) {
+			return NO_TIME;
+		}
+		return time.toEpochSecond(ZoneOffset.UTC) * 1000 + time.getNano() / 1_000_000;
+	}
+
+	private static LocalDateTime toDateTime(long millis) {
+		if (millis == NO_TIME) {
+			return null;
+		}
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000,
+				ZoneOffset.UTC);
+	}
+}
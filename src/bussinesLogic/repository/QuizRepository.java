@@ -0,0 +1,862 @@
+package bussinesLogic.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.DataTransportObject;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.search.DuplicateIndex;
+import bussinesLogic.search.QuestionSearchIndex;
+import bussinesLogic.search.TrigramIndex;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerAggregates;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
+import bussinesLogic.statistics.StatisticsAggregator;
+import helpers.IntList;
+
+/**
+ * In-memory index of all quiz data, shared by the database and the serialization
+ * backend.
+ * <p>
+ * Themes, questions and answers are kept in {@link PagedIntMap}s keyed by their
+ * ID, so lookups by ID are O(1). The relations theme &rarr; questions and
+ * question &rarr; answers are kept as {@link PagedIntList} adjacency arrays, so
+ * {@link #getQuestionsFor(int)} and {@link #getAnswersFor(int)} only touch the
+ * matching elements instead of scanning the whole bank.
+ * </p>
+ * <p>
+ * The data is published as immutable {@link QuizSnapshot}s through an
+ * {@link AtomicReference}. Readers never block and never see a half-applied
+ * change; they simply read the snapshot that was current when they asked.
+ * Writers are serialized, copy only the pages of the current snapshot they
+ * change and swap the result in. Several changes that belong together can be
+ * applied atomically with {@link #update(Consumer)}.
+ * </p>
+ * <p>
+ * DTOs are copied when they enter the repository, so later changes to the
+ * caller's objects do not leak into published snapshots. Player answers are
+ * not kept as objects at all but as the columns of a {@link PlayerAnswerLog}.
+ * </p>
+ * <p>
+ * Every transaction records which questions it touched. After the new
+ * snapshot is published, only these questions are re-read into the
+ * {@link QuestionSearchIndex} behind {@link #searchQuestions(String, int, int)},
+ * the {@link TrigramIndex}es behind the similar-title lookups and the
+ * {@link DuplicateIndex}; the same holds for themes. Saved player answers are
+ * counted into the {@link StatisticsAggregator} behind
+ * {@link #getThemeTotals(int, DateRange)} the same way, and into the
+ * {@link PlayerAggregates} of the players whose statistics are read.
+ * </p>
+ * <p>
+ * The repository only mirrors the persistent state; writing to the database or
+ * to files remains the job of the backend that owns the repository.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class QuizRepository {
+
+	private final AtomicReference<QuizSnapshot> current = new AtomicReference<>(QuizSnapshot.EMPTY);
+
+	/** Serializes writers; readers never take it. */
+	private final Object writeLock = new Object();
+
+	private final QuestionSearchIndex searchIndex = new QuestionSearchIndex();
+	private final TrigramIndex themeTitleIndex = TrigramIndex.forThemes();
+	private final TrigramIndex questionTitleIndex = TrigramIndex.forQuestions();
+	private final DuplicateIndex duplicateIndex = new DuplicateIndex();
+	private final StatisticsAggregator statistics = new StatisticsAggregator();
+	private final PlayerAggregates playerStatistics = new PlayerAggregates();
+	private final Leaderboard leaderboard = new Leaderboard();
+
+	// --- Reading ---
+
+	/**
+	 * Returns the current snapshot. Use it when several reads have to see the same
+	 * state.
+	 *
+	 * @return the current snapshot
+	 */
+	public QuizSnapshot snapshot() {
+		return current.get();
+	}
+
+	/**
+	 * Returns the version of the current snapshot. It increases with every change.
+	 *
+	 * @return the current version
+	 */
+	public long getVersion() {
+		return current.get().getVersion();
+	}
+
+	/** @see QuizSnapshot#getTheme(int) */
+	public ThemeDTO getTheme(int id) {
+		return current.get().getTheme(id);
+	}
+
+	/** @see QuizSnapshot#getQuestion(int) */
+	public QuestionDTO getQuestion(int id) {
+		return current.get().getQuestion(id);
+	}
+
+	/** @see QuizSnapshot#getAnswer(int) */
+	public AnswerDTO getAnswer(int id) {
+		return current.get().getAnswer(id);
+	}
+
+	/** @see QuizSnapshot#getAllThemes() */
+	public List<ThemeDTO> getAllThemes() {
+		return current.get().getAllThemes();
+	}
+
+	/** @see QuizSnapshot#getAllQuestions() */
+	public List<QuestionDTO> getAllQuestions() {
+		return current.get().getAllQuestions();
+	}
+
+	/** @see QuizSnapshot#getAllAnswers() */
+	public List<AnswerDTO> getAllAnswers() {
+		return current.get().getAllAnswers();
+	}
+
+	/** @see QuizSnapshot#getPlayer(int) */
+	public PlayerDTO getPlayer(int id) {
+		return current.get().getPlayer(id);
+	}
+
+	/** @see QuizSnapshot#getAllPlayers() */
+	public List<PlayerDTO> getAllPlayers() {
+		return current.get().getAllPlayers();
+	}
+
+	/** @see QuizSnapshot#getAllPlayerAnswers() */
+	public List<PlayerAnswerDTO> getAllPlayerAnswers() {
+		return current.get().getAllPlayerAnswers();
+	}
+
+	/** @see QuizSnapshot#getQuestionsFor(int) */
+	public List<QuestionDTO> getQuestionsFor(int themeId) {
+		return current.get().getQuestionsFor(themeId);
+	}
+
+	/** @see QuizSnapshot#getAnswersFor(int) */
+	public List<AnswerDTO> getAnswersFor(int questionId) {
+		return current.get().getAnswersFor(questionId);
+	}
+
+	/** @see QuizSnapshot#getStamp() */
+	public long[] getStamp() {
+		return current.get().getStamp();
+	}
+
+	/** @see QuizSnapshot#countQuestionsFor(int) */
+	public int countQuestionsFor(int themeId) {
+		return current.get().countQuestionsFor(themeId);
+	}
+
+	/**
+	 * Full-text search over the title, text and answers of the questions. Hits
+	 * contain all words of the query and are ordered by relevance.
+	 *
+	 * @param query   the search text
+	 * @param themeId only return questions of this theme; a value below 1
+	 *                searches all themes
+	 * @param limit   the maximum number of hits
+	 * @return a new list with the best hits, best first
+	 */
+	public List<QuestionDTO> searchQuestions(String query, int themeId, int limit) {
+		QuizSnapshot snapshot = current.get();
+		int[] ids = searchIndex.search(current::get, query, id -> {
+			QuestionDTO question = snapshot.getQuestion(id);
+			return question != null && (themeId < 1 || question.getThemeId() == themeId);
+		}, limit);
+		List<QuestionDTO> result = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			result.add(snapshot.getQuestion(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Finds themes with a title similar to the given one, tolerating typos.
+	 *
+	 * @param title         the title to compare with
+	 * @param minSimilarity the minimum Jaccard similarity of the title trigrams,
+	 *                      between 0 and 1
+	 * @param limit         the maximum number of results
+	 * @return a new list with the most similar themes first
+	 */
+	public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit) {
+		QuizSnapshot snapshot = current.get();
+		int[] ids = themeTitleIndex.find(current::get, title, minSimilarity, id -> snapshot.getTheme(id) != null,
+				limit);
+		List<ThemeDTO> result = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			result.add(snapshot.getTheme(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Finds questions with a title similar to the given one, tolerating typos.
+	 *
+	 * @param title         the title to compare with
+	 * @param themeId       only return questions of this theme; a value below
+	 *                      1 searches all themes
+	 * @param minSimilarity the minimum Jaccard similarity of the title trigrams,
+	 *                      between 0 and 1
+	 * @param limit         the maximum number of results
+	 * @return a new list with the most similar questions first
+	 */
+	public List<QuestionDTO> findSimilarQuestions(String title, int themeId, double minSimilarity, int limit) {
+		QuizSnapshot snapshot = current.get();
+		int[] ids = questionTitleIndex.find(current::get, title, minSimilarity, id -> {
+			QuestionDTO question = snapshot.getQuestion(id);
+			return question != null && (themeId < 1 || question.getThemeId() == themeId);
+		}, limit);
+		List<QuestionDTO> result = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			result.add(snapshot.getQuestion(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Finds stored questions with nearly the same text and answers as the given
+	 * one, e.g. copies that only differ in punctuation or answer order.
+	 *
+	 * @param question the question to check; its answers are taken from
+	 *                 {@link QuestionDTO#getAnswers()}, or from the repository if
+	 *                 it has none
+	 * @return a new list with the duplicates, most similar first; never
+	 *         contains the question itself
+	 */
+	public List<QuestionDTO> findDuplicatesOf(QuestionDTO question) {
+		QuizSnapshot snapshot = current.get();
+		List<AnswerDTO> answers = question.getAnswers() != null ? question.getAnswers()
+				: snapshot.getAnswersFor(question.getId());
+		int[] ids = duplicateIndex.findDuplicatesOf(current::get, question.getText(), answers, question.getId());
+		List<QuestionDTO> result = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			QuestionDTO duplicate = snapshot.getQuestion(id);
+			if (duplicate != null) {
+				result.add(duplicate);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds all groups of questions with nearly the same text and answers. Each
+	 * group is reported under the theme of its oldest question.
+	 *
+	 * @return a new list of groups, ordered by theme and oldest question
+	 */
+	public List<DuplicateGroup> findDuplicateGroups() {
+		List<int[]> groups = duplicateIndex.findGroups(current::get);
+		QuizSnapshot snapshot = current.get();
+		List<DuplicateGroup> result = new ArrayList<>(groups.size());
+		for (int[] ids : groups) {
+			List<QuestionDTO> questions = new ArrayList<>(ids.length);
+			for (int id : ids) {
+				QuestionDTO question = snapshot.getQuestion(id);
+				if (question != null) {
+					questions.add(question);
+				}
+			}
+			if (questions.size() > 1) {
+				result.add(new DuplicateGroup(questions.get(0).getThemeId(), questions));
+			}
+		}
+		result.sort((a, b) -> a.getThemeId() != b.getThemeId() ? Integer.compare(a.getThemeId(), b.getThemeId())
+				: Integer.compare(a.getQuestions().get(0).getId(), b.getQuestions().get(0).getId()));
+		return result;
+	}
+
+	/** @see StatisticsAggregator#getQuestionTotals(java.util.function.Supplier, int, DateRange) */
+	public AnswerTotals getQuestionTotals(int questionId, DateRange range) {
+		return statistics.getQuestionTotals(current::get, questionId, range);
+	}
+
+	/** @see StatisticsAggregator#getThemeTotals(java.util.function.Supplier, int, DateRange) */
+	public AnswerTotals getThemeTotals(int themeId, DateRange range) {
+		return statistics.getThemeTotals(current::get, themeId, range);
+	}
+
+	/** @see StatisticsAggregator#getQuestionDurations(java.util.function.Supplier, int) */
+	public DurationHistogram getQuestionDurations(int questionId) {
+		return statistics.getQuestionDurations(current::get, questionId);
+	}
+
+	/** @see StatisticsAggregator#getThemeDurations(java.util.function.Supplier, int) */
+	public DurationHistogram getThemeDurations(int themeId) {
+		return statistics.getThemeDurations(current::get, themeId);
+	}
+
+	/** @see StatisticsAggregator#getTotals(java.util.function.Supplier, DateRange) */
+	public AnswerTotals getAnswerTotals(DateRange range) {
+		return statistics.getTotals(current::get, range);
+	}
+
+	/** @see StatisticsAggregator#getOptionCounts(java.util.function.Supplier, DateRange) */
+	public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+		return statistics.getOptionCounts(current::get, range);
+	}
+
+	/** @see StatisticsAggregator#getQuestionStatistics(java.util.function.Supplier, DateRange) */
+	public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+		return statistics.getQuestionStatistics(current::get, range);
+	}
+
+	/** @see StatisticsAggregator#getSeries(java.util.function.Supplier, int, DateRange, TrendSeries.Resolution) */
+	public TrendSeries getAnswerSeries(int themeId, DateRange range, TrendSeries.Resolution resolution) {
+		return statistics.getSeries(current::get, themeId, range, resolution);
+	}
+
+	/** @see StatisticsAggregator#recordResponse(java.util.function.Supplier, String, int, boolean) */
+	public AbilityEstimate recordResponse(String respondent, int questionId, boolean correct) {
+		return statistics.recordResponse(current::get, respondent, questionId, correct);
+	}
+
+	/** @see StatisticsAggregator#getAbility(String) */
+	public AbilityEstimate getAbility(String respondent) {
+		return statistics.getAbility(respondent);
+	}
+
+	/** @see StatisticsAggregator#getItemCalibration(java.util.function.Supplier, int) */
+	public ItemCalibration getItemCalibration(int questionId) {
+		return statistics.getItemCalibration(current::get, questionId);
+	}
+
+	/** @see StatisticsAggregator#getItemCalibrations(java.util.function.Supplier) */
+	public List<ItemCalibration> getItemCalibrations() {
+		return statistics.getItemCalibrations(current::get);
+	}
+
+	/** @see PlayerAggregates#forPlayer(int, java.util.function.Supplier) */
+	public PlayerStatistics getPlayerStatistics(int playerId) {
+		return playerStatistics.forPlayer(playerId, current::get);
+	}
+
+	/** @see Leaderboard#getPage(java.util.function.Supplier, int, Leaderboard.Ranking, int, int) */
+	public List<LeaderboardEntry> getLeaderboard(int themeId, Leaderboard.Ranking ranking, int offset, int limit) {
+		return leaderboard.getPage(current::get, themeId, ranking, offset, limit);
+	}
+
+	/** @see Leaderboard#getEntry(java.util.function.Supplier, int, int, Leaderboard.Ranking) */
+	public LeaderboardEntry getLeaderboardEntry(int playerId, int themeId, Leaderboard.Ranking ranking) {
+		return leaderboard.getEntry(current::get, playerId, themeId, ranking);
+	}
+
+	// --- Writing ---
+
+	/**
+	 * Applies several changes as one atomic step. Readers see either none or all
+	 * of them.
+	 *
+	 * @param changes the changes to apply to the transaction
+	 */
+	public void update(Consumer<Transaction> changes) {
+		synchronized (writeLock) {
+			Transaction tx = new Transaction(current.get());
+			changes.accept(tx);
+			QuizSnapshot next = tx.commit();
+			current.set(next);
+			if (tx.questionsReloaded) {
+				searchIndex.invalidate();
+				questionTitleIndex.invalidate();
+				duplicateIndex.invalidate();
+			} else if (!tx.touchedQuestions.isEmpty()) {
+				int[] touched = tx.touchedQuestions.toArray();
+				searchIndex.reindex(next, touched);
+				questionTitleIndex.reindex(next, touched);
+				duplicateIndex.reindex(next, touched);
+			}
+			if (tx.themesReloaded) {
+				themeTitleIndex.invalidate();
+			} else if (!tx.touchedThemes.isEmpty()) {
+				themeTitleIndex.reindex(next, tx.touchedThemes.toArray());
+			}
+			if (tx.questionsReloaded || tx.playerAnswersReloaded) {
+				statistics.invalidate();
+				playerStatistics.invalidate();
+				leaderboard.invalidate();
+			} else {
+				if (!tx.touchedQuestions.isEmpty()) {
+					int[] touched = tx.touchedQuestions.toArray();
+					statistics.reindex(next, touched);
+					playerStatistics.reindex(next, touched);
+					leaderboard.reindex(next, touched);
+				}
+				if (!tx.addedPlayerAnswers.isEmpty()) {
+					statistics.add(next, tx.addedPlayerAnswers);
+					playerStatistics.add(next, tx.addedPlayerAnswers);
+					leaderboard.add(next, tx.addedPlayerAnswers);
+				}
+			}
+		}
+	}
+
+	/** @see Transaction#loadThemes(Collection) */
+	public void loadThemes(Collection<ThemeDTO> all) {
+		update(tx -> tx.loadThemes(all));
+	}
+
+	/** @see Transaction#loadQuestions(Collection) */
+	public void loadQuestions(Collection<QuestionDTO> all) {
+		update(tx -> tx.loadQuestions(all));
+	}
+
+	/** @see Transaction#loadAnswers(Collection) */
+	public void loadAnswers(Collection<AnswerDTO> all) {
+		update(tx -> tx.loadAnswers(all));
+	}
+
+	/** @see Transaction#loadPlayerAnswers(Collection) */
+	public void loadPlayerAnswers(Collection<PlayerAnswerDTO> all) {
+		update(tx -> tx.loadPlayerAnswers(all));
+	}
+
+	/** @see Transaction#putTheme(ThemeDTO) */
+	public void putTheme(ThemeDTO theme) {
+		update(tx -> tx.putTheme(theme));
+	}
+
+	/** @see Transaction#removeTheme(int) */
+	public void removeTheme(int themeId) {
+		update(tx -> tx.removeTheme(themeId));
+	}
+
+	/** @see Transaction#putQuestion(QuestionDTO) */
+	public void putQuestion(QuestionDTO question) {
+		update(tx -> tx.putQuestion(question));
+	}
+
+	/** @see Transaction#removeQuestion(int) */
+	public void removeQuestion(int questionId) {
+		update(tx -> tx.removeQuestion(questionId));
+	}
+
+	/** @see Transaction#putAnswer(AnswerDTO) */
+	public void putAnswer(AnswerDTO answer) {
+		update(tx -> tx.putAnswer(answer));
+	}
+
+	/** @see Transaction#removeAnswer(int) */
+	public void removeAnswer(int answerId) {
+		update(tx -> tx.removeAnswer(answerId));
+	}
+
+	/** @see Transaction#replaceAnswersFor(int, Collection) */
+	public void replaceAnswersFor(int questionId, Collection<AnswerDTO> newAnswers) {
+		update(tx -> tx.replaceAnswersFor(questionId, newAnswers));
+	}
+
+	/** @see Transaction#loadPlayers(Collection) */
+	public void loadPlayers(Collection<PlayerDTO> all) {
+		update(tx -> tx.loadPlayers(all));
+	}
+
+	/** @see Transaction#putPlayer(PlayerDTO) */
+	public void putPlayer(PlayerDTO player) {
+		update(tx -> tx.putPlayer(player));
+	}
+
+	/** @see Transaction#addPlayerAnswer(PlayerAnswerDTO) */
+	public void addPlayerAnswer(PlayerAnswerDTO playerAnswer) {
+		update(tx -> tx.addPlayerAnswer(playerAnswer));
+	}
+
+	/** @see Transaction#clearPlayerAnswers() */
+	public void clearPlayerAnswers() {
+		update(Transaction::clearPlayerAnswers);
+	}
+
+	/**
+	 * A set of changes that is built on top of one snapshot and published as the
+	 * next one.
+	 * <p>
+	 * Maps and adjacency arrays are copied the first time the transaction changes
+	 * them. The copies share their pages with the base snapshot and only copy a
+	 * page when it is written, so saving one question costs a few pages and not
+	 * the whole bank.
+	 * </p>
+	 */
+	public static final class Transaction {
+
+		private final QuizSnapshot base;
+
+		private PagedIntMap<ThemeDTO> themes;
+		private PagedIntMap<QuestionDTO> questions;
+		private PagedIntMap<AnswerDTO> answers;
+		private PagedIntMap<PagedIntList> questionsByTheme;
+		private PagedIntMap<PagedIntList> answersByQuestion;
+		private PlayerAnswerLog playerAnswers;
+		private PagedIntMap<PlayerDTO> players;
+
+		/** Adjacency arrays created by this transaction, which may be changed in place. */
+		private final Set<PagedIntList> ownLists = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private boolean themesCopied;
+		private boolean questionsCopied;
+		private boolean answersCopied;
+		private boolean playersCopied;
+
+		/** Questions whose title, text or answers changed; for the search indexes. */
+		private final IntList touchedQuestions = new IntList();
+		private boolean questionsReloaded;
+		private final IntList touchedThemes = new IntList();
+		private boolean themesReloaded;
+		/** Player answers appended by this transaction; for the statistics. */
+		private final List<PlayerAnswerDTO> addedPlayerAnswers = new ArrayList<>();
+		private boolean playerAnswersReloaded;
+
+		private Transaction(QuizSnapshot base) {
+			this.base = base;
+			this.themes = base.themes;
+			this.questions = base.questions;
+			this.answers = base.answers;
+			this.questionsByTheme = base.questionsByTheme;
+			this.answersByQuestion = base.answersByQuestion;
+			this.playerAnswers = base.playerAnswers;
+			this.players = base.players;
+		}
+
+		private QuizSnapshot commit() {
+			return new QuizSnapshot(base.getVersion() + 1, themes, questions, answers, questionsByTheme,
+					answersByQuestion, playerAnswers, players);
+		}
+
+		private PagedIntMap<ThemeDTO> themes() {
+			if (!themesCopied) {
+				themes = new PagedIntMap<>(themes);
+				themesCopied = true;
+			}
+			return themes;
+		}
+
+		private PagedIntMap<QuestionDTO> questions() {
+			if (!questionsCopied) {
+				questions = new PagedIntMap<>(questions);
+				questionsByTheme = new PagedIntMap<>(questionsByTheme);
+				questionsCopied = true;
+			}
+			return questions;
+		}
+
+		private PagedIntMap<AnswerDTO> answers() {
+			if (!answersCopied) {
+				answers = new PagedIntMap<>(answers);
+				answersByQuestion = new PagedIntMap<>(answersByQuestion);
+				answersCopied = true;
+			}
+			return answers;
+		}
+
+		/**
+		 * Replaces all themes.
+		 *
+		 * @param all the themes read from the backend
+		 */
+		public void loadThemes(Collection<ThemeDTO> all) {
+			themes = new PagedIntMap<>();
+			themesCopied = true;
+			themesReloaded = true;
+			for (ThemeDTO theme : all) {
+				themes.put(theme.getId(), copyOf(theme));
+			}
+		}
+
+		/**
+		 * Replaces all questions and rebuilds the theme &rarr; questions index.
+		 *
+		 * @param all the questions read from the backend
+		 */
+		public void loadQuestions(Collection<QuestionDTO> all) {
+			questions = new PagedIntMap<>();
+			questionsByTheme = new PagedIntMap<>();
+			questionsCopied = true;
+			questionsReloaded = true;
+			for (QuestionDTO question : sortById(all)) {
+				questions.put(question.getId(), copyOf(question));
+				link(questionsByTheme, question.getThemeId(), question.getId());
+			}
+		}
+
+		/**
+		 * Replaces all answers and rebuilds the question &rarr; answers index.
+		 *
+		 * @param all the answers read from the backend
+		 */
+		public void loadAnswers(Collection<AnswerDTO> all) {
+			answers = new PagedIntMap<>();
+			answersByQuestion = new PagedIntMap<>();
+			answersCopied = true;
+			questionsReloaded = true;
+			for (AnswerDTO answer : sortById(all)) {
+				answers.put(answer.getId(), copyOf(answer));
+				link(answersByQuestion, answer.getQuestionId(), answer.getId());
+			}
+		}
+
+		/**
+		 * Replaces all player answers.
+		 *
+		 * @param all the player answers read from the backend
+		 */
+		public void loadPlayerAnswers(Collection<PlayerAnswerDTO> all) {
+			playerAnswers = PlayerAnswerLog.of(all);
+			playerAnswersReloaded = true;
+		}
+
+		/**
+		 * Replaces all player profiles.
+		 *
+		 * @param all the players read from the backend
+		 */
+		public void loadPlayers(Collection<PlayerDTO> all) {
+			players = new PagedIntMap<>();
+			playersCopied = true;
+			for (PlayerDTO player : all) {
+				players.put(player.getId(), copyOf(player));
+			}
+		}
+
+		/**
+		 * Inserts or replaces a player profile.
+		 *
+		 * @param player the player; its ID must already be assigned
+		 */
+		public void putPlayer(PlayerDTO player) {
+			if (!playersCopied) {
+				players = new PagedIntMap<>(players);
+				playersCopied = true;
+			}
+			players.put(player.getId(), copyOf(player));
+		}
+
+		/**
+		 * Inserts or replaces a theme.
+		 *
+		 * @param theme the theme; its ID must already be assigned
+		 */
+		public void putTheme(ThemeDTO theme) {
+			themes().put(theme.getId(), copyOf(theme));
+			touchedThemes.add(theme.getId());
+		}
+
+		/**
+		 * Removes a theme together with its questions and their answers.
+		 *
+		 * @param themeId the theme ID
+		 */
+		public void removeTheme(int themeId) {
+			themes().remove(themeId);
+			touchedThemes.add(themeId);
+			PagedIntList ids = questionsByTheme.get(themeId);
+			if (ids != null) {
+				questions();
+				questionsByTheme.remove(themeId);
+				ids.forEach(id -> {
+					questions.remove(id);
+					removeAnswersOf(id);
+					touchedQuestions.add(id);
+				});
+			}
+		}
+
+		/**
+		 * Inserts or replaces a question. If the question moved to another theme,
+		 * the theme index is updated accordingly. Answers are not touched.
+		 *
+		 * @param question the question; its ID must already be assigned
+		 */
+		public void putQuestion(QuestionDTO question) {
+			QuestionDTO old = questions().put(question.getId(), copyOf(question));
+			touchedQuestions.add(question.getId());
+			if (old == null) {
+				link(questionsByTheme, question.getThemeId(), question.getId());
+			} else if (old.getThemeId() != question.getThemeId()) {
+				unlink(questionsByTheme, old.getThemeId(), question.getId());
+				link(questionsByTheme, question.getThemeId(), question.getId());
+			}
+		}
+
+		/**
+		 * Removes a question together with its answers.
+		 *
+		 * @param questionId the question ID
+		 */
+		public void removeQuestion(int questionId) {
+			QuestionDTO old = questions().remove(questionId);
+			touchedQuestions.add(questionId);
+			if (old != null) {
+				unlink(questionsByTheme, old.getThemeId(), questionId);
+			}
+			removeAnswersOf(questionId);
+		}
+
+		/**
+		 * Inserts or replaces a single answer.
+		 *
+		 * @param answer the answer; its ID must already be assigned
+		 */
+		public void putAnswer(AnswerDTO answer) {
+			AnswerDTO old = answers().put(answer.getId(), copyOf(answer));
+			touchedQuestions.add(answer.getQuestionId());
+			if (old == null) {
+				link(answersByQuestion, answer.getQuestionId(), answer.getId());
+			} else if (old.getQuestionId() != answer.getQuestionId()) {
+				unlink(answersByQuestion, old.getQuestionId(), answer.getId());
+				link(answersByQuestion, answer.getQuestionId(), answer.getId());
+				touchedQuestions.add(old.getQuestionId());
+			}
+		}
+
+		/**
+		 * Removes a single answer.
+		 *
+		 * @param answerId the answer ID
+		 */
+		public void removeAnswer(int answerId) {
+			AnswerDTO old = answers().remove(answerId);
+			if (old != null) {
+				unlink(answersByQuestion, old.getQuestionId(), answerId);
+				touchedQuestions.add(old.getQuestionId());
+			}
+		}
+
+		/**
+		 * Replaces all answers of a question.
+		 *
+		 * @param questionId the question ID
+		 * @param newAnswers the new answers, or {@code null} for none; their IDs
+		 *                   must already be assigned
+		 */
+		public void replaceAnswersFor(int questionId, Collection<AnswerDTO> newAnswers) {
+			removeAnswersOf(questionId);
+			touchedQuestions.add(questionId);
+			if (newAnswers != null) {
+				answers();
+				for (AnswerDTO answer : newAnswers) {
+					answers.put(answer.getId(), copyOf(answer));
+					link(answersByQuestion, questionId, answer.getId());
+				}
+			}
+		}
+
+		/**
+		 * Appends a player answer.
+		 *
+		 * @param playerAnswer the saved player answer
+		 */
+		public void addPlayerAnswer(PlayerAnswerDTO playerAnswer) {
+			playerAnswers = playerAnswers.append(playerAnswer);
+			addedPlayerAnswers.add(playerAnswer);
+		}
+
+		/**
+		 * Removes all player answers.
+		 */
+		public void clearPlayerAnswers() {
+			playerAnswers = PlayerAnswerLog.EMPTY;
+			playerAnswersReloaded = true;
+		}
+
+		private void removeAnswersOf(int questionId) {
+			if (answersByQuestion.get(questionId) == null) {
+				return;
+			}
+			answers();
+			answersByQuestion.remove(questionId).forEach(answers::remove);
+		}
+
+		private void link(PagedIntMap<PagedIntList> index, int key, int id) {
+			PagedIntList ids = index.get(key);
+			if (ids == null) {
+				ids = new PagedIntList();
+				ownLists.add(ids);
+				index.put(key, ids);
+			} else if (!ownLists.contains(ids)) {
+				ids = new PagedIntList(ids);
+				ownLists.add(ids);
+				index.put(key, ids);
+			}
+			ids.add(id);
+		}
+
+		private void unlink(PagedIntMap<PagedIntList> index, int key, int id) {
+			PagedIntList ids = index.get(key);
+			if (ids == null) {
+				return;
+			}
+			if (!ownLists.contains(ids)) {
+				ids = new PagedIntList(ids);
+				ownLists.add(ids);
+				index.put(key, ids);
+			}
+			ids.removeValue(id);
+			if (ids.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	// --- Defensive copies ---
+
+	private static ThemeDTO copyOf(ThemeDTO theme) {
+		ThemeDTO copy = new ThemeDTO();
+		copy.setId(theme.getId());
+		copy.setTitle(theme.getTitle());
+		copy.setText(theme.getText());
+		return copy;
+	}
+
+	private static QuestionDTO copyOf(QuestionDTO question) {
+		// answers live in the answer index, not inside the question
+		QuestionDTO copy = new QuestionDTO(question.getId());
+		copy.setTitle(question.getTitle());
+		copy.setText(question.getText());
+		copy.setThemeId(question.getThemeId());
+		return copy;
+	}
+
+	private static AnswerDTO copyOf(AnswerDTO answer) {
+		AnswerDTO copy = new AnswerDTO(answer.getId());
+		copy.setText(answer.getText());
+		copy.setCorrect(answer.isCorrect());
+		copy.setQuestionId(answer.getQuestionId());
+		return copy;
+	}
+
+	private static PlayerDTO copyOf(PlayerDTO player) {
+		return new PlayerDTO(player.getId(), player.getName());
+	}
+
+	private static <T extends DataTransportObject> List<T> sortById(Collection<T> all) {
+		List<T> sorted = new ArrayList<>(all);
+		sorted.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+		return sorted;
+	}
+}
@@ -0,0 +1,243 @@
+package bussinesLogic.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+
+/**
+ * Immutable state of a {@link QuizRepository} at one version.
+ * <p>
+ * A snapshot is never modified after it has been published, so it can be read
+ * from any thread without locking. Writers build a new snapshot and swap it in;
+ * readers that still hold the old one keep seeing a consistent state.
+ * </p>
+ * <p>
+ * Consecutive snapshots share the pages of their maps and adjacency arrays
+ * that did not change, see {@link PagedIntMap} and {@link PagedIntList}.
+ * </p>
+ * <p>
+ * The DTOs handed out by a snapshot are shared with other readers and must be
+ * treated as read-only. To change an entity, copy it, modify the copy and save
+ * it through the data manager.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class QuizSnapshot {
+
+	static final QuizSnapshot EMPTY = new QuizSnapshot(0, new PagedIntMap<>(), new PagedIntMap<>(),
+			new PagedIntMap<>(), new PagedIntMap<>(), new PagedIntMap<>(), PlayerAnswerLog.EMPTY,
+			new PagedIntMap<>());
+
+	private final long version;
+
+	final PagedIntMap<ThemeDTO> themes;
+	final PagedIntMap<QuestionDTO> questions;
+	final PagedIntMap<AnswerDTO> answers;
+
+	/** Theme ID &rarr; IDs of its questions, in insertion order. */
+	final PagedIntMap<PagedIntList> questionsByTheme;
+
+	/** Question ID &rarr; IDs of its answers, in insertion order. */
+	final PagedIntMap<PagedIntList> answersByQuestion;
+
+	final PlayerAnswerLog playerAnswers;
+
+	final PagedIntMap<PlayerDTO> players;
+
+	/** Sorted views, built on first use. Building twice is harmless. */
+	private volatile List<ThemeDTO> themeList;
+	private volatile List<QuestionDTO> questionList;
+	private volatile List<AnswerDTO> answerList;
+	private volatile List<PlayerDTO> playerList;
+
+	QuizSnapshot(long version, PagedIntMap<ThemeDTO> themes, PagedIntMap<QuestionDTO> questions,
+			PagedIntMap<AnswerDTO> answers, PagedIntMap<PagedIntList> questionsByTheme,
+			PagedIntMap<PagedIntList> answersByQuestion, PlayerAnswerLog playerAnswers,
+			PagedIntMap<PlayerDTO> players) {
+		this.version = version;
+		this.themes = themes;
+		this.questions = questions;
+		this.answers = answers;
+		this.questionsByTheme = questionsByTheme;
+		this.answersByQuestion = answersByQuestion;
+		this.playerAnswers = playerAnswers;
+		this.players = players;
+	}
+
+	/**
+	 * Returns the version of this snapshot. Every published change increases it.
+	 *
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @param id the theme ID
+	 * @return the theme, or {@code null} if not found
+	 */
+	public ThemeDTO getTheme(int id) {
+		return themes.get(id);
+	}
+
+	/**
+	 * @param id the question ID
+	 * @return the question, or {@code null} if not found
+	 */
+	public QuestionDTO getQuestion(int id) {
+		return questions.get(id);
+	}
+
+	/**
+	 * @param id the answer ID
+	 * @return the answer, or {@code null} if not found
+	 */
+	public AnswerDTO getAnswer(int id) {
+		return answers.get(id);
+	}
+
+	/**
+	 * @param id the player ID
+	 * @return the player profile, or {@code null} if not found
+	 */
+	public PlayerDTO getPlayer(int id) {
+		return players.get(id);
+	}
+
+	/** @return all themes ordered by ID; the list is unmodifiable */
+	public List<ThemeDTO> getAllThemes() {
+		List<ThemeDTO> list = themeList;
+		if (list == null) {
+			themeList = list = valuesById(themes);
+		}
+		return list;
+	}
+
+	/** @return all questions ordered by ID; the list is unmodifiable */
+	public List<QuestionDTO> getAllQuestions() {
+		List<QuestionDTO> list = questionList;
+		if (list == null) {
+			questionList = list = valuesById(questions);
+		}
+		return list;
+	}
+
+	/** @return all answers ordered by ID; the list is unmodifiable */
+	public List<AnswerDTO> getAllAnswers() {
+		List<AnswerDTO> list = answerList;
+		if (list == null) {
+			answerList = list = valuesById(answers);
+		}
+		return list;
+	}
+
+	/** @return all player profiles ordered by ID; the list is unmodifiable */
+	public List<PlayerDTO> getAllPlayers() {
+		List<PlayerDTO> list = playerList;
+		if (list == null) {
+			playerList = list = valuesById(players);
+		}
+		return list;
+	}
+
+	/**
+	 * @return all player answers in the order they were saved; the list is
+	 *         unmodifiable and creates a new DTO per access
+	 */
+	public List<PlayerAnswerDTO> getAllPlayerAnswers() {
+		return playerAnswers;
+	}
+
+	/** @return the columns of all player answers, for scans over the history */
+	public PlayerAnswerLog getPlayerAnswerLog() {
+		return playerAnswers;
+	}
+
+	/**
+	 * Returns the questions of a theme.
+	 *
+	 * @param themeId the theme ID
+	 * @return a new list with the theme's questions, empty if there are none
+	 */
+	public List<QuestionDTO> getQuestionsFor(int themeId) {
+		return resolve(questionsByTheme.get(themeId), questions);
+	}
+
+	/**
+	 * Returns the answers of a question.
+	 *
+	 * @param questionId the question ID
+	 * @return a new list with the question's answers, empty if there are none
+	 */
+	public List<AnswerDTO> getAnswersFor(int questionId) {
+		return resolve(answersByQuestion.get(questionId), answers);
+	}
+
+	/**
+	 * Returns the number of questions of a theme without materializing them.
+	 *
+	 * @param themeId the theme ID
+	 * @return the number of questions
+	 */
+	public int countQuestionsFor(int themeId) {
+		PagedIntList ids = questionsByTheme.get(themeId);
+		return ids == null ? 0 : ids.size();
+	}
+
+	/**
+	 * Returns a cheap fingerprint of the stored data: for themes, questions,
+	 * answers, player answers and players (in this order) the number of rows and
+	 * the highest ID. Two stores with equal stamps are considered in sync.
+	 * <p>
+	 * The stamp detects inserts and deletes, but not changes of existing rows.
+	 * </p>
+	 *
+	 * @return ten values: count and highest ID per entity type
+	 */
+	public long[] getStamp() {
+		List<ThemeDTO> allThemes = getAllThemes();
+		List<QuestionDTO> allQuestions = getAllQuestions();
+		List<AnswerDTO> allAnswers = getAllAnswers();
+		List<PlayerDTO> allPlayers = getAllPlayers();
+		int maxPlayerAnswerId = 0;
+		for (int i = 0; i < playerAnswers.size(); i++) {
+			maxPlayerAnswerId = Math.max(maxPlayerAnswerId, playerAnswers.idAt(i));
+		}
+		return new long[] { allThemes.size(), allThemes.isEmpty() ? 0 : allThemes.get(allThemes.size() - 1).getId(),
+				allQuestions.size(), allQuestions.isEmpty() ? 0 : allQuestions.get(allQuestions.size() - 1).getId(),
+				allAnswers.size(), allAnswers.isEmpty() ? 0 : allAnswers.get(allAnswers.size() - 1).getId(),
+				playerAnswers.size(), maxPlayerAnswerId,
+				allPlayers.size(), allPlayers.isEmpty() ? 0 : allPlayers.get(allPlayers.size() - 1).getId() };
+	}
+
+	private static <T> List<T> resolve(PagedIntList ids, PagedIntMap<T> map) {
+		if (ids == null) {
+			return new ArrayList<>();
+		}
+		List<T> result = new ArrayList<>(ids.size());
+		ids.forEach(id -> {
+			T value = map.get(id);
+			if (value != null) {
+				result.add(value);
+			}
+		});
+		return result;
+	}
+
+	private static <T> List<T> valuesById(PagedIntMap<T> map) {
+		int[] ids = map.sortedKeys();
+		List<T> result = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			result.add(map.get(id));
+		}
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -0,0 +1,36 @@
+package bussinesLogic.search;
+
+import java.util.Collections;
+import java.util.List;
+
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Questions with (nearly) the same text and answers.
+ *
+ * @author DejanKrstovski
+ */
+public final class DuplicateGroup {
+
+	private final int themeId;
+	private final List<QuestionDTO> questions;
+
+	/**
+	 * @param themeId   the theme the group is reported under: the theme of its
+	 *                  oldest question
+	 * @param questions the questions, oldest first
+	 */
+	public DuplicateGroup(int themeId, List<QuestionDTO> questions) {
+		this.themeId = themeId;
+		this.questions = Collections.unmodifiableList(questions);
+	}
+
+	public int getThemeId() {
+		return themeId;
+	}
+
+	/** @return the questions of the group, oldest first; other themes may be among them */
+	public List<QuestionDTO> getQuestions() {
+		return questions;
+	}
+}
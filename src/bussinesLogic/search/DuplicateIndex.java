@@ -0,0 +1,409 @@
+package bussinesLogic.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.repository.QuizSnapshot;
+import helpers.IntList;
+import helpers.IntObjectMap;
+
+/**
+ * Locality-sensitive hashing index that finds questions with (nearly) the same
+ * text and answers.
+ * <p>
+ * Every question is reduced to the {@value MinHasher#BANDS} band hashes of its
+ * MinHash signature (see {@link MinHasher}). Per band, the index keeps a sorted
+ * {@code long[]} of {@code bandHash << 32 | id}, so all questions sharing a band
+ * hash are neighbours. Questions sharing at least one band are candidates;
+ * a candidate is only reported after its exact shingle similarity has been
+ * checked against the current snapshot. Finding all duplicates of the bank is
+ * one pass over these arrays, not a comparison of all pairs.
+ * </p>
+ * <p>
+ * Changed questions are appended to a small unsorted buffer per band, which is
+ * merged into the sorted arrays when it is full. Entries of older versions of
+ * a question are not removed right away: an entry only counts if it matches
+ * the band hashes currently stored for its ID, and the merge drops it.
+ * </p>
+ * <p>
+ * Like the other indexes, it is updated incrementally and rebuilt lazily after
+ * it has been invalidated. <b>Thread-safety:</b> Lookups run in parallel under
+ * a read lock; updates take the write lock.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class DuplicateIndex {
+
+	/** Minimum shingle similarity of two questions to count as duplicates. */
+	public static final double MIN_SIMILARITY = 0.8;
+
+	/** Capacity of the buffer for changed questions, per band. */
+	private static final int MAX_PENDING = 4096;
+
+	private static final int BANDS = MinHasher.BANDS;
+
+	/** Per band: sorted {@code bandHash << 32 | id}. */
+	private final long[][] sorted = new long[BANDS][0];
+
+	/** Per band: entries of changed questions, not sorted yet. */
+	private final long[][] pending = new long[BANDS][MAX_PENDING];
+	private int pendingSize;
+
+	/** ID &rarr; its current band hashes. */
+	private final IntObjectMap<int[]> bandsById = new IntObjectMap<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Guarded by {@link #lock}. */
+	private boolean valid;
+
+	/** Marks the index as outdated; it is rebuilt on the next lookup. */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			valid = false;
+			Arrays.fill(sorted, new long[0]);
+			pendingSize = 0;
+			bandsById.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Re-reads the text and answers of the given questions from a snapshot.
+	 * Questions missing in the snapshot are removed. Does nothing while the index
+	 * is invalid.
+	 *
+	 * @param snapshot the snapshot with the changes applied
+	 * @param ids      the IDs of the created, changed or deleted questions
+	 */
+	public void reindex(QuizSnapshot snapshot, int[] ids) {
+		lock.writeLock().lock();
+		try {
+			if (!valid) {
+				return;
+			}
+			for (int id : ids) {
+				QuestionDTO question = snapshot.getQuestion(id);
+				if (question == null) {
+					bandsById.remove(id);
+					continue;
+				}
+				int[] bands = bandsOf(snapshot, question);
+				if (Arrays.equals(bands, bandsById.put(id, bands))) {
+					continue;
+				}
+				if (pendingSize == MAX_PENDING) {
+					mergePending();
+				}
+				for (int band = 0; band < BANDS; band++) {
+					pending[band][pendingSize] = entry(bands[band], id);
+				}
+				pendingSize++;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the stored questions with nearly the same text and answers as the
+	 * given content.
+	 *
+	 * @param current   supplies the current snapshot, used to rebuild the index
+	 *                  if it is invalid and to verify the candidates
+	 * @param text      the question text
+	 * @param answers   the answers, may be {@code null}
+	 * @param excludeId an ID that is never returned, e.g. the question itself
+	 * @return the IDs of the duplicates, most similar first
+	 */
+	public int[] findDuplicatesOf(Supplier<QuizSnapshot> current, String text, List<AnswerDTO> answers,
+			int excludeId) {
+		int[] shingles = MinHasher.shingles(MinHasher.content(text, answers));
+		if (shingles.length == 0) {
+			return new int[0];
+		}
+		int[] bands = MinHasher.bandHashes(MinHasher.signature(shingles));
+		ensureValid(current);
+		IntList candidates = new IntList();
+		lock.readLock().lock();
+		try {
+			for (int band = 0; band < BANDS; band++) {
+				long[] entries = sorted[band];
+				int i = lowerBound(entries, (long) bands[band] << 32);
+				for (; i < entries.length && hashOf(entries[i]) == bands[band]; i++) {
+					addIfCurrent(candidates, entries[i], band);
+				}
+				for (int j = 0; j < pendingSize; j++) {
+					if (hashOf(pending[band][j]) == bands[band]) {
+						addIfCurrent(candidates, pending[band][j], band);
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		QuizSnapshot snapshot = current.get();
+		int[] ids = candidates.toArray();
+		Arrays.sort(ids);
+		List<double[]> matches = new ArrayList<>();
+		for (int i = 0; i < ids.length; i++) {
+			if ((i > 0 && ids[i] == ids[i - 1]) || ids[i] == excludeId) {
+				continue;
+			}
+			QuestionDTO question = snapshot.getQuestion(ids[i]);
+			if (question == null) {
+				continue;
+			}
+			double similarity = MinHasher.jaccard(shingles, shinglesOf(snapshot, question));
+			if (similarity >= MIN_SIMILARITY) {
+				matches.add(new double[] { similarity, ids[i] });
+			}
+		}
+		matches.sort((a, b) -> a[0] != b[0] ? Double.compare(b[0], a[0]) : Double.compare(a[1], b[1]));
+		int[] result = new int[matches.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = (int) matches.get(i)[1];
+		}
+		return result;
+	}
+
+	/**
+	 * Finds all groups of duplicate questions in the bank.
+	 * <p>
+	 * Per band, every run of questions with the same band hash is checked
+	 * against its first member; verified pairs are joined into groups with a
+	 * union-find structure, so duplicates found through different bands end up
+	 * in the same group.
+	 * </p>
+	 *
+	 * @param current supplies the current snapshot
+	 * @return the groups as sorted ID arrays, ordered by their smallest ID
+	 */
+	public List<int[]> findGroups(Supplier<QuizSnapshot> current) {
+		ensureValid(current);
+		lock.writeLock().lock();
+		try {
+			mergePending();
+			// keep reading under the read lock, so lookups are not blocked
+			lock.readLock().lock();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		QuizSnapshot snapshot = current.get();
+		IntObjectMap<int[]> shingleCache = new IntObjectMap<>();
+		IntObjectMap<int[]> parents = new IntObjectMap<>();
+		try {
+			for (int band = 0; band < BANDS; band++) {
+				long[] entries = sorted[band];
+				for (int start = 0; start < entries.length;) {
+					int end = start + 1;
+					while (end < entries.length && hashOf(entries[end]) == hashOf(entries[start])) {
+						end++;
+					}
+					if (end - start > 1) {
+						joinRun(snapshot, entries, start, end, band, shingleCache, parents);
+					}
+					start = end;
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		IntObjectMap<IntList> groups = new IntObjectMap<>();
+		for (int id : parents.sortedKeys()) {
+			int root = find(parents, id);
+			IntList members = groups.get(root);
+			if (members == null) {
+				members = new IntList();
+				groups.put(root, members);
+			}
+			members.add(id);
+		}
+		List<int[]> result = new ArrayList<>();
+		groups.forEachValue(members -> {
+			if (members.size() > 1) {
+				result.add(members.toArray());
+			}
+		});
+		result.sort((a, b) -> Integer.compare(a[0], b[0]));
+		return result;
+	}
+
+	/** Verifies the members of one run against its first member. Caller holds the read lock. */
+	private void joinRun(QuizSnapshot snapshot, long[] entries, int start, int end, int band,
+			IntObjectMap<int[]> shingleCache, IntObjectMap<int[]> parents) {
+		int first = -1;
+		int[] firstShingles = null;
+		for (int i = start; i < end; i++) {
+			int id = idOf(entries[i]);
+			int[] bands = bandsById.get(id);
+			if (bands == null || bands[band] != hashOf(entries[i]) || id == first) {
+				continue;
+			}
+			int[] shingles = shingleCache.get(id);
+			if (shingles == null) {
+				QuestionDTO question = snapshot.getQuestion(id);
+				if (question == null) {
+					continue;
+				}
+				shingles = shinglesOf(snapshot, question);
+				shingleCache.put(id, shingles);
+			}
+			if (shingles.length == 0) {
+				continue;
+			}
+			if (first < 0) {
+				first = id;
+				firstShingles = shingles;
+			} else if (find(parents, first) != find(parents, id)
+					&& MinHasher.jaccard(firstShingles, shingles) >= MIN_SIMILARITY) {
+				union(parents, first, id);
+			}
+		}
+	}
+
+	/** Union-find lookup with path compression; unknown IDs are their own root. */
+	private static int find(IntObjectMap<int[]> parents, int id) {
+		int root = id;
+		int[] parent;
+		while ((parent = parents.get(root)) != null && parent[0] != root) {
+			root = parent[0];
+		}
+		while (id != root) {
+			parent = parents.get(id);
+			id = parent[0];
+			parent[0] = root;
+		}
+		return root;
+	}
+
+	private static void union(IntObjectMap<int[]> parents, int a, int b) {
+		int rootA = find(parents, a);
+		int rootB = find(parents, b);
+		for (int id : new int[] { a, b, rootA, rootB }) {
+			if (!parents.containsKey(id)) {
+				parents.put(id, new int[] { id });
+			}
+		}
+		if (rootA != rootB) {
+			parents.get(Math.max(rootA, rootB))[0] = Math.min(rootA, rootB);
+		}
+	}
+
+	private void ensureValid(Supplier<QuizSnapshot> current) {
+		lock.readLock().lock();
+		try {
+			if (valid) {
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		lock.writeLock().lock();
+		try {
+			if (!valid) {
+				build(current.get());
+				valid = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** Hashes all questions of a snapshot, in parallel. Caller holds the write lock. */
+	private void build(QuizSnapshot snapshot) {
+		List<QuestionDTO> questions = snapshot.getAllQuestions();
+		int[][] bands = new int[questions.size()][];
+		IntStream.range(0, bands.length).parallel()
+				.forEach(i -> bands[i] = bandsOf(snapshot, questions.get(i)));
+		for (int band = 0; band < BANDS; band++) {
+			long[] entries = new long[bands.length];
+			for (int i = 0; i < entries.length; i++) {
+				entries[i] = entry(bands[i][band], questions.get(i).getId());
+			}
+			Arrays.sort(entries);
+			sorted[band] = entries;
+		}
+		for (int i = 0; i < bands.length; i++) {
+			bandsById.put(questions.get(i).getId(), bands[i]);
+		}
+		pendingSize = 0;
+	}
+
+	/** Merges the buffer into the sorted arrays and drops outdated entries. Caller holds the write lock. */
+	private void mergePending() {
+		for (int band = 0; band < BANDS; band++) {
+			long[] added = Arrays.copyOf(pending[band], pendingSize);
+			Arrays.sort(added);
+			long[] old = sorted[band];
+			long[] merged = new long[old.length + added.length];
+			int n = 0;
+			int i = 0;
+			int j = 0;
+			while (i < old.length || j < added.length) {
+				long next = j == added.length || (i < old.length && old[i] <= added[j]) ? old[i++] : added[j++];
+				int[] bands = bandsById.get(idOf(next));
+				if (bands != null && bands[band] == hashOf(next) && (n == 0 || merged[n - 1] != next)) {
+					merged[n++] = next;
+				}
+			}
+			sorted[band] = n == merged.length ? merged : Arrays.copyOf(merged, n);
+		}
+		pendingSize = 0;
+	}
+
+	/** Adds the ID of an entry unless the entry is outdated. Caller holds the read lock. */
+	private void addIfCurrent(IntList candidates, long entry, int band) {
+		int[] bands = bandsById.get(idOf(entry));
+		if (bands != null && bands[band] == hashOf(entry)) {
+			candidates.add(idOf(entry));
+		}
+	}
+
+	private static int[] bandsOf(QuizSnapshot snapshot, QuestionDTO question) {
+		return MinHasher.bandHashes(MinHasher.signature(shinglesOf(snapshot, question)));
+	}
+
+	private static int[] shinglesOf(QuizSnapshot snapshot, QuestionDTO question) {
+		return MinHasher.shingles(MinHasher.content(question.getText(), snapshot.getAnswersFor(question.getId())));
+	}
+
+	private static long entry(int bandHash, int id) {
+		return ((long) bandHash << 32) | (id & 0xFFFFFFFFL);
+	}
+
+	private static int hashOf(long entry) {
+		return (int) (entry >> 32);
+	}
+
+	private static int idOf(long entry) {
+		return (int) entry;
+	}
+
+	/** @return the index of the first entry not less than {@code key} */
+	private static int lowerBound(long[] entries, long key) {
+		int low = 0;
+		int high = entries.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (entries[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
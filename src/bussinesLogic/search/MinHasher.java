@@ -0,0 +1,179 @@
+package bussinesLogic.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import bussinesLogic.AnswerDTO;
+
+/**
+ * Computes shingle sets and MinHash signatures of question contents.
+ * <p>
+ * The content of a question is its text followed by its answer texts in
+ * alphabetical order, normalized with {@link TextTokenizer#normalize(String)},
+ * so questions that only differ in case, punctuation, accents or the order of
+ * the answers get the same content. The content is split into overlapping
+ * character {@value #SHINGLE_LENGTH}-grams (shingles), which are hashed to
+ * {@code int}s.
+ * </p>
+ * <p>
+ * The signature holds, for each of {@value #SIGNATURE_LENGTH} hash functions,
+ * the minimum hash over all shingles. Two signatures agree in a position with
+ * probability equal to the Jaccard similarity of the shingle sets. For
+ * locality-sensitive hashing the signature is cut into {@value #BANDS} bands of
+ * {@value #ROWS} rows; questions that agree in a whole band become candidates.
+ * With these numbers, pairs with a similarity of 0.9 become candidates with a
+ * probability of 99%, pairs below 0.5 hardly ever.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class MinHasher {
+
+	static final int SHINGLE_LENGTH = 5;
+	static final int BANDS = 8;
+	static final int ROWS = 8;
+	static final int SIGNATURE_LENGTH = BANDS * ROWS;
+
+	/** Multipliers and offsets of the hash functions; fixed, so signatures are comparable. */
+	private static final long[] A = new long[SIGNATURE_LENGTH];
+	private static final long[] B = new long[SIGNATURE_LENGTH];
+
+	static {
+		Random random = new Random(0x5EED_CAFEL);
+		for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+			A[i] = random.nextLong() | 1;
+			B[i] = random.nextLong();
+		}
+	}
+
+	private MinHasher() {
+	}
+
+	/**
+	 * Returns the normalized content of a question.
+	 *
+	 * @param text    the question text
+	 * @param answers the answers, may be {@code null}
+	 * @return the normalized text and answers
+	 */
+	static String content(String text, List<AnswerDTO> answers) {
+		List<String> parts = new ArrayList<>();
+		if (answers != null) {
+			for (AnswerDTO answer : answers) {
+				parts.add(TextTokenizer.normalize(answer.getText()));
+			}
+			Collections.sort(parts);
+		}
+		parts.add(0, TextTokenizer.normalize(text));
+		return String.join(" ", parts).trim();
+	}
+
+	/**
+	 * Returns the hashed shingles of a content string.
+	 *
+	 * @param content the normalized content
+	 * @return the distinct shingle hashes, sorted; empty for empty content
+	 */
+	static int[] shingles(String content) {
+		if (content.isEmpty()) {
+			return new int[0];
+		}
+		int count = Math.max(1, content.length() - SHINGLE_LENGTH + 1);
+		int[] hashes = new int[count];
+		for (int i = 0; i < count; i++) {
+			int h = 0;
+			for (int k = i; k < Math.min(i + SHINGLE_LENGTH, content.length()); k++) {
+				h = 31 * h + content.charAt(k);
+			}
+			hashes[i] = mix(h);
+		}
+		Arrays.sort(hashes);
+		int distinct = 0;
+		for (int i = 0; i < hashes.length; i++) {
+			if (i == 0 || hashes[i] != hashes[i - 1]) {
+				hashes[distinct++] = hashes[i];
+			}
+		}
+		return Arrays.copyOf(hashes, distinct);
+	}
+
+	/**
+	 * Computes the MinHash signature of a shingle set.
+	 *
+	 * @param shingles the shingle hashes
+	 * @return {@value #SIGNATURE_LENGTH} minimum hashes
+	 */
+	static int[] signature(int[] shingles) {
+		int[] signature = new int[SIGNATURE_LENGTH];
+		Arrays.fill(signature, Integer.MAX_VALUE);
+		for (int shingle : shingles) {
+			long x = shingle & 0xFFFFFFFFL;
+			for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+				int h = (int) ((A[i] * x + B[i]) >>> 32);
+				if (h < signature[i]) {
+					signature[i] = h;
+				}
+			}
+		}
+		return signature;
+	}
+
+	/**
+	 * Condenses each band of a signature into one hash.
+	 *
+	 * @param signature the signature
+	 * @return {@value #BANDS} band hashes
+	 */
+	static int[] bandHashes(int[] signature) {
+		int[] bands = new int[BANDS];
+		for (int band = 0; band < BANDS; band++) {
+			int h = band;
+			for (int row = 0; row < ROWS; row++) {
+				h = h * 0x9E3779B1 + signature[band * ROWS + row];
+			}
+			bands[band] = mix(h);
+		}
+		return bands;
+	}
+
+	/**
+	 * Computes the exact Jaccard similarity of two shingle sets.
+	 *
+	 * @param a sorted distinct hashes
+	 * @param b sorted distinct hashes
+	 * @return the similarity between 0 and 1; 1 if both are empty
+	 */
+	static double jaccard(int[] a, int[] b) {
+		if (a.length == 0 && b.length == 0) {
+			return 1;
+		}
+		int i = 0;
+		int j = 0;
+		int shared = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] == b[j]) {
+				shared++;
+				i++;
+				j++;
+			} else if (a[i] < b[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return (double) shared / (a.length + b.length - shared);
+	}
+
+	/** Murmur3 finalizer; spreads the bits of a hash. */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+}
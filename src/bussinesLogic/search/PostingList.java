@@ -0,0 +1,94 @@
+package bussinesLogic.search;
+
+import java.util.Arrays;
+
+/**
+ * The IDs of the documents containing one term, as a sorted {@code int[]},
+ * with the weighted frequency of the term in each document in a parallel
+ * array.
+ * <p>
+ * New documents usually have the highest ID, so adding one is an append. The
+ * sorted order allows intersecting lists by binary search.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+final class PostingList {
+
+	/** The term, shared by all questions containing it. */
+	final String term;
+
+	private int[] ids = new int[2];
+	private short[] weights = new short[2];
+	private int size;
+
+	PostingList(String term) {
+		this.term = term;
+	}
+
+	/**
+	 * Adds a document or replaces its weight.
+	 *
+	 * @param id     the document ID
+	 * @param weight the weighted term frequency, at least 1
+	 */
+	void put(int id, int weight) {
+		short w = (short) Math.min(weight, Short.MAX_VALUE);
+		int index = size > 0 && id > ids[size - 1] ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+		if (index >= 0) {
+			weights[index] = w;
+			return;
+		}
+		index = -(index + 1);
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size << 1);
+			weights = Arrays.copyOf(weights, size << 1);
+		}
+		System.arraycopy(ids, index, ids, index + 1, size - index);
+		System.arraycopy(weights, index, weights, index + 1, size - index);
+		ids[index] = id;
+		weights[index] = w;
+		size++;
+	}
+
+	/**
+	 * Removes a document.
+	 *
+	 * @param id the document ID
+	 */
+	void remove(int id) {
+		int index = Arrays.binarySearch(ids, 0, size, id);
+		if (index >= 0) {
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+			size--;
+		}
+	}
+
+	/**
+	 * Finds a document, searching only from a given position on.
+	 *
+	 * @param id   the document ID
+	 * @param from the first position to search
+	 * @return the position, or a negative value as in
+	 *         {@link Arrays#binarySearch(int[], int, int, int)}
+	 */
+	int indexOf(int id, int from) {
+		return Arrays.binarySearch(ids, from, size, id);
+	}
+
+	int idAt(int index) {
+		return ids[index];
+	}
+
+	int weightAt(int index) {
+		return weights[index];
+	}
+
+	int size() {
+		return size;
+	}
+}
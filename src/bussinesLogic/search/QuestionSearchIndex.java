@@ -0,0 +1,255 @@
+package bussinesLogic.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.repository.QuizSnapshot;
+import helpers.IntObjectMap;
+
+/**
+ * In-memory inverted index over the title, text and answers of all questions.
+ * <p>
+ * Every term (see {@link TextTokenizer}) maps to a {@link PostingList}: the
+ * sorted IDs of the questions containing it. A query returns the questions
+ * that contain <i>all</i> query terms; the lists are intersected starting with
+ * the shortest one, so the cost depends on the rarest term, not on the size
+ * of the question bank. Hits are ranked with BM25 term weighting, where a term
+ * in the title counts {@value #TITLE_WEIGHT} times. Only the best
+ * {@code limit} hits are kept, in a bounded heap.
+ * </p>
+ * <p>
+ * The index is updated incrementally: {@link #reindex(QuizSnapshot, int[])}
+ * re-reads only the changed questions. After a bulk load the index is
+ * {@link #invalidate() invalidated} and rebuilt on the next query.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> Queries run in parallel under a read lock; updates
+ * take the write lock.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class QuestionSearchIndex {
+
+	/** Weight of a term occurrence in the question title. */
+	static final int TITLE_WEIGHT = 3;
+
+	/** BM25 term frequency saturation. */
+	private static final double K1 = 1.2;
+
+	private final Map<String, PostingList> postings = new HashMap<>();
+
+	/** Question ID &rarr; its distinct terms, to remove a question from the postings. */
+	private final IntObjectMap<String[]> termsByQuestion = new IntObjectMap<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Guarded by {@link #lock}. */
+	private boolean valid;
+
+	/** Marks the index as outdated; it is rebuilt on the next query. */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			valid = false;
+			postings.clear();
+			termsByQuestion.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Re-reads the given questions from a snapshot. Questions missing in the
+	 * snapshot are removed from the index. Does nothing while the index is
+	 * invalid.
+	 *
+	 * @param snapshot    the snapshot with the changes applied
+	 * @param questionIds the IDs of the created, changed or deleted questions
+	 */
+	public void reindex(QuizSnapshot snapshot, int[] questionIds) {
+		lock.writeLock().lock();
+		try {
+			if (valid) {
+				for (int id : questionIds) {
+					index(snapshot, id);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the questions containing all terms of a query.
+	 *
+	 * @param current supplies the current snapshot, used to rebuild the index
+	 *                if it is invalid
+	 * @param query   the search text
+	 * @param filter  accepts the question IDs that may be returned
+	 * @param limit   the maximum number of hits
+	 * @return the IDs of the best hits, best first
+	 */
+	public int[] search(Supplier<QuizSnapshot> current, String query, IntPredicate filter, int limit) {
+		List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+		if (terms.isEmpty() || limit < 1) {
+			return new int[0];
+		}
+		ensureValid(current);
+		lock.readLock().lock();
+		try {
+			return rank(terms, filter, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void ensureValid(Supplier<QuizSnapshot> current) {
+		lock.readLock().lock();
+		try {
+			if (valid) {
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		lock.writeLock().lock();
+		try {
+			if (!valid) {
+				QuizSnapshot snapshot = current.get();
+				for (QuestionDTO question : snapshot.getAllQuestions()) {
+					index(snapshot, question.getId());
+				}
+				valid = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** Caller holds the read lock. */
+	private int[] rank(List<String> terms, IntPredicate filter, int limit) {
+		List<PostingList> lists = new ArrayList<>(terms.size());
+		for (String term : terms) {
+			PostingList list = postings.get(term);
+			if (list == null) {
+				return new int[0];
+			}
+			lists.add(list);
+		}
+		lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+		int documents = termsByQuestion.size();
+		double[] idf = new double[lists.size()];
+		for (int j = 0; j < idf.length; j++) {
+			int df = lists.get(j).size();
+			idf[j] = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+		}
+
+		PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1);
+		int[] cursors = new int[lists.size()];
+		PostingList shortest = lists.get(0);
+		candidates: for (int i = 0; i < shortest.size(); i++) {
+			int id = shortest.idAt(i);
+			double score = idf[0] * saturate(shortest.weightAt(i));
+			for (int j = 1; j < lists.size(); j++) {
+				int index = lists.get(j).indexOf(id, cursors[j]);
+				if (index < 0) {
+					cursors[j] = -(index + 1);
+					continue candidates;
+				}
+				cursors[j] = index;
+				score += idf[j] * saturate(lists.get(j).weightAt(index));
+			}
+			if (!filter.test(id)) {
+				continue;
+			}
+			if (best.size() < limit) {
+				best.add(new Hit(id, score));
+			} else if (score > best.peek().score) {
+				best.poll();
+				best.add(new Hit(id, score));
+			}
+		}
+
+		List<Hit> hits = new ArrayList<>(best);
+		Collections.sort(hits, Collections.reverseOrder());
+		int[] ids = new int[hits.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = hits.get(i).id;
+		}
+		return ids;
+	}
+
+	private static double saturate(int weight) {
+		return weight * (K1 + 1) / (weight + K1);
+	}
+
+	/** Replaces the postings of one question. Caller holds the write lock. */
+	private void index(QuizSnapshot snapshot, int questionId) {
+		String[] oldTerms = termsByQuestion.remove(questionId);
+		if (oldTerms != null) {
+			for (String term : oldTerms) {
+				PostingList list = postings.get(term);
+				list.remove(questionId);
+				if (list.size() == 0) {
+					postings.remove(term);
+				}
+			}
+		}
+		QuestionDTO question = snapshot.getQuestion(questionId);
+		if (question == null) {
+			return;
+		}
+		Map<String, Integer> weights = new HashMap<>();
+		for (String term : TextTokenizer.tokenize(question.getTitle())) {
+			weights.merge(term, TITLE_WEIGHT, Integer::sum);
+		}
+		for (String term : TextTokenizer.tokenize(question.getText())) {
+			weights.merge(term, 1, Integer::sum);
+		}
+		for (AnswerDTO answer : snapshot.getAnswersFor(questionId)) {
+			for (String term : TextTokenizer.tokenize(answer.getText())) {
+				weights.merge(term, 1, Integer::sum);
+			}
+		}
+		String[] terms = new String[weights.size()];
+		int i = 0;
+		for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+			PostingList list = postings.computeIfAbsent(entry.getKey(), PostingList::new);
+			list.put(questionId, entry.getValue());
+			// keep the list's copy of the term, so equal terms of many questions share one string
+			terms[i++] = list.term;
+		}
+		termsByQuestion.put(questionId, terms);
+	}
+
+	/** A scored question; orders by score, and by lower ID among equal scores. */
+	private static final class Hit implements Comparable<Hit> {
+
+		final int id;
+		final double score;
+
+		Hit(int id, double score) {
+			this.id = id;
+			this.score = score;
+		}
+
+		@Override
+		public int compareTo(Hit other) {
+			int byScore = Double.compare(score, other.score);
+			return byScore != 0 ? byScore : Integer.compare(other.id, id);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package bussinesLogic.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits German and English text into normalized search terms.
+ * <p>
+ * Text is lower-cased and split at every character that is neither a letter
+ * nor a digit. Umlauts are folded ({@code ä} &rarr; {@code a}, {@code ß}
+ * &rarr; {@code ss}) and other accents removed, so "Müller" and "Muller" find
+ * each other. Single letters and the most common German and English stop words
+ * are dropped; numbers are always kept.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class TextTokenizer {
+
+	private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+			// German
+			"der", "die", "das", "den", "dem", "des", "ein", "eine", "einer", "eines", "einem", "einen", "und",
+			"oder", "ist", "sind", "war", "im", "in", "zu", "zum", "zur", "von", "vom", "mit", "auf", "fur", "als",
+			"an", "am", "es", "er", "sie", "wir", "ihr", "ich", "du", "nicht", "auch", "bei", "aus", "wie", "was",
+			"welche", "welcher", "welches", "wird", "werden", "hat", "haben", "sich", "so", "nach", "uber", "um",
+			// English
+			"the", "a", "an", "and", "or", "is", "are", "was", "were", "of", "to", "in", "on", "at", "for", "with",
+			"by", "from", "as", "it", "its", "be", "this", "that", "which", "what", "who", "how", "do", "does",
+			"not", "no", "if"));
+
+	private TextTokenizer() {
+	}
+
+	/**
+	 * Splits a text into search terms, in the order they occur. Repeated terms
+	 * are kept.
+	 *
+	 * @param text the text, may be {@code null}
+	 * @return the terms, empty if there are none
+	 */
+	public static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		for (String word : words(text)) {
+			boolean number = Character.isDigit(word.charAt(0));
+			if (number || (word.length() > 1 && !STOP_WORDS.contains(word))) {
+				terms.add(word);
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Normalizes a whole string the same way as a single term, without
+	 * splitting it (e.g. for comparing titles).
+	 *
+	 * @param text the text, may be {@code null}
+	 * @return the lower-cased and folded text with runs of other characters
+	 *         replaced by a single space
+	 */
+	public static String normalize(String text) {
+		return String.join(" ", words(text));
+	}
+
+	/** Splits at non-alphanumeric characters and folds, without dropping anything. */
+	static List<String> words(String text) {
+		List<String> words = new ArrayList<>();
+		if (text == null) {
+			return words;
+		}
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i <= text.length(); i++) {
+			char c = i < text.length() ? text.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(c)) {
+				appendFolded(word, Character.toLowerCase(c));
+			} else if (word.length() > 0) {
+				words.add(word.toString());
+				word.setLength(0);
+			}
+		}
+		return words;
+	}
+
+	private static void appendFolded(StringBuilder sb, char c) {
+		switch (c) {
+		case 'ä': case 'à': case 'á': case 'â': case 'ã': case 'å':
+			sb.append('a');
+			break;
+		case 'ö': case 'ò': case 'ó': case 'ô': case 'õ': case 'ø':
+			sb.append('o');
+			break;
+		case 'ü': case 'ù': case 'ú': case 'û':
+			sb.append('u');
+			break;
+		case 'é': case 'è': case 'ê': case 'ë':
+			sb.append('e');
+			break;
+		case 'í': case 'ì': case 'î': case 'ï':
+			sb.append('i');
+			break;
+		case 'ç':
+			sb.append('c');
+			break;
+		case 'ñ':
+			sb.append('n');
+			break;
+		case 'ß':
+			sb.append("ss");
+			break;
+		default:
+			sb.append(c);
+		}
+	}
+}
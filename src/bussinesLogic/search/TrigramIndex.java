@@ -0,0 +1,293 @@
+package bussinesLogic.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import bussinesLogic.DataTransportObject;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+import bussinesLogic.repository.QuizSnapshot;
+import helpers.IntObjectMap;
+
+/**
+ * Trigram index over titles for typo-tolerant lookups and near-duplicate
+ * detection.
+ * <p>
+ * Each title is normalized (see {@link TextTokenizer#normalize(String)}) and
+ * split into the set of its trigrams; every word is padded first, so
+ * {@code "rom"} yields {@code "  r", " ro", "rom", "om "}. Titles are ranked by
+ * the Jaccard similarity of their trigram sets.
+ * </p>
+ * <p>
+ * Candidates are found through the posting lists, never by comparing the query
+ * with every title: a title reaching similarity {@code s} shares at least
+ * {@code ceil(s * q)} of the {@code q} query trigrams, so it must occur in one
+ * of the {@code q - ceil(s * q) + 1} shortest lists. Only these lists are
+ * scanned. Candidates whose length or partial count rules out the similarity
+ * are dropped; for the others the shared count is completed by binary search
+ * in the longer lists.
+ * </p>
+ * <p>
+ * Like {@link QuestionSearchIndex}, the index is updated incrementally and
+ * rebuilt lazily after it has been invalidated. <b>Thread-safety:</b> Lookups
+ * run in parallel under a read lock; updates take the write lock.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class TrigramIndex {
+
+	private final Function<QuizSnapshot, List<? extends DataTransportObject>> all;
+	private final TitleLookup titles;
+
+	private final Map<String, PostingList> postings = new HashMap<>();
+
+	/** ID &rarr; its distinct trigrams. */
+	private final IntObjectMap<String[]> trigramsById = new IntObjectMap<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Guarded by {@link #lock}. */
+	private boolean valid;
+
+	/** Reads the title of one entity from a snapshot. */
+	private interface TitleLookup {
+		String titleOf(QuizSnapshot snapshot, int id);
+	}
+
+	private TrigramIndex(Function<QuizSnapshot, List<? extends DataTransportObject>> all, TitleLookup titles) {
+		this.all = all;
+		this.titles = titles;
+	}
+
+	/** @return an empty index over theme titles */
+	public static TrigramIndex forThemes() {
+		return new TrigramIndex(QuizSnapshot::getAllThemes, (snapshot, id) -> {
+			ThemeDTO theme = snapshot.getTheme(id);
+			return theme == null ? null : theme.getTitle();
+		});
+	}
+
+	/** @return an empty index over question titles */
+	public static TrigramIndex forQuestions() {
+		return new TrigramIndex(QuizSnapshot::getAllQuestions, (snapshot, id) -> {
+			QuestionDTO question = snapshot.getQuestion(id);
+			return question == null ? null : question.getTitle();
+		});
+	}
+
+	/**
+	 * Splits a title into its distinct trigrams.
+	 *
+	 * @param title the title, may be {@code null}
+	 * @return the trigrams in order of first occurrence
+	 */
+	static Set<String> trigrams(String title) {
+		Set<String> result = new LinkedHashSet<>();
+		for (String word : TextTokenizer.words(title)) {
+			String padded = "  " + word + " ";
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				result.add(padded.substring(i, i + 3));
+			}
+		}
+		return result;
+	}
+
+	/** Marks the index as outdated; it is rebuilt on the next lookup. */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			valid = false;
+			postings.clear();
+			trigramsById.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Re-reads the titles of the given entities from a snapshot. Entities
+	 * missing in the snapshot are removed. Does nothing while the index is
+	 * invalid.
+	 *
+	 * @param snapshot the snapshot with the changes applied
+	 * @param ids      the IDs of the created, changed or deleted entities
+	 */
+	public void reindex(QuizSnapshot snapshot, int[] ids) {
+		lock.writeLock().lock();
+		try {
+			if (valid) {
+				for (int id : ids) {
+					index(id, titles.titleOf(snapshot, id));
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the titles most similar to the given one.
+	 *
+	 * @param current       supplies the current snapshot, used to rebuild the
+	 *                      index if it is invalid
+	 * @param title         the title to compare with
+	 * @param minSimilarity the minimum Jaccard similarity, greater than 0 and
+	 *                      at most 1
+	 * @param filter        accepts the IDs that may be returned
+	 * @param limit         the maximum number of results
+	 * @return the IDs of the most similar titles, most similar first
+	 */
+	public int[] find(Supplier<QuizSnapshot> current, String title, double minSimilarity, IntPredicate filter,
+			int limit) {
+		Set<String> query = trigrams(title);
+		if (query.isEmpty() || limit < 1) {
+			return new int[0];
+		}
+		ensureValid(current);
+		lock.readLock().lock();
+		try {
+			return rank(query, Math.max(minSimilarity, Double.MIN_VALUE), filter, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void ensureValid(Supplier<QuizSnapshot> current) {
+		lock.readLock().lock();
+		try {
+			if (valid) {
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		lock.writeLock().lock();
+		try {
+			if (!valid) {
+				QuizSnapshot snapshot = current.get();
+				for (DataTransportObject entity : all.apply(snapshot)) {
+					index(entity.getId(), titles.titleOf(snapshot, entity.getId()));
+				}
+				valid = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** Caller holds the read lock. */
+	private int[] rank(Set<String> query, double minSimilarity, IntPredicate filter, int limit) {
+		int q = query.size();
+		int minShared = (int) Math.ceil(minSimilarity * q - 1e-9);
+		List<PostingList> lists = new ArrayList<>(q);
+		int missing = 0;
+		for (String trigram : query) {
+			PostingList list = postings.get(trigram);
+			if (list == null) {
+				missing++;
+			} else {
+				lists.add(list);
+			}
+		}
+		lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+		// trigrams nobody has count as the shortest lists
+		int prefix = q - minShared + 1 - missing;
+		if (prefix <= 0 || lists.isEmpty()) {
+			return new int[0];
+		}
+		prefix = Math.min(prefix, lists.size());
+
+		// candidate generation: merge the shortest lists; equal IDs end up next to each other
+		int total = 0;
+		for (int j = 0; j < prefix; j++) {
+			total += lists.get(j).size();
+		}
+		int[] merged = new int[total];
+		int n = 0;
+		for (int j = 0; j < prefix; j++) {
+			PostingList list = lists.get(j);
+			for (int i = 0; i < list.size(); i++) {
+				merged[n++] = list.idAt(i);
+			}
+		}
+		Arrays.sort(merged);
+
+		List<double[]> matches = new ArrayList<>();
+		int[] cursors = new int[lists.size()];
+		for (int start = 0; start < total;) {
+			int id = merged[start];
+			int end = start + 1;
+			while (end < total && merged[end] == id) {
+				end++;
+			}
+			int count = end - start;
+			start = end;
+			int c = trigramsById.get(id).length;
+			// length filter: the Jaccard similarity is at most min(q, c) / max(q, c)
+			if (Math.min(q, c) < minSimilarity * Math.max(q, c)) {
+				continue;
+			}
+			// s / (q + c - s) >= minSimilarity needs s >= minSimilarity * (q + c) / (1 + minSimilarity)
+			double required = minSimilarity * (q + c) / (1 + minSimilarity) - 1e-9;
+			if (count + lists.size() - prefix < required) {
+				continue;
+			}
+			for (int j = prefix; j < lists.size(); j++) {
+				int index = lists.get(j).indexOf(id, cursors[j]);
+				if (index >= 0) {
+					count++;
+					cursors[j] = index;
+				} else {
+					cursors[j] = -(index + 1);
+				}
+			}
+			double similarity = (double) count / (q + c - count);
+			if (similarity >= minSimilarity && filter.test(id)) {
+				matches.add(new double[] { similarity, id });
+			}
+		}
+		matches.sort((a, b) -> a[0] != b[0] ? Double.compare(b[0], a[0]) : Double.compare(a[1], b[1]));
+		int[] ids = new int[Math.min(limit, matches.size())];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = (int) matches.get(i)[1];
+		}
+		return ids;
+	}
+
+	/** Replaces the trigrams of one entity. Caller holds the write lock. */
+	private void index(int id, String title) {
+		String[] old = trigramsById.remove(id);
+		if (old != null) {
+			for (String trigram : old) {
+				PostingList list = postings.get(trigram);
+				list.remove(id);
+				if (list.size() == 0) {
+					postings.remove(trigram);
+				}
+			}
+		}
+		if (title == null) {
+			return;
+		}
+		Set<String> trigrams = trigrams(title);
+		String[] stored = new String[trigrams.size()];
+		int i = 0;
+		for (String trigram : trigrams) {
+			PostingList list = postings.computeIfAbsent(trigram, PostingList::new);
+			list.put(id, 1);
+			stored[i++] = list.term;
+		}
+		trigramsById.put(id, stored);
+	}
+}
@@ -1,15 +1,28 @@
 package bussinesLogic.serialization;
 
 import java.security.SecureRandom;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
+import bussinesLogic.Validator;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
 import gui.GuiConstants;
 import helpers.QuizDataInterface;
 import persistence.serialization.SManager;
@@ -78,29 +91,153 @@ public class QuizSManager implements QuizDataInterface{
 
     @Override
     public List<QuestionDTO> getQuestionsFor(ThemeDTO theme) {
-        return getAllQuestions().stream()
-                .filter(q -> q.getThemeId() == theme.getId())
-                .toList();
+        return sManager.getQuestionsFor(theme.getId());
+    }
+
+    @Override
+    public ThemeDTO getThemeById(int id) {
+        return sManager.getThemeById(id);
+    }
+
+    @Override
+    public List<QuestionDTO> searchQuestions(String query, ThemeDTO theme, int limit) {
+        return sManager.searchQuestions(query, theme == null ? -1 : theme.getId(), limit);
+    }
+
+    @Override
+    public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit) {
+        return sManager.findSimilarThemes(title, minSimilarity, limit);
+    }
+
+    @Override
+    public List<QuestionDTO> findSimilarQuestions(String title, ThemeDTO theme, double minSimilarity, int limit) {
+        return sManager.findSimilarQuestions(title, theme == null ? -1 : theme.getId(), minSimilarity, limit);
+    }
+
+    @Override
+    public List<QuestionDTO> findDuplicatesOf(QuestionDTO question) {
+        return sManager.findDuplicatesOf(question);
+    }
+
+    @Override
+    public List<DuplicateGroup> findDuplicateGroups() {
+        return sManager.findDuplicateGroups();
+    }
+
+    @Override
+    public AnswerTotals getQuestionTotals(QuestionDTO question, DateRange range) {
+        return sManager.getQuestionTotals(question.getId(), range);
+    }
+
+    @Override
+    public AnswerTotals getThemeTotals(ThemeDTO theme, DateRange range) {
+        return sManager.getThemeTotals(theme.getId(), range);
+    }
+
+    @Override
+    public DurationHistogram getQuestionDurations(QuestionDTO question) {
+        return sManager.getQuestionDurations(question.getId());
+    }
+
+    @Override
+    public DurationHistogram getThemeDurations(ThemeDTO theme) {
+        return sManager.getThemeDurations(theme.getId());
+    }
+
+    @Override
+    public AnswerTotals getAnswerTotals(DateRange range) {
+        return sManager.getAnswerTotals(range);
+    }
+
+    @Override
+    public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+        return sManager.getAnswerOptionCounts(range);
+    }
+
+    @Override
+    public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+        return sManager.getQuestionStatistics(range);
+    }
+
+    @Override
+    public TrendSeries getAnswerSeries(ThemeDTO theme, DateRange range, TrendSeries.Resolution resolution) {
+        return sManager.getAnswerSeries(theme == null ? 0 : theme.getId(), range, resolution);
+    }
+
+    @Override
+    public long getDataVersion() {
+        return sManager.getDataVersion();
+    }
+
+    @Override
+    public AbilityEstimate recordResponse(String respondent, QuestionDTO question, boolean correct) {
+        return sManager.recordResponse(respondent, question.getId(), correct);
+    }
+
+    @Override
+    public AbilityEstimate getAbility(String respondent) {
+        return sManager.getAbility(respondent);
+    }
+
+    @Override
+    public ItemCalibration getItemCalibration(QuestionDTO question) {
+        return sManager.getItemCalibration(question.getId());
+    }
+
+    @Override
+    public List<ItemCalibration> getItemCalibrations() {
+        return sManager.getItemCalibrations();
+    }
+
+    @Override
+    public List<PlayerDTO> getAllPlayers() {
+        return sManager.getAllPlayers();
+    }
+
+    @Override
+    public PlayerStatistics getPlayerStatistics(PlayerDTO player) {
+        return sManager.getPlayerStatistics(player.getId());
+    }
+
+    @Override
+    public List<LeaderboardEntry> getLeaderboard(ThemeDTO theme, Leaderboard.Ranking ranking, int offset, int limit) {
+        return sManager.getLeaderboard(theme == null ? Leaderboard.ALL_THEMES : theme.getId(), ranking, offset, limit);
+    }
+
+    @Override
+    public LeaderboardEntry getLeaderboardEntry(PlayerDTO player, ThemeDTO theme, Leaderboard.Ranking ranking) {
+        return sManager.getLeaderboardEntry(player.getId(), theme == null ? Leaderboard.ALL_THEMES : theme.getId(), ranking);
+    }
+
+    @Override
+    public String savePlayer(PlayerDTO player) {
+        return sManager.savePlayer(player);
+    }
+
+    @Override
+    public QuestionDTO getQuestionById(int id) {
+        return sManager.getQuestionById(id);
     }
 
     @Override
     public QuestionDTO getRandomQuestion() {
         List<QuestionDTO> all = getAllQuestions();
+        if (all.isEmpty())
+            return null;
         return all.get(new Random().nextInt(all.size()));
     }
 
     @Override
     public QuestionDTO getRandomQuestionFor(ThemeDTO theme) {
         List<QuestionDTO> themeQuestions = getQuestionsFor(theme);
+        if (themeQuestions.isEmpty())
+            return null;
         return themeQuestions.get(new Random().nextInt(themeQuestions.size()));
     }
 
     @Override
     public List<AnswerDTO> getAnswersFor(QuestionDTO question) {
-        List<AnswerDTO> list = sManager.getAllAnswers().stream()
-            .filter(a -> a.getQuestionId() == question.getId())
-            .toList(); 
-        List<AnswerDTO> shuffled = new ArrayList<>(list);
+        List<AnswerDTO> shuffled = sManager.getAnswersForQuestion(question);
         Collections.shuffle(shuffled, new SecureRandom());
         return shuffled;
     }
@@ -120,6 +257,17 @@ public class QuizSManager implements QuizDataInterface{
         return sManager.saveQuestion(q);
     }
 
+    @Override
+    public String saveQuestion(QuestionDTO q, boolean rejectDuplicates) {
+        String duplicates = rejectDuplicates ? Validator.checkDuplicates(findDuplicatesOf(q)) : null;
+        return duplicates != null ? duplicates : saveQuestion(q);
+    }
+
+    @Override
+    public String saveQuestions(List<QuestionDTO> questions) {
+        return sManager.saveQuestions(questions);
+    }
+
     @Override
     public String deleteQuestion(QuestionDTO question) {
         return sManager.deleteQuestion(question);
@@ -129,6 +277,11 @@ public class QuizSManager implements QuizDataInterface{
         return sManager.savePlayerAnswer(answer);
     }
 
+    @Override
+    public String savePlayerAnswers(List<PlayerAnswerDTO> answers) {
+        return sManager.savePlayerAnswers(answers);
+    }
+
 	public String saveAnswer(AnswerDTO answer) {
 		return sManager.saveAnswer(answer);
 	}
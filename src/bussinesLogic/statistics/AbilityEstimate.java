@@ -0,0 +1,37 @@
+package bussinesLogic.statistics;
+
+/**
+ * The estimated ability of one player, as kept by the
+ * {@link ItemResponseEngine}. Abilities have mean 0 and standard deviation 1
+ * over all players.
+ */
+public final class AbilityEstimate {
+
+    /** Estimate of a player without answers: the average, with the spread of all players. */
+    public static final AbilityEstimate UNKNOWN = new AbilityEstimate(0.0, 1.0, 0);
+
+    private final double theta;
+    private final double standardError;
+    private final int answered;
+
+    AbilityEstimate(double theta, double standardError, int answered) {
+        this.theta = theta;
+        this.standardError = standardError;
+        this.answered = answered;
+    }
+
+    /** @return the ability; 0 is average */
+    public double getTheta() {
+        return theta;
+    }
+
+    /** @return the standard error of the ability */
+    public double getStandardError() {
+        return standardError;
+    }
+
+    /** @return the number of answers the estimate is based on */
+    public int getAnswered() {
+        return answered;
+    }
+}
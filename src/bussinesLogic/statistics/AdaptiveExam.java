@@ -0,0 +1,67 @@
+package bussinesLogic.statistics;
+
+import java.util.BitSet;
+
+/**
+ * One computerized adaptive test: every next question is the most informative
+ * one at the player's current ability, and the test stops once the ability is
+ * known precisely enough.
+ * <p>
+ * The questions come from an {@link InformationTable}; the ability estimates
+ * come from the {@link ItemResponseEngine} with the answers of the test. Not
+ * thread-safe; one test belongs to one player.
+ * </p>
+ */
+public final class AdaptiveExam {
+
+    private final InformationTable table;
+    private final double stopError;
+    private final int maxQuestions;
+    private final BitSet asked = new BitSet();
+    private int askedCount;
+
+    /**
+     * @param table        the pool of the test
+     * @param stopError    the test stops when the standard error of the ability drops below this
+     * @param maxQuestions the test stops after this many questions
+     */
+    public AdaptiveExam(InformationTable table, double stopError, int maxQuestions) {
+        this.table = table;
+        this.stopError = stopError;
+        this.maxQuestions = maxQuestions;
+    }
+
+    /**
+     * Picks the next question and marks it as asked.
+     *
+     * @param ability the current ability estimate of the player
+     * @return the question ID, -1 if the test is finished
+     */
+    public int next(AbilityEstimate ability) {
+        if (isFinished(ability)) {
+            return -1;
+        }
+        int index = table.next(ability.getTheta(), asked);
+        if (index < 0) {
+            return -1;
+        }
+        asked.set(index);
+        askedCount++;
+        return table.getQuestionId(index);
+    }
+
+    /**
+     * @param ability the current ability estimate of the player
+     * @return whether the ability is precise enough, the maximum number of
+     *         questions was asked, or the pool is used up
+     */
+    public boolean isFinished(AbilityEstimate ability) {
+        return ability.getAnswered() > 0 && ability.getStandardError() < stopError || askedCount >= maxQuestions
+                || askedCount >= table.size();
+    }
+
+    /** @return the number of questions asked so far */
+    public int getAsked() {
+        return askedCount;
+    }
+}
@@ -0,0 +1,79 @@
+package bussinesLogic.statistics;
+
+/**
+ * How often each answer option of one question was chosen, as read from the
+ * {@link StatisticsAggregator}.
+ * <p>
+ * The options are the current answers of the question in their stored order,
+ * including options nobody chose. A question may have several correct options;
+ * every option that is not correct is a distractor. Answers chosen for options
+ * that were deleted since still count in {@link #getAnswered()}.
+ * </p>
+ */
+public final class AnswerOptionCounts {
+
+    private final int questionId;
+    private final int themeId;
+    private final long answered;
+    private final int[] answerIds;
+    private final int[] counts;
+    private final boolean[] correct;
+
+    AnswerOptionCounts(int questionId, int themeId, long answered, int[] answerIds, int[] counts,
+            boolean[] correct) {
+        this.questionId = questionId;
+        this.themeId = themeId;
+        this.answered = answered;
+        this.answerIds = answerIds;
+        this.counts = counts;
+        this.correct = correct;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getThemeId() {
+        return themeId;
+    }
+
+    /** @return the number of all player answers to the question */
+    public long getAnswered() {
+        return answered;
+    }
+
+    /** @return the number of answer options */
+    public int getOptionCount() {
+        return answerIds.length;
+    }
+
+    /** @return the answer ID of the option at {@code index} */
+    public int getAnswerId(int index) {
+        return answerIds[index];
+    }
+
+    /** @return how often the option at {@code index} was chosen */
+    public int getCount(int index) {
+        return counts[index];
+    }
+
+    /** @return whether the option at {@code index} is a correct answer */
+    public boolean isCorrect(int index) {
+        return correct[index];
+    }
+
+    /** @return the share of all answers that chose the option at {@code index}, between 0 and 1 */
+    public double getShare(int index) {
+        return answered == 0 ? 0.0 : (double) counts[index] / answered;
+    }
+
+    /** @return whether the question has at least one correct option */
+    public boolean hasCorrectOption() {
+        for (boolean value : correct) {
+            if (value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package bussinesLogic.statistics;
+
+/**
+ * Running answer counts of one question, one theme or the whole bank, as read
+ * from the {@link StatisticsAggregator}.
+ * <p>
+ * An answer is <i>evaluated</i> if its question has a correct answer; only
+ * evaluated answers count for the accuracy. The counts per answer option are
+ * only filled for a single question.
+ * </p>
+ */
+public final class AnswerTotals {
+
+    /** Totals without any answer. */
+    public static final AnswerTotals EMPTY = new AnswerTotals(0, 0, 0, new int[0], new int[0]);
+
+    private final long answered;
+    private final long evaluated;
+    private final long correct;
+    private final int[] answerIds;
+    private final int[] answerCounts;
+
+    AnswerTotals(long answered, long evaluated, long correct, int[] answerIds, int[] answerCounts) {
+        this.answered = answered;
+        this.evaluated = evaluated;
+        this.correct = correct;
+        this.answerIds = answerIds;
+        this.answerCounts = answerCounts;
+    }
+
+    /** @return the number of all player answers */
+    public long getAnswered() {
+        return answered;
+    }
+
+    /** @return the number of player answers to questions that have a correct answer */
+    public long getEvaluated() {
+        return evaluated;
+    }
+
+    /** @return the number of correct player answers */
+    public long getCorrect() {
+        return correct;
+    }
+
+    /** @return correct divided by evaluated answers, between 0 and 1 */
+    public double getAccuracy() {
+        return evaluated == 0 ? 0.0 : (double) correct / evaluated;
+    }
+
+    /**
+     * @param answerId the ID of an answer option
+     * @return how often players chose it
+     */
+    public int getCount(int answerId) {
+        for (int i = 0; i < answerIds.length; i++) {
+            if (answerIds[i] == answerId) {
+                return answerCounts[i];
+            }
+        }
+        return 0;
+    }
+
+    /** @return the IDs of all chosen answer options, in the order they were first chosen */
+    public int[] getAnswerIds() {
+        return answerIds.clone();
+    }
+
+    /** @return how often each option was chosen, same order as {@link #getAnswerIds()} */
+    public int[] getAnswerCounts() {
+        return answerCounts.clone();
+    }
+}
@@ -0,0 +1,83 @@
+package bussinesLogic.statistics;
+
+import java.time.LocalDate;
+
+/**
+ * An inclusive range of days for the statistics. Either end may be open.
+ */
+public final class DateRange {
+
+    /** All days. */
+    public static final DateRange ALL_TIME = new DateRange(null, null);
+
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private DateRange(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @param from the first day, or {@code null} for no lower bound
+     * @param to   the last day, or {@code null} for no upper bound
+     * @return the range from {@code from} to {@code to}, both included
+     */
+    public static DateRange between(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return ALL_TIME;
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException(from + " is after " + to);
+        }
+        return new DateRange(from, to);
+    }
+
+    /** @return the range holding only the given day */
+    public static DateRange day(LocalDate day) {
+        return between(day, day);
+    }
+
+    /** @return the given day and the {@code days} days before it */
+    public static DateRange lastDays(LocalDate today, int days) {
+        return between(today.minusDays(days), today);
+    }
+
+    /** @return all days of the given year */
+    public static DateRange year(int year) {
+        return between(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    /** @return the first day, or {@code null} */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /** @return the last day, or {@code null} */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public boolean isAllTime() {
+        return from == null && to == null;
+    }
+
+    public boolean contains(LocalDate day) {
+        return (from == null || !day.isBefore(from)) && (to == null || !day.isAfter(to));
+    }
+
+    /** @return the epoch day of the first day, or {@link Integer#MIN_VALUE} */
+    int fromEpochDay() {
+        return from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+    }
+
+    /** @return the epoch day of the last day, or {@link Integer#MAX_VALUE} */
+    int toEpochDay() {
+        return to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+    }
+
+    @Override
+    public String toString() {
+        return (from == null ? "" : from.toString()) + ".." + (to == null ? "" : to.toString());
+    }
+}
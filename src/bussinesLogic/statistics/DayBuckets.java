@@ -0,0 +1,116 @@
+package bussinesLogic.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Counters per day, e.g. the answered, evaluated and correct answers of a theme
+ * on each day.
+ * <p>
+ * Every day holds {@code width} counters in one flat array, the days are kept
+ * sorted. Answers mostly arrive for the latest day, which is found without a
+ * search; summing a range costs a binary search plus one step per day in the
+ * range, independent of the number of answers.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe.
+ * </p>
+ */
+final class DayBuckets {
+
+    private int width;
+    private int size;
+    private int[] days = new int[4];
+    private long[] counts;
+
+    DayBuckets(int width) {
+        this.width = width;
+        this.counts = new long[days.length * width];
+    }
+
+    /** @return the number of days with counters */
+    int size() {
+        return size;
+    }
+
+    /** @return the epoch day of the bucket at {@code index} */
+    int dayAt(int index) {
+        return days[index];
+    }
+
+    /** @return the counter {@code slot} of the bucket at {@code index} */
+    long get(int index, int slot) {
+        return counts[index * width + slot];
+    }
+
+    /**
+     * Adds to a counter of a day.
+     *
+     * @param day   the epoch day
+     * @param slot  the counter, below the width
+     * @param delta the value to add
+     */
+    void add(int day, int slot, long delta) {
+        int index = indexOf(day);
+        counts[index * width + slot] += delta;
+    }
+
+    /**
+     * Makes room for more counters per day; the new counters are zero.
+     *
+     * @param newWidth the new number of counters per day
+     */
+    void widen(int newWidth) {
+        if (newWidth <= width) {
+            return;
+        }
+        long[] widened = new long[days.length * newWidth];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(counts, i * width, widened, i * newWidth, width);
+        }
+        counts = widened;
+        width = newWidth;
+    }
+
+    /**
+     * Adds up the counters of all days in a range.
+     *
+     * @param fromDay the first epoch day
+     * @param toDay   the last epoch day
+     * @param into    receives the sums, one per counter; at least the width long
+     */
+    void sum(int fromDay, int toDay, long[] into) {
+        for (int i = firstIndexFrom(fromDay); i < size && days[i] <= toDay; i++) {
+            int offset = i * width;
+            for (int slot = 0; slot < width; slot++) {
+                into[slot] += counts[offset + slot];
+            }
+        }
+    }
+
+    /** @return the index of the first bucket on or after {@code day}, {@link #size()} if there is none */
+    int firstIndexFrom(int day) {
+        int i = Arrays.binarySearch(days, 0, size, day);
+        return i < 0 ? -i - 1 : i;
+    }
+
+    private int indexOf(int day) {
+        if (size > 0 && days[size - 1] == day) {
+            return size - 1;
+        }
+        int i = size > 0 && days[size - 1] < day ? -size - 1 : Arrays.binarySearch(days, 0, size, day);
+        if (i >= 0) {
+            return i;
+        }
+        i = -i - 1;
+        if (size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            counts = Arrays.copyOf(counts, days.length * width);
+        }
+        System.arraycopy(days, i, days, i + 1, size - i);
+        System.arraycopy(counts, i * width, counts, (i + 1) * width, (size - i) * width);
+        Arrays.fill(counts, i * width, (i + 1) * width, 0);
+        days[i] = day;
+        size++;
+        return i;
+    }
+}
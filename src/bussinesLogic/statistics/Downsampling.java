@@ -0,0 +1,75 @@
+package bussinesLogic.statistics;
+
+/**
+ * Reduces a series of points to fewer points that keep its visual shape, for
+ * charts that have fewer pixels than points.
+ */
+public final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    /**
+     * Picks points with the Largest-Triangle-Three-Buckets algorithm (Steinarsson,
+     * 2013): the first and the last point are kept, the points in between are
+     * split into {@code threshold - 2} buckets, and of each bucket the point is
+     * kept that forms the largest triangle with the point kept before and the
+     * average of the next bucket. Peaks and dips survive, unlike with averaging
+     * or taking every n-th point. Costs O(n).
+     *
+     * @param x         the x values, ascending
+     * @param y         the y values, same length as {@code x}
+     * @param threshold the number of points to keep
+     * @return the ascending indexes of the kept points; all indexes if the
+     *         series has no more than {@code threshold} points or the threshold
+     *         is below 3
+     */
+    public static int[] largestTriangleThreeBuckets(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (y.length != n) {
+            throw new IllegalArgumentException("x and y differ in length: " + n + ", " + y.length);
+        }
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] kept = new int[threshold];
+        int count = 0;
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        kept[count++] = a;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // average of the next bucket
+            int nextFrom = (int) ((bucket + 1) * every) + 1;
+            int nextTo = Math.min((int) ((bucket + 2) * every) + 1, n);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextTo - nextFrom;
+            averageY /= nextTo - nextFrom;
+
+            int from = (int) (bucket * every) + 1;
+            int to = (int) ((bucket + 1) * every) + 1;
+            double maxArea = -1;
+            int next = from;
+            for (int i = from; i < to; i++) {
+                // twice the triangle area; the factor does not change the maximum
+                double area = Math.abs((x[a] - averageX) * (y[i] - y[a]) - (x[a] - x[i]) * (averageY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            kept[count++] = next;
+            a = next;
+        }
+        kept[count] = n - 1;
+        return kept;
+    }
+}
@@ -0,0 +1,115 @@
+package bussinesLogic.statistics;
+
+/**
+ * Distribution of answer durations in milliseconds, in a fixed number of
+ * logarithmic buckets.
+ * <p>
+ * Durations below {@value #SUB_BUCKETS} ms have a bucket each. Above, every
+ * power of two is split into {@value #SUB_BUCKETS} equally wide buckets, so a
+ * bucket is at most an eighth of its values wide and a percentile is off by at
+ * most about 6 %. Durations from {@value #MAX_DURATION} ms on share the last
+ * bucket. The histogram always takes {@value #BUCKETS} counters, however many
+ * durations it holds, and a percentile costs one pass over the buckets.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe. Histograms handed out by
+ * the {@link StatisticsAggregator} are copies and not changed afterwards.
+ * </p>
+ */
+public final class DurationHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 22;
+
+    /** Durations from this value on are counted in the last bucket. */
+    public static final int MAX_DURATION = 1 << MAX_EXPONENT;
+
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /** Histogram without any duration. */
+    public static final DurationHistogram EMPTY = new DurationHistogram();
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+
+    /**
+     * Counts a duration. Durations of 0 or less were not recorded and are
+     * ignored.
+     *
+     * @param durationMillis the duration in milliseconds
+     */
+    void record(int durationMillis) {
+        if (durationMillis > 0) {
+            counts[bucketOf(durationMillis)]++;
+            count++;
+        }
+    }
+
+    /**
+     * Adds ({@code sign} 1) or removes ({@code sign} -1) the counts of another
+     * histogram.
+     */
+    void add(DurationHistogram other, int sign) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += sign * other.counts[i];
+        }
+        count += sign * other.count;
+    }
+
+    DurationHistogram copy() {
+        DurationHistogram copy = new DurationHistogram();
+        copy.add(this, 1);
+        return copy;
+    }
+
+    /** @return the number of recorded durations */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile the percentile from 0 to 100, e.g. 90 for p90
+     * @return the duration in milliseconds that the given share of the recorded
+     *         durations does not exceed, or 0 if there are none
+     */
+    public int getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(BUCKETS - 1);
+    }
+
+    static int bucketOf(int value) {
+        if (value < SUB_BUCKETS) {
+            return value;
+        }
+        if (value >= MAX_DURATION) {
+            return BUCKETS - 1;
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /** @return the middle of the values of a bucket */
+    static int valueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        int lowest = (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + ((1 << shift) >>> 1);
+    }
+}
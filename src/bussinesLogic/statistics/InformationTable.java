@@ -0,0 +1,105 @@
+package bussinesLogic.statistics;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+/**
+ * The questions of a pool, sorted by their Fisher information per ability
+ * band, for picking the most informative question in an adaptive test.
+ * <p>
+ * The abilities from {@value #MIN_THETA} to {@value #MAX_THETA} are split into
+ * bands of {@value #BAND_WIDTH}. For every band the questions are sorted once,
+ * most informative at the band center first. Picking the next question walks
+ * the list of the band nearest to the ability and takes the first question not
+ * asked yet, so a step costs at most one look per asked question, whatever the
+ * size of the pool.
+ * </p>
+ * <p>
+ * The table is immutable and built from the {@link ItemCalibration}s at the
+ * start of a test; the bands are sorted in parallel.
+ * </p>
+ */
+public final class InformationTable {
+
+    public static final double MIN_THETA = -4.0;
+    public static final double MAX_THETA = 4.0;
+    public static final double BAND_WIDTH = 0.5;
+    private static final int BANDS = (int) Math.round((MAX_THETA - MIN_THETA) / BAND_WIDTH) + 1;
+
+    /** Ascending; the position is the index used in the bands. */
+    private final int[] questionIds;
+    /** Per band, the question indexes, most informative first. */
+    private final int[][] bands;
+
+    private InformationTable(int[] questionIds, int[][] bands) {
+        this.questionIds = questionIds;
+        this.bands = bands;
+    }
+
+    /**
+     * Sorts the questions of a pool for every band.
+     *
+     * @param pool the calibrated questions that may be asked
+     * @return the table
+     */
+    public static InformationTable build(Collection<ItemCalibration> pool) {
+        ItemCalibration[] items = pool.toArray(new ItemCalibration[0]);
+        Arrays.sort(items, (x, y) -> Integer.compare(x.getQuestionId(), y.getQuestionId()));
+        int[] questionIds = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            questionIds[i] = items[i].getQuestionId();
+        }
+        int[][] bands = new int[BANDS][];
+        IntStream.range(0, BANDS).parallel().forEach(band -> {
+            double theta = MIN_THETA + band * BAND_WIDTH;
+            // information (non-negative, so its float bits sort like it) above the
+            // inverted index, so equal information keeps the lower index first
+            long[] keys = new long[items.length];
+            for (int i = 0; i < items.length; i++) {
+                long bits = Float.floatToIntBits((float) items[i].getInformation(theta));
+                keys[i] = bits << 32 | (Integer.MAX_VALUE - i);
+            }
+            Arrays.sort(keys);
+            int[] order = new int[items.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = Integer.MAX_VALUE - (int) keys[keys.length - 1 - i];
+            }
+            bands[band] = order;
+        });
+        return new InformationTable(questionIds, bands);
+    }
+
+    /** @return the number of questions in the pool */
+    public int size() {
+        return questionIds.length;
+    }
+
+    /** @return the question ID at a table index */
+    public int getQuestionId(int index) {
+        return questionIds[index];
+    }
+
+    /** @return the table index of a question, negative if it is not in the pool */
+    public int indexOf(int questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+
+    /**
+     * @param theta the current ability estimate
+     * @param asked the table indexes of the questions asked so far
+     * @return the table index of the most informative question not asked yet
+     *         in the band of {@code theta}, -1 if all were asked
+     */
+    public int next(double theta, BitSet asked) {
+        int band = (int) Math.round((theta - MIN_THETA) / BAND_WIDTH);
+        int[] order = bands[Math.max(0, Math.min(BANDS - 1, band))];
+        for (int index : order) {
+            if (!asked.get(index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,111 @@
+package bussinesLogic.statistics;
+
+/**
+ * Item response theory parameters of one question, as estimated by the
+ * {@link ItemResponseEngine}.
+ * <p>
+ * The probability that a player of ability {@code theta} answers correctly is
+ * {@code 1 / (1 + exp(-a * (theta - b)))} with the difficulty {@code b} and
+ * the discrimination {@code a}. Abilities are on the scale of the players,
+ * with mean 0 and standard deviation 1. As long as too few known players
+ * answered the question, {@code a} is 1 and the model is the one-parameter
+ * (Rasch) model.
+ * </p>
+ */
+public final class ItemCalibration {
+
+    private final int questionId;
+    private final long evaluated;
+    private final long correct;
+    private final double difficulty;
+    private final double difficultyError;
+    private final double difficultyLow;
+    private final double difficultyHigh;
+    private final double discrimination;
+    private final double pointBiserial;
+    private final long respondents;
+
+    ItemCalibration(int questionId, long evaluated, long correct, double difficulty, double difficultyError,
+            double difficultyLow, double difficultyHigh, double discrimination, double pointBiserial,
+            long respondents) {
+        this.questionId = questionId;
+        this.evaluated = evaluated;
+        this.correct = correct;
+        this.difficulty = difficulty;
+        this.difficultyError = difficultyError;
+        this.difficultyLow = difficultyLow;
+        this.difficultyHigh = difficultyHigh;
+        this.discrimination = discrimination;
+        this.pointBiserial = pointBiserial;
+        this.respondents = respondents;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    /** @return the number of evaluated answers the difficulty is based on */
+    public long getEvaluated() {
+        return evaluated;
+    }
+
+    /** @return the number of correct answers among them */
+    public long getCorrect() {
+        return correct;
+    }
+
+    /** @return the difficulty {@code b}; higher is harder */
+    public double getDifficulty() {
+        return difficulty;
+    }
+
+    /** @return the standard error of the difficulty, infinite without answers */
+    public double getDifficultyError() {
+        return difficultyError;
+    }
+
+    /** @return the lower end of the 95% confidence interval of the difficulty */
+    public double getDifficultyLow() {
+        return difficultyLow;
+    }
+
+    /** @return the upper end of the 95% confidence interval of the difficulty */
+    public double getDifficultyHigh() {
+        return difficultyHigh;
+    }
+
+    /** @return the discrimination {@code a}, at least {@value ItemResponseEngine#MIN_DISCRIMINATION} */
+    public double getDiscrimination() {
+        return discrimination;
+    }
+
+    /**
+     * @return the correlation between answering correctly and the ability of
+     *         the known players, negative for a misleading question; NaN if
+     *         too few known players answered
+     */
+    public double getPointBiserial() {
+        return pointBiserial;
+    }
+
+    /** @return the number of answers of known players the discrimination is based on */
+    public long getRespondents() {
+        return respondents;
+    }
+
+    /** @return whether the discrimination was estimated, not assumed to be 1 */
+    public boolean isTwoParameter() {
+        return !Double.isNaN(pointBiserial);
+    }
+
+    /** @return the probability of a correct answer at the ability {@code theta} */
+    public double getProbability(double theta) {
+        return 1.0 / (1.0 + Math.exp(-discrimination * (theta - difficulty)));
+    }
+
+    /** @return the Fisher information of the question at the ability {@code theta} */
+    public double getInformation(double theta) {
+        double p = getProbability(theta);
+        return discrimination * discrimination * p * (1 - p);
+    }
+}
@@ -0,0 +1,264 @@
+package bussinesLogic.statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import helpers.IntList;
+import helpers.IntObjectMap;
+
+/**
+ * Estimates item response theory parameters of the questions and the abilities
+ * of the players while the answers come in, without refitting on the history.
+ * <p>
+ * <b>Difficulty</b>: the player answers are not tied to players, so the
+ * difficulty is the marginal estimate for abilities with mean 0 and standard
+ * deviation 1. With the share {@code p} of correct answers and the
+ * discrimination {@code a} it is
+ * {@code b = -z(p) * sqrt(1.702^2 + a^2) / a}, where {@code z} is the inverse
+ * normal distribution; the logistic curve is approximated by the normal one
+ * with the usual factor 1.702. It only needs the running evaluated and correct
+ * counts of the {@link StatisticsAggregator}. The confidence interval maps the
+ * Wilson interval of {@code p} the same way.
+ * </p>
+ * <p>
+ * <b>Discrimination</b>: players that are known while answering, e.g. the play
+ * tab or a session of the quiz server, are recorded here as respondents. Their
+ * ability before an answer goes into a Welford accumulator of the question, per
+ * correct and wrong answers, which gives the point-biserial correlation. From
+ * {@value #MIN_RESPONDENTS} such answers on it is turned into the biserial
+ * correlation and the discrimination {@code a = 1.702 * r / sqrt(1 - r^2)}.
+ * Before that the model is the one-parameter model with {@code a = 1}.
+ * </p>
+ * <p>
+ * <b>Ability</b>: after every answer of a respondent the maximum a posteriori
+ * estimate with a standard normal prior is refined with Newton steps, starting
+ * from the previous estimate, which usually converges in two or three steps.
+ * The least recently active respondents are forgotten beyond
+ * {@value #MAX_RESPONDENTS}.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> All methods are synchronized.
+ * </p>
+ */
+public class ItemResponseEngine {
+
+    /** Lower bound of the discrimination, also for misleading questions. */
+    public static final double MIN_DISCRIMINATION = 0.1;
+    /** Upper bound of the discrimination. */
+    public static final double MAX_DISCRIMINATION = 4.0;
+    /** Answers of known players needed to estimate the discrimination. */
+    public static final int MIN_RESPONDENTS = 10;
+
+    /** Scales the logistic curve to the normal one. */
+    private static final double D = 1.702;
+    /** Answers a respondent needs before their ability counts for the discrimination. */
+    private static final int MIN_PRIOR_ANSWERS = 2;
+    private static final int MAX_RESPONDENTS = 10_000;
+    private static final double MAX_THETA = 6.0;
+    private static final int MAX_ITERATIONS = 20;
+    private static final double CONVERGED = 1e-4;
+    private static final double Z_95 = 1.959963984540054;
+    private static final double MAX_LOADING = 0.95;
+
+    /** Abilities of the respondents of one question, per correct and wrong answers. */
+    private static final class Criterion {
+        long count;
+        double mean;
+        /** Sum of squared differences from the mean. */
+        double m2;
+        long correct;
+        double correctMean;
+
+        void add(double theta, boolean isCorrect) {
+            count++;
+            double delta = theta - mean;
+            mean += delta / count;
+            m2 += delta * (theta - mean);
+            if (isCorrect) {
+                correct++;
+                correctMean += (theta - correctMean) / correct;
+            }
+        }
+    }
+
+    /** The answers and the ability of one respondent. */
+    private static final class Respondent {
+        final IntList questionIds = new IntList();
+        /** 1 for a correct answer, 0 for a wrong one, same order as {@link #questionIds}. */
+        final IntList outcomes = new IntList();
+        double theta;
+        double error = 1.0;
+    }
+
+    private final IntObjectMap<Criterion> criteria = new IntObjectMap<>();
+    /** Access order: the least recently active respondent comes first. */
+    private final Map<String, Respondent> respondents = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Respondent> eldest) {
+            return size() > MAX_RESPONDENTS;
+        }
+    };
+
+    /**
+     * Records the answer of a known player and updates their ability.
+     *
+     * @param respondent identifies the player, e.g. a session ID
+     * @param questionId the answered question
+     * @param correct    whether the answer was correct
+     * @param counts     reads the all-time {evaluated, correct} answers of a
+     *                   question, {@code null} if there are none
+     * @return the new ability estimate of the player
+     */
+    public synchronized AbilityEstimate record(String respondent, int questionId, boolean correct,
+            IntFunction<long[]> counts) {
+        Respondent state = respondents.get(respondent);
+        if (state == null) {
+            state = new Respondent();
+            respondents.put(respondent, state);
+        }
+        if (state.questionIds.size() >= MIN_PRIOR_ANSWERS) {
+            Criterion criterion = criteria.get(questionId);
+            if (criterion == null) {
+                criterion = new Criterion();
+                criteria.put(questionId, criterion);
+            }
+            // the ability before this answer, so the answer does not correlate with itself
+            criterion.add(state.theta, correct);
+        }
+        state.questionIds.add(questionId);
+        state.outcomes.add(correct ? 1 : 0);
+        estimate(state, counts);
+        return new AbilityEstimate(state.theta, state.error, state.questionIds.size());
+    }
+
+    /** @return the ability of a player, {@link AbilityEstimate#UNKNOWN} without recorded answers */
+    public synchronized AbilityEstimate getAbility(String respondent) {
+        Respondent state = respondents.get(respondent);
+        return state == null ? AbilityEstimate.UNKNOWN
+                : new AbilityEstimate(state.theta, state.error, state.questionIds.size());
+    }
+
+    /** Forgets the answers and the ability of a player, e.g. to start a new exam. */
+    public synchronized void forget(String respondent) {
+        respondents.remove(respondent);
+    }
+
+    /**
+     * @param questionId the question
+     * @param evaluated  the number of all evaluated answers of the question
+     * @param correct    the number of correct answers among them
+     * @return the current parameters of the question
+     */
+    public synchronized ItemCalibration calibrate(int questionId, long evaluated, long correct) {
+        Criterion criterion = criteria.get(questionId);
+        long known = criterion == null ? 0 : criterion.count;
+        double pointBiserial = Double.NaN;
+        double a = 1.0;
+        if (known >= MIN_RESPONDENTS && criterion.correct > 0 && criterion.correct < known && criterion.m2 > 0) {
+            double share = (double) criterion.correct / known;
+            double sd = Math.sqrt(criterion.m2 / known);
+            pointBiserial = (criterion.correctMean - criterion.mean) / sd * Math.sqrt(share / (1 - share));
+            double biserial = pointBiserial * Math.sqrt(share * (1 - share)) / density(inverseNormal(share));
+            double loading = Math.max(-MAX_LOADING, Math.min(MAX_LOADING, biserial));
+            a = clamp(D * loading / Math.sqrt(1 - loading * loading), MIN_DISCRIMINATION, MAX_DISCRIMINATION);
+        }
+        double scale = Math.sqrt(D * D + a * a) / a;
+        if (evaluated <= 0) {
+            return new ItemCalibration(questionId, 0, 0, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                    Double.POSITIVE_INFINITY, a, pointBiserial, known);
+        }
+        // continuity correction, so a question nobody or everybody solved stays finite
+        double p = (correct + 0.5) / (evaluated + 1.0);
+        double z = inverseNormal(p);
+        double error = scale * Math.sqrt(p * (1 - p) / (evaluated + 1.0)) / density(z);
+
+        double n = evaluated;
+        double share = (double) correct / n;
+        double zz = Z_95 * Z_95;
+        double center = (share + zz / (2 * n)) / (1 + zz / n);
+        double half = Z_95 * Math.sqrt(share * (1 - share) / n + zz / (4 * n * n)) / (1 + zz / n);
+        // a higher share of correct answers means a lower difficulty
+        double low = -inverseNormal(clamp(center + half, 1e-9, 1 - 1e-9)) * scale;
+        double high = -inverseNormal(clamp(center - half, 1e-9, 1 - 1e-9)) * scale;
+        return new ItemCalibration(questionId, evaluated, correct, -z * scale, error, low, high, a, pointBiserial,
+                known);
+    }
+
+    /** Refines the ability of a respondent, starting from the previous estimate. */
+    private void estimate(Respondent state, IntFunction<long[]> counts) {
+        int size = state.questionIds.size();
+        double[] a = new double[size];
+        double[] b = new double[size];
+        for (int j = 0; j < size; j++) {
+            int questionId = state.questionIds.get(j);
+            long[] questionCounts = counts.apply(questionId);
+            ItemCalibration calibration = questionCounts == null ? calibrate(questionId, 0, 0)
+                    : calibrate(questionId, questionCounts[0], questionCounts[1]);
+            a[j] = calibration.getDiscrimination();
+            b[j] = calibration.getDifficulty();
+        }
+        double theta = state.theta;
+        double information = 1.0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            // derivatives of the log posterior; the prior adds -theta and 1
+            double gradient = -theta;
+            information = 1.0;
+            for (int j = 0; j < size; j++) {
+                double p = 1.0 / (1.0 + Math.exp(-a[j] * (theta - b[j])));
+                gradient += a[j] * (state.outcomes.get(j) - p);
+                information += a[j] * a[j] * p * (1 - p);
+            }
+            double step = clamp(gradient / information, -1.0, 1.0);
+            theta = clamp(theta + step, -MAX_THETA, MAX_THETA);
+            if (Math.abs(step) < CONVERGED) {
+                break;
+            }
+        }
+        state.theta = theta;
+        state.error = 1.0 / Math.sqrt(information);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /** @return the density of the standard normal distribution */
+    static double density(double z) {
+        return Math.exp(-0.5 * z * z) / Math.sqrt(2 * Math.PI);
+    }
+
+    /**
+     * The inverse of the standard normal distribution (Acklam's rational
+     * approximation, relative error below 1.2e-9).
+     *
+     * @param p a probability between 0 and 1, exclusive
+     */
+    static double inverseNormal(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -0,0 +1,592 @@
+package bussinesLogic.statistics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.repository.PlayerAnswerLog;
+import bussinesLogic.repository.QuizSnapshot;
+import helpers.IntObjectMap;
+
+/**
+ * Live rankings of the players with a profile, per theme and over all themes:
+ * by score, by accuracy and by the longest streak of correct answers.
+ * <p>
+ * Every board keeps the standing of each player in a
+ * {@link ConcurrentHashMap} and one immutable treap per {@link Ranking},
+ * ordered best first. Each node of a treap knows the size of its subtree, so
+ * the rank of a player and the start of a page are found in O(log n), and a
+ * page is read in O(log n + page size). A saved answer replaces the standing
+ * of its player and moves the player's key in each ranking by copying the
+ * O(log n) nodes on its path and publishing the new root; readers take no
+ * lock, never wait for the answers being saved and see every player once.
+ * </p>
+ * <p>
+ * Answers are counted per submission: the consecutive rows of one player for
+ * one question with the same time and duration, as saved together by the
+ * play panel, the server and the live quiz. A submission is correct if its
+ * chosen answers are exactly the correct answers of the question, like in
+ * {@link AnswerOptionCounts#isCorrect(int)}. Anonymous answers are not
+ * ranked. Like the {@link StatisticsAggregator}, the boards are built from the
+ * history on the first read, and again after the history was loaded or
+ * deleted or an answered question changed.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> Updates are serialized by the repository and take the
+ * monitor of the leaderboard, which only a rebuild contends for. Reads are
+ * lock-free once the boards are built.
+ * </p>
+ */
+public final class Leaderboard {
+
+    /** What the players are ranked by. */
+    public enum Ranking {
+        /** The number of correct answers. */
+        SCORE,
+        /**
+         * The share of correct answers, of the players with at least
+         * {@link Leaderboard#MIN_ANSWERS_FOR_ACCURACY} evaluated answers.
+         */
+        ACCURACY,
+        /** The longest run of correct answers in a row. */
+        STREAK
+    }
+
+    /** Board ID of the rankings over all themes. */
+    public static final int ALL_THEMES = 0;
+
+    /** Evaluated answers a player needs before being ranked by accuracy. */
+    public static final int MIN_ANSWERS_FOR_ACCURACY = 20;
+
+    private static final Ranking[] RANKINGS = Ranking.values();
+
+    /** The counts of one player on one board; replaced, never changed. */
+    private static final class Standing {
+        static final Standing NONE = new Standing(0, 0, 0, 0);
+
+        final long evaluated;
+        final long correct;
+        final int streak;
+        final int longestStreak;
+
+        Standing(long evaluated, long correct, int streak, int longestStreak) {
+            this.evaluated = evaluated;
+            this.correct = correct;
+            this.streak = streak;
+            this.longestStreak = longestStreak;
+        }
+
+        Standing next(boolean isCorrect) {
+            if (!isCorrect) {
+                return new Standing(evaluated + 1, correct, 0, longestStreak);
+            }
+            return new Standing(evaluated + 1, correct + 1, streak + 1, Math.max(longestStreak, streak + 1));
+        }
+    }
+
+    /** Position of a player in a ranking: best value first, ties by player ID. */
+    private static final class RankKey implements Comparable<RankKey> {
+        final double value;
+        final int playerId;
+
+        RankKey(double value, int playerId) {
+            this.value = value;
+            this.playerId = playerId;
+        }
+
+        @Override
+        public int compareTo(RankKey other) {
+            int byValue = Double.compare(other.value, value);
+            return byValue != 0 ? byValue : Integer.compare(playerId, other.playerId);
+        }
+    }
+
+    /**
+     * Node of a treap, never changed once created: a search tree by key and a
+     * heap by priority, which keeps it balanced in expectation.
+     */
+    private static final class Node {
+        final RankKey key;
+        final int priority;
+        final Node left;
+        final Node right;
+        /** The number of keys in this subtree. */
+        final int size;
+
+        Node(RankKey key, int priority, Node left, Node right) {
+            this.key = key;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+
+        static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+
+    /** One ranking of a board. */
+    private static final class Ranked {
+        /** The current treap; replaced by the updating thread only. */
+        volatile Node root;
+
+        void move(RankKey before, RankKey after) {
+            if (before != null && after != null && before.compareTo(after) == 0) {
+                return;
+            }
+            Node changed = root;
+            if (before != null) {
+                changed = remove(changed, before);
+            }
+            if (after != null) {
+                changed = insert(changed, after, priority(after.playerId));
+            }
+            root = changed;
+        }
+
+        /** @return the number of keys ranked before {@code key} */
+        int countBefore(RankKey key) {
+            int count = 0;
+            Node node = root;
+            while (node != null) {
+                int c = key.compareTo(node.key);
+                if (c < 0) {
+                    node = node.left;
+                } else {
+                    count += Node.size(node.left) + (c > 0 ? 1 : 0);
+                    node = c > 0 ? node.right : null;
+                }
+            }
+            return count;
+        }
+
+        /** @return up to {@code limit} keys from position {@code offset} on, best first */
+        List<RankKey> page(int offset, int limit) {
+            List<RankKey> result = new ArrayList<>();
+            // the nodes still to visit in order; the top is the next key
+            ArrayDeque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            int skip = offset;
+            while (node != null) {
+                int before = Node.size(node.left);
+                if (skip < before) {
+                    path.push(node);
+                    node = node.left;
+                } else if (skip == before) {
+                    path.push(node);
+                    break;
+                } else {
+                    skip -= before + 1;
+                    node = node.right;
+                }
+            }
+            while (!path.isEmpty() && result.size() < limit) {
+                Node next = path.pop();
+                result.add(next.key);
+                for (Node n = next.right; n != null; n = n.left) {
+                    path.push(n);
+                }
+            }
+            return result;
+        }
+
+        private static Node insert(Node node, RankKey key, int priority) {
+            if (node == null) {
+                return new Node(key, priority, null, null);
+            }
+            if (priority > node.priority) {
+                Node[] parts = split(node, key);
+                return new Node(key, priority, parts[0], parts[1]);
+            }
+            if (key.compareTo(node.key) < 0) {
+                return new Node(node.key, node.priority, insert(node.left, key, priority), node.right);
+            }
+            return new Node(node.key, node.priority, node.left, insert(node.right, key, priority));
+        }
+
+        /** @return the keys before and after {@code key}, which is not in the treap */
+        private static Node[] split(Node node, RankKey key) {
+            if (node == null) {
+                return new Node[2];
+            }
+            if (key.compareTo(node.key) > 0) {
+                Node[] parts = split(node.right, key);
+                parts[0] = new Node(node.key, node.priority, node.left, parts[0]);
+                return parts;
+            }
+            Node[] parts = split(node.left, key);
+            parts[1] = new Node(node.key, node.priority, parts[1], node.right);
+            return parts;
+        }
+
+        private static Node remove(Node node, RankKey key) {
+            if (node == null) {
+                return null;
+            }
+            int c = key.compareTo(node.key);
+            if (c == 0) {
+                return merge(node.left, node.right);
+            }
+            return c < 0 ? new Node(node.key, node.priority, remove(node.left, key), node.right)
+                    : new Node(node.key, node.priority, node.left, remove(node.right, key));
+        }
+
+        /** @return the treap of all keys of {@code before}, which all rank before those of {@code after} */
+        private static Node merge(Node before, Node after) {
+            if (before == null) {
+                return after;
+            }
+            if (after == null) {
+                return before;
+            }
+            if (before.priority >= after.priority) {
+                return new Node(before.key, before.priority, before.left, merge(before.right, after));
+            }
+            return new Node(after.key, after.priority, merge(before, after.left), after.right);
+        }
+
+        /** @return a well-mixed priority, the same for every key of a player */
+        private static int priority(int playerId) {
+            int h = playerId * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /** Rows of saved player answers, read in order. */
+    private interface Rows {
+        int size();
+
+        int playerIdAt(int index);
+
+        int questionIdAt(int index);
+
+        int answerIdAt(int index);
+
+        /** @return {@code true} if both rows were saved by the same submission, judging by their fields */
+        boolean sameSubmission(int first, int other);
+    }
+
+    /** The rankings of one theme, or of all themes. */
+    private static final class Board {
+        final ConcurrentHashMap<Integer, Standing> standings = new ConcurrentHashMap<>();
+        final Ranked[] rankings = new Ranked[RANKINGS.length];
+
+        Board() {
+            for (int i = 0; i < rankings.length; i++) {
+                rankings[i] = new Ranked();
+            }
+        }
+
+        void record(int playerId, boolean isCorrect) {
+            Standing before = standings.getOrDefault(playerId, Standing.NONE);
+            Standing after = before.next(isCorrect);
+            standings.put(playerId, after);
+            for (Ranking ranking : RANKINGS) {
+                rankings[ranking.ordinal()].move(keyOf(ranking, playerId, before), keyOf(ranking, playerId, after));
+            }
+        }
+    }
+
+    /** Theme ID -> board, {@link #ALL_THEMES} for all themes; {@code null} while the boards are invalid. */
+    private volatile ConcurrentHashMap<Integer, Board> boards;
+    /** Version of the snapshot of the last rebuild; its answers are counted already. Guarded by this. */
+    private long rebuiltVersion = -1;
+    /** IDs of the questions with ranked answers. Guarded by this. */
+    private final BitSet answeredQuestions = new BitSet();
+
+    /** Drops the boards; they are rebuilt on the next read. */
+    public synchronized void invalidate() {
+        boards = null;
+        answeredQuestions.clear();
+    }
+
+    /**
+     * Counts newly saved player answers. Does nothing while the boards are
+     * invalid or were rebuilt from this snapshot or a later one. Anonymous
+     * answers are skipped. The rows of a submission must be added together.
+     *
+     * @param snapshot the snapshot that contains the answers
+     * @param added    the saved answers
+     */
+    public synchronized void add(QuizSnapshot snapshot, List<PlayerAnswerDTO> added) {
+        ConcurrentHashMap<Integer, Board> current = boards;
+        if (current == null || snapshot.getVersion() <= rebuiltVersion) {
+            return;
+        }
+        countSubmissions(current, snapshot, new Rows() {
+            @Override
+            public int size() {
+                return added.size();
+            }
+
+            @Override
+            public int playerIdAt(int index) {
+                return added.get(index).getPlayerId();
+            }
+
+            @Override
+            public int questionIdAt(int index) {
+                return added.get(index).getQuestionId();
+            }
+
+            @Override
+            public int answerIdAt(int index) {
+                return added.get(index).getAnswerId();
+            }
+
+            @Override
+            public boolean sameSubmission(int first, int other) {
+                PlayerAnswerDTO a = added.get(first);
+                PlayerAnswerDTO b = added.get(other);
+                return a.getPlayerId() == b.getPlayerId() && a.getQuestionId() == b.getQuestionId()
+                        && a.getDurationMillis() == b.getDurationMillis()
+                        && Objects.equals(a.getCreatedAt(), b.getCreatedAt());
+            }
+        });
+    }
+
+    /**
+     * Drops the boards if one of the questions was answered already, as its
+     * theme or its correct answers may have changed.
+     *
+     * @param snapshot    the snapshot with the changes applied
+     * @param questionIds the IDs of the created, changed or deleted questions
+     */
+    public synchronized void reindex(QuizSnapshot snapshot, int[] questionIds) {
+        for (int questionId : questionIds) {
+            if (questionId >= 0 && answeredQuestions.get(questionId)) {
+                invalidate();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns a page of a ranking.
+     *
+     * @param current supplies the current snapshot, used to rebuild invalid boards
+     * @param themeId the theme, or {@link #ALL_THEMES}
+     * @param ranking what the players are ranked by
+     * @param offset  the number of players to skip
+     * @param limit   the maximum number of players to return
+     * @return the players from rank {@code offset + 1} on, best first
+     */
+    public List<LeaderboardEntry> getPage(Supplier<QuizSnapshot> current, int themeId, Ranking ranking, int offset,
+            int limit) {
+        List<LeaderboardEntry> result = new ArrayList<>();
+        Board board = boards(current).get(themeId);
+        if (board == null || limit <= 0) {
+            return result;
+        }
+        QuizSnapshot snapshot = current.get();
+        int position = Math.max(0, offset);
+        for (RankKey key : board.rankings[ranking.ordinal()].page(position, limit)) {
+            result.add(entry(snapshot, board, key.playerId, ++position));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the standing and rank of one player.
+     *
+     * @param current  supplies the current snapshot, used to rebuild invalid boards
+     * @param playerId the player
+     * @param themeId  the theme, or {@link #ALL_THEMES}
+     * @param ranking  what the players are ranked by
+     * @return the entry of the player, with rank 0 if the player is not ranked
+     *         by accuracy yet; {@code null} if the player has no evaluated
+     *         answers on the board
+     */
+    public LeaderboardEntry getEntry(Supplier<QuizSnapshot> current, int playerId, int themeId, Ranking ranking) {
+        Board board = boards(current).get(themeId);
+        Standing standing = board == null ? null : board.standings.get(playerId);
+        if (standing == null) {
+            return null;
+        }
+        RankKey key = keyOf(ranking, playerId, standing);
+        int rank = 0;
+        if (key != null) {
+            // a standing newer than the ranking ranks where its key will be inserted
+            rank = board.rankings[ranking.ordinal()].countBefore(key) + 1;
+        }
+        return toEntry(current.get(), playerId, standing, rank);
+    }
+
+    /** @return the number of ranked players of a board */
+    public int size(Supplier<QuizSnapshot> current, int themeId) {
+        Board board = boards(current).get(themeId);
+        return board == null ? 0 : board.standings.size();
+    }
+
+    private ConcurrentHashMap<Integer, Board> boards(Supplier<QuizSnapshot> current) {
+        ConcurrentHashMap<Integer, Board> result = boards;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            if (boards == null) {
+                rebuild(current.get());
+            }
+            return boards;
+        }
+    }
+
+    /** Counts the whole history of a snapshot. Caller holds the monitor. */
+    private void rebuild(QuizSnapshot snapshot) {
+        ConcurrentHashMap<Integer, Board> rebuilt = new ConcurrentHashMap<>();
+        PlayerAnswerLog log = snapshot.getPlayerAnswerLog();
+        countSubmissions(rebuilt, snapshot, new Rows() {
+            @Override
+            public int size() {
+                return log.size();
+            }
+
+            @Override
+            public int playerIdAt(int index) {
+                return log.playerIdAt(index);
+            }
+
+            @Override
+            public int questionIdAt(int index) {
+                return log.questionIdAt(index);
+            }
+
+            @Override
+            public int answerIdAt(int index) {
+                return log.answerIdAt(index);
+            }
+
+            @Override
+            public boolean sameSubmission(int first, int other) {
+                return log.playerIdAt(first) == log.playerIdAt(other)
+                        && log.questionIdAt(first) == log.questionIdAt(other)
+                        && log.timeAt(first) == log.timeAt(other) && log.durationAt(first) == log.durationAt(other);
+            }
+        });
+        rebuiltVersion = snapshot.getVersion();
+        boards = rebuilt;
+    }
+
+    /**
+     * Splits the rows into submissions and counts each one. A submission ends
+     * where the next row belongs to another submission or repeats one of its
+     * answers.
+     */
+    private void countSubmissions(ConcurrentHashMap<Integer, Board> into, QuizSnapshot snapshot, Rows rows) {
+        IntObjectMap<int[]> questions = new IntObjectMap<>();
+        int[] chosen = new int[8];
+        int start = 0;
+        while (start < rows.size()) {
+            chosen[0] = rows.answerIdAt(start);
+            int end = start + 1;
+            while (end < rows.size() && rows.sameSubmission(start, end)
+                    && !contains(chosen, end - start, rows.answerIdAt(end))) {
+                if (end - start == chosen.length) {
+                    chosen = Arrays.copyOf(chosen, chosen.length << 1);
+                }
+                chosen[end - start] = rows.answerIdAt(end);
+                end++;
+            }
+            count(into, snapshot, questions, rows.playerIdAt(start), rows.questionIdAt(start), chosen, end - start);
+            start = end;
+        }
+    }
+
+    /**
+     * Counts one submission on the board of its theme and on that of all themes.
+     *
+     * @param questions question ID -> {theme ID, correct answer IDs in ascending order}, read once per question
+     * @param chosen    the chosen answer IDs in its first {@code chosenCount} elements; reordered
+     */
+    private void count(ConcurrentHashMap<Integer, Board> into, QuizSnapshot snapshot, IntObjectMap<int[]> questions,
+            int playerId, int questionId, int[] chosen, int chosenCount) {
+        if (playerId <= 0) {
+            return;
+        }
+        int[] question = questions.get(questionId);
+        if (question == null) {
+            question = readQuestion(snapshot, questionId);
+            questions.put(questionId, question);
+        }
+        if (question[0] == 0 || question.length == 1) {
+            // deleted, or nothing to evaluate against
+            return;
+        }
+        if (questionId >= 0) {
+            answeredQuestions.set(questionId);
+        }
+        boolean isCorrect = chosenCount == question.length - 1;
+        if (isCorrect) {
+            Arrays.sort(chosen, 0, chosenCount);
+            for (int i = 0; i < chosenCount && isCorrect; i++) {
+                isCorrect = chosen[i] == question[i + 1];
+            }
+        }
+        into.computeIfAbsent(ALL_THEMES, id -> new Board()).record(playerId, isCorrect);
+        into.computeIfAbsent(question[0], id -> new Board()).record(playerId, isCorrect);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return {theme ID, correct answer IDs in ascending order}, {0} for a missing question */
+    private static int[] readQuestion(QuizSnapshot snapshot, int questionId) {
+        QuestionDTO question = snapshot.getQuestion(questionId);
+        if (question == null) {
+            return new int[1];
+        }
+        List<AnswerDTO> answers = snapshot.getAnswersFor(questionId);
+        int[] result = new int[answers.size() + 1];
+        result[0] = question.getThemeId();
+        int n = 1;
+        for (AnswerDTO answer : answers) {
+            if (answer.isCorrect()) {
+                result[n++] = answer.getId();
+            }
+        }
+        Arrays.sort(result, 1, n);
+        return Arrays.copyOf(result, n);
+    }
+
+    /** @return the key of a standing in a ranking, {@code null} if it is not ranked there */
+    private static RankKey keyOf(Ranking ranking, int playerId, Standing standing) {
+        if (standing.evaluated == 0) {
+            return null;
+        }
+        switch (ranking) {
+        case SCORE:
+            return new RankKey(standing.correct, playerId);
+        case ACCURACY:
+            return standing.evaluated < MIN_ANSWERS_FOR_ACCURACY ? null
+                    : new RankKey((double) standing.correct / standing.evaluated, playerId);
+        default:
+            return new RankKey(standing.longestStreak, playerId);
+        }
+    }
+
+    private static LeaderboardEntry entry(QuizSnapshot snapshot, Board board, int playerId, int rank) {
+        return toEntry(snapshot, playerId, board.standings.getOrDefault(playerId, Standing.NONE), rank);
+    }
+
+    private static LeaderboardEntry toEntry(QuizSnapshot snapshot, int playerId, Standing standing, int rank) {
+        PlayerDTO player = snapshot.getPlayer(playerId);
+        return new LeaderboardEntry(rank, playerId, player == null ? "" : player.getName(), standing.evaluated,
+                standing.correct, standing.streak, standing.longestStreak);
+    }
+}
@@ -0,0 +1,70 @@
+package bussinesLogic.statistics;
+
+/**
+ * The standing of one player on a {@link Leaderboard}, per theme or over all
+ * themes.
+ * <p>
+ * Like in the statistics, every saved answer counts on its own, and only
+ * answers to questions with a correct answer are evaluated.
+ * </p>
+ */
+public final class LeaderboardEntry {
+
+    private final int rank;
+    private final int playerId;
+    private final String playerName;
+    private final long evaluated;
+    private final long correct;
+    private final int streak;
+    private final int longestStreak;
+
+    LeaderboardEntry(int rank, int playerId, String playerName, long evaluated, long correct, int streak,
+            int longestStreak) {
+        this.rank = rank;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.evaluated = evaluated;
+        this.correct = correct;
+        this.streak = streak;
+        this.longestStreak = longestStreak;
+    }
+
+    /** @return the position in the ranking, starting at 1; 0 if the player is not ranked by it */
+    public int getRank() {
+        return rank;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /** @return the name of the player profile, empty if it is not known (yet) */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /** @return the number of evaluated answers */
+    public long getEvaluated() {
+        return evaluated;
+    }
+
+    /** @return the number of correct answers, the score */
+    public long getCorrect() {
+        return correct;
+    }
+
+    /** @return the share of correct answers among the evaluated ones, between 0 and 1 */
+    public double getAccuracy() {
+        return evaluated == 0 ? 0.0 : (double) correct / evaluated;
+    }
+
+    /** @return the number of correct answers in a row up to the last answer */
+    public int getStreak() {
+        return streak;
+    }
+
+    /** @return the longest run of correct answers in a row */
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+}
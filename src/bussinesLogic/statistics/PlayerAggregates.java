@@ -0,0 +1,149 @@
+package bussinesLogic.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.repository.QuizSnapshot;
+import helpers.IntObjectMap;
+
+/**
+ * The {@link StatisticsAggregator}s of single players, for the statistics of
+ * one player.
+ * <p>
+ * The aggregator of a player is created on the first read of their
+ * statistics and rebuilt from the history then, counting only their answers.
+ * From then on the answers of the player are counted as they are saved, like
+ * in the aggregator of all players. Players whose statistics are never read
+ * cost nothing.
+ * </p>
+ * <p>
+ * The map is split into {@value #STRIPES} stripes, chosen by the player ID,
+ * each an {@link IntObjectMap} with a lock of its own that is only held for
+ * the lookup. Counting and reading the answers of a player then only take the
+ * lock of that player's aggregator, so many players answering and reading
+ * their statistics at once do not wait for each other.
+ * </p>
+ * <p>
+ * After loading or deleting the history all aggregators are dropped and
+ * created again on the next read.
+ * </p>
+ */
+public final class PlayerAggregates {
+
+    private static final int STRIPES = 16;
+
+    /** One part of the map; it is its own lock. */
+    private static final class Stripe {
+        final IntObjectMap<StatisticsAggregator> aggregators = new IntObjectMap<>();
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public PlayerAggregates() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @param playerId the player
+     * @param current  supplies the current snapshot
+     * @return the statistics of the player; stays valid across changes of the data
+     */
+    public PlayerStatistics forPlayer(int playerId, Supplier<QuizSnapshot> current) {
+        return new PlayerStatistics(this, playerId, current);
+    }
+
+    /** @return the aggregator of a player, created if there is none */
+    StatisticsAggregator get(int playerId) {
+        Stripe stripe = stripeOf(playerId);
+        synchronized (stripe) {
+            StatisticsAggregator aggregator = stripe.aggregators.get(playerId);
+            if (aggregator == null) {
+                aggregator = new StatisticsAggregator(playerId);
+                stripe.aggregators.put(playerId, aggregator);
+            }
+            return aggregator;
+        }
+    }
+
+    /**
+     * Counts newly saved player answers into the aggregators of their players.
+     * Anonymous answers and players without an aggregator are skipped.
+     *
+     * @param snapshot the snapshot that contains the answers
+     * @param added    the saved answers
+     */
+    public void add(QuizSnapshot snapshot, List<PlayerAnswerDTO> added) {
+        IntObjectMap<List<PlayerAnswerDTO>> byPlayer = new IntObjectMap<>();
+        for (PlayerAnswerDTO playerAnswer : added) {
+            if (playerAnswer.getPlayerId() <= 0) {
+                continue;
+            }
+            List<PlayerAnswerDTO> answers = byPlayer.get(playerAnswer.getPlayerId());
+            if (answers == null) {
+                answers = new ArrayList<>();
+                byPlayer.put(playerAnswer.getPlayerId(), answers);
+            }
+            answers.add(playerAnswer);
+        }
+        for (int playerId : byPlayer.sortedKeys()) {
+            StatisticsAggregator aggregator = peek(playerId);
+            if (aggregator != null) {
+                aggregator.add(snapshot, byPlayer.get(playerId));
+            }
+        }
+    }
+
+    /** @see StatisticsAggregator#reindex(QuizSnapshot, int[]) */
+    public void reindex(QuizSnapshot snapshot, int[] questionIds) {
+        for (StatisticsAggregator aggregator : all()) {
+            aggregator.reindex(snapshot, questionIds);
+        }
+    }
+
+    /** Drops all aggregators; they are rebuilt on the next read. */
+    public void invalidate() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.aggregators.clear();
+            }
+        }
+    }
+
+    /** @return the number of players with an aggregator */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.aggregators.size();
+            }
+        }
+        return size;
+    }
+
+    private StatisticsAggregator peek(int playerId) {
+        Stripe stripe = stripeOf(playerId);
+        synchronized (stripe) {
+            return stripe.aggregators.get(playerId);
+        }
+    }
+
+    /** @return the aggregators of all stripes, collected without holding two locks at once */
+    private List<StatisticsAggregator> all() {
+        List<StatisticsAggregator> result = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.aggregators.forEachValue(result::add);
+            }
+        }
+        return result;
+    }
+
+    private Stripe stripeOf(int playerId) {
+        // player IDs are sequential, so the low bits spread them evenly
+        return stripes[playerId & (STRIPES - 1)];
+    }
+}
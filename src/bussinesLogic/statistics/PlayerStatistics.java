@@ -0,0 +1,71 @@
+package bussinesLogic.statistics;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import bussinesLogic.repository.QuizSnapshot;
+
+/**
+ * The statistics of one player: the same views as for all players, counted
+ * over the answers of this player only.
+ * <p>
+ * The counters are kept in the {@link PlayerAggregates} and looked up on every
+ * call, so an instance can be kept while the data changes.
+ * </p>
+ */
+public final class PlayerStatistics {
+
+    private final PlayerAggregates aggregates;
+    private final int playerId;
+    private final Supplier<QuizSnapshot> current;
+
+    PlayerStatistics(PlayerAggregates aggregates, int playerId, Supplier<QuizSnapshot> current) {
+        this.aggregates = aggregates;
+        this.playerId = playerId;
+        this.current = current;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /** @see StatisticsAggregator#getQuestionTotals(Supplier, int, DateRange) */
+    public AnswerTotals getQuestionTotals(int questionId, DateRange range) {
+        return aggregates.get(playerId).getQuestionTotals(current, questionId, range);
+    }
+
+    /** @see StatisticsAggregator#getThemeTotals(Supplier, int, DateRange) */
+    public AnswerTotals getThemeTotals(int themeId, DateRange range) {
+        return aggregates.get(playerId).getThemeTotals(current, themeId, range);
+    }
+
+    /** @see StatisticsAggregator#getQuestionDurations(Supplier, int) */
+    public DurationHistogram getQuestionDurations(int questionId) {
+        return aggregates.get(playerId).getQuestionDurations(current, questionId);
+    }
+
+    /** @see StatisticsAggregator#getThemeDurations(Supplier, int) */
+    public DurationHistogram getThemeDurations(int themeId) {
+        return aggregates.get(playerId).getThemeDurations(current, themeId);
+    }
+
+    /** @see StatisticsAggregator#getTotals(Supplier, DateRange) */
+    public AnswerTotals getAnswerTotals(DateRange range) {
+        return aggregates.get(playerId).getTotals(current, range);
+    }
+
+    /** @see StatisticsAggregator#getOptionCounts(Supplier, DateRange) */
+    public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+        return aggregates.get(playerId).getOptionCounts(current, range);
+    }
+
+    /** @see StatisticsAggregator#getQuestionStatistics(Supplier, DateRange) */
+    public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+        return aggregates.get(playerId).getQuestionStatistics(current, range);
+    }
+
+    /** @see StatisticsAggregator#getSeries(Supplier, int, DateRange, TrendSeries.Resolution) */
+    public TrendSeries getAnswerSeries(int themeId, DateRange range, TrendSeries.Resolution resolution) {
+        return aggregates.get(playerId).getSeries(current, themeId, range, resolution);
+    }
+}
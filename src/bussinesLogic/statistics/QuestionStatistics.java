@@ -0,0 +1,69 @@
+package bussinesLogic.statistics;
+
+/**
+ * Summary of the running counters of one question, as read from the
+ * {@link StatisticsAggregator} for all questions at once.
+ * <p>
+ * The answer counts cover the requested days, the median answer time covers
+ * all time, like the {@link DurationHistogram}.
+ * </p>
+ */
+public final class QuestionStatistics {
+
+    private final int questionId;
+    private final int themeId;
+    private final long answered;
+    private final long evaluated;
+    private final long correct;
+    private final long timedAnswers;
+    private final int medianMillis;
+
+    QuestionStatistics(int questionId, int themeId, long answered, long evaluated, long correct, long timedAnswers,
+            int medianMillis) {
+        this.questionId = questionId;
+        this.themeId = themeId;
+        this.answered = answered;
+        this.evaluated = evaluated;
+        this.correct = correct;
+        this.timedAnswers = timedAnswers;
+        this.medianMillis = medianMillis;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getThemeId() {
+        return themeId;
+    }
+
+    /** @return the number of player answers */
+    public long getAnswered() {
+        return answered;
+    }
+
+    /** @return the number of player answers if the question has a correct answer, else 0 */
+    public long getEvaluated() {
+        return evaluated;
+    }
+
+    /** @return the number of correct player answers */
+    public long getCorrect() {
+        return correct;
+    }
+
+    /** @return the share of wrong answers among the evaluated ones, between 0 and 1 */
+    public double getErrorRate() {
+        return evaluated == 0 ? 0.0 : 1.0 - (double) correct / evaluated;
+    }
+
+    /** @return the number of answers with a recorded duration */
+    public long getTimedAnswers() {
+        return timedAnswers;
+    }
+
+    /** @return the median answer time in milliseconds, 0 if none was recorded */
+    public int getMedianMillis() {
+        return medianMillis;
+    }
+}
@@ -0,0 +1,830 @@
+package bussinesLogic.statistics;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.repository.PlayerAnswerLog;
+import bussinesLogic.repository.QuizSnapshot;
+import helpers.IntObjectMap;
+
+/**
+ * Running answer counters per question, per theme and for the whole bank.
+ * <p>
+ * Every saved player answer increments a handful of counters in O(1), so
+ * reading the totals of a theme does not depend on the length of the answer
+ * history. A question remembers its theme and its correct answer; when either
+ * changes, {@link #reindex(QuizSnapshot, int[])} moves the counts of only
+ * that question. As in {@link StatisticsService}, the first correct answer of
+ * a question is the one that counts.
+ * </p>
+ * <p>
+ * The same counters are also kept per day in {@link DayBuckets}, so the totals
+ * of any {@link DateRange} cost one step per day in the range. Per question
+ * the days count every answer option, so changing the correct answer later
+ * still gives the right numbers for past days.
+ * </p>
+ * <p>
+ * The recorded answer durations go into a {@link DurationHistogram} per
+ * question and per theme, over all time. A theme histogram is the sum of those
+ * of its questions and is updated the same way as the counters.
+ * </p>
+ * <p>
+ * After loading or deleting the history the aggregator is
+ * {@link #invalidate() invalidated} and rebuilt once from the snapshot on the
+ * next read. From {@value #PARALLEL_THRESHOLD} player answers on, the rebuild
+ * splits the {@link PlayerAnswerLog} into ranges that are counted on the
+ * fork/join pool, each into counters of its own. The counters of neighbouring
+ * ranges are merged left to right, so the result is the same as counting
+ * sequentially, down to the order of the answer options.
+ * </p>
+ * <p>
+ * The all-time evaluated and correct counts of the questions also feed the
+ * {@link ItemResponseEngine}, which estimates their difficulty and, from the
+ * answers of known players, their discrimination and the players' abilities.
+ * </p>
+ * <p>
+ * An aggregator can also count the answers of one player only; the
+ * {@link PlayerAggregates} keep one such aggregator per player whose
+ * statistics are read.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> Reads run in parallel under a read lock; updates take
+ * the write lock.
+ * </p>
+ */
+public class StatisticsAggregator {
+
+    /** Counters of one question. */
+    private static final class QuestionCounter {
+        /** 0 if the question no longer exists. */
+        int themeId;
+        /** 0 if the question has no correct answer. */
+        int correctAnswerId;
+        int answered;
+        int options;
+        int[] answerIds = new int[4];
+        int[] counts = new int[4];
+        /** One counter per answer option, same order as {@link #answerIds}. */
+        final DayBuckets days = new DayBuckets(4);
+        /** {@code null} until a duration is recorded. */
+        DurationHistogram durations;
+
+        int indexOf(int answerId) {
+            for (int i = 0; i < options; i++) {
+                if (answerIds[i] == answerId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @param day            the epoch day, or {@link #NO_DAY}
+         * @param durationMillis the answer duration, 0 if not recorded
+         */
+        void add(int answerId, int day, int durationMillis) {
+            answered++;
+            int i = optionOf(answerId);
+            counts[i]++;
+            if (day != NO_DAY) {
+                days.add(day, i, 1);
+            }
+            if (durationMillis > 0) {
+                if (durations == null) {
+                    durations = new DurationHistogram();
+                }
+                durations.record(durationMillis);
+            }
+        }
+
+        /** Adds the counts of a counter for later answers of the same question. */
+        void merge(QuestionCounter later) {
+            answered += later.answered;
+            int[] slots = new int[later.options];
+            for (int j = 0; j < later.options; j++) {
+                slots[j] = optionOf(later.answerIds[j]);
+                counts[slots[j]] += later.counts[j];
+            }
+            DayBuckets laterDays = later.days;
+            for (int k = 0; k < laterDays.size(); k++) {
+                for (int j = 0; j < later.options; j++) {
+                    long count = laterDays.get(k, j);
+                    if (count != 0) {
+                        days.add(laterDays.dayAt(k), slots[j], count);
+                    }
+                }
+            }
+            if (later.durations != null) {
+                if (durations == null) {
+                    durations = later.durations;
+                } else {
+                    durations.add(later.durations, 1);
+                }
+            }
+        }
+
+        /** @return the index of the option, added if it is new */
+        private int optionOf(int answerId) {
+            int i = indexOf(answerId);
+            if (i >= 0) {
+                return i;
+            }
+            if (options == answerIds.length) {
+                answerIds = Arrays.copyOf(answerIds, options * 2);
+                counts = Arrays.copyOf(counts, options * 2);
+                days.widen(options * 2);
+            }
+            answerIds[options] = answerId;
+            return options++;
+        }
+    }
+
+    /** Counters of one theme, and of the whole bank. */
+    private static final class Totals {
+        long answered;
+        long evaluated;
+        long correct;
+        /** {@link #ANSWERED}, {@link #EVALUATED} and {@link #CORRECT} per day. */
+        final DayBuckets days = new DayBuckets(3);
+        final DurationHistogram durations = new DurationHistogram();
+
+        void add(int day, long answered, long evaluated, long correct) {
+            this.answered += answered;
+            this.evaluated += evaluated;
+            this.correct += correct;
+            if (day != NO_DAY) {
+                days.add(day, ANSWERED, answered);
+                days.add(day, EVALUATED, evaluated);
+                days.add(day, CORRECT, correct);
+            }
+        }
+
+        AnswerTotals toAnswerTotals(DateRange range) {
+            if (range.isAllTime()) {
+                return new AnswerTotals(answered, evaluated, correct, new int[0], new int[0]);
+            }
+            long[] sums = new long[3];
+            days.sum(range.fromEpochDay(), range.toEpochDay(), sums);
+            return new AnswerTotals(sums[ANSWERED], sums[EVALUATED], sums[CORRECT], new int[0], new int[0]);
+        }
+    }
+
+    private static final int ANSWERED = 0;
+    private static final int EVALUATED = 1;
+    private static final int CORRECT = 2;
+
+    /** Day of answers without a timestamp; they only count for all time. */
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    /** Player ID of an aggregator that counts the answers of all players. */
+    public static final int ALL_PLAYERS = -1;
+
+    /** From this many player answers on, the counters are rebuilt in parallel. */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Counts the answers of a range of the log into counters of its own. */
+    private static final class CountTask extends RecursiveTask<IntObjectMap<QuestionCounter>> {
+        private final PlayerAnswerLog log;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final int playerId;
+
+        CountTask(PlayerAnswerLog log, int from, int to, int leafSize, int playerId) {
+            this.log = log;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.playerId = playerId;
+        }
+
+        @Override
+        protected IntObjectMap<QuestionCounter> compute() {
+            if (to - from <= leafSize) {
+                return countRange(log, from, to, playerId);
+            }
+            int middle = (from + to) >>> 1;
+            CountTask right = new CountTask(log, middle, to, leafSize, playerId);
+            right.fork();
+            IntObjectMap<QuestionCounter> left = new CountTask(log, from, middle, leafSize, playerId).compute();
+            return mergeCounters(left, right.join());
+        }
+    }
+
+    private final IntObjectMap<QuestionCounter> questions = new IntObjectMap<>();
+    private final IntObjectMap<Totals> themes = new IntObjectMap<>();
+    /** Answers to questions of existing themes only, except for {@code answered}. */
+    private Totals overall = new Totals();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Not cleared by {@link #invalidate()}: the answers of known players are not in the history. */
+    private final ItemResponseEngine responses = new ItemResponseEngine();
+
+    /** The player whose answers are counted, or {@link #ALL_PLAYERS}. */
+    private final int playerId;
+
+    /** Guarded by {@link #lock}. */
+    private boolean valid;
+    /** Version of the snapshot of the last rebuild; its answers are counted already. Guarded by {@link #lock}. */
+    private long rebuiltVersion = -1;
+
+    /** Creates an aggregator over the answers of all players. */
+    public StatisticsAggregator() {
+        this(ALL_PLAYERS);
+    }
+
+    /**
+     * @param playerId the player whose answers are counted, or
+     *                 {@link #ALL_PLAYERS}
+     */
+    StatisticsAggregator(int playerId) {
+        this.playerId = playerId;
+    }
+
+    /** Marks the counters as outdated; they are rebuilt on the next read. */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            valid = false;
+            questions.clear();
+            themes.clear();
+            overall = new Totals();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts newly saved player answers. Does nothing while the counters are
+     * invalid or were rebuilt from this snapshot or a later one, which already
+     * contains the answers. Answers of other players are skipped.
+     *
+     * @param snapshot the snapshot that contains the answers
+     * @param added    the saved answers
+     */
+    public void add(QuizSnapshot snapshot, List<PlayerAnswerDTO> added) {
+        lock.writeLock().lock();
+        try {
+            if (valid && snapshot.getVersion() > rebuiltVersion) {
+                for (PlayerAnswerDTO playerAnswer : added) {
+                    if (playerId != ALL_PLAYERS && playerAnswer.getPlayerId() != playerId) {
+                        continue;
+                    }
+                    count(snapshot, playerAnswer.getQuestionId(), playerAnswer.getAnswerId(),
+                            epochDay(playerAnswer.getCreatedAt()), playerAnswer.getDurationMillis());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the theme and the correct answer of the given questions and
+     * moves their counts accordingly. Does nothing while the counters are
+     * invalid.
+     *
+     * @param snapshot    the snapshot with the changes applied
+     * @param questionIds the IDs of the created, changed or deleted questions
+     */
+    public void reindex(QuizSnapshot snapshot, int[] questionIds) {
+        lock.writeLock().lock();
+        try {
+            if (valid) {
+                for (int id : questionIds) {
+                    QuestionCounter counter = questions.get(id);
+                    if (counter != null) {
+                        contribute(counter, -1);
+                        readQuestion(snapshot, id, counter);
+                        contribute(counter, 1);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param current    supplies the current snapshot, used to rebuild invalid counters
+     * @param questionId the question ID
+     * @param range      the days to count
+     * @return the counts of the question, including the counts per answer option
+     */
+    public AnswerTotals getQuestionTotals(Supplier<QuizSnapshot> current, int questionId, DateRange range) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            QuestionCounter counter = questions.get(questionId);
+            if (counter == null) {
+                return AnswerTotals.EMPTY;
+            }
+            int[] counts = countsIn(counter, range);
+            long answered = 0;
+            for (int count : counts) {
+                answered += count;
+            }
+            int correctIndex = counter.correctAnswerId == 0 ? -1 : counter.indexOf(counter.correctAnswerId);
+            return new AnswerTotals(answered, counter.correctAnswerId == 0 ? 0 : answered,
+                    correctIndex < 0 ? 0 : counts[correctIndex], Arrays.copyOf(counter.answerIds, counter.options),
+                    counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param current supplies the current snapshot, used to rebuild invalid counters
+     * @param themeId the theme ID
+     * @param range   the days to count
+     * @return the summed counts of all questions of the theme
+     */
+    public AnswerTotals getThemeTotals(Supplier<QuizSnapshot> current, int themeId, DateRange range) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            Totals totals = themes.get(themeId);
+            return totals == null ? AnswerTotals.EMPTY : totals.toAnswerTotals(range);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param current supplies the current snapshot, used to rebuild invalid counters
+     * @param range   the days to count
+     * @return the number of all player answers, and the evaluated and correct
+     *         answers summed over all themes
+     */
+    public AnswerTotals getTotals(Supplier<QuizSnapshot> current, DateRange range) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            return overall.toAnswerTotals(range);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the option counts of every answered question in one pass over the
+     * counters. Which options are correct is taken from the current snapshot,
+     * so questions with several correct answers are covered.
+     *
+     * @param current supplies the current snapshot
+     * @param range   the days to count
+     * @return the counts of all existing questions with answers in the range,
+     *         ordered by question ID
+     */
+    public List<AnswerOptionCounts> getOptionCounts(Supplier<QuizSnapshot> current, DateRange range) {
+        ensureValid(current);
+        QuizSnapshot snapshot = current.get();
+        lock.readLock().lock();
+        try {
+            List<AnswerOptionCounts> result = new ArrayList<>();
+            for (int questionId : questions.sortedKeys()) {
+                QuestionDTO question = snapshot.getQuestion(questionId);
+                if (question == null) {
+                    continue;
+                }
+                QuestionCounter counter = questions.get(questionId);
+                int[] counts = countsIn(counter, range);
+                long answered = 0;
+                for (int count : counts) {
+                    answered += count;
+                }
+                if (answered == 0) {
+                    continue;
+                }
+                List<AnswerDTO> answers = snapshot.getAnswersFor(questionId);
+                int[] answerIds = new int[answers.size()];
+                int[] optionCounts = new int[answers.size()];
+                boolean[] correct = new boolean[answers.size()];
+                for (int i = 0; i < answerIds.length; i++) {
+                    AnswerDTO answer = answers.get(i);
+                    answerIds[i] = answer.getId();
+                    correct[i] = answer.isCorrect();
+                    int option = counter.indexOf(answer.getId());
+                    optionCounts[i] = option < 0 ? 0 : counts[option];
+                }
+                result.add(new AnswerOptionCounts(questionId, question.getThemeId(), answered, answerIds,
+                        optionCounts, correct));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the answer counts over time from the per-day rollups; the cost
+     * depends on the number of days, not of answers.
+     *
+     * @param current    supplies the current snapshot, used to rebuild invalid counters
+     * @param themeId    the theme ID, or 0 for all themes
+     * @param range      the days to read
+     * @param resolution one point per day or per week
+     * @return the points with answers, in time order
+     */
+    public TrendSeries getSeries(Supplier<QuizSnapshot> current, int themeId, DateRange range,
+            TrendSeries.Resolution resolution) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            Totals totals = themeId == 0 ? overall : themes.get(themeId);
+            if (totals == null) {
+                return TrendSeries.EMPTY;
+            }
+            DayBuckets days = totals.days;
+            int from = days.firstIndexFrom(range.fromEpochDay());
+            int to = days.firstIndexFrom(range.toEpochDay());
+            if (to < days.size() && days.dayAt(to) == range.toEpochDay()) {
+                to++;
+            }
+            int[] startDays = new int[to - from];
+            long[] answered = new long[startDays.length];
+            long[] evaluated = new long[startDays.length];
+            long[] correct = new long[startDays.length];
+            int points = 0;
+            for (int i = from; i < to; i++) {
+                if (days.get(i, ANSWERED) == 0) {
+                    // left behind by a question that moved to another theme
+                    continue;
+                }
+                int start = resolution == TrendSeries.Resolution.WEEK ? TrendSeries.weekStart(days.dayAt(i))
+                        : days.dayAt(i);
+                if (points == 0 || startDays[points - 1] != start) {
+                    startDays[points++] = start;
+                }
+                answered[points - 1] += days.get(i, ANSWERED);
+                evaluated[points - 1] += days.get(i, EVALUATED);
+                correct[points - 1] += days.get(i, CORRECT);
+            }
+            return new TrendSeries(resolution, Arrays.copyOf(startDays, points), Arrays.copyOf(answered, points),
+                    Arrays.copyOf(evaluated, points), Arrays.copyOf(correct, points));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the counts and the median answer time of every answered question
+     * in one pass over the counters.
+     *
+     * @param current supplies the current snapshot, used to rebuild invalid counters
+     * @param range   the days to count
+     * @return the statistics of all existing questions with answers in the
+     *         range, ordered by question ID
+     */
+    public List<QuestionStatistics> getQuestionStatistics(Supplier<QuizSnapshot> current, DateRange range) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            List<QuestionStatistics> result = new ArrayList<>();
+            for (int questionId : questions.sortedKeys()) {
+                QuestionCounter counter = questions.get(questionId);
+                if (counter.themeId == 0) {
+                    continue;
+                }
+                int[] counts = countsIn(counter, range);
+                long answered = 0;
+                for (int count : counts) {
+                    answered += count;
+                }
+                if (answered == 0) {
+                    continue;
+                }
+                int correctIndex = counter.correctAnswerId == 0 ? -1 : counter.indexOf(counter.correctAnswerId);
+                DurationHistogram durations = counter.durations;
+                result.add(new QuestionStatistics(questionId, counter.themeId, answered,
+                        counter.correctAnswerId == 0 ? 0 : answered, correctIndex < 0 ? 0 : counts[correctIndex],
+                        durations == null ? 0 : durations.getCount(),
+                        durations == null ? 0 : durations.getPercentile(50)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param current    supplies the current snapshot, used to rebuild invalid counters
+     * @param questionId the question ID
+     * @return the recorded answer durations of the question over all time
+     */
+    public DurationHistogram getQuestionDurations(Supplier<QuizSnapshot> current, int questionId) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            QuestionCounter counter = questions.get(questionId);
+            return counter == null || counter.durations == null ? DurationHistogram.EMPTY : counter.durations.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param current supplies the current snapshot, used to rebuild invalid counters
+     * @param themeId the theme ID
+     * @return the recorded answer durations of all questions of the theme over
+     *         all time
+     */
+    public DurationHistogram getThemeDurations(Supplier<QuizSnapshot> current, int themeId) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            Totals totals = themes.get(themeId);
+            return totals == null ? DurationHistogram.EMPTY : totals.durations.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the answer of a known player for the item response model.
+     *
+     * @param current    supplies the current snapshot, used to rebuild invalid counters
+     * @param respondent identifies the player, e.g. a session ID
+     * @param questionId the answered question
+     * @param correct    whether the answer was correct
+     * @return the new ability estimate of the player
+     */
+    public AbilityEstimate recordResponse(Supplier<QuizSnapshot> current, String respondent, int questionId,
+            boolean correct) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            return responses.record(respondent, questionId, correct, this::evaluatedAndCorrect);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @see ItemResponseEngine#getAbility(String) */
+    public AbilityEstimate getAbility(String respondent) {
+        return responses.getAbility(respondent);
+    }
+
+    /** @see ItemResponseEngine#forget(String) */
+    public void forgetRespondent(String respondent) {
+        responses.forget(respondent);
+    }
+
+    /**
+     * @param current    supplies the current snapshot, used to rebuild invalid counters
+     * @param questionId the question ID
+     * @return the item response parameters of the question from its all-time counts
+     */
+    public ItemCalibration getItemCalibration(Supplier<QuizSnapshot> current, int questionId) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            long[] counts = evaluatedAndCorrect(questionId);
+            return counts == null ? responses.calibrate(questionId, 0, 0)
+                    : responses.calibrate(questionId, counts[0], counts[1]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the item response parameters of every existing question with
+     * evaluated answers in one pass over the counters.
+     *
+     * @param current supplies the current snapshot, used to rebuild invalid counters
+     * @return the parameters, ordered by question ID
+     */
+    public List<ItemCalibration> getItemCalibrations(Supplier<QuizSnapshot> current) {
+        ensureValid(current);
+        lock.readLock().lock();
+        try {
+            List<ItemCalibration> result = new ArrayList<>();
+            for (int questionId : questions.sortedKeys()) {
+                long[] counts = evaluatedAndCorrect(questionId);
+                if (counts != null && counts[0] > 0) {
+                    result.add(responses.calibrate(questionId, counts[0], counts[1]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the all-time {evaluated, correct} answers of an existing
+     *         question, {@code null} if it has none or does not exist. Caller
+     *         holds a lock.
+     */
+    private long[] evaluatedAndCorrect(int questionId) {
+        QuestionCounter counter = questions.get(questionId);
+        if (counter == null || counter.themeId == 0) {
+            return null;
+        }
+        if (counter.correctAnswerId == 0) {
+            return new long[]{0, 0};
+        }
+        int correctIndex = counter.indexOf(counter.correctAnswerId);
+        return new long[]{counter.answered, correctIndex < 0 ? 0 : counter.counts[correctIndex]};
+    }
+
+    /** @return how often each option of the counter was chosen in the range */
+    private static int[] countsIn(QuestionCounter counter, DateRange range) {
+        if (range.isAllTime()) {
+            return Arrays.copyOf(counter.counts, counter.options);
+        }
+        long[] sums = new long[counter.answerIds.length];
+        counter.days.sum(range.fromEpochDay(), range.toEpochDay(), sums);
+        int[] counts = new int[counter.options];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (int) sums[i];
+        }
+        return counts;
+    }
+
+    private void ensureValid(Supplier<QuizSnapshot> current) {
+        lock.readLock().lock();
+        try {
+            if (valid) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!valid) {
+                rebuild(current.get());
+                valid = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Counts the whole history of a snapshot. Caller holds the write lock. */
+    private void rebuild(QuizSnapshot snapshot) {
+        PlayerAnswerLog log = snapshot.getPlayerAnswerLog();
+        int size = log.size();
+        IntObjectMap<QuestionCounter> counted;
+        if (size < PARALLEL_THRESHOLD) {
+            counted = countRange(log, 0, size, playerId);
+        } else {
+            int leafSize = Math.max(PARALLEL_THRESHOLD / 4, size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+            counted = ForkJoinPool.commonPool().invoke(new CountTask(log, 0, size, leafSize, playerId));
+        }
+        rebuiltVersion = snapshot.getVersion();
+        for (int questionId : counted.sortedKeys()) {
+            QuestionCounter counter = counted.get(questionId);
+            readQuestion(snapshot, questionId, counter);
+            questions.put(questionId, counter);
+            contribute(counter, 1);
+            long dated = 0;
+            for (int i = 0; i < counter.days.size(); i++) {
+                long answered = 0;
+                for (int option = 0; option < counter.options; option++) {
+                    answered += counter.days.get(i, option);
+                }
+                overall.add(counter.days.dayAt(i), answered, 0, 0);
+                dated += answered;
+            }
+            overall.add(NO_DAY, counter.answered - dated, 0, 0);
+        }
+    }
+
+    /**
+     * Counts the player answers from {@code from} to {@code to} of one player
+     * or of {@link #ALL_PLAYERS}, without themes.
+     */
+    private static IntObjectMap<QuestionCounter> countRange(PlayerAnswerLog log, int from, int to, int playerId) {
+        IntObjectMap<QuestionCounter> counters = new IntObjectMap<>();
+        QuestionCounter counter = null;
+        int lastQuestionId = 0;
+        for (int i = from; i < to; i++) {
+            if (playerId != ALL_PLAYERS && log.playerIdAt(i) != playerId) {
+                continue;
+            }
+            int questionId = log.questionIdAt(i);
+            if (counter == null || questionId != lastQuestionId) {
+                counter = counters.get(questionId);
+                if (counter == null) {
+                    counter = new QuestionCounter();
+                    counters.put(questionId, counter);
+                }
+                lastQuestionId = questionId;
+            }
+            long time = log.timeAt(i);
+            counter.add(log.answerIdAt(i), time == PlayerAnswerLog.NO_TIME ? NO_DAY : PlayerAnswerLog.epochDay(time),
+                    log.durationAt(i));
+        }
+        return counters;
+    }
+
+    /** Merges the counters of a later range into those of an earlier one. */
+    private static IntObjectMap<QuestionCounter> mergeCounters(IntObjectMap<QuestionCounter> earlier,
+            IntObjectMap<QuestionCounter> later) {
+        for (int questionId : later.sortedKeys()) {
+            QuestionCounter counter = earlier.get(questionId);
+            if (counter == null) {
+                earlier.put(questionId, later.get(questionId));
+            } else {
+                counter.merge(later.get(questionId));
+            }
+        }
+        return earlier;
+    }
+
+    private void count(QuizSnapshot snapshot, int questionId, int answerId, int day, int durationMillis) {
+        QuestionCounter counter = questions.get(questionId);
+        if (counter == null) {
+            counter = new QuestionCounter();
+            readQuestion(snapshot, questionId, counter);
+            questions.put(questionId, counter);
+        }
+        counter.add(answerId, day, durationMillis);
+        if (counter.themeId == 0) {
+            overall.add(day, 1, 0, 0);
+            return;
+        }
+        int evaluated = counter.correctAnswerId == 0 ? 0 : 1;
+        int correct = evaluated == 1 && answerId == counter.correctAnswerId ? 1 : 0;
+        Totals theme = themeTotals(counter.themeId);
+        theme.add(day, 1, evaluated, correct);
+        theme.durations.record(durationMillis);
+        overall.add(day, 1, evaluated, correct);
+    }
+
+    /**
+     * Adds ({@code sign} 1) or removes ({@code sign} -1) the counts and
+     * durations of a question from its theme, all time and per day. The overall
+     * number of answers stays the same.
+     */
+    private void contribute(QuestionCounter counter, int sign) {
+        if (counter.themeId == 0) {
+            return;
+        }
+        Totals theme = themeTotals(counter.themeId);
+        if (counter.durations != null) {
+            theme.durations.add(counter.durations, sign);
+        }
+        int correctIndex = counter.correctAnswerId == 0 ? -1 : counter.indexOf(counter.correctAnswerId);
+        long datedAnswered = 0;
+        long datedCorrect = 0;
+        DayBuckets days = counter.days;
+        for (int i = 0; i < days.size(); i++) {
+            long answered = 0;
+            for (int option = 0; option < counter.options; option++) {
+                answered += days.get(i, option);
+            }
+            long evaluated = counter.correctAnswerId == 0 ? 0 : answered;
+            long correct = correctIndex < 0 ? 0 : days.get(i, correctIndex);
+            theme.add(days.dayAt(i), sign * answered, sign * evaluated, sign * correct);
+            overall.add(days.dayAt(i), 0, sign * evaluated, sign * correct);
+            datedAnswered += answered;
+            datedCorrect += correct;
+        }
+        // answers without a timestamp
+        long answered = counter.answered - datedAnswered;
+        long evaluated = counter.correctAnswerId == 0 ? 0 : answered;
+        long correct = (correctIndex < 0 ? 0 : counter.counts[correctIndex]) - datedCorrect;
+        theme.add(NO_DAY, sign * answered, sign * evaluated, sign * correct);
+        overall.add(NO_DAY, 0, sign * evaluated, sign * correct);
+    }
+
+    private static int epochDay(LocalDateTime createdAt) {
+        return createdAt == null ? NO_DAY : (int) createdAt.toLocalDate().toEpochDay();
+    }
+
+    private Totals themeTotals(int themeId) {
+        Totals totals = themes.get(themeId);
+        if (totals == null) {
+            totals = new Totals();
+            themes.put(themeId, totals);
+        }
+        return totals;
+    }
+
+    private static void readQuestion(QuizSnapshot snapshot, int questionId, QuestionCounter counter) {
+        QuestionDTO question = snapshot.getQuestion(questionId);
+        counter.themeId = question == null ? 0 : question.getThemeId();
+        counter.correctAnswerId = 0;
+        if (question != null) {
+            for (AnswerDTO answer : snapshot.getAnswersFor(questionId)) {
+                if (answer.isCorrect()) {
+                    counter.correctAnswerId = answer.getId();
+                    break;
+                }
+            }
+        }
+    }
+}
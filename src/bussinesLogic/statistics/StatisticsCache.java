@@ -0,0 +1,192 @@
+package bussinesLogic.statistics;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import bussinesLogic.statistics.StatisticsService.Period;
+
+/**
+ * Least-recently-used cache of computed statistics, keyed by period, theme and
+ * player.
+ * <p>
+ * Every entry remembers the data version and the day it was computed for. An
+ * entry is only valid while both are unchanged, so any change of the data, and
+ * the start of a new day for the shorter periods, makes it stale. A stale entry
+ * is still kept as the last known value until it is computed again or evicted.
+ * </p>
+ * <p>
+ * The cache can be written to and read from a file. Data versions start again
+ * with every start of the application, so read entries are stale from the
+ * beginning and only serve as last known values.
+ * </p>
+ * <p>
+ * All methods are thread-safe; the values are computed outside the lock.
+ * </p>
+ */
+public final class StatisticsCache {
+
+    /** Version of entries read from a file; no data version is negative. */
+    private static final long NO_VERSION = -1;
+
+    private final Map<Key, Entry> entries;
+    /** Serializes writers of the file, so two saves never share the temporary file. */
+    private final Object saveLock = new Object();
+
+    /**
+     * @param capacity the number of entries to keep before the least recently
+     *                 used one is evicted
+     */
+    public StatisticsCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        // access order: every get moves the entry to the end
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the value, or {@code null} if there is none or it was computed for
+     *         another data version or day
+     */
+    public synchronized Serializable get(Period period, int themeId, int playerId, long version, long epochDay) {
+        Entry entry = entries.get(new Key(period, themeId, playerId));
+        return entry != null && entry.version == version && entry.epochDay == epochDay ? entry.value : null;
+    }
+
+    /** @return the latest value, even if stale, or {@code null} if there is none */
+    public synchronized Serializable getLastKnown(Period period, int themeId, int playerId) {
+        Entry entry = entries.get(new Key(period, themeId, playerId));
+        return entry != null ? entry.value : null;
+    }
+
+    /** Stores a value, replacing the one of the same period, theme and player. */
+    public synchronized void put(Period period, int themeId, int playerId, long version, long epochDay,
+            Serializable value) {
+        entries.put(new Key(period, themeId, playerId), new Entry(version, epochDay, Objects.requireNonNull(value)));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Writes all entries to a file, least recently used first. The entries are
+     * written to a temporary file that then replaces the file in one step, so
+     * a crash while saving leaves the previous file intact.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        List<Object[]> list = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+                list.add(new Object[]{e.getKey().period, e.getKey().themeId, e.getValue().epochDay,
+                        e.getValue().value, e.getKey().playerId});
+            }
+        }
+        synchronized (saveLock) {
+            File tmp = new File(file.getPath() + ".tmp");
+            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(tmp))) {
+                oos.writeObject(list);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Adds the entries of a file written by {@link #save(File)} as stale
+     * entries. A missing or broken file adds nothing.
+     *
+     * @return the number of entries read
+     */
+    public int load(File file) {
+        if (!file.isFile()) {
+            return 0;
+        }
+        List<Key> keys = new ArrayList<>();
+        List<Entry> read = new ArrayList<>();
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+            for (Object element : (List<?>) ois.readObject()) {
+                Object[] fields = (Object[]) element;
+                keys.add(new Key((Period) fields[0], (Integer) fields[1], (Integer) fields[4]));
+                read.add(new Entry(NO_VERSION, (Long) fields[2], (Serializable) fields[3]));
+            }
+        } catch (Exception e) {
+            // broken or from an older version: start without last known values
+            return 0;
+        }
+        int count = 0;
+        synchronized (this) {
+            for (int i = 0; i < keys.size(); i++) {
+                // entries computed in this run are newer than the file
+                if (!entries.containsKey(keys.get(i))) {
+                    entries.put(keys.get(i), read.get(i));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static final class Key {
+        private final Period period;
+        private final int themeId;
+        private final int playerId;
+
+        Key(Period period, int themeId, int playerId) {
+            this.period = period;
+            this.themeId = themeId;
+            this.playerId = playerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return period == other.period && themeId == other.themeId && playerId == other.playerId;
+        }
+
+        @Override
+        public int hashCode() {
+            return (period.hashCode() * 31 + themeId) * 31 + playerId;
+        }
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final long epochDay;
+        private final Serializable value;
+
+        Entry(long version, long epochDay, Serializable value) {
+            this.version = version;
+            this.epochDay = epochDay;
+            this.value = value;
+        }
+    }
+}
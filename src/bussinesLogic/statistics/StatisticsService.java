@@ -1,23 +1,31 @@
 package bussinesLogic.statistics;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
 
-import bussinesLogic.AnswerDTO;
-import bussinesLogic.PlayerAnswerDTO;
-import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
 
 /**
  * Service class for computing quiz statistics.
  * 
  * This class contains all logic for:
- *  - Filtering answers by period
- *  - Computing accuracy for questions and themes
- *  - Counting answered questions
+ *  - Turning a period into the date range the aggregates are read for
+ *  - Converting correct and total counts into an accuracy
+ *  - Ranking misleading answer options
+ *  - Picking the top-k hardest, easiest, most answered or slowest questions
+ *  - Caching computed results per period and theme, also across restarts
+ *
+ * Every view has a per-player mode: the rankings take the counts of one
+ * player as read from {@link PlayerStatistics}, and the cache keeps the
+ * results of each player apart from those of all players.
  *
  * The UI panels should only call these methods and not contain logic.
  */
@@ -27,137 +35,247 @@ public class StatisticsService {
      * Enum for selecting the time period filter.
      */
     public enum Period {
-        ALL_TIME, LAST_MONTH, TODAY
+        ALL_TIME, LAST_MONTH, LAST_WEEK, TODAY, THIS_YEAR;
+
+        /**
+         * @param today the current day
+         * @return the days of this period
+         */
+        public DateRange toRange(LocalDate today) {
+            switch (this) {
+                case LAST_MONTH: return DateRange.lastDays(today, 30);
+                case LAST_WEEK: return DateRange.lastDays(today, 7);
+                case TODAY: return DateRange.day(today);
+                case THIS_YEAR: return DateRange.year(today.getYear());
+                default: return DateRange.ALL_TIME;
+            }
+        }
     }
 
-    private final ZoneId zone = ZoneId.systemDefault();
+    /** Results of five periods for the overview and some themes, of all players and a few single ones. */
+    private static final int CACHE_CAPACITY = 128;
+
+    private final StatisticsCache cache = new StatisticsCache(CACHE_CAPACITY);
 
     /**
-     * Filters player answers based on the given period.
-     * 
-     * @param allAnswers all available player answers
-     * @param period selected time filter
-     * @return filtered list of answers
+     * Converts correct and total counts into an accuracy between 0 and 1.
      */
-    public List<PlayerAnswerDTO> filterAnswersByPeriod(List<PlayerAnswerDTO> allAnswers, Period period) {
-        if (period == Period.ALL_TIME) {
-            return allAnswers;
-        }
+    public double toAccuracy(long correct, long total) {
+        if (total == 0) return 0.0;
+        return (double) correct / total;
+    }
 
-        LocalDate today = LocalDate.now();
-        List<PlayerAnswerDTO> result = new ArrayList<>();
+    /**
+     * What the questions are ranked by in
+     * {@link StatisticsService#topQuestions(Collection, ThemeDTO, QuestionMetric, boolean, int, long)}.
+     */
+    public enum QuestionMetric {
+        /** Share of wrong answers; the sample are the evaluated answers. */
+        ERROR_RATE,
+        /** Number of answers; the sample are all answers. */
+        ANSWERED,
+        /** Median answer time over all time; the sample are the timed answers. */
+        MEDIAN_TIME;
 
-        if (period == Period.TODAY) {
-            for (PlayerAnswerDTO pa : allAnswers) {
-                LocalDate d = pa.getCreatedAt().atZone(zone).toLocalDate();
-                if (d.isEqual(today)) {
-                    result.add(pa);
-                }
+        double valueOf(QuestionStatistics question) {
+            switch (this) {
+                case ERROR_RATE: return question.getErrorRate();
+                case ANSWERED: return question.getAnswered();
+                default: return question.getMedianMillis();
             }
-        } else if (period == Period.LAST_MONTH) {
-            LocalDate monthAgo = today.minusDays(30);
-            for (PlayerAnswerDTO pa : allAnswers) {
-                LocalDate d = pa.getCreatedAt().atZone(zone).toLocalDate();
-                if (!d.isBefore(monthAgo) && !d.isAfter(today)) {
-                    result.add(pa);
-                }
+        }
+
+        long sampleOf(QuestionStatistics question) {
+            switch (this) {
+                case ERROR_RATE: return question.getEvaluated();
+                case ANSWERED: return question.getAnswered();
+                default: return question.getTimedAnswers();
             }
         }
-        return result;
     }
 
     /**
-     * Builds a map of answers grouped by question ID.
+     * Picks the k questions with the highest or lowest value of a metric, e.g.
+     * the 50 hardest questions of the last month.
+     * <p>
+     * The candidates pass once through a min-heap that never holds more than k
+     * questions, so this costs O(n log k) and O(k) memory instead of sorting
+     * all questions.
+     * </p>
      *
-     * @param answers list of player answers (already filtered by period)
-     * @return map questionId -> list of answers
+     * @param questions the statistics of all questions for the period, as read
+     *                  with {@code getQuestionStatistics(DateRange)}, of all
+     *                  players or of one from {@link PlayerStatistics}
+     * @param theme     only questions of this theme, or {@code null} for all
+     * @param metric    what to rank by
+     * @param highest   {@code true} for the highest values (hardest, most
+     *                  answered, slowest), {@code false} for the lowest
+     * @param k         the number of questions to return
+     * @param minSample questions with a smaller sample for the metric are left out
+     * @return at most k questions, best ranked first; ties go to the lower question ID
      */
-    public Map<Integer, List<PlayerAnswerDTO>> buildAnswersByQuestion(List<PlayerAnswerDTO> answers) {
-        Map<Integer, List<PlayerAnswerDTO>> answersByQuestion = new HashMap<>();
-        for (PlayerAnswerDTO pa : answers) {
-            answersByQuestion.computeIfAbsent(pa.getQuestionId(), k -> new ArrayList<>()).add(pa);
+    public List<QuestionStatistics> topQuestions(Collection<QuestionStatistics> questions, ThemeDTO theme,
+                                                 QuestionMetric metric, boolean highest, int k, long minSample) {
+        if (k <= 0) return new ArrayList<>();
+        Comparator<QuestionStatistics> byValue = Comparator.comparingDouble(metric::valueOf);
+        // greater means ranked higher
+        Comparator<QuestionStatistics> rank = (highest ? byValue : byValue.reversed())
+                .thenComparing(Comparator.comparingInt(QuestionStatistics::getQuestionId).reversed());
+        PriorityQueue<QuestionStatistics> heap = new PriorityQueue<>(Math.min(k, 1024), rank);
+        for (QuestionStatistics question : questions) {
+            if (theme != null && question.getThemeId() != theme.getId()) continue;
+            if (metric.sampleOf(question) < Math.max(1, minSample)) continue;
+            if (heap.size() < k) {
+                heap.add(question);
+            } else if (rank.compare(question, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(question);
+            }
         }
-        return answersByQuestion;
+        List<QuestionStatistics> result = new ArrayList<>(heap);
+        result.sort(rank.reversed());
+        return result;
     }
 
     /**
-     * Computes the global accuracy for all questions.
+     * A wrong answer option together with how often it was chosen.
      */
-    public double computeGlobalAccuracy(List<QuestionDTO> allQuestions,
-                                        Map<Integer, List<PlayerAnswerDTO>> answersByQuestion,
-                                        Map<Integer, List<AnswerDTO>> correctAnswersByQuestion) {
-        return computeAccuracyForQuestions(allQuestions, answersByQuestion, correctAnswersByQuestion);
+    public static final class Distractor {
+        private final int questionId;
+        private final int answerId;
+        private final int count;
+        private final double share;
+
+        Distractor(int questionId, int answerId, int count, double share) {
+            this.questionId = questionId;
+            this.answerId = answerId;
+            this.count = count;
+            this.share = share;
+        }
+
+        public int getQuestionId() {
+            return questionId;
+        }
+
+        public int getAnswerId() {
+            return answerId;
+        }
+
+        /** @return how often the option was chosen */
+        public int getCount() {
+            return count;
+        }
+
+        /** @return the share of all answers to its question that chose the option, between 0 and 1 */
+        public double getShare() {
+            return share;
+        }
     }
 
     /**
-     * Computes accuracy for a list of questions.
+     * Ranks the wrong options of all questions by how often they mislead the
+     * players, in one pass over the option counts.
+     *
+     * @param optionCounts the option counts, e.g. of the whole bank or of one player
+     * @param theme        only options of this theme's questions, or {@code null} for all
+     * @param k            the number of options to return
+     * @param minAnswered  questions with fewer answers are left out, their shares are not meaningful
+     * @return at most k wrong options that were chosen at least once, highest share first
      */
-    public double computeAccuracyForQuestions(List<QuestionDTO> questions,
-                                              Map<Integer, List<PlayerAnswerDTO>> answersByQuestion,
-                                              Map<Integer, List<AnswerDTO>> correctAnswersByQuestion) {
-        long totalAnswers = 0;
-        long totalCorrect = 0;
-
-        for (QuestionDTO question : questions) {
-            List<PlayerAnswerDTO> list = answersByQuestion.get(question.getId());
-            if (list == null || list.isEmpty()) continue;
-
-            Integer correctAnswerId = getCorrectAnswerId(question.getId(), correctAnswersByQuestion);
-            if (correctAnswerId == null) continue;
-
-            long correct = list.stream().filter(pa -> pa.getAnswerId() == correctAnswerId).count();
-            totalAnswers += list.size();
-            totalCorrect += correct;
+    public List<Distractor> rankDistractors(Collection<AnswerOptionCounts> optionCounts, ThemeDTO theme, int k,
+                                            long minAnswered) {
+        List<Distractor> result = new ArrayList<>();
+        if (k <= 0) return result;
+        for (AnswerOptionCounts question : optionCounts) {
+            if (question.getAnswered() < Math.max(1, minAnswered) || !question.hasCorrectOption()) continue;
+            if (theme != null && question.getThemeId() != theme.getId()) continue;
+            for (int i = 0; i < question.getOptionCount(); i++) {
+                if (!question.isCorrect(i) && question.getCount(i) > 0) {
+                    result.add(new Distractor(question.getQuestionId(), question.getAnswerId(i), question.getCount(i),
+                            question.getShare(i)));
+                }
+            }
         }
-
-        if (totalAnswers == 0) return 0.0;
-        return (double) totalCorrect / totalAnswers;
+        result.sort(Comparator.comparingDouble(Distractor::getShare).reversed()
+                .thenComparing(Comparator.comparingInt(Distractor::getCount).reversed())
+                .thenComparingInt(Distractor::getQuestionId)
+                .thenComparingInt(Distractor::getAnswerId));
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
     }
 
     /**
-     * Computes accuracy for a single question.
+     * Returns the cached result of a period and theme, or computes and caches it
+     * if there is none for the current data version and day.
+     *
+     * @param period      the selected period
+     * @param themeId     the theme, or 0 for a result about all themes
+     * @param dataVersion the data version, read before computing; see
+     *                    {@code QuizDataInterface#getDataVersion()}
+     * @param compute     computes the result; runs outside any lock
+     * @return the cached or computed result
      */
-    public double computeAccuracyForQuestion(QuestionDTO q,
-                                             Map<Integer, List<PlayerAnswerDTO>> answersByQuestion,
-                                             Map<Integer, List<AnswerDTO>> correctAnswersByQuestion) {
-        List<PlayerAnswerDTO> list = answersByQuestion.get(q.getId());
-        if (list == null || list.isEmpty()) return 0.0;
+    public <T extends Serializable> T cached(Period period, int themeId, long dataVersion, Supplier<T> compute) {
+        return cached(period, themeId, StatisticsAggregator.ALL_PLAYERS, dataVersion, compute);
+    }
 
-        Integer correctAnswerId = getCorrectAnswerId(q.getId(), correctAnswersByQuestion);
-        if (correctAnswerId == null) return 0.0;
+    /**
+     * Returns the cached result of a period, theme and player, or computes and
+     * caches it if there is none for the current data version and day.
+     *
+     * @param period      the selected period
+     * @param themeId     the theme, or 0 for a result about all themes
+     * @param playerId    the player, or {@link StatisticsAggregator#ALL_PLAYERS}
+     * @param dataVersion the data version, read before computing
+     * @param compute     computes the result; runs outside any lock
+     * @return the cached or computed result
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable> T cached(Period period, int themeId, int playerId, long dataVersion,
+                                             Supplier<T> compute) {
+        long today = LocalDate.now().toEpochDay();
+        T value = (T) cache.get(period, themeId, playerId, dataVersion, today);
+        if (value == null) {
+            value = compute.get();
+            cache.put(period, themeId, playerId, dataVersion, today, value);
+        }
+        return value;
+    }
 
-        long correctCount = list.stream().filter(pa -> pa.getAnswerId() == correctAnswerId).count();
-        return (double) correctCount / list.size();
+    /**
+     * Returns the latest result of a period and theme, even if the data changed
+     * since, e.g. to show something while the current result is computed.
+     *
+     * @return the result, or {@code null} if there is none
+     */
+    public <T extends Serializable> T lastKnown(Period period, int themeId) {
+        return lastKnown(period, themeId, StatisticsAggregator.ALL_PLAYERS);
     }
 
     /**
-     * Counts how many answers exist for a question.
+     * Returns the latest result of a period, theme and player, even if the data
+     * changed since.
+     *
+     * @return the result, or {@code null} if there is none
      */
-    public int computeAnsweredCount(QuestionDTO q, Map<Integer, List<PlayerAnswerDTO>> answersByQuestion) {
-        List<PlayerAnswerDTO> list = answersByQuestion.get(q.getId());
-        return list == null ? 0 : list.size();
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable> T lastKnown(Period period, int themeId, int playerId) {
+        return (T) cache.getLastKnown(period, themeId, playerId);
     }
 
     /**
-     * Counts how many answers exist for a theme (sum of all its questions).
+     * Writes the cached results to a file, to be read on the next start.
+     *
+     * @throws IOException if the file cannot be written
      */
-    public int computeAnsweredCountForTheme(List<QuestionDTO> questions,
-                                            Map<Integer, List<PlayerAnswerDTO>> answersByQuestion) {
-        int sum = 0;
-        for (QuestionDTO question : questions) {
-            List<PlayerAnswerDTO> list = answersByQuestion.get(question.getId());
-            if (list != null) sum += list.size();
-        }
-        return sum;
+    public void saveCache(File file) throws IOException {
+        cache.save(file);
     }
 
     /**
-     * Retrieves the first correct answer ID for a question.
+     * Reads the results written by {@link #saveCache(File)} as last known
+     * results. A missing or broken file is ignored.
      */
-    private Integer getCorrectAnswerId(int questionId,
-                                       Map<Integer, List<AnswerDTO>> correctAnswersByQuestion) {
-        List<AnswerDTO> corrects = correctAnswersByQuestion.get(questionId);
-        if (corrects == null || corrects.isEmpty()) return null;
-        return corrects.get(0).getId();
+    public void loadCache(File file) {
+        cache.load(file);
     }
 }
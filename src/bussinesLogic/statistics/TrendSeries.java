@@ -0,0 +1,76 @@
+package bussinesLogic.statistics;
+
+import java.time.LocalDate;
+
+/**
+ * Answer counts over time, one point per day or per week, as read from the
+ * per-day rollups of the {@link StatisticsAggregator}.
+ * <p>
+ * Only days or weeks with answers have a point. A week starts on Monday.
+ * </p>
+ */
+public final class TrendSeries {
+
+    /** The length of one point. */
+    public enum Resolution {
+        DAY, WEEK
+    }
+
+    /** Series without any point. */
+    public static final TrendSeries EMPTY = new TrendSeries(Resolution.DAY, new int[0], new long[0], new long[0],
+            new long[0]);
+
+    private final Resolution resolution;
+    private final int[] startDays;
+    private final long[] answered;
+    private final long[] evaluated;
+    private final long[] correct;
+
+    TrendSeries(Resolution resolution, int[] startDays, long[] answered, long[] evaluated, long[] correct) {
+        this.resolution = resolution;
+        this.startDays = startDays;
+        this.answered = answered;
+        this.evaluated = evaluated;
+        this.correct = correct;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    /** @return the number of points */
+    public int size() {
+        return startDays.length;
+    }
+
+    /** @return the first day of the point at {@code index} */
+    public LocalDate getStart(int index) {
+        return LocalDate.ofEpochDay(startDays[index]);
+    }
+
+    /** @return the number of answers of the point at {@code index} */
+    public long getAnswered(int index) {
+        return answered[index];
+    }
+
+    /** @return the number of evaluated answers of the point at {@code index} */
+    public long getEvaluated(int index) {
+        return evaluated[index];
+    }
+
+    /** @return the number of correct answers of the point at {@code index} */
+    public long getCorrect(int index) {
+        return correct[index];
+    }
+
+    /** @return correct divided by evaluated answers of the point at {@code index}, between 0 and 1 */
+    public double getAccuracy(int index) {
+        return evaluated[index] == 0 ? 0.0 : (double) correct[index] / evaluated[index];
+    }
+
+    /** @return the epoch day of the Monday of the week of {@code epochDay} */
+    static int weekStart(int epochDay) {
+        // 1970-01-01 was a Thursday
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+}
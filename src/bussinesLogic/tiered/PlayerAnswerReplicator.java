@@ -0,0 +1,183 @@
+package bussinesLogic.tiered;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import bussinesLogic.PlayerAnswerDTO;
+import persistence.mariaDB.DBManager;
+import persistence.serialization.ReplicationOutbox;
+
+/**
+ * Copies player answers from the {@link ReplicationOutbox} to the database in
+ * the background.
+ * <p>
+ * Saving an answer only costs a local file write; a single daemon thread
+ * sends the queued answers to the database in batches of up to
+ * {@link #BATCH_SIZE}. A failed batch stays in the outbox and is retried with
+ * exponential backoff. Because every entry carries an idempotency key, a
+ * batch that reaches the database twice is stored only once.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class PlayerAnswerReplicator {
+
+	/** Maximum number of answers sent in one transaction. */
+	static final int BATCH_SIZE = 100;
+
+	/** Delay after an enqueue, so that answers saved close together share a batch. */
+	private static final long LINGER_MILLIS = 200;
+	private static final long MIN_BACKOFF_MILLIS = 1_000;
+	private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+	private final ReplicationOutbox outbox;
+	private final DBManager remote;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "player-answer-replicator");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Serializes batches of the background thread and {@link #drainNow()}. */
+	private final Object drainLock = new Object();
+
+	/** Guarded by {@code this}. */
+	private boolean scheduled;
+	private long backoffMillis;
+
+	private volatile String lastError;
+
+	/**
+	 * Creates the replicator and starts sending the entries left over from the
+	 * last run.
+	 *
+	 * @param outbox the durable queue
+	 * @param remote the database
+	 */
+	public PlayerAnswerReplicator(ReplicationOutbox outbox, DBManager remote) {
+		this.outbox = outbox;
+		this.remote = remote;
+		if (outbox.size() > 0) {
+			schedule(0);
+		}
+	}
+
+	/**
+	 * Queues player answers for the database, all or none of them. They are
+	 * durable when this method returns.
+	 *
+	 * @param playerAnswers the answers, with their IDs set
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public String enqueueAll(List<PlayerAnswerDTO> playerAnswers) {
+		String result = outbox.appendAll(playerAnswers);
+		if (result == null) {
+			schedule(LINGER_MILLIS);
+		}
+		return result;
+	}
+
+	/**
+	 * Sends all queued answers now, on the calling thread.
+	 *
+	 * @return {@code true} if the outbox is empty afterwards
+	 */
+	public boolean drainNow() {
+		synchronized (drainLock) {
+			return sendPending();
+		}
+	}
+
+	/**
+	 * Deletes the answers in the database and, only if that succeeded, drops
+	 * the queued ones. No batch is sent in between, so none can reach the
+	 * database after the delete.
+	 *
+	 * @param deleteRemote deletes all answers in the database
+	 * @return the result of {@code deleteRemote}
+	 */
+	public String deleteAll(Supplier<String> deleteRemote) {
+		synchronized (drainLock) {
+			String result = deleteRemote.get();
+			if ("Success".equals(result)) {
+				outbox.clear();
+			}
+			return result;
+		}
+	}
+
+	/** @return the number of answers not yet in the database */
+	public int getPendingCount() {
+		return outbox.size();
+	}
+
+	/**
+	 * Returns the replication lag: how long the oldest queued answer has been
+	 * waiting.
+	 *
+	 * @return the lag in milliseconds, {@code 0} if nothing is queued
+	 */
+	public long getLagMillis() {
+		return outbox.getLagMillis();
+	}
+
+	/** @see ReplicationOutbox#getQuarantinedFiles() */
+	public List<String> getQuarantinedFiles() {
+		return outbox.getQuarantinedFiles();
+	}
+
+	/** @return the error of the last failed batch, or {@code null} */
+	public String getLastError() {
+		return lastError;
+	}
+
+	private synchronized void schedule(long delayMillis) {
+		if (!scheduled) {
+			scheduled = true;
+			executor.schedule(this::drainInBackground, delayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void drainInBackground() {
+		synchronized (this) {
+			scheduled = false;
+		}
+		boolean done;
+		synchronized (drainLock) {
+			done = sendPending();
+		}
+		if (done) {
+			backoffMillis = 0;
+		} else {
+			backoffMillis = backoffMillis == 0 ? MIN_BACKOFF_MILLIS
+					: Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+			schedule(backoffMillis);
+		}
+	}
+
+	/** Sends batches until the outbox is empty or a batch fails. Caller holds {@link #drainLock}. */
+	private boolean sendPending() {
+		List<ReplicationOutbox.Entry> batch;
+		while (!(batch = outbox.peek(BATCH_SIZE)).isEmpty()) {
+			List<PlayerAnswerDTO> answers = new ArrayList<>(batch.size());
+			List<String> keys = new ArrayList<>(batch.size());
+			for (ReplicationOutbox.Entry entry : batch) {
+				answers.add(entry.getPlayerAnswer());
+				keys.add(entry.getRequestKey());
+			}
+			String result = remote.replicatePlayerAnswers(answers, keys);
+			if (result != null) {
+				lastError = result;
+				return false;
+			}
+			lastError = null;
+			outbox.remove(batch);
+		}
+		return true;
+	}
+}
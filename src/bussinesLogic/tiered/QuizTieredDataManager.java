@@ -0,0 +1,468 @@
+package bussinesLogic.tiered;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.ErrorHandler;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+import bussinesLogic.Validator;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
+import helpers.EdtGuard;
+import helpers.QuizDataInterface;
+import persistence.mariaDB.DBManager;
+import persistence.serialization.ReplicationOutbox;
+import persistence.serialization.SManager;
+
+/**
+ * Two-tier {@link QuizDataInterface}: the local serialization store
+ * ({@link SManager}) serves all reads, MariaDB ({@link DBManager}) stays the
+ * authoritative store.
+ * <p>
+ * <b>Reads</b> come from the local tier only. A lookup by ID that misses
+ * locally falls through to the database; if the database knows the entity,
+ * the local tier is stale and is synchronized.
+ * </p>
+ * <p>
+ * <b>Writes</b> of themes and questions go through to both tiers: first to the
+ * database, which assigns the IDs, then to the local tier with the same IDs. If
+ * the database write fails, the local tier is left untouched, so the tiers
+ * never diverge.
+ * </p>
+ * <p>
+ * <b>Player answers</b> are saved far more often. They are queued in a
+ * durable outbox first, which a {@link PlayerAnswerReplicator} sends to the
+ * database in the background, and then written to the local tier.
+ * </p>
+ * <p>
+ * <b>Staleness</b> is detected by comparing the row counts and highest IDs of
+ * both tiers (one small query, see {@link DBManager#readStamp()}). The check
+ * runs on start-up and on {@link #refresh()}. If the stamps differ, the local
+ * tier is replaced by the database content. The outbox is sent first, and
+ * while answers are still queued the local tier is never replaced. If the
+ * database is not reachable, the local tier is used as it is.
+ * </p>
+ * <p>
+ * <b>Threading:</b> Writes, {@link #refresh()} and lookups that fall through
+ * block on the database or the disk and belong in a background thread. Every
+ * call is checked by the {@link EdtGuard}, which reports the calls made on the
+ * Swing event dispatch thread.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class QuizTieredDataManager implements QuizDataInterface {
+
+	private final SManager local = SManager.getInstance();
+	private final DBManager remote = DBManager.getInstance();
+	private final PlayerAnswerReplicator replicator = new PlayerAnswerReplicator(new ReplicationOutbox(), remote);
+
+	private final EdtGuard edtGuard = EdtGuard.getInstance();
+
+	private QuizTieredDataManager() {
+		refresh();
+	}
+
+	private static class Holder {
+		private static final QuizTieredDataManager INSTANCE = new QuizTieredDataManager();
+	}
+
+	public static QuizTieredDataManager getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Compares the stamps of both tiers and reloads the local tier from the
+	 * database if they differ.
+	 *
+	 * @return {@code true} if the local tier was reloaded
+	 */
+	public synchronized boolean refresh() {
+		edtGuard.blocking("refresh");
+		if (!replicator.drainNow()) {
+			return false;
+		}
+		long[] remoteStamp = remote.readStamp();
+		if (remoteStamp == null || Arrays.equals(remoteStamp, local.getStamp())) {
+			return false;
+		}
+		synchronizeLocal();
+		return true;
+	}
+
+	/**
+	 * Replaces the local tier with the content of the database, unless player
+	 * answers are still waiting in the outbox.
+	 */
+	private synchronized void synchronizeLocal() {
+		if (!replicator.drainNow()) {
+			return;
+		}
+		String result = local.replaceAll(remote.getAllThemes(), remote.getAllQuestions(), remote.getAllAnswers(),
+				remote.getAllPlayerAnswers(), remote.getAllPlayers());
+		if (result != null) {
+			ErrorHandler.getInstance().setError(result);
+		}
+	}
+
+	/** @return the number of player answers not yet in the database */
+	public int getPendingReplications() {
+		edtGuard.read("getPendingReplications");
+		return replicator.getPendingCount();
+	}
+
+	/**
+	 * @return the number of outbox files that could not be read on start; their
+	 *         answers are kept in the quarantine folder but not replicated
+	 */
+	public int getQuarantinedReplications() {
+		edtGuard.read("getQuarantinedReplications");
+		return replicator.getQuarantinedFiles().size();
+	}
+
+	/** @see PlayerAnswerReplicator#getLagMillis() */
+	public long getReplicationLagMillis() {
+		edtGuard.read("getReplicationLagMillis");
+		return replicator.getLagMillis();
+	}
+
+	@Override
+	public List<ThemeDTO> getAllThemes() {
+		edtGuard.read("getAllThemes");
+		return local.getAllThemes();
+	}
+
+	@Override
+	public List<QuestionDTO> getAllQuestions() {
+		edtGuard.read("getAllQuestions");
+		return local.getAllQuestions();
+	}
+
+	@Override
+	public List<AnswerDTO> getAllAnswers() {
+		edtGuard.read("getAllAnswers");
+		return local.getAllAnswers();
+	}
+
+	@Override
+	public List<PlayerAnswerDTO> getAllPlayerAnswers() {
+		edtGuard.read("getAllPlayerAnswers");
+		return local.getAllPlayerAnswers();
+	}
+
+	@Override
+	public List<QuestionDTO> getQuestionsFor(ThemeDTO theme) {
+		edtGuard.read("getQuestionsFor");
+		return local.getQuestionsFor(theme.getId());
+	}
+
+	@Override
+	public List<QuestionDTO> searchQuestions(String query, ThemeDTO theme, int limit) {
+		edtGuard.read("searchQuestions");
+		return local.searchQuestions(query, theme == null ? -1 : theme.getId(), limit);
+	}
+
+	@Override
+	public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit) {
+		edtGuard.read("findSimilarThemes");
+		return local.findSimilarThemes(title, minSimilarity, limit);
+	}
+
+	@Override
+	public List<QuestionDTO> findSimilarQuestions(String title, ThemeDTO theme, double minSimilarity, int limit) {
+		edtGuard.read("findSimilarQuestions");
+		return local.findSimilarQuestions(title, theme == null ? -1 : theme.getId(), minSimilarity, limit);
+	}
+
+	@Override
+	public List<QuestionDTO> findDuplicatesOf(QuestionDTO question) {
+		edtGuard.read("findDuplicatesOf");
+		return local.findDuplicatesOf(question);
+	}
+
+	@Override
+	public List<DuplicateGroup> findDuplicateGroups() {
+		edtGuard.read("findDuplicateGroups");
+		return local.findDuplicateGroups();
+	}
+
+	@Override
+	public AnswerTotals getQuestionTotals(QuestionDTO question, DateRange range) {
+		edtGuard.read("getQuestionTotals");
+		return local.getQuestionTotals(question.getId(), range);
+	}
+
+	@Override
+	public AnswerTotals getThemeTotals(ThemeDTO theme, DateRange range) {
+		edtGuard.read("getThemeTotals");
+		return local.getThemeTotals(theme.getId(), range);
+	}
+
+	@Override
+	public DurationHistogram getQuestionDurations(QuestionDTO question) {
+		edtGuard.read("getQuestionDurations");
+		return local.getQuestionDurations(question.getId());
+	}
+
+	@Override
+	public DurationHistogram getThemeDurations(ThemeDTO theme) {
+		edtGuard.read("getThemeDurations");
+		return local.getThemeDurations(theme.getId());
+	}
+
+	@Override
+	public AnswerTotals getAnswerTotals(DateRange range) {
+		edtGuard.read("getAnswerTotals");
+		return local.getAnswerTotals(range);
+	}
+
+	@Override
+	public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+		edtGuard.read("getAnswerOptionCounts");
+		return local.getAnswerOptionCounts(range);
+	}
+
+	@Override
+	public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+		edtGuard.read("getQuestionStatistics");
+		return local.getQuestionStatistics(range);
+	}
+
+	@Override
+	public TrendSeries getAnswerSeries(ThemeDTO theme, DateRange range, TrendSeries.Resolution resolution) {
+		edtGuard.read("getAnswerSeries");
+		return local.getAnswerSeries(theme == null ? 0 : theme.getId(), range, resolution);
+	}
+
+	@Override
+	public long getDataVersion() {
+		edtGuard.read("getDataVersion");
+		return local.getDataVersion();
+	}
+
+	@Override
+	public AbilityEstimate recordResponse(String respondent, QuestionDTO question, boolean correct) {
+		edtGuard.read("recordResponse");
+		return local.recordResponse(respondent, question.getId(), correct);
+	}
+
+	@Override
+	public AbilityEstimate getAbility(String respondent) {
+		edtGuard.read("getAbility");
+		return local.getAbility(respondent);
+	}
+
+	@Override
+	public ItemCalibration getItemCalibration(QuestionDTO question) {
+		edtGuard.read("getItemCalibration");
+		return local.getItemCalibration(question.getId());
+	}
+
+	@Override
+	public List<ItemCalibration> getItemCalibrations() {
+		edtGuard.read("getItemCalibrations");
+		return local.getItemCalibrations();
+	}
+
+	@Override
+	public List<PlayerDTO> getAllPlayers() {
+		edtGuard.read("getAllPlayers");
+		return local.getAllPlayers();
+	}
+
+	@Override
+	public PlayerStatistics getPlayerStatistics(PlayerDTO player) {
+		edtGuard.read("getPlayerStatistics");
+		return local.getPlayerStatistics(player.getId());
+	}
+
+	@Override
+	public List<LeaderboardEntry> getLeaderboard(ThemeDTO theme, Leaderboard.Ranking ranking, int offset, int limit) {
+		edtGuard.read("getLeaderboard");
+		return local.getLeaderboard(theme == null ? Leaderboard.ALL_THEMES : theme.getId(), ranking, offset, limit);
+	}
+
+	@Override
+	public LeaderboardEntry getLeaderboardEntry(PlayerDTO player, ThemeDTO theme, Leaderboard.Ranking ranking) {
+		edtGuard.read("getLeaderboardEntry");
+		return local.getLeaderboardEntry(player.getId(), theme == null ? Leaderboard.ALL_THEMES : theme.getId(), ranking);
+	}
+
+	@Override
+	public ThemeDTO getThemeById(int id) {
+		edtGuard.read("getThemeById");
+		ThemeDTO theme = local.getThemeById(id);
+		if (theme != null || id < 1) {
+			return theme;
+		}
+		edtGuard.blocking("getThemeById");
+		theme = remote.getThemeById(id);
+		if (theme != null) {
+			synchronizeLocal();
+		}
+		return theme;
+	}
+
+	@Override
+	public QuestionDTO getQuestionById(int id) {
+		edtGuard.read("getQuestionById");
+		QuestionDTO question = local.getQuestionById(id);
+		if (question != null || id < 1) {
+			return question;
+		}
+		edtGuard.blocking("getQuestionById");
+		question = remote.getQuestionById(id);
+		if (question != null) {
+			synchronizeLocal();
+		}
+		return question;
+	}
+
+	@Override
+	public QuestionDTO getRandomQuestion() {
+		List<QuestionDTO> all = getAllQuestions();
+		if (all.isEmpty())
+			return null;
+		return all.get(new Random().nextInt(all.size()));
+	}
+
+	@Override
+	public QuestionDTO getRandomQuestionFor(ThemeDTO theme) {
+		List<QuestionDTO> themeQuestions = getQuestionsFor(theme);
+		if (themeQuestions.isEmpty())
+			return null;
+		return themeQuestions.get(new Random().nextInt(themeQuestions.size()));
+	}
+
+	@Override
+	public List<AnswerDTO> getAnswersFor(QuestionDTO question) {
+		edtGuard.read("getAnswersFor");
+		List<AnswerDTO> shuffled = local.getAnswersForQuestion(question);
+		Collections.shuffle(shuffled, new SecureRandom());
+		return shuffled;
+	}
+
+	@Override
+	public synchronized String saveTheme(ThemeDTO theme) {
+		edtGuard.blocking("saveTheme");
+		String result = remote.saveTheme(theme);
+		if (result == null && local.saveTheme(theme) != null) {
+			synchronizeLocal();
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized String savePlayer(PlayerDTO player) {
+		edtGuard.blocking("savePlayer");
+		String result = remote.savePlayer(player);
+		if (result == null && local.savePlayer(player) != null) {
+			synchronizeLocal();
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized String deleteTheme(ThemeDTO theme) {
+		edtGuard.blocking("deleteTheme");
+		String result = remote.deleteTheme(theme);
+		if ("Success".equals(result) && !"Success".equals(local.deleteTheme(theme))) {
+			synchronizeLocal();
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized String saveQuestion(QuestionDTO question) {
+		edtGuard.blocking("saveQuestion");
+		String result = remote.saveQuestion(question);
+		if ("Success".equals(result) && !"Success".equals(local.saveQuestion(question))) {
+			synchronizeLocal();
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized String saveQuestion(QuestionDTO question, boolean rejectDuplicates) {
+		edtGuard.blocking("saveQuestion");
+		String duplicates = rejectDuplicates ? Validator.checkDuplicates(findDuplicatesOf(question)) : null;
+		return duplicates != null ? duplicates : saveQuestion(question);
+	}
+
+	@Override
+	public synchronized String saveQuestions(List<QuestionDTO> questions) {
+		edtGuard.blocking("saveQuestions");
+		String result = remote.saveQuestions(questions);
+		if ("Success".equals(result) && !"Success".equals(local.saveQuestions(questions))) {
+			synchronizeLocal();
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized String deleteQuestion(QuestionDTO question) {
+		edtGuard.blocking("deleteQuestion");
+		String result = remote.deleteQuestion(question);
+		if ("Success".equals(result) && !"Success".equals(local.deleteQuestion(question))) {
+			synchronizeLocal();
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized String savePlayerAnswer(PlayerAnswerDTO answer) {
+		edtGuard.blocking("savePlayerAnswer");
+		return storePlayerAnswers(Collections.singletonList(answer));
+	}
+
+	@Override
+	public synchronized String savePlayerAnswers(List<PlayerAnswerDTO> answers) {
+		edtGuard.blocking("savePlayerAnswers");
+		return storePlayerAnswers(answers);
+	}
+
+	/**
+	 * Queues the answers in the outbox in one step, then saves them locally. On
+	 * an error nothing is stored, so the answers can be saved again. Once
+	 * queued they reach the database; if the local write fails, the local tier
+	 * is synchronized with it.
+	 */
+	private String storePlayerAnswers(List<PlayerAnswerDTO> answers) {
+		local.assignPlayerAnswerIds(answers);
+		String result = replicator.enqueueAll(answers);
+		if (result != null) {
+			return result;
+		}
+		if (local.savePlayerAnswers(answers) != null) {
+			synchronizeLocal();
+		}
+		return null;
+	}
+
+	public synchronized String deleteAllPlayerAnswers() {
+		edtGuard.blocking("deleteAllPlayerAnswers");
+		// the queued answers are only dropped once the database has deleted its own
+		String result = replicator.deleteAll(remote::deleteAllPlayerAnswers);
+		if ("Success".equals(result)) {
+			local.deleteAllPlayerAnswers();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,130 @@
+package bussinesLogic.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Reads questions from CSV (RFC 4180: comma separated, fields with commas,
+ * quotes or line breaks enclosed in double quotes).
+ * <p>
+ * Each record is {@code theme,title,text} followed by pairs of answer text and
+ * correctness flag ({@code 1}/{@code 0}, {@code true}/{@code false} or
+ * {@code x}). An optional header record starting with {@code theme} is
+ * skipped.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class CsvQuestionReader implements QuestionReader {
+
+	private final BufferedReader in;
+	private long recordNumber;
+
+	public CsvQuestionReader(Reader in) {
+		this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+	}
+
+	@Override
+	public ImportedQuestion read() throws IOException {
+		List<String> fields;
+		while ((fields = readRecord()) != null) {
+			recordNumber++;
+			if (recordNumber == 1 && !fields.isEmpty() && "theme".equalsIgnoreCase(fields.get(0).trim())) {
+				continue;
+			}
+			if (fields.size() == 1 && fields.get(0).isBlank()) {
+				continue;
+			}
+			return toQuestion(fields);
+		}
+		return null;
+	}
+
+	private ImportedQuestion toQuestion(List<String> fields) throws QuestionFormatException {
+		if (fields.size() < 3) {
+			throw new QuestionFormatException(recordNumber, "Zu wenige Spalten: " + fields.size());
+		}
+		QuestionDTO question = new QuestionDTO();
+		question.setTitle(fields.get(1).trim());
+		question.setText(fields.get(2).trim());
+		List<AnswerDTO> answers = new ArrayList<>();
+		for (int i = 3; i < fields.size(); i += 2) {
+			String text = fields.get(i).trim();
+			String flag = i + 1 < fields.size() ? fields.get(i + 1).trim() : "";
+			if (text.isEmpty() && flag.isEmpty()) {
+				continue;
+			}
+			AnswerDTO answer = new AnswerDTO();
+			answer.setText(text);
+			answer.setCorrect(isTrue(flag));
+			answers.add(answer);
+		}
+		question.setAnswers(answers);
+		return new ImportedQuestion(recordNumber, fields.get(0).trim(), question);
+	}
+
+	private static boolean isTrue(String flag) {
+		return flag.equals("1") || flag.equalsIgnoreCase("true") || flag.equalsIgnoreCase("x");
+	}
+
+	/** Reads one record; quoted fields may span several lines. */
+	private List<String> readRecord() throws IOException {
+		int c = in.read();
+		if (c == -1) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new QuestionFormatException(recordNumber + 1, "Nicht geschlossenes Anführungszeichen");
+				}
+				if (c == '"') {
+					in.mark(1);
+					int next = in.read();
+					if (next == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						if (next != -1) {
+							in.reset();
+						}
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == -1 || c == '\n') {
+				break;
+			} else if (c == '\r') {
+				in.mark(1);
+				if (in.read() != '\n') {
+					in.reset();
+				}
+				break;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else {
+				field.append((char) c);
+			}
+			c = in.read();
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,63 @@
+package bussinesLogic.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Writes questions in the CSV layout read by {@link CsvQuestionReader}.
+ *
+ * @author DejanKrstovski
+ */
+public class CsvQuestionWriter implements QuestionWriter {
+
+	private final BufferedWriter out;
+	private boolean headerWritten;
+
+	public CsvQuestionWriter(Writer out) {
+		this.out = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+	}
+
+	@Override
+	public void write(String themeTitle, QuestionDTO question, List<AnswerDTO> answers) throws IOException {
+		if (!headerWritten) {
+			out.write("theme,title,text,answer,correct");
+			out.newLine();
+			headerWritten = true;
+		}
+		writeField(themeTitle);
+		out.write(',');
+		writeField(question.getTitle());
+		out.write(',');
+		writeField(question.getText());
+		for (AnswerDTO answer : answers) {
+			out.write(',');
+			writeField(answer.getText());
+			out.write(answer.isCorrect() ? ",1" : ",0");
+		}
+		out.newLine();
+	}
+
+	private void writeField(String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+				&& value.indexOf('\r') < 0) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		out.write(value.replace("\"", "\"\""));
+		out.write('"');
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,210 @@
+package bussinesLogic.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Reads questions in the Moodle GIFT format.
+ * <p>
+ * Supported are multiple choice questions
+ * ({@code ::Title::Text{=right ~wrong ~%50%partly right}}) and true/false
+ * questions ({@code {T}} / {@code {F}}, imported as the two answers
+ * {@value #TRUE_TEXT} and {@value #FALSE_TEXT}). An answer counts as correct if
+ * it is marked with {@code =} or has a positive weight. Feedback after
+ * {@code #} is ignored. The last segment of a {@code $CATEGORY:} line sets the
+ * theme of the following questions. Other question types (matching, numeric,
+ * essay) are reported as malformed.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class GiftQuestionReader implements QuestionReader {
+
+	static final String TRUE_TEXT = "Wahr";
+	static final String FALSE_TEXT = "Falsch";
+
+	/** Length of a title taken from the question text if the title is missing. */
+	static final int MAX_DERIVED_TITLE = 100;
+
+	private final BufferedReader in;
+	private final StringBuilder block = new StringBuilder();
+	private String category = "";
+	private long recordNumber;
+
+	public GiftQuestionReader(Reader in) {
+		this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+	}
+
+	@Override
+	public ImportedQuestion read() throws IOException {
+		String line;
+		block.setLength(0);
+		while ((line = in.readLine()) != null) {
+			String trimmed = line.trim();
+			if (trimmed.startsWith("//")) {
+				continue;
+			}
+			if (trimmed.startsWith("$CATEGORY:")) {
+				String path = trimmed.substring("$CATEGORY:".length()).trim();
+				category = path.substring(path.lastIndexOf('/') + 1).trim();
+				continue;
+			}
+			if (trimmed.isEmpty()) {
+				if (block.length() > 0) {
+					break;
+				}
+				continue;
+			}
+			if (block.length() > 0) {
+				block.append('\n');
+			}
+			block.append(line);
+		}
+		if (block.length() == 0) {
+			return null;
+		}
+		recordNumber++;
+		return toQuestion(block.toString());
+	}
+
+	private ImportedQuestion toQuestion(String source) throws QuestionFormatException {
+		String rest = source.trim();
+		String title = null;
+		if (rest.startsWith("::")) {
+			int end = indexOfUnescaped(rest, "::", 2);
+			if (end < 0) {
+				throw new QuestionFormatException(recordNumber, "Titel nicht abgeschlossen");
+			}
+			title = unescape(rest.substring(2, end)).trim();
+			rest = rest.substring(end + 2);
+		}
+		int open = indexOfUnescaped(rest, "{", 0);
+		int close = open < 0 ? -1 : indexOfUnescaped(rest, "}", open + 1);
+		if (open < 0 || close < 0) {
+			throw new QuestionFormatException(recordNumber, "Antwortblock {...} fehlt");
+		}
+		String text = unescape(rest.substring(0, open) + " " + rest.substring(close + 1)).trim();
+		if (text.startsWith("[") && text.indexOf(']') > 0) {
+			// text format marker such as [html] or [plain]
+			text = text.substring(text.indexOf(']') + 1).trim();
+		}
+		if (title == null || title.isEmpty()) {
+			title = text.length() > MAX_DERIVED_TITLE ? text.substring(0, MAX_DERIVED_TITLE) : text;
+		}
+		QuestionDTO question = new QuestionDTO();
+		question.setTitle(title);
+		question.setText(text);
+		question.setAnswers(parseAnswers(rest.substring(open + 1, close).trim()));
+		return new ImportedQuestion(recordNumber, category, question);
+	}
+
+	private List<AnswerDTO> parseAnswers(String body) throws QuestionFormatException {
+		List<AnswerDTO> answers = new ArrayList<>();
+		String upper = body.toUpperCase();
+		if (upper.startsWith("T") || upper.startsWith("F")) {
+			String value = stripFeedback(body).trim().toUpperCase();
+			boolean isTrue = value.equals("T") || value.equals("TRUE");
+			if (!isTrue && !value.equals("F") && !value.equals("FALSE")) {
+				throw new QuestionFormatException(recordNumber, "Ungültige Wahr/Falsch-Antwort: " + body);
+			}
+			answers.add(answer(TRUE_TEXT, isTrue));
+			answers.add(answer(FALSE_TEXT, !isTrue));
+			return answers;
+		}
+		if (body.startsWith("#")) {
+			throw new QuestionFormatException(recordNumber, "Numerische Fragen werden nicht unterstützt");
+		}
+		int start = -1;
+		for (int i = 0; i <= body.length(); i++) {
+			boolean boundary = i == body.length()
+					|| ((body.charAt(i) == '=' || body.charAt(i) == '~') && !isEscaped(body, i));
+			if (!boundary) {
+				continue;
+			}
+			if (start >= 0) {
+				answers.add(parseAnswer(body.charAt(start) == '=', body.substring(start + 1, i)));
+			} else if (!body.substring(0, i).isBlank()) {
+				throw new QuestionFormatException(recordNumber, "Antwort muss mit = oder ~ beginnen");
+			}
+			start = i;
+		}
+		return answers;
+	}
+
+	private AnswerDTO parseAnswer(boolean marked, String source) throws QuestionFormatException {
+		String text = stripFeedback(source).trim();
+		if (indexOfUnescaped(text, "->", 0) >= 0) {
+			throw new QuestionFormatException(recordNumber, "Zuordnungsfragen werden nicht unterstützt");
+		}
+		boolean correct = marked;
+		if (text.startsWith("%")) {
+			int end = text.indexOf('%', 1);
+			if (end < 0) {
+				throw new QuestionFormatException(recordNumber, "Gewichtung nicht abgeschlossen: " + text);
+			}
+			try {
+				correct = Double.parseDouble(text.substring(1, end)) > 0;
+			} catch (NumberFormatException e) {
+				throw new QuestionFormatException(recordNumber, "Ungültige Gewichtung: " + text);
+			}
+			text = text.substring(end + 1).trim();
+		}
+		return answer(unescape(text), correct);
+	}
+
+	private static AnswerDTO answer(String text, boolean correct) {
+		AnswerDTO answer = new AnswerDTO();
+		answer.setText(text);
+		answer.setCorrect(correct);
+		return answer;
+	}
+
+	private static String stripFeedback(String source) {
+		int hash = indexOfUnescaped(source, "#", 0);
+		return hash < 0 ? source : source.substring(0, hash);
+	}
+
+	private static int indexOfUnescaped(String s, String token, int from) {
+		int i = s.indexOf(token, from);
+		while (i >= 0 && isEscaped(s, i)) {
+			i = s.indexOf(token, i + 1);
+		}
+		return i;
+	}
+
+	private static boolean isEscaped(String s, int index) {
+		int backslashes = 0;
+		for (int i = index - 1; i >= 0 && s.charAt(i) == '\\'; i--) {
+			backslashes++;
+		}
+		return backslashes % 2 == 1;
+	}
+
+	static String unescape(String s) {
+		if (s.indexOf('\\') < 0) {
+			return s;
+		}
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\' && i + 1 < s.length()) {
+				char next = s.charAt(++i);
+				sb.append(next == 'n' ? '\n' : next);
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
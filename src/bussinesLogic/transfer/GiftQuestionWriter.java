@@ -0,0 +1,101 @@
+package bussinesLogic.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Writes questions in the Moodle GIFT format, readable by
+ * {@link GiftQuestionReader} and by Moodle.
+ * <p>
+ * A question with exactly one correct answer is written with {@code =} and
+ * {@code ~}. A question with several correct answers is written with weights,
+ * split evenly over the correct answers, and {@code -100%} for the wrong ones,
+ * as Moodle expects for multiple-answer questions. A {@code $CATEGORY:} line is
+ * written whenever the theme changes.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class GiftQuestionWriter implements QuestionWriter {
+
+	private final BufferedWriter out;
+	private String currentTheme;
+
+	public GiftQuestionWriter(Writer out) {
+		this.out = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+	}
+
+	@Override
+	public void write(String themeTitle, QuestionDTO question, List<AnswerDTO> answers) throws IOException {
+		String theme = themeTitle == null ? "" : themeTitle;
+		if (!theme.equals(currentTheme)) {
+			out.write("$CATEGORY: " + theme.replace("/", "-").replace("\n", " "));
+			out.newLine();
+			out.newLine();
+			currentTheme = theme;
+		}
+		int correctCount = 0;
+		for (AnswerDTO answer : answers) {
+			if (answer.isCorrect()) {
+				correctCount++;
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("::").append(escape(question.getTitle())).append("::");
+		sb.append(escape(question.getText())).append(" {");
+		String weight = correctCount > 1 ? formatWeight(100.0 / correctCount) : null;
+		for (AnswerDTO answer : answers) {
+			sb.append("\n\t");
+			if (weight == null) {
+				sb.append(answer.isCorrect() ? '=' : '~');
+			} else {
+				sb.append('~').append(answer.isCorrect() ? "%" + weight + "%" : "%-100%");
+			}
+			sb.append(escape(answer.getText()));
+		}
+		sb.append("\n}");
+		out.write(sb.toString());
+		out.newLine();
+		out.newLine();
+	}
+
+	private static String formatWeight(double weight) {
+		String s = String.format(Locale.ROOT, "%.5f", weight);
+		s = s.replaceAll("0+$", "");
+		return s.endsWith(".") ? s.substring(0, s.length() - 1) : s;
+	}
+
+	static String escape(String s) {
+		if (s == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '~': case '=': case '#': case '{': case '}': case ':': case '\\':
+				sb.append('\\').append(c);
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
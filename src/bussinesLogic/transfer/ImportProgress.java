@@ -0,0 +1,41 @@
+package bussinesLogic.transfer;
+
+/**
+ * Snapshot of the counters of a running import.
+ *
+ * @author DejanKrstovski
+ */
+public class ImportProgress {
+
+	private final long parsed;
+	private final long invalid;
+	private final long persisted;
+	private final long failed;
+
+	public ImportProgress(long parsed, long invalid, long persisted, long failed) {
+		this.parsed = parsed;
+		this.invalid = invalid;
+		this.persisted = persisted;
+		this.failed = failed;
+	}
+
+	/** @return the number of records read from the file, including malformed ones */
+	public long getParsed() {
+		return parsed;
+	}
+
+	/** @return the number of malformed records and questions rejected by validation */
+	public long getInvalid() {
+		return invalid;
+	}
+
+	/** @return the number of questions saved */
+	public long getPersisted() {
+		return persisted;
+	}
+
+	/** @return the number of valid questions that could not be saved */
+	public long getFailed() {
+		return failed;
+	}
+}
@@ -0,0 +1,56 @@
+package bussinesLogic.transfer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a finished or cancelled import.
+ *
+ * @author DejanKrstovski
+ */
+public class ImportResult extends ImportProgress {
+
+	private final List<String> errors;
+	private final long errorCount;
+	private final Set<Integer> createdThemeIds;
+	private final Set<Integer> touchedThemeIds;
+	private final boolean cancelled;
+
+	public ImportResult(ImportProgress counters, List<String> errors, long errorCount, Set<Integer> createdThemeIds,
+			Set<Integer> touchedThemeIds, boolean cancelled) {
+		super(counters.getParsed(), counters.getInvalid(), counters.getPersisted(), counters.getFailed());
+		this.errors = Collections.unmodifiableList(errors);
+		this.errorCount = errorCount;
+		this.createdThemeIds = Collections.unmodifiableSet(createdThemeIds);
+		this.touchedThemeIds = Collections.unmodifiableSet(touchedThemeIds);
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * @return the error messages, each prefixed with its record number; capped
+	 *         at {@link QuestionImportPipeline#MAX_REPORTED_ERRORS}
+	 */
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	/** @return the total number of errors, including those not in {@link #getErrors()} */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/** @return the IDs of the themes created by the import */
+	public Set<Integer> getCreatedThemeIds() {
+		return createdThemeIds;
+	}
+
+	/** @return the IDs of the existing themes that received new questions */
+	public Set<Integer> getTouchedThemeIds() {
+		return touchedThemeIds;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,43 @@
+package bussinesLogic.transfer;
+
+import bussinesLogic.QuestionDTO;
+
+/**
+ * One question read from an import file, together with the title of its theme
+ * and its position in the file.
+ * <p>
+ * The theme is only known by title at this point; the import pipeline looks
+ * up or creates the theme and sets the theme ID before saving.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class ImportedQuestion {
+
+	private final long recordNumber;
+	private final String themeTitle;
+	private final QuestionDTO question;
+
+	/**
+	 * @param recordNumber 1-based number of the record in the file
+	 * @param themeTitle   the title of the question's theme
+	 * @param question     the question with its answers set
+	 */
+	public ImportedQuestion(long recordNumber, String themeTitle, QuestionDTO question) {
+		this.recordNumber = recordNumber;
+		this.themeTitle = themeTitle;
+		this.question = question;
+	}
+
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	public String getThemeTitle() {
+		return themeTitle;
+	}
+
+	public QuestionDTO getQuestion() {
+		return question;
+	}
+}
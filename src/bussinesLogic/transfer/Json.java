@@ -0,0 +1,249 @@
+package bussinesLogic.transfer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the JSON Lines format and the quiz server: parses
+ * one value into maps, lists, strings, numbers, booleans and {@code null}, and
+ * quotes strings for output.
+ *
+ * @author DejanKrstovski
+ */
+public final class Json {
+
+	private final String text;
+	private int pos;
+
+	private Json(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Parses a single JSON value.
+	 *
+	 * @param text the JSON text
+	 * @return a {@link Map}, {@link List}, {@link String}, {@link Double},
+	 *         {@link Boolean} or {@code null}
+	 * @throws IllegalArgumentException if the text is not valid JSON
+	 */
+	public static Object parse(String text) {
+		Json json = new Json(text);
+		Object value = json.readValue();
+		json.skipWhitespace();
+		if (json.pos != text.length()) {
+			throw json.error("Unerwartete Zeichen am Ende");
+		}
+		return value;
+	}
+
+	/**
+	 * Appends a string as a JSON string literal.
+	 *
+	 * @param out   the target
+	 * @param value the string; {@code null} is written as {@code null}
+	 */
+	public static void quote(StringBuilder out, String value) {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.append(String.format("\\u%04x", (int) c));
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		out.append('"');
+	}
+
+	private Object readValue() {
+		skipWhitespace();
+		if (pos >= text.length()) {
+			throw error("Unerwartetes Ende");
+		}
+		char c = text.charAt(pos);
+		switch (c) {
+		case '{':
+			return readObject();
+		case '[':
+			return readArray();
+		case '"':
+			return readString();
+		case 't':
+			expect("true");
+			return Boolean.TRUE;
+		case 'f':
+			expect("false");
+			return Boolean.FALSE;
+		case 'n':
+			expect("null");
+			return null;
+		default:
+			return readNumber();
+		}
+	}
+
+	private Map<String, Object> readObject() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		pos++;
+		skipWhitespace();
+		if (peek() == '}') {
+			pos++;
+			return map;
+		}
+		while (true) {
+			skipWhitespace();
+			if (peek() != '"') {
+				throw error("Schlüssel erwartet");
+			}
+			String key = readString();
+			skipWhitespace();
+			if (peek() != ':') {
+				throw error("':' erwartet");
+			}
+			pos++;
+			map.put(key, readValue());
+			skipWhitespace();
+			char c = peek();
+			pos++;
+			if (c == '}') {
+				return map;
+			}
+			if (c != ',') {
+				throw error("',' oder '}' erwartet");
+			}
+		}
+	}
+
+	private List<Object> readArray() {
+		List<Object> list = new ArrayList<>();
+		pos++;
+		skipWhitespace();
+		if (peek() == ']') {
+			pos++;
+			return list;
+		}
+		while (true) {
+			list.add(readValue());
+			skipWhitespace();
+			char c = peek();
+			pos++;
+			if (c == ']') {
+				return list;
+			}
+			if (c != ',') {
+				throw error("',' oder ']' erwartet");
+			}
+		}
+	}
+
+	private String readString() {
+		StringBuilder sb = new StringBuilder();
+		pos++;
+		while (pos < text.length()) {
+			char c = text.charAt(pos++);
+			if (c == '"') {
+				return sb.toString();
+			}
+			if (c != '\\') {
+				sb.append(c);
+				continue;
+			}
+			if (pos >= text.length()) {
+				break;
+			}
+			char e = text.charAt(pos++);
+			switch (e) {
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 't':
+				sb.append('\t');
+				break;
+			case 'b':
+				sb.append('\b');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'u':
+				if (pos + 4 > text.length()) {
+					throw error("Ungültige Unicode-Escape-Sequenz");
+				}
+				try {
+					sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+				} catch (NumberFormatException ex) {
+					throw error("Ungültige Unicode-Escape-Sequenz");
+				}
+				pos += 4;
+				break;
+			default:
+				sb.append(e);
+			}
+		}
+		throw error("Nicht geschlossene Zeichenkette");
+	}
+
+	private Double readNumber() {
+		int start = pos;
+		while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+			pos++;
+		}
+		try {
+			return Double.valueOf(text.substring(start, pos));
+		} catch (NumberFormatException e) {
+			throw error("Ungültiger Wert");
+		}
+	}
+
+	private void expect(String literal) {
+		if (!text.startsWith(literal, pos)) {
+			throw error("Ungültiger Wert");
+		}
+		pos += literal.length();
+	}
+
+	private char peek() {
+		if (pos >= text.length()) {
+			throw error("Unerwartetes Ende");
+		}
+		return text.charAt(pos);
+	}
+
+	private void skipWhitespace() {
+		while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " (Zeichen " + (pos + 1) + ")");
+	}
+}
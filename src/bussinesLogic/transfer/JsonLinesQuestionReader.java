@@ -0,0 +1,83 @@
+package bussinesLogic.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Reads questions from JSON Lines: one JSON object per line of the form
+ * {@code {"theme":..., "title":..., "text":..., "answers":[{"text":..., "correct":true}]}}.
+ * Empty lines are skipped.
+ *
+ * @author DejanKrstovski
+ */
+public class JsonLinesQuestionReader implements QuestionReader {
+
+	private final BufferedReader in;
+	private long recordNumber;
+
+	public JsonLinesQuestionReader(Reader in) {
+		this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+	}
+
+	@Override
+	public ImportedQuestion read() throws IOException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			recordNumber++;
+			if (!line.isBlank()) {
+				return toQuestion(line);
+			}
+		}
+		return null;
+	}
+
+	private ImportedQuestion toQuestion(String line) throws QuestionFormatException {
+		Object value;
+		try {
+			value = Json.parse(line);
+		} catch (IllegalArgumentException e) {
+			throw new QuestionFormatException(recordNumber, e.getMessage());
+		}
+		if (!(value instanceof Map)) {
+			throw new QuestionFormatException(recordNumber, "JSON-Objekt erwartet");
+		}
+		Map<?, ?> object = (Map<?, ?>) value;
+		QuestionDTO question = new QuestionDTO();
+		question.setTitle(string(object.get("title")));
+		question.setText(string(object.get("text")));
+		List<AnswerDTO> answers = new ArrayList<>();
+		Object answerList = object.get("answers");
+		if (answerList instanceof List) {
+			for (Object item : (List<?>) answerList) {
+				if (!(item instanceof Map)) {
+					throw new QuestionFormatException(recordNumber, "Antwort muss ein JSON-Objekt sein");
+				}
+				Map<?, ?> answerObject = (Map<?, ?>) item;
+				AnswerDTO answer = new AnswerDTO();
+				answer.setText(string(answerObject.get("text")));
+				answer.setCorrect(Boolean.TRUE.equals(answerObject.get("correct")));
+				answers.add(answer);
+			}
+		} else if (answerList != null) {
+			throw new QuestionFormatException(recordNumber, "\"answers\" muss eine Liste sein");
+		}
+		question.setAnswers(answers);
+		return new ImportedQuestion(recordNumber, string(object.get("theme")), question);
+	}
+
+	private static String string(Object value) {
+		return value == null ? null : value.toString().trim();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
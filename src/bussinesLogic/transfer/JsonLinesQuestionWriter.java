@@ -0,0 +1,53 @@
+package bussinesLogic.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Writes questions in the JSON Lines layout read by
+ * {@link JsonLinesQuestionReader}.
+ *
+ * @author DejanKrstovski
+ */
+public class JsonLinesQuestionWriter implements QuestionWriter {
+
+	private final BufferedWriter out;
+	private final StringBuilder line = new StringBuilder();
+
+	public JsonLinesQuestionWriter(Writer out) {
+		this.out = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+	}
+
+	@Override
+	public void write(String themeTitle, QuestionDTO question, List<AnswerDTO> answers) throws IOException {
+		line.setLength(0);
+		line.append("{\"theme\":");
+		Json.quote(line, themeTitle);
+		line.append(",\"title\":");
+		Json.quote(line, question.getTitle());
+		line.append(",\"text\":");
+		Json.quote(line, question.getText());
+		line.append(",\"answers\":[");
+		for (int i = 0; i < answers.size(); i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append("{\"text\":");
+			Json.quote(line, answers.get(i).getText());
+			line.append(",\"correct\":").append(answers.get(i).isCorrect()).append('}');
+		}
+		line.append("]}");
+		out.write(line.toString());
+		out.newLine();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,51 @@
+package bussinesLogic.transfer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+import helpers.QuizDataInterface;
+
+/**
+ * Writes all questions of a backend to a {@link QuestionWriter}, theme by
+ * theme, without building the whole export in memory.
+ *
+ * @author DejanKrstovski
+ */
+public class QuestionExporter {
+
+	private final QuizDataInterface dataManager;
+
+	public QuestionExporter(QuizDataInterface dataManager) {
+		this.dataManager = dataManager;
+	}
+
+	/**
+	 * Exports the questions of the given themes, or of all themes, and closes
+	 * the writer.
+	 *
+	 * @param writer the target
+	 * @param themes the themes to export; {@code null} for all themes
+	 * @return the number of exported questions
+	 * @throws IOException if the output cannot be written
+	 */
+	public long export(QuestionWriter writer, List<ThemeDTO> themes) throws IOException {
+		long count = 0;
+		try (QuestionWriter out = writer) {
+			for (ThemeDTO theme : themes != null ? themes : dataManager.getAllThemes()) {
+				for (QuestionDTO question : dataManager.getQuestionsFor(theme)) {
+					// the backends may shuffle the answers for playing; export them in stored order
+					List<AnswerDTO> answers = new ArrayList<>(dataManager.getAnswersFor(question));
+					answers.sort(Comparator.comparingInt(AnswerDTO::getId));
+					out.write(theme.getTitle(), question, answers);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,26 @@
+package bussinesLogic.transfer;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link QuestionReader} for a record that cannot be parsed. The
+ * reader has already skipped the record, so reading can continue.
+ *
+ * @author DejanKrstovski
+ */
+public class QuestionFormatException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long recordNumber;
+
+	public QuestionFormatException(long recordNumber, String message) {
+		super(message);
+		this.recordNumber = recordNumber;
+	}
+
+	/** @return the 1-based number of the malformed record */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+}
@@ -0,0 +1,280 @@
+package bussinesLogic.transfer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+import bussinesLogic.Validator;
+import helpers.QuizDataInterface;
+
+/**
+ * Imports questions from a {@link QuestionReader} in constant memory.
+ * <p>
+ * The import runs in three stages connected by bounded queues:
+ * </p>
+ * <ol>
+ * <li>a parser thread reads one record at a time,</li>
+ * <li>several validator threads check the questions with the same rules as the
+ * question editor ({@link Validator#checkQuestion},
+ * {@link Validator#checkAnswers}),</li>
+ * <li>the calling thread resolves the themes by title (creating missing ones)
+ * and saves the questions in batches of {@link #BATCH_SIZE} with
+ * {@link QuizDataInterface#saveQuestions(List)}.</li>
+ * </ol>
+ * <p>
+ * The queues block a stage that runs ahead, so at most a few thousand
+ * questions are in flight no matter how big the file is. Invalid records are
+ * skipped and reported with their record number; the import goes on.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class QuestionImportPipeline {
+
+	/** Number of questions saved in one transaction. */
+	public static final int BATCH_SIZE = 500;
+
+	/** Maximum number of error messages kept in the result; all errors are counted. */
+	public static final int MAX_REPORTED_ERRORS = 1000;
+
+	static final int QUEUE_CAPACITY = 1000;
+
+	/** Marks the end of a queue; every validator passes one on. */
+	private static final ImportedQuestion END = new ImportedQuestion(-1, null, null);
+
+	private final QuizDataInterface dataManager;
+	private final int validatorThreads;
+
+	private final AtomicLong parsed = new AtomicLong();
+	private final AtomicLong invalid = new AtomicLong();
+	private final AtomicLong persisted = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	private final List<String> errors = new ArrayList<>();
+	private final AtomicLong errorCount = new AtomicLong();
+
+	private volatile boolean cancelled;
+
+	/**
+	 * @param dataManager      the backend to save to
+	 * @param validatorThreads the number of validator threads, at least 1
+	 */
+	public QuestionImportPipeline(QuizDataInterface dataManager, int validatorThreads) {
+		this.dataManager = dataManager;
+		this.validatorThreads = Math.max(1, validatorThreads);
+	}
+
+	/**
+	 * Creates a pipeline with one validator thread per available processor,
+	 * leaving one for the parser.
+	 *
+	 * @param dataManager the backend to save to
+	 */
+	public QuestionImportPipeline(QuizDataInterface dataManager) {
+		this(dataManager, Runtime.getRuntime().availableProcessors() - 1);
+	}
+
+	/**
+	 * Stops the import after the current batch. Questions saved so far are
+	 * kept. Can be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/** @return the current counters; can be called from any thread */
+	public ImportProgress getProgress() {
+		return new ImportProgress(parsed.get(), invalid.get(), persisted.get(), failed.get());
+	}
+
+	/**
+	 * Runs the import on the calling thread and closes the reader.
+	 *
+	 * @param reader   the source of the questions
+	 * @param progress called on the calling thread after every saved batch; may
+	 *                 be {@code null}
+	 * @return the result of the import
+	 * @throws InterruptedException if the calling thread is interrupted; the
+	 *                              import is cancelled
+	 */
+	public ImportResult run(QuestionReader reader, Consumer<ImportProgress> progress) throws InterruptedException {
+		BlockingQueue<ImportedQuestion> parsedQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		BlockingQueue<ImportedQuestion> validQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+		List<Thread> threads = new ArrayList<>();
+		threads.add(new Thread(() -> parse(reader, parsedQueue), "import-parser"));
+		for (int i = 0; i < validatorThreads; i++) {
+			threads.add(new Thread(() -> validate(parsedQueue, validQueue), "import-validator-" + i));
+		}
+		for (Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		Map<String, Integer> themeIds = new HashMap<>();
+		for (ThemeDTO theme : dataManager.getAllThemes()) {
+			themeIds.putIfAbsent(key(theme.getTitle()), theme.getId());
+		}
+		Set<Integer> created = new LinkedHashSet<>();
+		Set<Integer> touched = new LinkedHashSet<>();
+		List<QuestionDTO> batch = new ArrayList<>(BATCH_SIZE);
+
+		try {
+			int finished = 0;
+			while (finished < validatorThreads) {
+				ImportedQuestion item = validQueue.take();
+				if (item == END) {
+					finished++;
+					continue;
+				}
+				if (cancelled) {
+					// keep draining so that the other stages can finish
+					continue;
+				}
+				Integer themeId = resolveTheme(item, themeIds, created);
+				if (themeId == null) {
+					continue;
+				}
+				if (!created.contains(themeId)) {
+					touched.add(themeId);
+				}
+				item.getQuestion().setThemeId(themeId);
+				batch.add(item.getQuestion());
+				if (batch.size() == BATCH_SIZE) {
+					saveBatch(batch, progress);
+				}
+			}
+			if (!cancelled) {
+				saveBatch(batch, progress);
+			}
+		} catch (InterruptedException e) {
+			cancel();
+			throw e;
+		} finally {
+			for (Thread thread : threads) {
+				thread.interrupt();
+			}
+		}
+		return new ImportResult(getProgress(), new ArrayList<>(errors), errorCount.get(), created, touched,
+				cancelled);
+	}
+
+	/** Parser stage: reads records until the end of the input or cancellation. */
+	private void parse(QuestionReader reader, BlockingQueue<ImportedQuestion> out) {
+		try (QuestionReader in = reader) {
+			while (!cancelled) {
+				ImportedQuestion item;
+				try {
+					item = in.read();
+				} catch (QuestionFormatException e) {
+					parsed.incrementAndGet();
+					invalid.incrementAndGet();
+					addError(e.getRecordNumber(), e.getMessage());
+					continue;
+				}
+				if (item == null) {
+					break;
+				}
+				parsed.incrementAndGet();
+				out.put(item);
+			}
+		} catch (IOException e) {
+			// the questions read so far are still saved
+			addError(parsed.get() + 1, e.getMessage());
+		} catch (InterruptedException e) {
+			return;
+		}
+		try {
+			for (int i = 0; i < validatorThreads; i++) {
+				out.put(END);
+			}
+		} catch (InterruptedException e) {
+			// the persister has given up
+		}
+	}
+
+	/** Validator stage: passes valid questions on and reports the others. */
+	private void validate(BlockingQueue<ImportedQuestion> in, BlockingQueue<ImportedQuestion> out) {
+		try {
+			ImportedQuestion item;
+			while ((item = in.take()) != END) {
+				String error = item.getThemeTitle() == null || item.getThemeTitle().isBlank()
+						? "Thema fehlt"
+						: Validator.checkQuestion(item.getQuestion());
+				if (error == null) {
+					error = Validator.checkAnswers(item.getQuestion().getAnswers());
+				}
+				if (error == null) {
+					out.put(item);
+				} else {
+					invalid.incrementAndGet();
+					addError(item.getRecordNumber(), error);
+				}
+			}
+			out.put(END);
+		} catch (InterruptedException e) {
+			// the persister has given up
+		}
+	}
+
+	private Integer resolveTheme(ImportedQuestion item, Map<String, Integer> themeIds, Set<Integer> created) {
+		String key = key(item.getThemeTitle());
+		Integer id = themeIds.get(key);
+		if (id != null) {
+			return id;
+		}
+		ThemeDTO theme = new ThemeDTO();
+		theme.setTitle(item.getThemeTitle().trim());
+		theme.setText(item.getThemeTitle().trim());
+		String result = dataManager.saveTheme(theme);
+		if (result != null) {
+			failed.incrementAndGet();
+			addError(item.getRecordNumber(), result);
+			return null;
+		}
+		themeIds.put(key, theme.getId());
+		created.add(theme.getId());
+		return theme.getId();
+	}
+
+	private void saveBatch(List<QuestionDTO> batch, Consumer<ImportProgress> progress) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		String result = dataManager.saveQuestions(batch);
+		if ("Success".equals(result)) {
+			persisted.addAndGet(batch.size());
+		} else {
+			failed.addAndGet(batch.size());
+			addError(0, result);
+		}
+		batch.clear();
+		if (progress != null) {
+			progress.accept(getProgress());
+		}
+	}
+
+	private void addError(long recordNumber, String message) {
+		errorCount.incrementAndGet();
+		synchronized (errors) {
+			if (errors.size() < MAX_REPORTED_ERRORS) {
+				errors.add(recordNumber > 0 ? "Eintrag " + recordNumber + ": " + message : message);
+			}
+		}
+	}
+
+	private static String key(String title) {
+		return title == null ? "" : title.trim().toLowerCase(Locale.ROOT);
+	}
+}
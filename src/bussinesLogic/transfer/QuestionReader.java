@@ -0,0 +1,23 @@
+package bussinesLogic.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads questions one at a time from an import file, so that files of any size
+ * can be imported without loading them into memory.
+ *
+ * @author DejanKrstovski
+ */
+public interface QuestionReader extends Closeable {
+
+	/**
+	 * Reads the next question.
+	 *
+	 * @return the next question, or {@code null} at the end of the input
+	 * @throws QuestionFormatException if the next record is malformed; the
+	 *                                 record is skipped and reading can go on
+	 * @throws IOException             if the input cannot be read
+	 */
+	ImportedQuestion read() throws IOException;
+}
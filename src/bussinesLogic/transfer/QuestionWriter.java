@@ -0,0 +1,26 @@
+package bussinesLogic.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Writes questions one at a time to an export file.
+ *
+ * @author DejanKrstovski
+ */
+public interface QuestionWriter extends Closeable {
+
+	/**
+	 * Writes one question.
+	 *
+	 * @param themeTitle the title of the question's theme
+	 * @param question   the question
+	 * @param answers    the answers of the question
+	 * @throws IOException if the output cannot be written
+	 */
+	void write(String themeTitle, QuestionDTO question, List<AnswerDTO> answers) throws IOException;
+}
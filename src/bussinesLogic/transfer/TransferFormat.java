@@ -0,0 +1,89 @@
+package bussinesLogic.transfer;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * The file formats supported for importing and exporting questions.
+ *
+ * @author DejanKrstovski
+ */
+public enum TransferFormat {
+
+	CSV("csv", "CSV"),
+	JSON_LINES("jsonl", "JSON Lines"),
+	GIFT("gift", "Moodle GIFT");
+
+	private final String extension;
+	private final String description;
+
+	TransferFormat(String extension, String description) {
+		this.extension = extension;
+		this.description = description;
+	}
+
+	/** @return the file extension without dot */
+	public String getExtension() {
+		return extension;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Creates a reader for this format.
+	 *
+	 * @param in the character input; closed by the returned reader
+	 * @return a new reader
+	 */
+	public QuestionReader openReader(Reader in) {
+		switch (this) {
+		case CSV:
+			return new CsvQuestionReader(in);
+		case JSON_LINES:
+			return new JsonLinesQuestionReader(in);
+		default:
+			return new GiftQuestionReader(in);
+		}
+	}
+
+	/**
+	 * Creates a writer for this format.
+	 *
+	 * @param out the character output; closed by the returned writer
+	 * @return a new writer
+	 */
+	public QuestionWriter openWriter(Writer out) {
+		switch (this) {
+		case CSV:
+			return new CsvQuestionWriter(out);
+		case JSON_LINES:
+			return new JsonLinesQuestionWriter(out);
+		default:
+			return new GiftQuestionWriter(out);
+		}
+	}
+
+	/**
+	 * Determines the format from the extension of a file name. {@code .json}
+	 * and {@code .txt} are accepted for JSON Lines and GIFT as well.
+	 *
+	 * @param fileName the file name
+	 * @return the format, or {@code null} if the extension is unknown
+	 */
+	public static TransferFormat fromFileName(String fileName) {
+		String name = fileName.toLowerCase(Locale.ROOT);
+		if (name.endsWith(".csv")) {
+			return CSV;
+		}
+		if (name.endsWith(".jsonl") || name.endsWith(".json")) {
+			return JSON_LINES;
+		}
+		if (name.endsWith(".gift") || name.endsWith(".txt")) {
+			return GIFT;
+		}
+		return null;
+	}
+}
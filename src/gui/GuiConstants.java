@@ -62,6 +62,35 @@ public interface GuiConstants {
      */
     public static final int MAX_ANSWERS = 4;
     public static final int MAX_ROW_COUNT = 10;
+    /**
+     * Maximum number of hits shown for a question search, and the delay after
+     * the last key stroke before searching
+     */
+    public static final int SEARCH_LIMIT = 200;
+    public static final int SEARCH_DELAY_MS = 150;
+    /**
+     * Similarity of titles (0 to 1) from which they are shown as type-ahead
+     * suggestions, and from which saving asks for confirmation
+     */
+    public static final double TYPE_AHEAD_SIMILARITY = 0.3;
+    public static final double NEAR_DUPLICATE_SIMILARITY = 0.6;
+    public static final int SIMILAR_TITLE_LIMIT = 5;
+    public static final int LIVE_PORT = 7070;
+    public static final int LIVE_ANSWER_MILLIS = 20_000;
+    public static final int LIVE_REFRESH_MS = 250;
+    /**
+     * How often the trend chart checks for new answers while it is shown
+     */
+    public static final int TREND_REFRESH_MS = 2000;
+    /**
+     * The adaptive test stops when the standard error of the ability drops below this
+     */
+    public static final double CAT_STOP_ERROR = 0.3;
+    public static final int CAT_MAX_QUESTIONS = 40;
+    /**
+     * Where the statistics panel keeps its last computed tables between starts
+     */
+    public static final String STATISTICS_CACHE_FILE = "data/statistics.cache";
     public static final int ROW_HEIGHT = 30;
     public static final Color COLOR_TABS = Color.CYAN; 
     public static final Color COLOR_RANDOM = getRandomColor();    
@@ -83,12 +112,22 @@ public interface GuiConstants {
     public static final String SHOW_LIST = "Liste anzeigen";
 	public static final String REFRESH = "Aktualisieren";
 	public static final String ALL_DELETE = "Alle Statistiken löschen";
+	public static final String IMPORT = "Importieren";
+	public static final String EXPORT = "Exportieren";
+	public static final String FIND_DUPLICATES = "Duplikate suchen";
+	public static final String LIVE_START = "Live-Quiz starten";
+	public static final String LIVE_STOP = "Live-Quiz beenden";
+	public static final String LIVE_SEND = "Frage live senden";
+	public static final String CAT_START = "Adaptiver Test";
+	public static final String CAT_STOP = "Adaptiven Test beenden";
+	public static final String SHOW_RANKING = "Rangliste anzeigen";
     // Tab names and headers
     public static final String TAB_THEMES = "Quiz-Themen";
     public static final String TAB_QUESTIONS = "Quiz-Fragen";
     public static final String TAB_PLAY = "Quiz";
 	public static final String TAB_STATISTIC = "Statistics";
 	public static final String TAB_CHARTS = "Tabellen";
+	public static final String TAB_TREND = "Verlauf";
 
     public static final String LABEL_THEME_INFORMATION = "Informationen zum Thema";
 
@@ -99,6 +138,7 @@ public interface GuiConstants {
     public static final String LABEL_THEME = "Thema";
     public static final String LABEL_QUESTION = "Frage";
     public static final String LABEL_QUESTION_FOR_THEME = "Frage zum Thema";
+    public static final String LABEL_SEARCH = "Suche";
 
     // Confirmation and status messages
     public static final String QUESTION_UPDATED = "Frage aktualisiert.";
@@ -116,6 +156,7 @@ public interface GuiConstants {
 
     // Messages related to theme actions
     public static final String THEME_SUCCESFULLY_UPDATED = "Thema erfolgreich aktualisiert.";
+    public static final String THEME_SUCCESFULLY_CREATED = "Thema erfolgreich angelegt.";
     public static final String CHOOSE_A_THEME_MSG = "Bitte ein Thema auswählen!";
     public static final String CHOOSE_A_QUESTION_MSG = "Bitte eine Frage auswählen!";
     public static final String NO_QUESTION_LOADED = "Es ist keine Frage geladen.";
@@ -137,9 +178,18 @@ public interface GuiConstants {
     public static final String QUESTION_DELETED = "Die Frage wurde erfolgreich gelöscht";
     public static final String ERROR_LOAD_QUESTION = "Ausgewählte Frage konnte nicht geladen werden.";
     public static final String ERROR_NO_QUESTIONS_FOR_THEME = "Keine Fragen für das Thema vorhanden.";
+    public static final String SEARCH_NO_RESULTS = "Keine passenden Fragen gefunden.";
+    public static final String SIMILAR_THEMES_HINT = "Ähnliche Themen: %s";
+    public static final String NEAR_DUPLICATE_TITLE = "Ähnlicher Titel";
+    public static final String NEAR_DUPLICATE_WARNING = "Es gibt bereits ähnliche Titel:\n%s\nTrotzdem speichern?";
+    public static final String DUPLICATE_CONTENT_WARNING = "Es gibt bereits Fragen mit fast gleichem Text und gleichen Antworten:\n%s\nTrotzdem speichern?";
+    public static final String DUPLICATES_TITLE = "Doppelte Fragen (%d Gruppen)";
+    public static final String DUPLICATES_SEARCHING = "Suche nach doppelten Fragen ...";
+    public static final String NO_DUPLICATES = "Keine doppelten Fragen gefunden.";
     public static final String CHOOSE_AN_ANSWER = "Bitte eine Antwort auswählen!";
     public static final String CORRECT_ANSWER = "Korrekt! Alle Antworten sind selektiert.";
     public static final String ANSWER_SAVED = "Antwort gespeichert";
+    public static final String ABILITY_ESTIMATE = " (Fähigkeit: %.2f ± %.2f)";
     public static final String STATISTICS_DELETED = "Statistiken wurden gelöscht.";
     public static final String STATISTICS_NOT_DELETED = "Statistikdaten konnten nicht gelöscht werden.";
     public static final String STATISTICS_REALLY_DELETE = "Möchtest du wirklich alle Statistiken (Antworten) dauerhaft löschen?";
@@ -147,7 +197,47 @@ public interface GuiConstants {
     public static final String NO_QUESTIONS_IN_DB = "Keine Fragen in der Datenbank.";
     public static final String QUESTION_DISABLED = "Die Frage kann nicht mehr beantwortet werden";
     public static final String DATA_RELOADED = "Statistik aktualisiert";
-    
+    public static final String REPLICATION_PENDING = " (%d Antworten noch nicht in der Datenbank, seit %d s)";
+    public static final String REPLICATION_QUARANTINED = " (%d unlesbare Ausgangsdateien in data/outbox/quarantine)";
+    public static final String IMPORT_PROGRESS = "Import läuft: %d gelesen, %d gespeichert, %d ungültig";
+    public static final String IMPORT_FINISHED = "Import beendet: %d Fragen gespeichert, %d ungültig, %d nicht gespeichert.";
+    public static final String IMPORT_ERRORS = "Fehler beim Import (%d)";
+    public static final String EXPORT_FINISHED = "%d Fragen exportiert.";
+    public static final String ERROR_UNKNOWN_FORMAT = "Unbekanntes Dateiformat. Erlaubt sind .csv, .jsonl und .gift.";
+    public static final String ERROR_IMPORT = "Import fehlgeschlagen: ";
+    public static final String ERROR_EXPORT = "Export fehlgeschlagen: ";
+    public static final String ERROR_FIND_DUPLICATES = "Duplikatsuche fehlgeschlagen: ";
+    public static final String LIVE_STATUS = "Live auf Port %d: %d Teilnehmer";
+    public static final String LIVE_ROUND_STATUS = "Live auf Port %d: %d Teilnehmer, %d Antworten (%d richtig) [%s], noch %d s";
+    public static final String LIVE_ROUND_SAVED = "Live-Runde beendet: %d Antworten, %d richtig.";
+    public static final String ERROR_LIVE = "Live-Quiz konnte nicht gestartet werden: ";
+    public static final String ERROR_LIVE_SAVE = "Live-Antworten nicht gespeichert: ";
+    public static final String ERROR_LIVE_STOPPED = "Live-Quiz wurde unterbrochen: ";
+    public static final String CAT_STATUS = "Adaptiver Test: Frage %d, Fähigkeit %.2f ± %.2f";
+    public static final String CAT_FINISHED = "Adaptiver Test beendet: Fähigkeit %.2f ± %.2f nach %d Fragen.";
+    public static final String CAT_NO_QUESTIONS = "Keine beantworteten Fragen für einen adaptiven Test vorhanden.";
+
+    // Player profiles
+    public static final String LABEL_PLAYER = "Spieler";
+    public static final String NEW_PLAYER = "Neuer Spieler";
+    public static final String ANONYMOUS_PLAYER = "Anonym";
+    public static final String ALL_PLAYERS_ITEM = "Alle Spieler";
+    public static final String PLAYER_NAME_PROMPT = "Name des Spielers:";
+    public static final String PLAYER_SAVED = "Spieler gespeichert.";
+    public static final String ERROR_PLAYER_NAME = "Bitte einen Namen eingeben, der noch nicht vergeben ist.";
+
+    // Loading in the background
+    public static final String CANCEL = "Abbrechen";
+    public static final String LOADING_DATABASE = "Datenbank wird vorbereitet ...";
+    public static final String LOADING_DATA = "Daten werden geladen ...";
+    public static final String LOADING_STATISTICS = "Statistiken werden berechnet ...";
+    public static final String LOADING_CANCELLED = "Laden abgebrochen.";
+    public static final String ERROR_LOADING = "Laden fehlgeschlagen: ";
+    public static final String SAVING = "Wird gespeichert ...";
+    public static final String DELETING = "Wird gelöscht ...";
+    public static final String ERROR_SAVE = "Speichern fehlgeschlagen: ";
+    public static final String ERROR_DELETE = "Löschen fehlgeschlagen: ";
+
     // Fonts for different components
     public static final Font FONT_LABEL = new Font("Arial", Font.PLAIN, 20);
     public static final Font FONT_TITLE = new Font("Helvetica", Font.BOLD, 24);
@@ -159,8 +249,30 @@ public interface GuiConstants {
     
     // RadioButtons
 	public static final String ALL_TIME = "Alle Zeiten";
+	public static final String THIS_YEAR = "Dieses Jahr";
 	public static final String LAST_MONTH = "Letzte Monat";
+	public static final String LAST_WEEK = "Letzte Woche";
 	public static final String TODAY = "heute";
+
+    // Question ranking in the statistics tab
+    public static final String RANK_HARDEST = "Schwerste (Fehlerquote)";
+    public static final String RANK_EASIEST = "Leichteste (Fehlerquote)";
+    public static final String RANK_MOST_ANSWERED = "Am häufigsten beantwortet";
+    public static final String RANK_LEAST_ANSWERED = "Am seltensten beantwortet";
+    public static final String RANK_SLOWEST = "Langsamste (Median-Antwortzeit)";
+    public static final String RANK_FASTEST = "Schnellste (Median-Antwortzeit)";
+    public static final String RANK_DISTRACTORS = "Irreführendste falsche Antworten";
+    public static final String LABEL_TOP_K = "Anzahl";
+    public static final String LABEL_MIN_SAMPLE = "Mind. Antworten";
+    public static final int TOP_K_DEFAULT = 50;
+    public static final int MIN_SAMPLE_DEFAULT = 10;
+
+    // Trend chart in the statistics tab
+    public static final String PER_DAY = "Pro Tag";
+    public static final String PER_WEEK = "Pro Woche";
+    public static final String TREND_TIME_AXIS = "Datum";
+    public static final String TREND_ACCURACY = "Genauigkeit (%)";
+    public static final String TREND_VOLUME = "Beantwortet";
 	
     // Dimensions for UI components
     public static final Dimension TABS_LABEL_SIZE = new Dimension(150, 30);
@@ -3,6 +3,7 @@ package gui.panels;
 import java.awt.Dimension;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.function.Predicate;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -43,6 +44,9 @@ public class ComboBoxJListPanel<T, U> extends SubPanel implements GuiConstants{
     /** Scroll pane for the list. */
     private final MyScrollPane scrollPane;
 
+    /** While {@code true}, theme selection listeners are not notified. */
+    private boolean adjustingThemes;
+
     /**
      * Constructs the panel with combo box items and initial list items.
      * @param comboBoxItems initial items for the combo box (can be ThemeListItem)
@@ -75,9 +79,16 @@ public class ComboBoxJListPanel<T, U> extends SubPanel implements GuiConstants{
         add(scrollPane);
     }
 
-    /** Registers an ActionListener for combo box selection changes. */
+    /**
+     * Registers an ActionListener for combo box selection changes.
+     * The listener is not called while single items are put or removed.
+     */
     public void addThemeSelectionListener(ActionListener listener) {
-        comboBox.addActionListener(listener);
+        comboBox.addActionListener(e -> {
+            if (!adjustingThemes) {
+                listener.actionPerformed(e);
+            }
+        });
     }
 
     /** Registers a ListSelectionListener for list selection. */
@@ -103,6 +114,80 @@ public class ComboBoxJListPanel<T, U> extends SubPanel implements GuiConstants{
         }
     }
 
+    /**
+     * Replaces the first combo box item accepted by {@code match} with {@code item},
+     * or appends {@code item} if there is none. The selection is kept.
+     */
+    public void putThemeItem(Predicate<T> match, T item) {
+        adjustingThemes = true;
+        try {
+            for (int i = 0; i < comboBox.getItemCount(); i++) {
+                if (match.test(comboBox.getItemAt(i))) {
+                    boolean selected = comboBox.getSelectedIndex() == i;
+                    comboBox.insertItemAt(item, i);
+                    comboBox.removeItemAt(i + 1);
+                    if (selected) {
+                        comboBox.setSelectedIndex(i);
+                    }
+                    return;
+                }
+            }
+            comboBox.addItem(item);
+        } finally {
+            adjustingThemes = false;
+        }
+    }
+
+    /**
+     * Removes the first combo box item accepted by {@code match}.
+     *
+     * @return {@code true} if the removed item was the selected one
+     */
+    public boolean removeThemeItem(Predicate<T> match) {
+        adjustingThemes = true;
+        try {
+            for (int i = 0; i < comboBox.getItemCount(); i++) {
+                if (match.test(comboBox.getItemAt(i))) {
+                    boolean selected = comboBox.getSelectedIndex() == i;
+                    comboBox.removeItemAt(i);
+                    return selected;
+                }
+            }
+            return false;
+        } finally {
+            adjustingThemes = false;
+        }
+    }
+
+    /**
+     * Replaces the first list item accepted by {@code match} with {@code item},
+     * or appends {@code item} if there is none.
+     */
+    public void putQuestionItem(Predicate<U> match, U item) {
+        for (int i = 0; i < listModel.size(); i++) {
+            if (match.test(listModel.get(i))) {
+                listModel.set(i, item);
+                return;
+            }
+        }
+        listModel.addElement(item);
+    }
+
+    /**
+     * Removes the first list item accepted by {@code match}.
+     *
+     * @return {@code true} if an item was removed
+     */
+    public boolean removeQuestionItem(Predicate<U> match) {
+        for (int i = 0; i < listModel.size(); i++) {
+            if (match.test(listModel.get(i))) {
+                listModel.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
     /** Returns the selected combo box item (full object, e.g. ThemeListItem). */
     @SuppressWarnings("unchecked")
 	public T getSelectedThemeItem() {
@@ -15,8 +15,8 @@ import gui.swing.MyRadioButton;
 import static gui.GuiConstants.DISTANCE_BETWEEN_RADIO_BUTTONS;
 
 /**
- * A reusable panel that displays three mutually exclusive radio buttons
- * arranged horizontally.
+ * A reusable panel that displays mutually exclusive radio buttons arranged
+ * horizontally.
  * <p>
  * Typical usage is to present a small set of options (e.g., modes or filters),
  * with exactly one option selected at all times. The first option is selected
@@ -37,29 +37,24 @@ import static gui.GuiConstants.DISTANCE_BETWEEN_RADIO_BUTTONS;
  */
 public class RadioButtonsPanel extends SubPanel {
 
-	private final List<MyRadioButton> radioButtons = new ArrayList<>(3);
+	private final List<MyRadioButton> radioButtons = new ArrayList<>();
 	private final ButtonGroup group = new ButtonGroup();
 
 	/**
-	 * Constructs a {@code RadioButtonsPanel} with three labeled options. The first
+	 * Constructs a {@code RadioButtonsPanel} with the labeled options. The first
 	 * option is selected by default.
 	 *
 	 * @param first  the label for the first (initially selected) button
-	 * @param second the label for the second button
-	 * @param third  the label for the third button
+	 * @param others the labels for the other buttons, from left to right
 	 */
-	public RadioButtonsPanel(String first, String second, String third) {
+	public RadioButtonsPanel(String first, String... others) {
 		setLayout(new BoxLayout(this, BoxLayout.X_AXIS));
 
-		MyRadioButton rb1 = createAndRegisterButton(first, true);
-		MyRadioButton rb2 = createAndRegisterButton(second, false);
-		MyRadioButton rb3 = createAndRegisterButton(third, false);
-
-		add(rb1);
-		add(Box.createHorizontalStrut(DISTANCE_BETWEEN_RADIO_BUTTONS));
-		add(rb2);
-		add(Box.createHorizontalStrut(DISTANCE_BETWEEN_RADIO_BUTTONS));
-		add(rb3);
+		add(createAndRegisterButton(first, true));
+		for (String label : others) {
+			add(Box.createHorizontalStrut(DISTANCE_BETWEEN_RADIO_BUTTONS));
+			add(createAndRegisterButton(label, false));
+		}
 	}
 
 	/**
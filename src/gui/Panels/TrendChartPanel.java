@@ -0,0 +1,172 @@
+package gui.panels;
+
+import static gui.GuiConstants.TREND_ACCURACY;
+import static gui.GuiConstants.TREND_TIME_AXIS;
+import static gui.GuiConstants.TREND_VOLUME;
+
+import java.awt.BorderLayout;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.geom.Rectangle2D;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYBarRenderer;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.TimeSeriesDataItem;
+import org.jfree.data.time.Week;
+
+import bussinesLogic.statistics.Downsampling;
+import bussinesLogic.statistics.TrendSeries;
+
+/**
+ * A chart of the accuracy (line, left axis) and the number of answers (bars,
+ * right axis) over time.
+ * <p>
+ * If a series has more points than the plot is wide in pixels, each line is
+ * reduced with {@link Downsampling#largestTriangleThreeBuckets(double[], double[], int)}
+ * to one point per pixel. Showing a new series only touches the points that
+ * changed, and the chart is repainted once, or not at all if nothing changed.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class TrendChartPanel extends SubPanel {
+
+	private final TimeSeries accuracy = new TimeSeries(TREND_ACCURACY);
+	private final TimeSeries volume = new TimeSeries(TREND_VOLUME);
+	private final ChartPanel chartPanel;
+
+	private TrendSeries shown = TrendSeries.EMPTY;
+
+	public TrendChartPanel() {
+		setLayout(new BorderLayout());
+		JFreeChart chart = ChartFactory.createTimeSeriesChart(null, TREND_TIME_AXIS, TREND_ACCURACY,
+				new TimeSeriesCollection(accuracy), true, true, false);
+		XYPlot plot = chart.getXYPlot();
+		plot.getRangeAxis().setRange(0, 100);
+		NumberAxis volumeAxis = new NumberAxis(TREND_VOLUME);
+		volumeAxis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+		plot.setRangeAxis(1, volumeAxis);
+		plot.setDataset(1, new TimeSeriesCollection(volume));
+		plot.mapDatasetToRangeAxis(1, 1);
+		plot.setRenderer(1, new XYBarRenderer(0.2));
+
+		chartPanel = new ChartPanel(chart);
+		add(chartPanel, BorderLayout.CENTER);
+		// a different width may allow more or need fewer points
+		chartPanel.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent e) {
+				showSeries(shown);
+			}
+		});
+	}
+
+	/**
+	 * Shows a series instead of the current one.
+	 *
+	 * @param series the series to show
+	 */
+	public void showSeries(TrendSeries series) {
+		shown = series;
+		int n = series.size();
+		RegularTimePeriod[] periods = new RegularTimePeriod[n];
+		double[] x = new double[n];
+		double[] answered = new double[n];
+		List<Integer> evaluated = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			periods[i] = periodOf(series.getStart(i), series.getResolution());
+			x[i] = periods[i].getFirstMillisecond();
+			answered[i] = series.getAnswered(i);
+			if (series.getEvaluated(i) > 0) {
+				evaluated.add(i);
+			}
+		}
+		// accuracy only where there are evaluated answers
+		double[] accuracyX = new double[evaluated.size()];
+		double[] accuracyY = new double[evaluated.size()];
+		RegularTimePeriod[] accuracyPeriods = new RegularTimePeriod[evaluated.size()];
+		for (int j = 0; j < accuracyX.length; j++) {
+			int i = evaluated.get(j);
+			accuracyX[j] = x[i];
+			accuracyY[j] = Math.round(series.getAccuracy(i) * 1000) / 10.0;
+			accuracyPeriods[j] = periods[i];
+		}
+		int pixels = plotWidth();
+		update(accuracy, accuracyPeriods, accuracyY,
+				Downsampling.largestTriangleThreeBuckets(accuracyX, accuracyY, pixels));
+		update(volume, periods, answered, Downsampling.largestTriangleThreeBuckets(x, answered, pixels));
+	}
+
+	/** @return the width of the plot area in pixels, or of the panel before the first paint */
+	private int plotWidth() {
+		Rectangle2D area = chartPanel.getScreenDataArea();
+		int width = area == null || area.getWidth() <= 0 ? chartPanel.getWidth() : (int) area.getWidth();
+		return width > 0 ? width : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Brings a chart series to the given points, changing only the points that
+	 * differ, with at most one change event.
+	 */
+	private static void update(TimeSeries target, RegularTimePeriod[] periods, double[] values, int[] kept) {
+		TimeSeries wanted = new TimeSeries(target.getKey());
+		for (int i : kept) {
+			wanted.add(periods[i], values[i]);
+		}
+		if (target.getItemCount() > 0 && wanted.getItemCount() > 0
+				&& target.getTimePeriodClass() != wanted.getTimePeriodClass()) {
+			// days and weeks cannot be mixed in one series
+			target.clear();
+		}
+		List<RegularTimePeriod> removed = new ArrayList<>();
+		for (int i = 0; i < target.getItemCount(); i++) {
+			if (wanted.getDataItem(target.getTimePeriod(i)) == null) {
+				removed.add(target.getTimePeriod(i));
+			}
+		}
+		List<TimeSeriesDataItem> changed = new ArrayList<>();
+		for (int i = 0; i < wanted.getItemCount(); i++) {
+			TimeSeriesDataItem item = wanted.getDataItem(i);
+			TimeSeriesDataItem current = target.getDataItem(item.getPeriod());
+			if (current == null || !item.getValue().equals(current.getValue())) {
+				changed.add(item);
+			}
+		}
+		if (removed.isEmpty() && changed.isEmpty()) {
+			return;
+		}
+		target.setNotify(false);
+		for (RegularTimePeriod period : removed) {
+			target.delete(period);
+		}
+		for (TimeSeriesDataItem item : changed) {
+			target.addOrUpdate(item.getPeriod(), item.getValue());
+		}
+		// one change event for all points
+		target.setNotify(true);
+	}
+
+	private static RegularTimePeriod periodOf(LocalDate start, TrendSeries.Resolution resolution) {
+		if (resolution == TrendSeries.Resolution.DAY) {
+			return new Day(start.getDayOfMonth(), start.getMonthValue(), start.getYear());
+		}
+		// weeks start on Monday, as in the series
+		Date date = Date.from(start.atStartOfDay(ZoneId.systemDefault()).toInstant());
+		return new Week(date, TimeZone.getDefault(), Locale.GERMANY);
+	}
+}
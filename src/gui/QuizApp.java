@@ -1,12 +1,26 @@
 package gui;
 
+import java.awt.GridBagLayout;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
 import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 
+import bussinesLogic.statistics.DateRange;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.tiered.QuizTieredDataManager;
 import gui.mainPanels.MainPlayPanel;
 import gui.mainPanels.MainQuestionPanel;
 import gui.mainPanels.MainStatisticPanel;
 import gui.mainPanels.MainThemePanel;
+import gui.panels.SubPanel;
+import gui.swing.MyButton;
+import gui.swing.MyLabel;
 import gui.swing.MyTabPane;
 import persistence.mariaDB.createDB.DBCreator;
 
@@ -22,6 +36,11 @@ import persistence.mariaDB.createDB.DBCreator;
  * The class also handles synchronization between panels, e.g., updating
  * question themes when the theme list changes.
  * </p>
+ * <p>
+ * The window appears right away with a progress indicator. The database is
+ * prepared and the data is loaded in the background; the tabs are created once
+ * it is in memory, so building them does not wait for the database.
+ * </p>
  * 
  * <p>
  * This class implements {@link GuiConstants} to use centralized GUI
@@ -33,20 +52,29 @@ import persistence.mariaDB.createDB.DBCreator;
 public class QuizApp extends JFrame implements GuiConstants {
 
 	/** Panel managing the quiz themes. */
-	private final MainThemePanel themePanel = new MainThemePanel();
+	private MainThemePanel themePanel;
 	
 	/** Panel managing the quiz questions. */
-	private final MainQuestionPanel questionPanel = new MainQuestionPanel();
+	private MainQuestionPanel questionPanel;
 
 	/** Panel for playing the quiz. */
-	private final MainPlayPanel playPanel = new MainPlayPanel();
+	private MainPlayPanel playPanel;
 	
 	/** Panel for statistic for the quiz. */
-	private final MainStatisticPanel statisticPanel = new MainStatisticPanel();
+	private MainStatisticPanel statisticPanel;
 
 	/** The tabbed pane containing the main sections of the application. */
 	private MyTabPane tabPane;
 
+	/** Shown instead of the tabs while the data is loaded. */
+	private SubPanel loadingPanel;
+
+	/** The current step of loading. */
+	private MyLabel loadingLabel;
+
+	/** Loads the data in the background. */
+	private SwingWorker<Void, String> loader;
+
 	/**
 	 * Constructs a new {@code QuizApp} frame and initializes the GUI.
 	 */
@@ -56,8 +84,8 @@ public class QuizApp extends JFrame implements GuiConstants {
 	}
 
 	/**
-	 * Initializes the GUI components, including the frame setup, tabbed pane, and
-	 * tab labels. Sets the frame visible at the end of initialization.
+	 * Initializes the frame and shows it with the loading indicator, then starts
+	 * loading the data. The tabs are set up when loading is done.
 	 */
 	private void init() {		
 		setupFrame();
@@ -66,8 +94,9 @@ public class QuizApp extends JFrame implements GuiConstants {
 			} catch (Exception e) {
 		    e.printStackTrace();
 		}
-		setupTabs();
+		setupLoadingPanel();
 		setVisible(true);
+		loadData();
 	}
 
 	/**
@@ -80,12 +109,102 @@ public class QuizApp extends JFrame implements GuiConstants {
 		setResizable(true);
 	}
 
+	/**
+	 * Shows the current loading step with an indeterminate progress bar and a
+	 * button to cancel.
+	 */
+	private void setupLoadingPanel() {
+		loadingPanel = new SubPanel();
+		loadingPanel.setLayout(new GridBagLayout());
+		SubPanel content = new SubPanel(3, 1, H_GAP_SMALL, V_GAP_SMALL);
+		loadingLabel = new MyLabel(LOADING_DATABASE);
+		JProgressBar progress = new JProgressBar();
+		progress.setIndeterminate(true);
+		MyButton cancel = new MyButton(CANCEL);
+		cancel.addActionListener(e -> cancelLoading());
+		content.add(loadingLabel);
+		content.add(progress);
+		content.add(cancel);
+		loadingPanel.add(content);
+		add(loadingPanel);
+	}
+
+	/**
+	 * Prepares the database, loads the data into the local tier and builds the
+	 * statistics in the background, then replaces the loading indicator with the
+	 * tabs.
+	 */
+	private void loadData() {
+		loader = new SwingWorker<Void, String>() {
+			@Override
+			protected Void doInBackground() {
+				publish(LOADING_DATABASE);
+				DBCreator.createDB();
+				if (isCancelled()) {
+					return null;
+				}
+				publish(LOADING_DATA);
+				QuizTieredDataManager dataManager = QuizTieredDataManager.getInstance();
+				if (isCancelled()) {
+					return null;
+				}
+				// the first reads build the counters from the history
+				publish(LOADING_STATISTICS);
+				dataManager.getAnswerTotals(DateRange.ALL_TIME);
+				dataManager.getItemCalibrations();
+				dataManager.getLeaderboard(null, Leaderboard.Ranking.SCORE, 0, 1);
+				return null;
+			}
+
+			@Override
+			protected void process(List<String> steps) {
+				loadingLabel.setText(steps.get(steps.size() - 1));
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled()) {
+					return;
+				}
+				try {
+					get();
+				} catch (InterruptedException | ExecutionException e) {
+					Throwable cause = e.getCause() != null ? e.getCause() : e;
+					JOptionPane.showMessageDialog(QuizApp.this, ERROR_LOADING + cause.getMessage());
+					dispose();
+					System.exit(1);
+					return;
+				}
+				remove(loadingPanel);
+				setupTabs();
+				revalidate();
+				repaint();
+			}
+		};
+		loader.execute();
+	}
+
+	/**
+	 * Cancels loading and closes the application, which cannot be used without
+	 * its data. A database call in progress cannot be interrupted, so it ends
+	 * with the application.
+	 */
+	private void cancelLoading() {
+		loader.cancel(true);
+		dispose();
+		System.exit(0);
+	}
+
 	/**
 	 * Creates and configures the tab pane with tabs for themes, questions, and quiz
 	 * play. Also registers a listener on the theme panel to propagate theme changes
 	 * to other panels.
 	 */
 	private void setupTabs() {
+		themePanel = new MainThemePanel();
+		questionPanel = new MainQuestionPanel();
+		playPanel = new MainPlayPanel();
+		statisticPanel = new MainStatisticPanel();
 		tabPane = new MyTabPane();
 
 		tabPane.addTab(TAB_THEMES, themePanel);
@@ -98,19 +217,18 @@ public class QuizApp extends JFrame implements GuiConstants {
 		themePanel.addOnThemeChangeListener(playPanel);
 		themePanel.addOnThemeChangeListener(statisticPanel);
 		questionPanel.addOnQuestionsChangeListener(playPanel);
-//		questionPanel.addOnQuestionsChangeListener(statisticPanel);
+		questionPanel.addOnQuestionsChangeListener(statisticPanel);
 		
 		add(tabPane);
 	}
 
 	/**
-	 * The main method to launch the Quiz Application.
+	 * The main method to launch the Quiz Application. The frame is created on
+	 * the event dispatch thread.
 	 *
 	 * @param args command-line arguments (not used)
 	 */
 	public static void main(String[] args) {
-		DBCreator.createDB();
-		new QuizApp();
-		
+		SwingUtilities.invokeLater(QuizApp::new);
 	}
 }
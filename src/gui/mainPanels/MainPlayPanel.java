@@ -2,19 +2,33 @@ package gui.mainPanels;
 
 import java.awt.BorderLayout;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
-import bussinesLogic.datenBank.QuizDBDataManager;
-import bussinesLogic.serialization.QuizSManager;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AdaptiveExam;
+import bussinesLogic.statistics.InformationTable;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.tiered.QuizTieredDataManager;
 import gui.GuiConstants;
 import gui.panels.AnswerPanel;
 import gui.panels.ComboBoxJListPanel;
@@ -23,14 +37,39 @@ import gui.panels.LabelTextAreaPanel;
 import gui.panels.SouthPanel;
 import gui.panels.SubPanel;
 import gui.swing.MyButton;
+import gui.swing.MyComboBox;
 import gui.swing.MyLabel;
+import helpers.ChangeEvent;
+import helpers.PlayerListItem;
 import helpers.QuestionListItem;
 import helpers.ThemeListItem;
-
+import server.LiveQuizBroadcaster;
+import server.LiveRoundResult;
+
+/**
+ * Panel for playing the quiz: shows a random question of the selected theme
+ * and saves the chosen answers.
+ * <p>
+ * The panel can also host a live quiz show: while the broadcaster is running,
+ * the current question can be pushed to all connected participants, and the
+ * answers are counted live until the answer time is over (see
+ * {@link LiveQuizBroadcaster}).
+ * </p>
+ * <p>
+ * In an adaptive test the next question is not random but the most
+ * informative one at the player's current ability estimate, until the ability
+ * is known precisely enough (see {@link AdaptiveExam}).
+ * </p>
+ * <p>
+ * The answers are saved for the selected player profile, so the statistics
+ * can be read per player; without a selected player they stay anonymous.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
 public class MainPlayPanel extends SubPanel implements QuestionsChangeListener, ThemeChangeListener, GuiConstants {
 
-	private final QuizDBDataManager dataManager = QuizDBDataManager.getInstance();
-    private final QuizSManager sManager = QuizSManager.getInstance();
+	private final QuizTieredDataManager dataManager = QuizTieredDataManager.getInstance();
 
 	private SubPanel centerPanel;
 	private SubPanel westPanel;
@@ -52,6 +91,31 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 
 	private List<AnswerDTO> visibleAnswers;
 
+	/** {@code true} while the list shows the solution instead of the questions. */
+	private boolean solutionShown;
+
+	/** {@link System#nanoTime()} when the current question was shown. */
+	private long questionShownAt;
+	/** The anonymous player of this panel for the item response model, new with every start. */
+	private final String respondent = "play-" + UUID.randomUUID();
+
+	private MyComboBox<PlayerListItem> playerChoice;
+	private MyButton btnNewPlayer;
+
+	private MyButton btnLive;
+	private MyButton btnLiveSend;
+	private MyLabel liveStatus;
+	/** Running broadcaster, or {@code null}. */
+	private LiveQuizBroadcaster live;
+	private final Timer liveTimer = new Timer(LIVE_REFRESH_MS, e -> updateLiveStatus());
+
+	private MyButton btnExam;
+	private MyLabel examStatus;
+	/** Running adaptive test, or {@code null}. */
+	private AdaptiveExam exam;
+	/** The player of the running adaptive test, new with every test. */
+	private String examRespondent;
+
 	public MainPlayPanel() {
 		super();
 		init();
@@ -117,7 +181,124 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 		SubPanel panel = new SubPanel();
 		panel.setLayout(new BoxLayout(panel, BoxLayout.PAGE_AXIS));
 		panel.setBorder(OUTSIDE_BORDERS_FOR_SUBPANELS);
+		panel.add(initPlayerPanel());
 		panel.add(initComboPanel());
+		panel.add(initLivePanel());
+		panel.add(initExamPanel());
+		return panel;
+	}
+
+	private SubPanel initPlayerPanel() {
+		final SubPanel panel = new SubPanel();
+		panel.setLayout(new BoxLayout(panel, BoxLayout.LINE_AXIS));
+		panel.setBorder(DISTANCE_BETWEEN_ELEMENTS);
+		playerChoice = new MyComboBox<>();
+		playerChoice.setMaximumSize(COMBO_BOX_SIZE_STATISTICS);
+		btnNewPlayer = new MyButton(NEW_PLAYER);
+		fillPlayerChoice(NO_SELECTION);
+		panel.add(new MyLabel(LABEL_PLAYER));
+		panel.add(playerChoice);
+		panel.add(btnNewPlayer);
+		panel.add(Box.createHorizontalGlue());
+		return panel;
+	}
+
+	private void fillPlayerChoice(int selectedPlayerId) {
+		playerChoice.removeAllItems();
+		playerChoice.addItem(new PlayerListItem(NO_SELECTION, ANONYMOUS_PLAYER));
+		for (PlayerDTO player : dataManager.getAllPlayers()) {
+			PlayerListItem item = new PlayerListItem(player.getId(), player.getName());
+			playerChoice.addItem(item);
+			if (player.getId() == selectedPlayerId) {
+				playerChoice.setSelectedItem(item);
+			}
+		}
+	}
+
+	/** @return the ID of the selected player profile, 0 for anonymous answers */
+	private int selectedPlayerId() {
+		PlayerListItem item = (PlayerListItem) playerChoice.getSelectedItem();
+		return item == null || item.getId() == NO_SELECTION ? 0 : item.getId();
+	}
+
+	/** @return the player for the item response model: the selected profile, or the anonymous player */
+	private String playerRespondent() {
+		int playerId = selectedPlayerId();
+		return playerId > 0 ? "player-" + playerId : respondent;
+	}
+
+	/** Asks for the name of a new player profile, saves it and selects it. */
+	private void createPlayer() {
+		String name = JOptionPane.showInputDialog(this, PLAYER_NAME_PROMPT, NEW_PLAYER, JOptionPane.QUESTION_MESSAGE);
+		if (name == null) {
+			return;
+		}
+		name = name.trim();
+		for (PlayerDTO player : dataManager.getAllPlayers()) {
+			if (player.getName().equalsIgnoreCase(name)) {
+				name = EMPTY_STRING;
+				break;
+			}
+		}
+		if (name.isEmpty()) {
+			showMessage(ERROR_PLAYER_NAME);
+			return;
+		}
+		final PlayerDTO player = new PlayerDTO(0, name);
+		btnNewPlayer.setEnabled(false);
+		showMessage(SAVING);
+		new SwingWorker<String, Void>() {
+			@Override
+			protected String doInBackground() {
+				return dataManager.savePlayer(player);
+			}
+
+			@Override
+			protected void done() {
+				btnNewPlayer.setEnabled(true);
+				String result;
+				try {
+					result = get();
+				} catch (InterruptedException | ExecutionException e) {
+					final Throwable cause = e.getCause() != null ? e.getCause() : e;
+					result = ERROR_SAVE + cause.getMessage();
+				}
+				if (result != null) {
+					showMessage(result);
+					return;
+				}
+				fillPlayerChoice(player.getId());
+				showMessage(PLAYER_SAVED);
+			}
+		}.execute();
+	}
+
+	private SubPanel initExamPanel() {
+		final SubPanel panel = new SubPanel();
+		panel.setLayout(new BoxLayout(panel, BoxLayout.LINE_AXIS));
+		panel.setBorder(DISTANCE_BETWEEN_ELEMENTS);
+		btnExam = new MyButton(CAT_START);
+		examStatus = new MyLabel(EMPTY_STRING);
+		panel.add(btnExam);
+		panel.add(Box.createHorizontalStrut(10));
+		panel.add(examStatus);
+		panel.add(Box.createHorizontalGlue());
+		return panel;
+	}
+
+	private SubPanel initLivePanel() {
+		final SubPanel panel = new SubPanel();
+		panel.setLayout(new BoxLayout(panel, BoxLayout.LINE_AXIS));
+		panel.setBorder(DISTANCE_BETWEEN_ELEMENTS);
+		btnLive = new MyButton(LIVE_START);
+		btnLiveSend = new MyButton(LIVE_SEND);
+		btnLiveSend.setEnabled(false);
+		liveStatus = new MyLabel(EMPTY_STRING);
+		panel.add(btnLive);
+		panel.add(btnLiveSend);
+		panel.add(Box.createHorizontalStrut(10));
+		panel.add(liveStatus);
+		panel.add(Box.createHorizontalGlue());
 		return panel;
 	}
 
@@ -135,6 +316,10 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 			ThemeListItem selectedItem = comboPanel.getSelectedThemeItem();
 			if (selectedItem == null)
 				return;
+			if (exam != null) {
+				// the test was started for the previous theme
+				finishExam(dataManager.getAbility(examRespondent));
+			}
 
 			if (selectedItem.getId() == NO_SELECTION) {
 				currentQuestion = null;
@@ -157,7 +342,149 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 
 		btnShowSolution.addActionListener(e -> showAnswer());
 		btnSaveAnswer.addActionListener(e -> savePlayerAnswers());
-		btnNextQuestion.addActionListener(e -> loadRandomQuestion());
+		btnNextQuestion.addActionListener(e -> {
+			if (exam != null) {
+				loadExamQuestion();
+			} else {
+				loadRandomQuestion();
+			}
+		});
+		btnNewPlayer.addActionListener(e -> createPlayer());
+		btnExam.addActionListener(e -> toggleExam());
+		btnLive.addActionListener(e -> toggleLive());
+		btnLiveSend.addActionListener(e -> broadcastCurrentQuestion());
+	}
+
+	/**
+	 * Starts an adaptive test over the answered questions of the selected theme,
+	 * or of all themes, or ends the running one.
+	 */
+	private void toggleExam() {
+		if (exam != null) {
+			finishExam(dataManager.getAbility(examRespondent));
+			return;
+		}
+		List<ItemCalibration> pool = dataManager.getItemCalibrations();
+		ThemeListItem selectedItem = comboPanel.getSelectedThemeItem();
+		if (theme != null && selectedItem != null && selectedItem.getId() != NO_SELECTION) {
+			Set<Integer> themeQuestionIds = new HashSet<>();
+			for (QuestionDTO question : dataManager.getQuestionsFor(theme)) {
+				themeQuestionIds.add(question.getId());
+			}
+			pool = pool.stream().filter(c -> themeQuestionIds.contains(c.getQuestionId())).collect(Collectors.toList());
+		}
+		if (pool.isEmpty()) {
+			showMessage(CAT_NO_QUESTIONS);
+			return;
+		}
+		exam = new AdaptiveExam(InformationTable.build(pool), CAT_STOP_ERROR, CAT_MAX_QUESTIONS);
+		examRespondent = "cat-" + UUID.randomUUID();
+		btnExam.setText(CAT_STOP);
+		loadExamQuestion();
+	}
+
+	/** Shows the most informative question at the current ability, or ends the test. */
+	private void loadExamQuestion() {
+		AbilityEstimate ability = dataManager.getAbility(examRespondent);
+		QuestionDTO question = null;
+		while (question == null) {
+			int questionId = exam.next(ability);
+			if (questionId < 0) {
+				finishExam(ability);
+				return;
+			}
+			// null if it was deleted since the test started
+			question = dataManager.getQuestionById(questionId);
+		}
+		for (int i = 0; i < MAX_ANSWERS; i++) {
+			answerPanel.getAnswerCheckBox(i).setEnabled(true);
+		}
+		fillWithData(question);
+		enableAllButton();
+		examStatus.setText(String.format(CAT_STATUS, exam.getAsked(), ability.getTheta(), ability.getStandardError()));
+	}
+
+	private void finishExam(AbilityEstimate ability) {
+		exam = null;
+		btnExam.setText(CAT_START);
+		examStatus.setText(EMPTY_STRING);
+		showMessage(String.format(CAT_FINISHED, ability.getTheta(), ability.getStandardError(),
+				ability.getAnswered()));
+	}
+
+	/** Starts or stops the live quiz show. */
+	private void toggleLive() {
+		if (live != null) {
+			stopLive();
+			return;
+		}
+		try {
+			live = new LiveQuizBroadcaster(dataManager, LIVE_PORT,
+					result -> SwingUtilities.invokeLater(() -> showLiveResult(result)),
+					error -> SwingUtilities.invokeLater(() -> liveStopped(error)));
+		} catch (IOException e) {
+			showMessage(ERROR_LIVE + e.getMessage());
+			return;
+		}
+		btnLive.setText(LIVE_STOP);
+		btnLiveSend.setEnabled(true);
+		liveTimer.start();
+		updateLiveStatus();
+	}
+
+	private void stopLive() {
+		liveTimer.stop();
+		live.close();
+		live = null;
+		btnLive.setText(LIVE_START);
+		btnLiveSend.setEnabled(false);
+		liveStatus.setText(EMPTY_STRING);
+	}
+
+	/** Resets the controls after the broadcaster stopped on its own. */
+	private void liveStopped(String error) {
+		if (live != null && !live.isRunning()) {
+			stopLive();
+		}
+		showMessage(ERROR_LIVE_STOPPED + error);
+	}
+
+	/** Pushes the displayed question with its answers, in the displayed order, to all participants. */
+	private void broadcastCurrentQuestion() {
+		if (currentQuestion == null || visibleAnswers == null) {
+			showMessage(NO_QUESTION_LOADED);
+			return;
+		}
+		live.broadcast(currentQuestion, visibleAnswers, LIVE_ANSWER_MILLIS);
+		updateLiveStatus();
+	}
+
+	private void updateLiveStatus() {
+		if (live == null) {
+			return;
+		}
+		final LiveRoundResult result = live.getLiveResult();
+		if (result == null) {
+			liveStatus.setText(String.format(LIVE_STATUS, live.getPort(), live.getParticipantCount()));
+			return;
+		}
+		final int[] counts = result.getAnswerCounts();
+		final List<String> perAnswer = new ArrayList<>();
+		for (int i = 0; i < counts.length; i++) {
+			perAnswer.add((i + 1) + ": " + counts[i]);
+		}
+		liveStatus.setText(String.format(LIVE_ROUND_STATUS, live.getPort(), live.getParticipantCount(),
+				result.getAnswered(), result.getCorrect(), String.join(" | ", perAnswer),
+				(result.getRemainingMillis() + 999) / 1000));
+	}
+
+	private void showLiveResult(final LiveRoundResult result) {
+		if (result.getSaveError() != null) {
+			showMessage(ERROR_LIVE_SAVE + result.getSaveError());
+		} else {
+			showMessage(String.format(LIVE_ROUND_SAVED, result.getAnswered(), result.getCorrect()));
+		}
+		updateLiveStatus();
 	}
 
 	private void fillWithData(QuestionDTO question) {
@@ -165,6 +492,7 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 		showMessage(EMPTY_STRING);
 		if (question != null) {
 			currentQuestion = question;
+			questionShownAt = System.nanoTime();
 
 			ThemeDTO theme = getThemeById(question.getThemeId());
 			themePanel.setText(theme != null ? theme.getTitle() : "");
@@ -172,7 +500,6 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 			questionPanel.setQuestionText(question.getText());
 			questionPanel.getQuestionTextArea().setEditable(false);
 			visibleAnswers = new ArrayList<>(dataManager.getAnswersFor(question));
-			currentQuestion.setAnswers(visibleAnswers);
 			int count = 0;
 			for (int i = 0; i < Math.min(visibleAnswers.size(), MAX_ANSWERS); i++) {
 				answerPanel.getAnswerField(i).setText(visibleAnswers.get(i).getText());
@@ -211,6 +538,7 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 	}
 
 	private void updateQuestionList() {
+		solutionShown = false;
 		ThemeListItem selectedTheme = comboPanel.getSelectedThemeItem();
 		List<QuestionListItem> newQuestions = new ArrayList<>();
 
@@ -239,7 +567,7 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 	}
 
 	private ThemeDTO getThemeById(int id) {
-		return allThemes.stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+		return dataManager.getThemeById(id);
 	}
 
 	private void showAnswer() {
@@ -253,7 +581,7 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 			return;
 		}
 		List<Integer> correctIndices = new ArrayList<>();
-		List<AnswerDTO> answers = currentQuestion.getAnswers();
+		List<AnswerDTO> answers = visibleAnswers;
 		for (int i = 0; i < answers.size(); i++) {
 			if (answers.get(i).isCorrect()) {
 				correctIndices.add(i + 1);
@@ -269,6 +597,7 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 		List<QuestionListItem> specialList = new ArrayList<>();
 		specialList.add(new QuestionListItem(-1, correctText));
 		comboPanel.updateQuestions(specialList);
+		solutionShown = true;
 
 		for (int i = 0; i < MAX_ANSWERS; i++) {
 			answerPanel.getAnswerCheckBox(i).setEnabled(false);
@@ -295,6 +624,17 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 			showMessage(CHOOSE_AN_ANSWER);
 			return;
 		}
+		int durationMillis = (int) Math.min(Integer.MAX_VALUE,
+				Math.max(1, (System.nanoTime() - questionShownAt) / 1_000_000));
+		boolean hasCorrect = false;
+		boolean correct = true;
+		for (int i = 0; i < possibleAnswers.size() && i < MAX_ANSWERS; i++) {
+			hasCorrect |= possibleAnswers.get(i).isCorrect();
+			correct &= answerPanel.getAnswerCheckBox(i).isSelected() == possibleAnswers.get(i).isCorrect();
+		}
+		// one time for all rows, so the submission can be told apart later
+		LocalDateTime now = LocalDateTime.now();
+		final List<PlayerAnswerDTO> playerAnswers = new ArrayList<>();
 		for (int i = 0; i < possibleAnswers.size() && i < MAX_ANSWERS; i++) {
 			var cb = answerPanel.getAnswerCheckBox(i);
 			if (answerPanel.getAnswerCheckBox(i).isSelected()) {
@@ -307,20 +647,68 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 				PlayerAnswerDTO playerAnswer = new PlayerAnswerDTO();
 				playerAnswer.setQuestionId(currentQuestion.getId());
 				playerAnswer.setAnswerId(answerId);
+				playerAnswer.setCreatedAt(now);
+				playerAnswer.setDurationMillis(durationMillis);
+				playerAnswer.setPlayerId(selectedPlayerId());
+				playerAnswers.add(playerAnswer);
+			}
+		}
+		final QuestionDTO question = currentQuestion;
+		final String respondent = hasCorrect ? (exam != null ? examRespondent : playerRespondent()) : null;
+		final boolean answeredCorrectly = correct;
+		setAnswerInputEnabled(false);
+		new SwingWorker<String, Void>() {
+			/** The new estimate of the respondent, {@code null} without a correct answer. */
+			private AbilityEstimate ability;
+
+			@Override
+			protected String doInBackground() {
+				// one save for all rows, so a submission is never stored in part
+				String result = dataManager.savePlayerAnswers(playerAnswers);
+				if (result != null) {
+					return result;
+				}
+				if (respondent != null) {
+					ability = dataManager.recordResponse(respondent, question, answeredCorrectly);
+				}
+				return null;
+			}
 
-				String result = dataManager.savePlayerAnswer(playerAnswer);
-				sManager.savePlayerAnswer(playerAnswer);
+			@Override
+			protected void done() {
+				String result;
+				try {
+					result = get();
+				} catch (InterruptedException | ExecutionException e) {
+					final Throwable cause = e.getCause() != null ? e.getCause() : e;
+					result = ERROR_SAVE + cause.getMessage();
+				}
 				if (result != null) {
+					// nothing is lost, the answer can be saved again
+					setAnswerInputEnabled(true);
 					showMessage(result);
 					return;
 				}
+				if (ability != null) {
+					if (exam != null && exam.isFinished(ability)) {
+						finishExam(ability);
+						return;
+					}
+					showMessage(ANSWER_SAVED
+							+ String.format(ABILITY_ESTIMATE, ability.getTheta(), ability.getStandardError()));
+				} else {
+					showMessage(ANSWER_SAVED);
+				}
 			}
-		}
+		}.execute();
+	}
+
+	/** Locks the answer boxes and the save button while the answer is saved, and after. */
+	private void setAnswerInputEnabled(final boolean enabled) {
 		for (int i = 0; i < MAX_ANSWERS; i++) {
-			answerPanel.getAnswerCheckBox(i).setEnabled(false);
+			answerPanel.getAnswerCheckBox(i).setEnabled(enabled);
 		}
-		showMessage(ANSWER_SAVED);
-		buttons[1].setEnabled(false);
+		buttons[1].setEnabled(enabled);
 	}
 
 	private void loadRandomQuestion() {
@@ -363,24 +751,89 @@ public class MainPlayPanel extends SubPanel implements QuestionsChangeListener,
 			btn.setEnabled(false);
 		}
 	}
+	/**
+	 * Puts or removes only the changed questions in the list. A changed or deleted
+	 * question that is currently being played is unloaded, because its answers
+	 * may have been replaced.
+	 */
 	@Override
-	public void onQuestionsChanged() {
-		refreshThemesFromData();
-		comboPanel.updateThemes(buildThemeItems());
+	public void onQuestionsChanged(List<ChangeEvent> changes) {
 		refreshQuestions();
-		currentQuestion = null;
-		updateQuestionList();
+		ThemeListItem selectedTheme = comboPanel.getSelectedThemeItem();
+		int selectedThemeId = selectedTheme == null ? NO_SELECTION : selectedTheme.getId();
+		for (ChangeEvent change : changes) {
+			int questionId = change.getId();
+			if (currentQuestion != null && currentQuestion.getId() == questionId) {
+				currentQuestion = null;
+				fillWithData(null);
+			}
+			if (solutionShown) {
+				continue;
+			}
+			QuestionDTO question = change.getKind() == ChangeEvent.Kind.DELETED ? null
+					: dataManager.getQuestionById(questionId);
+			if (question != null && (selectedThemeId == NO_SELECTION || question.getThemeId() == selectedThemeId)) {
+				comboPanel.putQuestionItem(item -> item.getId() == questionId,
+						new QuestionListItem(questionId, question.getTitle()));
+			} else {
+				comboPanel.removeQuestionItem(item -> item.getId() == questionId);
+			}
+		}
 	}
 
 	private void refreshQuestions() {
 		allQuestions = dataManager.getAllQuestions();
 	}
 
+	/**
+	 * Puts or removes only the changed themes in the combo box. Deleting a theme
+	 * also deletes its questions, so the question list is reloaded in that case.
+	 */
 	@Override
-	public void onThemesChanged() {
+	public void onThemesChanged(List<ChangeEvent> changes) {
 		refreshThemesFromData();
-		comboPanel.updateThemes(buildThemeItems());
-		updateQuestionList();
+		ThemeListItem selectedTheme = comboPanel.getSelectedThemeItem();
+		int selectedThemeId = selectedTheme == null ? NO_SELECTION : selectedTheme.getId();
+		boolean selectionDeleted = false;
+		boolean anyDeleted = false;
+		boolean listChanged = false;
+		for (ChangeEvent change : changes) {
+			int themeId = change.getId();
+			if (change.getKind() == ChangeEvent.Kind.DELETED) {
+				comboPanel.removeThemeItem(item -> item.getId() == themeId);
+				anyDeleted = true;
+				selectionDeleted |= themeId == selectedThemeId;
+				continue;
+			}
+			ThemeDTO changed = getThemeById(themeId);
+			if (changed == null) {
+				continue;
+			}
+			comboPanel.putThemeItem(item -> item.getId() == themeId, new ThemeListItem(themeId, changed.getTitle()));
+			if (currentQuestion != null && currentQuestion.getThemeId() == themeId) {
+				themePanel.setText(changed.getTitle());
+			}
+			// an import adds questions to a theme without publishing every single one
+			listChanged |= selectedThemeId == NO_SELECTION || themeId == selectedThemeId;
+		}
+		if (!anyDeleted) {
+			if (listChanged && !solutionShown) {
+				refreshQuestions();
+				updateQuestionList();
+			}
+			return;
+		}
+		refreshQuestions();
+		if (currentQuestion != null && dataManager.getQuestionById(currentQuestion.getId()) == null) {
+			currentQuestion = null;
+			fillWithData(null);
+		}
+		if (selectionDeleted) {
+			// selecting ALL_THEMES reloads the list through the combo box listener
+			comboPanel.getComboBox().setSelectedIndex(0);
+		} else {
+			updateQuestionList();
+		}
 	}
 
 	/** Displays a message in the bottom panel's message area. */
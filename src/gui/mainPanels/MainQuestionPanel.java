@@ -2,20 +2,40 @@ package gui.mainPanels;
 
 import java.awt.BorderLayout;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.ErrorHandler;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
 import bussinesLogic.Validator;
-import bussinesLogic.datenBank.QuizDBDataManager;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.tiered.QuizTieredDataManager;
+import bussinesLogic.transfer.ImportProgress;
+import bussinesLogic.transfer.ImportResult;
+import bussinesLogic.transfer.QuestionExporter;
+import bussinesLogic.transfer.QuestionImportPipeline;
+import bussinesLogic.transfer.TransferFormat;
 import gui.GuiConstants;
 import gui.panels.AnswerPanel;
 import gui.panels.ComboBoxJListPanel;
@@ -25,6 +45,8 @@ import gui.panels.SouthPanel;
 import gui.panels.SubPanel;
 import gui.swing.MyButton;
 import gui.swing.MyLabel;
+import helpers.ChangeEvent;
+import helpers.ChangeEventBus;
 import helpers.QuestionListItem;
 import helpers.ThemeListItem;
 
@@ -43,13 +65,21 @@ import helpers.ThemeListItem;
  * <li>Create new questions for a theme.</li>
  * <li>Edit existing questions.</li>
  * <li>Delete questions.</li>
+ * <li>Import and export questions as CSV, JSON Lines or Moodle GIFT (see
+ * {@link TransferFormat}); both run in the background.</li>
+ * <li>Search questions by words of their title, text or answers; the list then
+ * shows the best hits within the selected theme. If no question contains the
+ * words, questions with a similar title are shown instead (typos).</li>
+ * <li>Warn before saving a question whose text and answers nearly match an
+ * existing one, and list all such duplicates of the bank per theme.</li>
  * </ul>
  * 
  * <p>
  * Uses ID-based lookups (via {@link ThemeListItem} and
  * {@link QuestionListItem}) to avoid issues with duplicate or renamed titles.
- * Implements {@link ThemeChangeListener} so it refreshes when themes change in
- * other panels.
+ * Implements {@link ThemeChangeListener} so it updates the changed themes when
+ * they change in other panels, and publishes its own question changes on the
+ * {@link ChangeEventBus}.
  * </p>
  * 
  * @author DejanKrstovski
@@ -57,14 +87,18 @@ import helpers.ThemeListItem;
 public class MainQuestionPanel extends SubPanel implements ThemeChangeListener, GuiConstants {
 	
 	/** Access point for quiz themes and questions. */
-	private final QuizDBDataManager dataManager = QuizDBDataManager.getInstance();
-//	private final QuizSManager sManager = QuizSManager.getInstance();
+	private final QuizTieredDataManager dataManager = QuizTieredDataManager.getInstance();
 	private final ErrorHandler errorHandler = ErrorHandler.getInstance();
 	private MyButton buttonShow;
+	private MyButton buttonImport;
+	private MyButton buttonExport;
+	private MyButton buttonDuplicates;
 	private SubPanel centerPanel;
 	private SubPanel westPanel;
 	private SouthPanel bottomPanel;
 	private LabelFieldPanel themePanel;
+	private LabelFieldPanel searchPanel;
+	private Timer searchTimer;
 	private LabelFieldPanel titlePanel;
 	private LabelTextAreaPanel questionPanel;
 	private AnswerPanel answerPanel;
@@ -77,7 +111,6 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 	private ThemeDTO selectedTheme;
 	private List<ThemeDTO> allThemes = new ArrayList<>();
 	private List<ThemeListItem> themeItems = new ArrayList<>();
-	private List<QuestionsChangeListener> questionChangeListeners = new ArrayList<>();
 	private List<QuestionDTO> allQuestions;
 	private List<QuestionListItem> questionItems;
 
@@ -202,10 +235,39 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 		panel.setLayout(new BoxLayout(panel, BoxLayout.PAGE_AXIS));
 		panel.setBorder(OUTSIDE_BORDERS_FOR_SUBPANELS);
 		panel.add(initThemeLabelPanel());
+		panel.add(initSearchPanel());
 		panel.add(initComboPanel());
 		return panel;
 	}
 
+	/**
+	 * @return Search field; the question list is filtered shortly after the user
+	 *         stops typing.
+	 */
+	private LabelFieldPanel initSearchPanel() {
+		searchPanel = new LabelFieldPanel(LABEL_SEARCH, EMPTY_STRING);
+		searchPanel.getTextField().setEditable(true);
+		searchTimer = new Timer(SEARCH_DELAY_MS, e -> updateQuestionsList());
+		searchTimer.setRepeats(false);
+		searchPanel.getTextField().getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+		});
+		return searchPanel;
+	}
+
 	/** @return Panel with theme label and "show theme info" button. */
 	private SubPanel initThemeLabelPanel() {
 		final SubPanel panel = new SubPanel();
@@ -213,8 +275,14 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 		panel.setBorder(DISTANCE_BETWEEN_ELEMENTS);
 		MyLabel questionLabel = new MyLabel(LABEL_QUESTION_FOR_THEME);
 		buttonShow = new MyButton(SHOW_THEME);
+		buttonImport = new MyButton(IMPORT);
+		buttonExport = new MyButton(EXPORT);
+		buttonDuplicates = new MyButton(FIND_DUPLICATES);
 		panel.add(questionLabel);
 		panel.add(Box.createHorizontalGlue());
+		panel.add(buttonImport);
+		panel.add(buttonExport);
+		panel.add(buttonDuplicates);
 		panel.add(buttonShow);
 		buttonShow.setVisible(false);
 		buttonShow.setFocusable(false);
@@ -278,6 +346,179 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 		buttons[1].addActionListener(e -> clearAllFields());
 		buttons[2].addActionListener(e -> deleteQuestion());
 		buttonShow.addActionListener(e -> toggleShowListOrInfo());
+		buttonImport.addActionListener(e -> importQuestions());
+		buttonExport.addActionListener(e -> exportQuestions());
+		buttonDuplicates.addActionListener(e -> findDuplicates());
+	}
+
+	/** @return a file chooser for the supported transfer formats */
+	private JFileChooser createTransferFileChooser() {
+		final JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(new FileNameExtensionFilter("CSV, JSON Lines, Moodle GIFT", "csv", "jsonl", "json",
+				"gift", "txt"));
+		return chooser;
+	}
+
+	/**
+	 * Lets the user choose a file and imports its questions in the background.
+	 * Missing themes are created. The changed themes are published afterwards,
+	 * so the other panels reload them once instead of once per question.
+	 */
+	private void importQuestions() {
+		final JFileChooser chooser = createTransferFileChooser();
+		if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+		final File file = chooser.getSelectedFile();
+		final TransferFormat format = TransferFormat.fromFileName(file.getName());
+		if (format == null) {
+			showMessage(ERROR_UNKNOWN_FORMAT);
+			return;
+		}
+		setTransferButtonsEnabled(false);
+		new SwingWorker<ImportResult, ImportProgress>() {
+			@Override
+			protected ImportResult doInBackground() throws Exception {
+				final QuestionImportPipeline pipeline = new QuestionImportPipeline(dataManager);
+				return pipeline.run(format.openReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)),
+						this::publish);
+			}
+
+			@Override
+			protected void process(List<ImportProgress> chunks) {
+				final ImportProgress progress = chunks.get(chunks.size() - 1);
+				showMessage(String.format(IMPORT_PROGRESS, progress.getParsed(), progress.getPersisted(),
+						progress.getInvalid()));
+			}
+
+			@Override
+			protected void done() {
+				setTransferButtonsEnabled(true);
+				try {
+					showImportResult(get());
+				} catch (InterruptedException | ExecutionException e) {
+					final Throwable cause = e.getCause() != null ? e.getCause() : e;
+					showMessage(ERROR_IMPORT + cause.getMessage());
+				}
+			}
+		}.execute();
+	}
+
+	/** Publishes the themes changed by an import and shows its outcome. */
+	private void showImportResult(final ImportResult result) {
+		for (int themeId : result.getCreatedThemeIds()) {
+			ChangeEventBus.getInstance().publish(ChangeEvent.Entity.THEME, themeId, ChangeEvent.Kind.CREATED);
+		}
+		for (int themeId : result.getTouchedThemeIds()) {
+			ChangeEventBus.getInstance().publish(ChangeEvent.Entity.THEME, themeId, ChangeEvent.Kind.UPDATED);
+		}
+		updateQuestionsList();
+		showMessage(String.format(IMPORT_FINISHED, result.getPersisted(), result.getInvalid(), result.getFailed()));
+		if (!result.getErrors().isEmpty()) {
+			final JTextArea errors = new JTextArea(String.join("\n", result.getErrors()), 15, 60);
+			errors.setEditable(false);
+			JOptionPane.showMessageDialog(this, new JScrollPane(errors),
+					String.format(IMPORT_ERRORS, result.getErrorCount()), JOptionPane.WARNING_MESSAGE);
+		}
+	}
+
+	/**
+	 * Lets the user choose a file and exports the questions of the selected
+	 * theme, or of all themes, in the background.
+	 */
+	private void exportQuestions() {
+		final JFileChooser chooser = createTransferFileChooser();
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+		final File file = chooser.getSelectedFile();
+		final TransferFormat format = TransferFormat.fromFileName(file.getName());
+		if (format == null) {
+			showMessage(ERROR_UNKNOWN_FORMAT);
+			return;
+		}
+		final List<ThemeDTO> themes = selectedTheme == null ? null : Collections.singletonList(selectedTheme);
+		setTransferButtonsEnabled(false);
+		new SwingWorker<Long, Void>() {
+			@Override
+			protected Long doInBackground() throws IOException {
+				return new QuestionExporter(dataManager).export(
+						format.openWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)), themes);
+			}
+
+			@Override
+			protected void done() {
+				setTransferButtonsEnabled(true);
+				try {
+					showMessage(String.format(EXPORT_FINISHED, get()));
+				} catch (InterruptedException | ExecutionException e) {
+					final Throwable cause = e.getCause() != null ? e.getCause() : e;
+					showMessage(ERROR_EXPORT + cause.getMessage());
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Searches the whole bank for duplicate questions in the background and
+	 * lists the groups per theme.
+	 */
+	private void findDuplicates() {
+		buttonDuplicates.setEnabled(false);
+		showMessage(DUPLICATES_SEARCHING);
+		new SwingWorker<List<DuplicateGroup>, Void>() {
+			@Override
+			protected List<DuplicateGroup> doInBackground() {
+				return dataManager.findDuplicateGroups();
+			}
+
+			@Override
+			protected void done() {
+				buttonDuplicates.setEnabled(true);
+				try {
+					showDuplicateGroups(get());
+				} catch (InterruptedException | ExecutionException e) {
+					final Throwable cause = e.getCause() != null ? e.getCause() : e;
+					showMessage(ERROR_FIND_DUPLICATES + cause.getMessage());
+				}
+			}
+		}.execute();
+	}
+
+	private void showDuplicateGroups(final List<DuplicateGroup> groups) {
+		if (groups.isEmpty()) {
+			showMessage(NO_DUPLICATES);
+			return;
+		}
+		showMessage(EMPTY_STRING);
+		final StringBuilder report = new StringBuilder();
+		int lastThemeId = NO_SELECTION;
+		for (DuplicateGroup group : groups) {
+			if (group.getThemeId() != lastThemeId) {
+				final ThemeDTO theme = getThemeById(group.getThemeId());
+				report.append(report.length() == 0 ? "" : "\n").append(theme == null ? "?" : theme.getTitle())
+						.append(":\n");
+				lastThemeId = group.getThemeId();
+			}
+			report.append(group.getQuestions().stream().map(q -> q.getId() + " " + q.getTitle())
+					.collect(Collectors.joining(" | ", "  - ", "\n")));
+		}
+		final JTextArea text = new JTextArea(report.toString(), 20, 70);
+		text.setEditable(false);
+		JOptionPane.showMessageDialog(this, new JScrollPane(text), String.format(DUPLICATES_TITLE, groups.size()),
+				JOptionPane.INFORMATION_MESSAGE);
+	}
+
+	/** Locks saving and deleting while a question is written in the background. */
+	private void setButtonsEnabled(final boolean enabled) {
+		for (MyButton button : bottomPanel.getButtonsPanel().getButtons()) {
+			button.setEnabled(enabled);
+		}
+	}
+
+	private void setTransferButtonsEnabled(final boolean enabled) {
+		buttonImport.setEnabled(enabled);
+		buttonExport.setEnabled(enabled);
 	}
 
 	/** Adds a listener to respond to question selection in the list. */
@@ -290,10 +531,7 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 					return;
 				}
 				if (selectedItem != null && selectedItem.getId() != -1) {
-					QuestionDTO question = new QuestionDTO();
-					question = getQuestionById(selectedItem.getId());
-					question.setAnswers(dataManager.getAnswersFor(question));
-					fillWithData(question);
+					fillWithData(getQuestionById(selectedItem.getId()));
 				} else {
 					clearAllFields();
 				}
@@ -319,24 +557,90 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 			showMessage(ErrorHandler.getInstance().getError());
 			return;
 		}
-//		for(AnswerDTO answer : question.getAnswers()) {
-//			sManager.saveAnswer(answer);
-//		}
-//		sManager.saveQuestion(question);
-		System.out.println(question.getAnswers());
-		final String result = dataManager.saveQuestion(question);
-		allQuestions = dataManager.getAllQuestions();
-		questionItems = dataManager.getQuestionsFor(theme).stream()
-		        .map(q -> new QuestionListItem(q.getId(), q.getTitle()))
-		        .collect(Collectors.toList());
-		comboPanel.updateQuestions(questionItems);
-		notifyQuestionsChanged();
-		if (SUCCESS.equals(result)) {
-			showMessage(QUESTION_SAVED);
-			updateQuestionsList();
-		} else {
-			showMessage(result);
+		if (!confirmNearDuplicates(question, theme)) {
+			return;
 		}
+		final ChangeEvent.Kind kind = currentQuestionId == NO_SELECTION ? ChangeEvent.Kind.CREATED
+				: ChangeEvent.Kind.UPDATED;
+		setButtonsEnabled(false);
+		showMessage(SAVING);
+		new SwingWorker<String, Void>() {
+			@Override
+			protected String doInBackground() {
+				return dataManager.saveQuestion(question);
+			}
+
+			@Override
+			protected void done() {
+				setButtonsEnabled(true);
+				final String result;
+				try {
+					result = get();
+				} catch (InterruptedException | ExecutionException e) {
+					final Throwable cause = e.getCause() != null ? e.getCause() : e;
+					showMessage(ERROR_SAVE + cause.getMessage());
+					return;
+				}
+				if (SUCCESS.equals(result)) {
+					final int savedId = question.getId();
+					comboPanel.putQuestionItem(item -> item.getId() == savedId,
+							new QuestionListItem(savedId, question.getTitle()));
+					currentQuestionId = savedId;
+					notifyQuestionsChanged(savedId, kind);
+					showMessage(QUESTION_SAVED);
+				} else {
+					showMessage(result);
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Asks for confirmation if questions in any theme have nearly the same text
+	 * and answers, or else if other questions of the theme have a very similar
+	 * title.
+	 *
+	 * @return {@code true} if there are none, the checked parts are unchanged or
+	 *         the user wants to save anyway
+	 */
+	private boolean confirmNearDuplicates(final QuestionDTO question, final ThemeDTO theme) {
+		final QuestionDTO stored = question.getId() == NO_SELECTION ? null : getQuestionById(question.getId());
+		if (stored == null || !hasSameContent(stored, question)) {
+			final List<String> duplicates = dataManager.findDuplicatesOf(question).stream()
+					.limit(SIMILAR_TITLE_LIMIT).map(q -> "- " + q.getTitle()).collect(Collectors.toList());
+			if (!duplicates.isEmpty()) {
+				final int confirm = JOptionPane.showConfirmDialog(this,
+						String.format(DUPLICATE_CONTENT_WARNING, String.join("\n", duplicates)),
+						NEAR_DUPLICATE_TITLE, JOptionPane.YES_NO_OPTION);
+				return confirm == JOptionPane.YES_OPTION;
+			}
+		}
+		if (stored != null && stored.getThemeId() == theme.getId() && stored.getTitle().equals(question.getTitle())) {
+			return true;
+		}
+		final List<String> similar = dataManager
+				.findSimilarQuestions(question.getTitle(), theme, NEAR_DUPLICATE_SIMILARITY, SIMILAR_TITLE_LIMIT)
+				.stream().filter(q -> q.getId() != question.getId()).map(q -> "- " + q.getTitle())
+				.collect(Collectors.toList());
+		if (similar.isEmpty()) {
+			return true;
+		}
+		final int confirm = JOptionPane.showConfirmDialog(this,
+				String.format(NEAR_DUPLICATE_WARNING, String.join("\n", similar)), NEAR_DUPLICATE_TITLE,
+				JOptionPane.YES_NO_OPTION);
+		return confirm == JOptionPane.YES_OPTION;
+	}
+
+	/** @return {@code true} if the text and the answer texts of both questions are equal */
+	private boolean hasSameContent(final QuestionDTO stored, final QuestionDTO edited) {
+		if (!stored.getText().equals(edited.getText())) {
+			return false;
+		}
+		final List<String> storedAnswers = dataManager.getAnswersFor(stored).stream().map(AnswerDTO::getText)
+				.sorted().collect(Collectors.toList());
+		final List<String> editedAnswers = edited.getAnswers().stream().map(AnswerDTO::getText).sorted()
+				.collect(Collectors.toList());
+		return storedAnswers.equals(editedAnswers);
 	}
 
 	/** Builds a Question from current UI field values for the specified theme. */
@@ -387,22 +691,60 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 		if (confirm == JOptionPane.YES_OPTION) {
 			final QuestionDTO selectedQuestion = getQuestionById(selectedItem.getId());
 			if (selectedQuestion != null) {
-				String msg = dataManager.deleteQuestion(selectedQuestion);
-				notifyQuestionsChanged();
-				updateQuestionsList();
-				clearAllFields();
-				if(SUCCESS.equals(msg))
-					showMessage(QUESTION_DELETED);
+				setButtonsEnabled(false);
+				showMessage(DELETING);
+				new SwingWorker<String, Void>() {
+					@Override
+					protected String doInBackground() {
+						return dataManager.deleteQuestion(selectedQuestion);
+					}
+
+					@Override
+					protected void done() {
+						setButtonsEnabled(true);
+						final String msg;
+						try {
+							msg = get();
+						} catch (InterruptedException | ExecutionException e) {
+							final Throwable cause = e.getCause() != null ? e.getCause() : e;
+							showMessage(ERROR_DELETE + cause.getMessage());
+							return;
+						}
+						comboPanel.removeQuestionItem(item -> item.getId() == selectedQuestion.getId());
+						notifyQuestionsChanged(selectedQuestion.getId(), ChangeEvent.Kind.DELETED);
+						clearAllFields();
+						if(SUCCESS.equals(msg))
+							showMessage(QUESTION_DELETED);
+					}
+				}.execute();
 			} else {
 				showMessage(QUESTION_DELETING_NOT_POSSIBLE);
 			}
 		}
 	}
 
-	/** Refreshes the question list based on the current theme selection. */
+	/**
+	 * Refreshes the question list based on the current theme selection and the
+	 * search text.
+	 */
 	private void updateQuestionsList() {
 	    allQuestions = dataManager.getAllQuestions();
 
+	    final String query = searchPanel.getText();
+	    if (query != null && !query.isBlank()) {
+	        final ThemeDTO theme = selectedThemeId == NO_SELECTION ? null : getThemeById(selectedThemeId);
+	        List<QuestionDTO> found = dataManager.searchQuestions(query, theme, SEARCH_LIMIT);
+	        if (found.isEmpty()) {
+	            found = dataManager.findSimilarQuestions(query, theme, TYPE_AHEAD_SIMILARITY, SEARCH_LIMIT);
+	        }
+	        final List<QuestionListItem> hits = found.stream()
+	            .map(q -> new QuestionListItem(q.getId(), q.getTitle()))
+	            .collect(Collectors.toList());
+	        comboPanel.updateQuestions(hits);
+	        showMessage(hits.isEmpty() ? SEARCH_NO_RESULTS : EMPTY_STRING);
+	        return;
+	    }
+
 	    if (selectedThemeId == NO_SELECTION) {
 	        questionItems = allQuestions.stream()
 	            .map(q -> new QuestionListItem(q.getId(), q.getTitle()))
@@ -449,7 +791,7 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 
 	/** Retrieves a Theme by its numeric ID. */
 	private ThemeDTO getThemeById(int id) {
-		return allThemes.stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+		return dataManager.getThemeById(id);
 	}
 
 	/** Displays a message in the bottom panel's message area. */
@@ -460,27 +802,57 @@ public class MainQuestionPanel extends SubPanel implements ThemeChangeListener,
 	/** Registers a listener to be invoked when questions change. */
 	public void addOnQuestionsChangeListener(QuestionsChangeListener listener) {
 		if(listener != null) {
-			questionChangeListeners.add(listener);
+			ChangeEventBus.getInstance().subscribe(ChangeEvent.Entity.QUESTION, listener::onQuestionsChanged);
 		}
 	}
 
-	/** Invokes the registered QuestionsChangeListener, if present. */
-	private void notifyQuestionsChanged() {
-		for (QuestionsChangeListener listener : questionChangeListeners) {
-			listener.onQuestionsChanged();
-		}
+	/** Publishes the change of one question to the registered listeners. */
+	private void notifyQuestionsChanged(int questionId, ChangeEvent.Kind kind) {
+		ChangeEventBus.getInstance().publish(ChangeEvent.Entity.QUESTION, questionId, kind);
 	}
 
 	/**
-	 * Called when themes change anywhere in the app; reloads this panel's themes.
+	 * Called when themes change anywhere in the app; puts or removes only the
+	 * changed themes in the combo box.
 	 */
 	@Override
-	public void onThemesChanged() {
-		refreshThemes();
+	public void onThemesChanged(List<ChangeEvent> changes) {
+		boolean selectionDeleted = false;
+		boolean anyDeleted = false;
+		for (ChangeEvent change : changes) {
+			final int themeId = change.getId();
+			if (change.getKind() == ChangeEvent.Kind.DELETED) {
+				comboPanel.removeThemeItem(item -> item.getId() == themeId);
+				anyDeleted = true;
+				selectionDeleted |= themeId == selectedThemeId;
+				continue;
+			}
+			final ThemeDTO theme = getThemeById(themeId);
+			if (theme == null) {
+				continue;
+			}
+			comboPanel.putThemeItem(item -> item.getId() == themeId, new ThemeListItem(themeId, theme.getTitle()));
+			if (themeId == selectedThemeId) {
+				selectedTheme = theme;
+				selectedThemeInfo = theme.getText();
+				themePanel.setText(theme.getTitle());
+			}
+		}
+		if (selectionDeleted) {
+			// selecting ALL_THEMES reloads the list through the combo box listener
+			clearAllFields();
+			comboPanel.getComboBox().setSelectedIndex(0);
+		} else if (anyDeleted && selectedThemeId == NO_SELECTION) {
+			// the deleted themes took their questions with them
+			if (currentQuestionId != NO_SELECTION && getQuestionById(currentQuestionId) == null) {
+				clearAllFields();
+			}
+			updateQuestionsList();
+		}
 	}
 
 	/** @return Question object by ID, or null if not found. */
 	private QuestionDTO getQuestionById(int id) {
-		return allQuestions.stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+		return dataManager.getQuestionById(id);
 	}
 }
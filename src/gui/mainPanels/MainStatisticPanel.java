@@ -2,24 +2,47 @@ package gui.mainPanels;
 
 import java.awt.BorderLayout;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import javax.swing.*;
+import javax.swing.Timer;
 import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 
 import bussinesLogic.AnswerDTO;
-import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
-import bussinesLogic.datenBank.QuizDBDataManager;
+import bussinesLogic.tiered.QuizTieredDataManager;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.DateRange;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.StatisticsAggregator;
 import bussinesLogic.statistics.StatisticsService;
+import bussinesLogic.statistics.StatisticsService.Distractor;
 import bussinesLogic.statistics.StatisticsService.Period;
+import bussinesLogic.statistics.StatisticsService.QuestionMetric;
+import bussinesLogic.statistics.TrendSeries;
 import gui.GuiConstants;
 import gui.panels.RadioButtonsPanel;
 import gui.panels.SouthPanel;
 import gui.panels.SubPanel;
+import gui.panels.TrendChartPanel;
 import gui.swing.*;
+import helpers.ChangeEvent;
+import helpers.PlayerListItem;
 import helpers.ThemeListItem;
 
 /**
@@ -27,31 +50,64 @@ import helpers.ThemeListItem;
  *
  * Shows:
  *   - Table of statistics per theme
- *   - Table of statistics per question (for a selected theme)
+ *   - Table of statistics per question (for a selected theme), with the
+ *     item response difficulty and discrimination
  *   - Summary statistics
+ *   - A sortable ranking of the top-k questions by error rate, answer count
+ *     or median answer time, or of the wrong answers chosen most often
+ *   - On a second tab, a chart of accuracy and answers per day or week
  *
  * Filters:
  *   - By theme (combo box)
- *   - By time period (all time, last month, today)
+ *   - By player (combo box): all answers, or only those of one player profile
+ *   - By time period (all time, this year, last month, last week, today)
  *
  * Also allows refreshing or deleting statistics.
+ *
+ * Theme and question changes from other panels are applied as deltas: only
+ * the rows of the affected themes and the summary are recomputed.
+ *
+ * All counts are read from the running totals of the data manager, per day
+ * for the shorter periods, so refreshing does not depend on the length of the
+ * answer history. While the chart is shown, a timer compares the number of
+ * answers every {@value GuiConstants#TREND_REFRESH_MS} ms and re-reads the
+ * series when it changed, whoever saved the answers.
+ *
+ * The counts of one player are read from the player's own running totals,
+ * the item response parameters always from all answers.
+ *
+ * The computed tables are cached per period, theme and player until the data changes,
+ * so switching back to a period shows its tables without reading the totals
+ * again. The cache is saved on exit: on the next start the tables of the last
+ * run are shown at once while the current ones are computed in the
+ * background.
  */
 public class MainStatisticPanel extends SubPanel implements QuestionsChangeListener, ThemeChangeListener, GuiConstants {
 
     // --- Services and Data ---
-    private final QuizDBDataManager dataManager = QuizDBDataManager.getInstance();
+    private final QuizTieredDataManager dataManager = QuizTieredDataManager.getInstance();
     private final StatisticsService statisticsService = new StatisticsService();
 
     private List<ThemeDTO> allThemes = new ArrayList<>();
     private List<QuestionDTO> allQuestions = new ArrayList<>();
-    private List<PlayerAnswerDTO> allPlayerAnswers = new ArrayList<>();
 
-    private Map<Integer, List<PlayerAnswerDTO>> answersByQuestion = new HashMap<>();
-    private Map<Integer, List<AnswerDTO>> correctAnswersByQuestion = new HashMap<>();
+    /** Question ID -> theme ID, to find the old theme row when a question moves. */
+    private final Map<Integer, Integer> themeIdByQuestion = new HashMap<>();
+    /** Theme ID -> {correct, total} answers of the theme, summed up for the summary. */
+    private final Map<Integer, long[]> countsByTheme = new HashMap<>();
+    /** Theme ID -> row in the "by theme" table. */
+    private final Map<Integer, Integer> themeRowIndex = new HashMap<>();
+    private long totalAnswersFiltered;
+    /** Whether the "by theme" table shows the last run's rows until the background refresh is done. */
+    private boolean showingLastKnown;
+    /** The running background load of the tables, {@code null} if there is none. */
+    private SwingWorker<LoadResult, Void> loader;
 
     private ThemeDTO selectedTheme;
     private List<QuestionDTO> questionsForTheme;
     private Period selectedPeriod = Period.ALL_TIME;
+    /** The statistics of the selected player, {@code null} for all players. */
+    private PlayerStatistics selectedPlayer;
 
     // --- UI Components ---
     private SubPanel filterPanel;
@@ -59,17 +115,55 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
     private SouthPanel bottomPanel;
     private RadioButtonsPanel periodPanel;
     private MyComboBox<ThemeListItem> themeFilter;
+    private MyComboBox<PlayerListItem> playerFilter;
+    /** Set while the player filter is refilled, so its listener ignores the changes. */
+    private boolean fillingPlayerFilter;
     private MyTable tableByTheme;
     private MyTable tableByQuestions;
     private MyTable tableSummary;
+    private MyComboBox<String> rankingChoice;
+    private JSpinner topK;
+    private JSpinner minSample;
+    private MyButton btnRanking;
+    private MyTable tableRanking;
+    private MyTabPane views;
+    private RadioButtonsPanel resolutionPanel;
+    private TrendChartPanel trendChart;
+    /** Shown while the tables are loaded in the background. */
+    private JProgressBar progress;
+    private final Timer trendTimer = new Timer(TREND_REFRESH_MS, e -> refreshTrendIfChanged());
+    /** Number of all answers when the chart was last read, -1 to read it on the next tick. */
+    private long trendStamp = -1;
+
+    /** Cache key of the "by theme" table; the question tables use the theme ID. */
+    private static final int ALL_THEMES = 0;
+
+    /**
+     * The rankings, in the order of {@link QuestionMetric}, highest value first;
+     * the last one ranks the misleading wrong answers instead of questions.
+     */
+    private static final String[] RANKINGS = {RANK_HARDEST, RANK_EASIEST, RANK_MOST_ANSWERED, RANK_LEAST_ANSWERED,
+            RANK_SLOWEST, RANK_FASTEST, RANK_DISTRACTORS};
+    private static final int DISTRACTOR_RANKING = RANKINGS.length - 1;
+    private static final String[] RANKING_COLUMNS = {"Frage", "Theme", "Beantwortet", "Fehlerquote (%)",
+            "Median-Antwortzeit (s, gesamt)"};
+    /** Numeric column classes, so the row sorter sorts by value and not by text. */
+    private static final Class<?>[] RANKING_COLUMN_CLASSES = {String.class, String.class, Long.class, Double.class,
+            Double.class};
+    private static final String[] DISTRACTOR_COLUMNS = {"Frage", "Theme", "Falsche Antwort", "Gewählt",
+            "Anteil der Antworten (%)"};
+    private static final Class<?>[] DISTRACTOR_COLUMN_CLASSES = {String.class, String.class, String.class,
+            Integer.class, Double.class};
 
     // --- Constructor ---
     public MainStatisticPanel() {
         loadData();
         initUI();
-        updateStatisticsUI();
         initListeners();
         initButtonActions();
+        loadStatisticsCache();
+        trendTimer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveStatisticsCache));
     }
 
     /**
@@ -79,10 +173,14 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         setLayout(new BorderLayout());
         filterPanel = createFilterPanel();
         contentPanel = createContentPanel();
-        bottomPanel = new SouthPanel(REFRESH, EMPTY_STRING, ALL_DELETE);
+        bottomPanel = new SouthPanel(REFRESH, CANCEL, ALL_DELETE);
+        views = new MyTabPane();
+        views.addTab(TAB_CHARTS, contentPanel);
+        views.addTab(TAB_TREND, createTrendPanel());
+        views.addChangeListener(e -> refreshTrendIfChanged());
 
         add(filterPanel, BorderLayout.NORTH);
-        add(contentPanel, BorderLayout.CENTER);
+        add(views, BorderLayout.CENTER);
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
@@ -99,12 +197,24 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         themeFilter.setBorder(DISTANCE_BETWEEN_ELEMENTS);
         themeFilter.setPreferredSize(COMBO_BOX_SIZE_STATISTICS);
 
-        periodPanel = new RadioButtonsPanel(ALL_TIME, LAST_MONTH, TODAY);
+        playerFilter = new MyComboBox<>();
+        updatePlayersFilter();
+        playerFilter.setBorder(DISTANCE_BETWEEN_ELEMENTS);
+        playerFilter.setPreferredSize(COMBO_BOX_SIZE_STATISTICS);
+
+        periodPanel = new RadioButtonsPanel(ALL_TIME, THIS_YEAR, LAST_MONTH, LAST_WEEK, TODAY);
+
+        progress = new JProgressBar();
+        progress.setIndeterminate(true);
+        progress.setVisible(false);
 
         panel.add(themeFilter);
+        panel.add(Box.createHorizontalStrut(10));
+        panel.add(playerFilter);
         panel.add(Box.createVerticalStrut(10));
         panel.add(periodPanel);
         panel.add(Box.createHorizontalGlue());
+        panel.add(progress);
         return panel;
     }
 
@@ -129,32 +239,135 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         panel1.add(tableSummary);
         panel1.add(Box.createHorizontalStrut(width));
         panel.add(panel1);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(createRankingPanel());
+        tableRanking = new MyTable();
+        tableRanking.setAutoCreateRowSorter(true);
+        panel.add(new MyScrollPane(tableRanking));
+        return panel;
+    }
+
+    /**
+     * Builds the trend tab with the resolution choice and the chart.
+     */
+    private SubPanel createTrendPanel() {
+        SubPanel panel = new SubPanel();
+        panel.setLayout(new BorderLayout());
+        panel.setBorder(OUTSIDE_BORDERS_FOR_SUBPANELS);
+        resolutionPanel = new RadioButtonsPanel(PER_DAY, PER_WEEK);
+        trendChart = new TrendChartPanel();
+        panel.add(resolutionPanel, BorderLayout.NORTH);
+        panel.add(trendChart, BorderLayout.CENTER);
+        return panel;
+    }
+
+    /**
+     * Re-reads the trend series if the chart is visible and the answers
+     * changed since the last read.
+     */
+    private void refreshTrendIfChanged() {
+        if (!trendChart.isShowing() || loader != null) {
+            // while loading, the counters of a new player may still be built
+            return;
+        }
+        long stamp = dataManager.getAnswerTotals(DateRange.ALL_TIME).getAnswered();
+        if (stamp != trendStamp) {
+            trendStamp = stamp;
+            TrendSeries.Resolution resolution = PER_WEEK.equals(resolutionPanel.getSelectedText())
+                    ? TrendSeries.Resolution.WEEK : TrendSeries.Resolution.DAY;
+            trendChart.showSeries(selectedPlayer == null
+                    ? dataManager.getAnswerSeries(selectedTheme, selectedRange(), resolution)
+                    : selectedPlayer.getAnswerSeries(selectedTheme == null ? 0 : selectedTheme.getId(),
+                            selectedRange(), resolution));
+        }
+    }
+
+    /** Reads the trend series again on the next chance, e.g. after a filter changed. */
+    private void invalidateTrend() {
+        trendStamp = -1;
+        refreshTrendIfChanged();
+    }
+
+    /**
+     * Builds the controls of the question ranking.
+     */
+    private SubPanel createRankingPanel() {
+        SubPanel panel = new SubPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.X_AXIS));
+
+        rankingChoice = new MyComboBox<>(RANKINGS);
+        rankingChoice.setMaximumSize(COMBO_BOX_SIZE_STATISTICS);
+        topK = new JSpinner(new SpinnerNumberModel(TOP_K_DEFAULT, 1, 1000, 1));
+        topK.setMaximumSize(topK.getPreferredSize());
+        minSample = new JSpinner(new SpinnerNumberModel(MIN_SAMPLE_DEFAULT, 1, 1_000_000, 1));
+        minSample.setMaximumSize(minSample.getPreferredSize());
+        btnRanking = new MyButton(SHOW_RANKING);
+
+        panel.add(rankingChoice);
+        panel.add(Box.createHorizontalStrut(10));
+        panel.add(new MyLabel(LABEL_TOP_K));
+        panel.add(topK);
+        panel.add(Box.createHorizontalStrut(10));
+        panel.add(new MyLabel(LABEL_MIN_SAMPLE));
+        panel.add(minSample);
+        panel.add(Box.createHorizontalStrut(10));
+        panel.add(btnRanking);
+        panel.add(Box.createHorizontalGlue());
         return panel;
     }
 
     /**
-     * Loads themes, questions, and player answers from the database.
+     * Loads themes and questions from the database.
      */
     private void loadData() {
         allThemes = dataManager.getAllThemes();
         allQuestions = dataManager.getAllQuestions();
-        allPlayerAnswers = dataManager.getAllPlayerAnswers();
 
-        correctAnswersByQuestion.clear();
+        themeIdByQuestion.clear();
         for (QuestionDTO question : allQuestions) {
-            List<AnswerDTO> answers = dataManager.getAnswersFor(question);
-            List<AnswerDTO> correct = answers.stream().filter(AnswerDTO::isCorrect).collect(Collectors.toList());
-            correctAnswersByQuestion.put(question.getId(), correct);
+            putQuestionData(question);
         }
-        rebuildIndexesForFilteredAnswers();
     }
 
     /**
-     * Rebuilds indexes for answers grouped by question, using selected period.
+     * Stores the theme of one question.
      */
-    private void rebuildIndexesForFilteredAnswers() {
-        List<PlayerAnswerDTO> filtered = statisticsService.filterAnswersByPeriod(allPlayerAnswers, selectedPeriod);
-        answersByQuestion = statisticsService.buildAnswersByQuestion(filtered);
+    private void putQuestionData(QuestionDTO question) {
+        themeIdByQuestion.put(question.getId(), question.getThemeId());
+    }
+
+    /** @return the player key of the cache, {@link StatisticsAggregator#ALL_PLAYERS} without a selected player */
+    private static int playerKey(PlayerStatistics player) {
+        return player == null ? StatisticsAggregator.ALL_PLAYERS : player.getPlayerId();
+    }
+
+    // The counts of all players from the data manager, or of one player from its statistics.
+
+    private AnswerTotals themeTotals(PlayerStatistics player, ThemeDTO theme, DateRange range) {
+        return player == null ? dataManager.getThemeTotals(theme, range) : player.getThemeTotals(theme.getId(), range);
+    }
+
+    private DurationHistogram themeDurations(PlayerStatistics player, ThemeDTO theme) {
+        return player == null ? dataManager.getThemeDurations(theme) : player.getThemeDurations(theme.getId());
+    }
+
+    private AnswerTotals answerTotals(PlayerStatistics player, DateRange range) {
+        return player == null ? dataManager.getAnswerTotals(range) : player.getAnswerTotals(range);
+    }
+
+    private AnswerTotals questionTotals(PlayerStatistics player, QuestionDTO question, DateRange range) {
+        return player == null ? dataManager.getQuestionTotals(question, range)
+                : player.getQuestionTotals(question.getId(), range);
+    }
+
+    private DurationHistogram questionDurations(PlayerStatistics player, QuestionDTO question) {
+        return player == null ? dataManager.getQuestionDurations(question)
+                : player.getQuestionDurations(question.getId());
+    }
+
+    /** @return the days of the selected period, as of today */
+    private DateRange selectedRange() {
+        return selectedPeriod.toRange(LocalDate.now());
     }
 
     /**
@@ -165,44 +378,285 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
     }
 
     /**
-     * Updates the "by theme" and summary tables.
+     * Reads the tables of the last run from disk in the background, then shows
+     * the statistics.
      */
-    private void updateThemeTable() {
-        var rows = new ArrayList<Object[]>();
-
-        for (ThemeDTO theme : allThemes) {
-            List<QuestionDTO> themeQuestions = allQuestions.stream()
-                    .filter(q -> q.getThemeId() == theme.getId())
-                    .collect(Collectors.toList());
+    private void loadStatisticsCache() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                statisticsService.loadCache(new File(STATISTICS_CACHE_FILE));
+                return null;
+            }
 
-            int questionCount = themeQuestions.size();
-            int answeredCount = statisticsService.computeAnsweredCountForTheme(themeQuestions, answersByQuestion);
-            double accuracy = statisticsService.computeAccuracyForQuestions(themeQuestions, answersByQuestion, correctAnswersByQuestion);
+            @Override
+            protected void done() {
+                showStatistics();
+            }
+        }.execute();
+    }
 
-            rows.add(new Object[]{
-                    theme.getTitle(),
-                    questionCount,
-                    answeredCount,
-                    String.format("%.1f%%", accuracy * 100)
-            });
+    /**
+     * Shows the tables of the last run, if there are any, and computes the
+     * current ones in the background.
+     */
+    private void showStatistics() {
+        ThemeTable lastKnown = statisticsService.lastKnown(selectedPeriod, ALL_THEMES, playerKey(selectedPlayer));
+        if (lastKnown != null) {
+            applyThemeTable(lastKnown);
+            showingLastKnown = true;
         }
+        loadInBackground(false, false);
+    }
 
-        String[] cols = {"Theme", "Fragenanzahl pro Thema", "Beantwortet", "Genauigkeit"};
+    /**
+     * The request and the outcome of one background load. The request fields
+     * are set on the EDT, the rest is read and computed in the background.
+     */
+    private static final class LoadResult {
+        Period period;
+        ThemeDTO theme;
+        PlayerStatistics player;
+        boolean refresh;
+        boolean deleteAnswers;
 
-        tableByTheme.setModel(new javax.swing.table.DefaultTableModel(rows.toArray(new Object[0][]), cols));
-        tableByTheme.centerColumns(1, 2, 3);
+        String deleteResult;
+        boolean reloaded;
+        long version;
+        List<ThemeDTO> themes;
+        List<QuestionDTO> questions;
+        ThemeTable table;
+        List<QuestionDTO> themeQuestions;
+        Object[][] questionRows;
+    }
+
+    /**
+     * Computes the tables of the selected filters in the background, after
+     * deleting all answers or reloading from the database if asked to.
+     * Meanwhile a progress bar is shown, and a cancel button unless answers
+     * are deleted. A new load replaces a running one.
+     */
+    private void loadInBackground(boolean refresh, boolean deleteAnswers) {
+        if (loader != null) {
+            loader.cancel(false);
+        }
+        final LoadResult request = new LoadResult();
+        request.period = selectedPeriod;
+        request.theme = selectedTheme;
+        request.player = selectedPlayer;
+        request.refresh = refresh;
+        request.deleteAnswers = deleteAnswers;
+        setLoading(true, !deleteAnswers);
+        loader = new SwingWorker<LoadResult, Void>() {
+            @Override
+            protected LoadResult doInBackground() {
+                // the step in progress is finished when cancelled, only the next ones are skipped
+                if (request.deleteAnswers) {
+                    request.deleteResult = dataManager.deleteAllPlayerAnswers();
+                }
+                if (request.refresh && !isCancelled()) {
+                    // picks up changes that other clients made in the database
+                    request.reloaded = dataManager.refresh();
+                }
+                if (isCancelled()) {
+                    return request;
+                }
+                request.version = dataManager.getDataVersion();
+                request.themes = dataManager.getAllThemes();
+                request.questions = dataManager.getAllQuestions();
+                request.table = cachedThemeTable(request.version, request.themes, request.questions.size(),
+                        request.period, request.player);
+                if (request.theme != null && !isCancelled()) {
+                    request.themeQuestions = dataManager.getQuestionsFor(request.theme);
+                    request.questionRows = cachedQuestionRows(request.version, request.period, request.theme,
+                            request.themeQuestions, request.player);
+                }
+                return request;
+            }
 
-        long totalAnswersFiltered = statisticsService.filterAnswersByPeriod(allPlayerAnswers, selectedPeriod).size();
-        Object[] summaryRow = new Object[]{
-                "Gesamt Themen: " + allThemes.size(),
-                "Gesamt Fragen: " + allQuestions.size(),
-                totalAnswersFiltered,
-                String.format("%.1f%%", statisticsService.computeGlobalAccuracy(allQuestions, answersByQuestion, correctAnswersByQuestion) * 100)
+            @Override
+            protected void done() {
+                if (loader != this) {
+                    // replaced by a newer load
+                    return;
+                }
+                loader = null;
+                setLoading(false, false);
+                if (isCancelled()) {
+                    showMessage(LOADING_CANCELLED);
+                    return;
+                }
+                try {
+                    applyLoadResult(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showMessage(ERROR_LOADING + cause.getMessage());
+                }
+            }
         };
+        loader.execute();
+    }
 
-        tableSummary.setModel(new javax.swing.table.DefaultTableModel(new Object[][]{summaryRow}, cols));
+    /**
+     * Shows the outcome of a background load. If the filters changed
+     * meanwhile, the tables of the new filters are loaded next; if only the
+     * data changed, they are read again from the (by now built) counters.
+     */
+    private void applyLoadResult(LoadResult result) {
+        allThemes = result.themes;
+        allQuestions = result.questions;
+        themeIdByQuestion.clear();
+        for (QuestionDTO question : allQuestions) {
+            putQuestionData(question);
+        }
+        if (result.reloaded) {
+            updateThemesFilter();
+        }
+
+        if (result.period != selectedPeriod || result.player != selectedPlayer) {
+            loadInBackground(false, false);
+        } else {
+            boolean current = result.version == dataManager.getDataVersion();
+            if (current) {
+                applyThemeTable(result.table);
+            } else {
+                updateThemeTable();
+            }
+            if (selectedTheme != null) {
+                questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
+            }
+            if (current && selectedTheme != null && result.theme == selectedTheme) {
+                applyQuestionRows(result.questionRows);
+            } else {
+                updateQuestionsTable();
+            }
+            invalidateTrend();
+        }
+
+        if (result.deleteAnswers) {
+            if (SUCCESS.equals(result.deleteResult))
+                showMessage(STATISTICS_DELETED);
+            else
+                showMessage(STATISTICS_NOT_DELETED + " " + result.deleteResult);
+        } else if (result.refresh) {
+            String message = DATA_RELOADED;
+            int pending = dataManager.getPendingReplications();
+            if (pending > 0) {
+                message += String.format(REPLICATION_PENDING, pending, dataManager.getReplicationLagMillis() / 1000);
+            }
+            int quarantined = dataManager.getQuarantinedReplications();
+            if (quarantined > 0) {
+                message += String.format(REPLICATION_QUARANTINED, quarantined);
+            }
+            showMessage(message);
+        }
+    }
+
+    /**
+     * Shows or hides the progress bar and the cancel button. Reloading and
+     * deleting wait until the load is done.
+     */
+    private void setLoading(boolean loading, boolean cancellable) {
+        final MyButton[] buttons = bottomPanel.getButtonsPanel().getButtons();
+        progress.setVisible(loading);
+        buttons[0].setEnabled(!loading);
+        buttons[1].setVisible(loading && cancellable);
+        buttons[2].setEnabled(!loading);
+        filterPanel.revalidate();
+    }
+
+    /** Cancels the running load; the tables shown so far stay. */
+    private void cancelLoading() {
+        if (loader != null) {
+            loader.cancel(false);
+        }
+    }
+
+    /**
+     * Replaces the last run's tables with the current ones before deltas are
+     * applied to them.
+     */
+    private void replaceLastKnown() {
+        if (showingLastKnown) {
+            refreshThemesFromData();
+            allQuestions = dataManager.getAllQuestions();
+            updateThemeTable();
+        }
+    }
+
+    /**
+     * Writes the cached tables to disk, for the next start. Only called by the
+     * shutdown hook.
+     */
+    private void saveStatisticsCache() {
+        File file = new File(STATISTICS_CACHE_FILE);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try {
+            statisticsService.saveCache(file);
+        } catch (IOException e) {
+            // without the file the next start computes the tables first
+        }
+    }
+
+    /**
+     * Updates the "by theme" and summary tables, from the cache if the data did
+     * not change since they were computed for the selected period.
+     */
+    private void updateThemeTable() {
+        applyThemeTable(cachedThemeTable(dataManager.getDataVersion(), allThemes, allQuestions.size(), selectedPeriod,
+                selectedPlayer));
+    }
+
+    /**
+     * @param version the data version, read together with the themes
+     * @param player  the statistics of the selected player, {@code null} for all players
+     */
+    private ThemeTable cachedThemeTable(long version, List<ThemeDTO> themes, int questionCount, Period period,
+            PlayerStatistics player) {
+        return statisticsService.cached(period, ALL_THEMES, playerKey(player), version,
+                () -> computeThemeTable(themes, questionCount, period.toRange(LocalDate.now()), player));
+    }
+
+    /**
+     * Computes the rows of the "by theme" and summary tables without touching
+     * the panel, so it may run in the background.
+     */
+    private ThemeTable computeThemeTable(List<ThemeDTO> themes, int questionCount, DateRange range,
+            PlayerStatistics player) {
+        int[] themeIds = new int[themes.size()];
+        Object[][] rows = new Object[themes.size()][];
+        long[][] counts = new long[themes.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            themeIds[i] = themes.get(i).getId();
+            counts[i] = new long[2];
+            rows[i] = themeRow(themes.get(i), range, counts[i], player);
+        }
+        long totalAnswers = answerTotals(player, range).getAnswered();
+        Object[] summary = summaryRow(themes.size(), questionCount, totalAnswers, Arrays.asList(counts));
+        return new ThemeTable(themeIds, rows, counts, totalAnswers, summary);
+    }
+
+    /**
+     * Shows computed "by theme" and summary tables and keeps their counts for
+     * later delta updates.
+     */
+    private void applyThemeTable(ThemeTable table) {
+        countsByTheme.clear();
+        themeRowIndex.clear();
+        for (int row = 0; row < table.themeIds.length; row++) {
+            themeRowIndex.put(table.themeIds[row], row);
+            countsByTheme.put(table.themeIds[row], table.counts[row].clone());
+        }
+        totalAnswersFiltered = table.totalAnswers;
+        showingLastKnown = false;
+
+        // the models copy the rows, so the cached arrays stay unchanged
+        tableByTheme.setModel(new DefaultTableModel(table.rows, THEME_TABLE_COLUMNS));
+        tableByTheme.centerColumns(1, 2, 3, 4);
+
+        tableSummary.setModel(new DefaultTableModel(new Object[][]{table.summary}, THEME_TABLE_COLUMNS));
         tableSummary.hideHeader();
-        tableSummary.centerColumns(1, 2, 3);
+        tableSummary.centerColumns(1, 2, 3, 4);
 
         tableByTheme.getColumnModel().addColumnModelListener(new javax.swing.event.TableColumnModelListener() {
             public void columnMarginChanged(javax.swing.event.ChangeEvent e) {
@@ -215,27 +669,298 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         });
     }
 
+    /** The durations are always counted over all time, whatever the selected period. */
+    private static final String DURATION_COLUMN = "Antwortzeit p50 / p90 / p99 (gesamt)";
+
+    private static final String[] THEME_TABLE_COLUMNS = {"Theme", "Fragenanzahl pro Thema", "Beantwortet", "Genauigkeit",
+            DURATION_COLUMN};
+
     /**
-     * Updates the "by question" table for the currently selected theme.
+     * The rows of the "by theme" and summary tables of one period, as kept in
+     * the statistics cache.
      */
-    private void updateQuestionsTable() {
-        String[] cols = {"Frage", "Beantwortet", "Genauigkeit"};
+    private static final class ThemeTable implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] themeIds;
+        private final Object[][] rows;
+        /** {correct, total} answers per row. */
+        private final long[][] counts;
+        private final long totalAnswers;
+        private final Object[] summary;
+
+        ThemeTable(int[] themeIds, Object[][] rows, long[][] counts, long totalAnswers, Object[] summary) {
+            this.themeIds = themeIds;
+            this.rows = rows;
+            this.counts = counts;
+            this.totalAnswers = totalAnswers;
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * Computes the row of one theme and stores its counts for the summary.
+     */
+    private Object[] buildThemeRow(ThemeDTO theme) {
+        long[] counts = new long[2];
+        Object[] row = themeRow(theme, selectedRange(), counts, selectedPlayer);
+        countsByTheme.put(theme.getId(), counts);
+        return row;
+    }
+
+    /**
+     * Computes the row of one theme.
+     *
+     * @param counts receives the correct and the total answers of the theme
+     * @param player the statistics of the selected player, {@code null} for all players
+     */
+    private Object[] themeRow(ThemeDTO theme, DateRange range, long[] counts, PlayerStatistics player) {
+        List<QuestionDTO> themeQuestions = dataManager.getQuestionsFor(theme);
+
+        int questionCount = themeQuestions.size();
+        AnswerTotals totals = themeTotals(player, theme, range);
+        long answeredCount = totals.getAnswered();
+        counts[0] = totals.getCorrect();
+        counts[1] = totals.getEvaluated();
+
+        return new Object[]{
+                theme.getTitle(),
+                questionCount,
+                answeredCount,
+                String.format("%.1f%%", statisticsService.toAccuracy(counts[0], counts[1]) * 100),
+                formatDurations(themeDurations(player, theme))
+        };
+    }
+
+    /**
+     * Builds the summary row from the stored per-theme counts.
+     */
+    private Object[] buildSummaryRow() {
+        return summaryRow(allThemes.size(), allQuestions.size(), totalAnswersFiltered, countsByTheme.values());
+    }
+
+    private Object[] summaryRow(int themeCount, int questionCount, long totalAnswers, Collection<long[]> themeCounts) {
+        long correct = 0;
+        long total = 0;
+        for (long[] counts : themeCounts) {
+            correct += counts[0];
+            total += counts[1];
+        }
+        return new Object[]{
+                "Gesamt Themen: " + themeCount,
+                "Gesamt Fragen: " + questionCount,
+                totalAnswers,
+                String.format("%.1f%%", statisticsService.toAccuracy(correct, total) * 100),
+                ""
+        };
+    }
+
+    /**
+     * Formats the median, p90 and p99 answer time in seconds, read from the
+     * histogram without touching the player answers.
+     */
+    private static String formatDurations(DurationHistogram durations) {
+        if (durations.getCount() == 0) {
+            return "-";
+        }
+        return String.format("%.1f / %.1f / %.1f s", durations.getPercentile(50) / 1000.0,
+                durations.getPercentile(90) / 1000.0, durations.getPercentile(99) / 1000.0);
+    }
+
+    /** Item response parameters are estimated from all answers, whatever the selected period. */
+    private static final String DIFFICULTY_COLUMN = "Schwierigkeit b [95%-KI] (gesamt)";
+    private static final String DISCRIMINATION_COLUMN = "Trennschärfe r_pb / a (gesamt)";
+
+    /** Formats the difficulty with its confidence interval, "-" without evaluated answers. */
+    private static String formatDifficulty(ItemCalibration calibration) {
+        if (calibration.getEvaluated() == 0) {
+            return "-";
+        }
+        return String.format("%.2f [%.2f; %.2f]", calibration.getDifficulty(), calibration.getDifficultyLow(),
+                calibration.getDifficultyHigh());
+    }
+
+    /** Formats the point-biserial correlation and the discrimination, "-" while it is not estimated. */
+    private static String formatDiscrimination(ItemCalibration calibration) {
+        if (!calibration.isTwoParameter()) {
+            return "-";
+        }
+        return String.format("%.2f / %.2f", calibration.getPointBiserial(), calibration.getDiscrimination());
+    }
+
+    /**
+     * Recomputes only the rows of the given themes and the summary.
+     */
+    private void updateThemeRows(Collection<Integer> themeIds) {
+        DefaultTableModel model = (DefaultTableModel) tableByTheme.getModel();
+        for (int themeId : themeIds) {
+            Integer row = themeRowIndex.get(themeId);
+            ThemeDTO theme = getThemeById(themeId);
+            if (row == null || theme == null) {
+                continue;
+            }
+            Object[] values = buildThemeRow(theme);
+            for (int col = 0; col < values.length; col++) {
+                model.setValueAt(values[col], row, col);
+            }
+        }
+        updateSummaryRow();
+    }
+
+    private void updateSummaryRow() {
+        DefaultTableModel summary = (DefaultTableModel) tableSummary.getModel();
+        Object[] values = buildSummaryRow();
+        for (int col = 0; col < values.length; col++) {
+            summary.setValueAt(values[col], 0, col);
+        }
+    }
 
+    private static final String[] QUESTION_TABLE_COLUMNS = {"Frage", "Beantwortet", "Genauigkeit", DURATION_COLUMN,
+            DIFFICULTY_COLUMN, DISCRIMINATION_COLUMN};
+
+    /**
+     * Updates the "by question" table for the currently selected theme, from
+     * the cache if the data did not change since it was computed.
+     */
+    private void updateQuestionsTable() {
         if (selectedTheme == null || questionsForTheme == null || questionsForTheme.isEmpty()) {
-            tableByQuestions.setModel(new javax.swing.table.DefaultTableModel(new Object[0][], cols));
+            applyQuestionRows(null);
             return;
         }
+        applyQuestionRows(cachedQuestionRows(dataManager.getDataVersion(), selectedPeriod, selectedTheme,
+                questionsForTheme, selectedPlayer));
+    }
+
+    /**
+     * Computes the rows of the "by question" table without touching the panel,
+     * so it may run in the background.
+     *
+     * @param version the data version, read before the questions
+     * @param player  the statistics of the selected player, {@code null} for all players
+     */
+    private Object[][] cachedQuestionRows(long version, Period period, ThemeDTO theme, List<QuestionDTO> questions,
+            PlayerStatistics player) {
+        final DateRange range = period.toRange(LocalDate.now());
+        return statisticsService.cached(period, theme.getId(), playerKey(player), version, () -> {
+            Object[][] computed = new Object[questions.size()][];
+            for (int i = 0; i < computed.length; i++) {
+                QuestionDTO question = questions.get(i);
+                AnswerTotals totals = questionTotals(player, question, range);
+                ItemCalibration calibration = dataManager.getItemCalibration(question);
+                computed[i] = new Object[]{question.getTitle(), totals.getAnswered(),
+                        String.format("%.1f%%", totals.getAccuracy() * 100),
+                        formatDurations(questionDurations(player, question)),
+                        formatDifficulty(calibration), formatDiscrimination(calibration)};
+            }
+            return computed;
+        });
+    }
 
-        var rows = new ArrayList<Object[]>();
-        for (QuestionDTO question : questionsForTheme) {
-            double acc = statisticsService.computeAccuracyForQuestion(question, answersByQuestion, correctAnswersByQuestion);
-            int count = statisticsService.computeAnsweredCount(question, answersByQuestion);
-            rows.add(new Object[]{question.getTitle(), count, String.format("%.1f%%", acc * 100)});
+    /** Shows the rows of the "by question" table; {@code null} for none. */
+    private void applyQuestionRows(Object[][] rows) {
+        tableByQuestions.setModel(new DefaultTableModel(rows == null ? new Object[0][] : rows, QUESTION_TABLE_COLUMNS));
+        if (rows != null) {
+            tableByQuestions.setRowHeight(ROW_HEIGHT);
+            centerColumns(tableByQuestions, 1, 2, 3, 4, 5);
         }
+    }
 
-        tableByQuestions.setModel(new javax.swing.table.DefaultTableModel(rows.toArray(new Object[0][]), cols));
-        tableByQuestions.setRowHeight(ROW_HEIGHT);
-        centerColumns(tableByQuestions, 1, 2);
+    /**
+     * Fills the ranking table with the top-k questions, or the top-k wrong
+     * answers, of the selected period, theme and player, read from the
+     * running counters in the background.
+     */
+    private void updateRankingTable() {
+        final int choice = rankingChoice.getSelectedIndex();
+        final boolean distractors = choice == DISTRACTOR_RANKING;
+        final DateRange range = selectedRange();
+        final PlayerStatistics player = selectedPlayer;
+        final ThemeDTO theme = selectedTheme;
+        final int k = (Integer) topK.getValue();
+        final int min = (Integer) minSample.getValue();
+        btnRanking.setEnabled(false);
+        new SwingWorker<Object[][], Void>() {
+            @Override
+            protected Object[][] doInBackground() {
+                if (distractors) {
+                    List<AnswerOptionCounts> options = player == null ? dataManager.getAnswerOptionCounts(range)
+                            : player.getAnswerOptionCounts(range);
+                    return distractorRows(statisticsService.rankDistractors(options, theme, k, min));
+                }
+                QuestionMetric metric = QuestionMetric.values()[choice / 2];
+                List<QuestionStatistics> statistics = player == null ? dataManager.getQuestionStatistics(range)
+                        : player.getQuestionStatistics(range);
+                return rankingRows(statisticsService.topQuestions(statistics, theme, metric, choice % 2 == 0, k, min));
+            }
+
+            @Override
+            protected void done() {
+                btnRanking.setEnabled(true);
+                try {
+                    applyRankingRows(get(), distractors ? DISTRACTOR_COLUMNS : RANKING_COLUMNS,
+                            distractors ? DISTRACTOR_COLUMN_CLASSES : RANKING_COLUMN_CLASSES);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showMessage(ERROR_LOADING + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private Object[][] rankingRows(List<QuestionStatistics> top) {
+        Object[][] rows = new Object[top.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            QuestionStatistics row = top.get(i);
+            QuestionDTO question = dataManager.getQuestionById(row.getQuestionId());
+            ThemeDTO theme = getThemeById(row.getThemeId());
+            rows[i] = new Object[]{
+                    question != null ? question.getTitle() : EMPTY_STRING,
+                    theme != null ? theme.getTitle() : EMPTY_STRING,
+                    row.getAnswered(),
+                    row.getEvaluated() == 0 ? null : Math.round(row.getErrorRate() * 1000) / 10.0,
+                    row.getTimedAnswers() == 0 ? null : Math.round(row.getMedianMillis() / 100.0) / 10.0
+            };
+        }
+        return rows;
+    }
+
+    private Object[][] distractorRows(List<Distractor> top) {
+        Object[][] rows = new Object[top.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            Distractor row = top.get(i);
+            QuestionDTO question = dataManager.getQuestionById(row.getQuestionId());
+            ThemeDTO theme = question != null ? getThemeById(question.getThemeId()) : null;
+            String answer = EMPTY_STRING;
+            if (question != null) {
+                for (AnswerDTO option : dataManager.getAnswersFor(question)) {
+                    if (option.getId() == row.getAnswerId()) {
+                        answer = option.getText();
+                    }
+                }
+            }
+            rows[i] = new Object[]{
+                    question != null ? question.getTitle() : EMPTY_STRING,
+                    theme != null ? theme.getTitle() : EMPTY_STRING,
+                    answer,
+                    row.getCount(),
+                    Math.round(row.getShare() * 1000) / 10.0
+            };
+        }
+        return rows;
+    }
+
+    private void applyRankingRows(Object[][] rows, String[] columns, Class<?>[] columnClasses) {
+        tableRanking.setModel(new DefaultTableModel(rows, columns) {
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return columnClasses[column];
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        });
     }
 
     /**
@@ -249,24 +974,52 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
                 selectedTheme = null;
                 questionsForTheme = new ArrayList<>();
                 updateQuestionsTable();
+                invalidateTrend();
                 return;
             }
             selectedTheme = getThemeById(selectedItem.getId());
             questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
-            updateQuestionsTable();
+            if (loader == null) {
+                // otherwise the running load shows the table when it is done
+                updateQuestionsTable();
+                invalidateTrend();
+            }
         });
 
+        // Player selection listener
+        playerFilter.addActionListener(e -> {
+            if (fillingPlayerFilter) {
+                return;
+            }
+            PlayerListItem selectedItem = (PlayerListItem) playerFilter.getSelectedItem();
+            selectedPlayer = selectedItem == null || selectedItem.getId() == NO_SELECTION ? null
+                    : dataManager.getPlayerStatistics(new PlayerDTO(selectedItem.getId(), selectedItem.getName()));
+            // the counters of a player are built from the history on the first read
+            if (loader == null) {
+                loadInBackground(false, false);
+            }
+        });
+        // players created in the play tab show up the next time the list is opened
+        playerFilter.addPopupMenuListener(new PopupMenuListener() {
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                updatePlayersFilter();
+            }
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {}
+            public void popupMenuCanceled(PopupMenuEvent e) {}
+        });
+
+        resolutionPanel.addSelectionListener(selText -> invalidateTrend());
+
         // Period selection listener
         periodPanel.addSelectionListener(selText -> {
             if (ALL_TIME.equals(selText)) selectedPeriod = Period.ALL_TIME;
+            else if (THIS_YEAR.equals(selText)) selectedPeriod = Period.THIS_YEAR;
             else if (LAST_MONTH.equals(selText)) selectedPeriod = Period.LAST_MONTH;
+            else if (LAST_WEEK.equals(selText)) selectedPeriod = Period.LAST_WEEK;
             else if (TODAY.equals(selText)) selectedPeriod = Period.TODAY;
 
-            rebuildIndexesForFilteredAnswers();
-            updateStatisticsUI();
-            if (selectedTheme != null) {
-                questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
-                updateQuestionsTable();
+            if (loader == null) {
+                loadInBackground(false, false);
             }
         });
     }
@@ -279,20 +1032,18 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         buttons[0].addActionListener(e -> reload());
         buttons[0].setMnemonic(KeyEvent.VK_R);
 
-        buttons[1].setVisible(false); // hidden button
+        buttons[1].addActionListener(e -> cancelLoading());
+        buttons[1].setVisible(false); // only shown while loading
 
         buttons[2].addActionListener(e -> deleteStatistics());
         buttons[2].setMnemonic(KeyEvent.VK_L);
+
+        btnRanking.addActionListener(e -> updateRankingTable());
     }
 
     private void reload() {
-        loadData();
-        updateStatisticsUI();
-        if (selectedTheme != null) {
-            questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
-            updateQuestionsTable();
-        }
-        showMessage(DATA_RELOADED);
+        showMessage(LOADING_DATA);
+        loadInBackground(true, false);
     }
 
     private void deleteStatistics() {
@@ -305,18 +1056,8 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         );
         if (option != JOptionPane.YES_OPTION) return;
 
-        String result = dataManager.deleteAllPlayerAnswers();
-        allPlayerAnswers = new ArrayList<>();
-        answersByQuestion.clear();
-        updateStatisticsUI();
-        if (selectedTheme != null) {
-            questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
-        }
-        updateQuestionsTable();
-        if(SUCCESS.equals(result))
-			showMessage(STATISTICS_DELETED);
-		else
-			showMessage(STATISTICS_NOT_DELETED + " " + result);
+        showMessage(DELETING);
+        loadInBackground(false, true);
     }
 
     private void refreshThemesFromData() {
@@ -324,7 +1065,7 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
     }
 
     private ThemeDTO getThemeById(int id) {
-        return allThemes.stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+        return dataManager.getThemeById(id);
     }
 
     private void updateThemesFilter() {
@@ -334,6 +1075,36 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
         }
     }
 
+    /**
+     * Refills the player filter with the current profiles and keeps the
+     * selected player. If it no longer exists, all players are shown again.
+     */
+    private void updatePlayersFilter() {
+        int selectedId = selectedPlayer == null ? NO_SELECTION : selectedPlayer.getPlayerId();
+        boolean found = selectedId == NO_SELECTION;
+        fillingPlayerFilter = true;
+        try {
+            playerFilter.removeAllItems();
+            playerFilter.addItem(new PlayerListItem(NO_SELECTION, ALL_PLAYERS_ITEM));
+            for (PlayerDTO player : dataManager.getAllPlayers()) {
+                PlayerListItem item = new PlayerListItem(player.getId(), player.getName());
+                playerFilter.addItem(item);
+                if (player.getId() == selectedId) {
+                    playerFilter.setSelectedItem(item);
+                    found = true;
+                }
+            }
+        } finally {
+            fillingPlayerFilter = false;
+        }
+        if (!found) {
+            selectedPlayer = null;
+            updateStatisticsUI();
+            updateQuestionsTable();
+            invalidateTrend();
+        }
+    }
+
     private List<ThemeListItem> buildThemeItems() {
         List<ThemeListItem> items = new ArrayList<>();
         items.add(new ThemeListItem(NO_SELECTION, CHOOSE_A_THEME_MSG));
@@ -371,17 +1142,133 @@ public class MainStatisticPanel extends SubPanel implements QuestionsChangeListe
     }
 
     // --- Interface Implementations ---
+
+    /**
+     * Updates the data of the changed questions and the rows of their old and
+     * new themes.
+     */
     @Override
-    public void onQuestionsChanged() {
-        loadData();
-        updateStatisticsUI();
+    public void onQuestionsChanged(List<ChangeEvent> changes) {
+        replaceLastKnown();
+        allQuestions = dataManager.getAllQuestions();
+        Set<Integer> affectedThemes = new HashSet<>();
+        for (ChangeEvent change : changes) {
+            int questionId = change.getId();
+            Integer oldThemeId = themeIdByQuestion.remove(questionId);
+            if (oldThemeId != null) {
+                affectedThemes.add(oldThemeId);
+            }
+            QuestionDTO question = change.getKind() == ChangeEvent.Kind.DELETED ? null
+                    : dataManager.getQuestionById(questionId);
+            if (question != null) {
+                putQuestionData(question);
+                affectedThemes.add(question.getThemeId());
+            }
+        }
+        updateThemeRows(affectedThemes);
+        // a question may have moved its answers to another theme
+        invalidateTrend();
+        if (selectedTheme != null && affectedThemes.contains(selectedTheme.getId())) {
+            questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
+            updateQuestionsTable();
+        }
     }
 
+    /**
+     * Adds, renames or removes only the changed themes in the filter and the
+     * "by theme" table. Deleting a theme also deletes its questions.
+     */
     @Override
-    public void onThemesChanged() {
+    public void onThemesChanged(List<ChangeEvent> changes) {
+        replaceLastKnown();
+        DefaultTableModel model = (DefaultTableModel) tableByTheme.getModel();
+        ThemeListItem selectedItem = (ThemeListItem) themeFilter.getSelectedItem();
+        boolean selectionDeleted = false;
+
+        // remove deleted rows from the bottom up, so the stored row indexes stay valid
+        List<Integer> deletedRows = new ArrayList<>();
+        for (ChangeEvent change : changes) {
+            if (change.getKind() != ChangeEvent.Kind.DELETED) {
+                continue;
+            }
+            int themeId = change.getId();
+            Integer row = themeRowIndex.get(themeId);
+            if (row != null) {
+                deletedRows.add(row);
+            }
+            countsByTheme.remove(themeId);
+            themeIdByQuestion.values().removeIf(id -> id == themeId);
+            removeThemeFilterItem(themeId);
+            selectionDeleted |= selectedItem != null && selectedItem.getId() == themeId;
+        }
+        deletedRows.sort(Collections.reverseOrder());
+        for (int row : deletedRows) {
+            model.removeRow(row);
+        }
+
         refreshThemesFromData();
-        updateThemesFilter();
-        loadData();
-        updateStatisticsUI();
+        allQuestions = dataManager.getAllQuestions();
+        themeRowIndex.clear();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            themeRowIndex.put(allThemes.get(row).getId(), row);
+        }
+
+        List<Integer> changedThemes = new ArrayList<>();
+        for (ChangeEvent change : changes) {
+            int themeId = change.getId();
+            ThemeDTO theme = getThemeById(themeId);
+            if (change.getKind() == ChangeEvent.Kind.DELETED || theme == null) {
+                continue;
+            }
+            if (!themeRowIndex.containsKey(themeId)) {
+                // new themes have the highest ID, so they belong at the end
+                themeRowIndex.put(themeId, model.getRowCount());
+                model.addRow(buildThemeRow(theme));
+            } else {
+                changedThemes.add(themeId);
+            }
+            putThemeFilterItem(new ThemeListItem(themeId, theme.getTitle()));
+            // an import adds questions to a theme without publishing every single one
+            for (QuestionDTO question : dataManager.getQuestionsFor(theme)) {
+                if (!themeIdByQuestion.containsKey(question.getId())) {
+                    putQuestionData(question);
+                }
+            }
+        }
+        updateThemeRows(changedThemes);
+        if (selectedTheme != null && changedThemes.contains(selectedTheme.getId())) {
+            questionsForTheme = dataManager.getQuestionsFor(selectedTheme);
+            updateQuestionsTable();
+        }
+
+        if (selectionDeleted) {
+            themeFilter.setSelectedIndex(0);
+        }
+    }
+
+    /** Replaces the filter item with the same theme ID, or appends it. */
+    private void putThemeFilterItem(ThemeListItem item) {
+        for (int i = 0; i < themeFilter.getItemCount(); i++) {
+            if (themeFilter.getItemAt(i).getId() == item.getId()) {
+                boolean selected = themeFilter.getSelectedIndex() == i;
+                themeFilter.insertItemAt(item, i);
+                themeFilter.removeItemAt(i + 1);
+                if (selected) {
+                    themeFilter.setSelectedIndex(i);
+                }
+                return;
+            }
+        }
+        themeFilter.addItem(item);
+    }
+
+    /** Removes the filter item with the given theme ID. */
+    private void removeThemeFilterItem(int themeId) {
+        for (int i = 0; i < themeFilter.getItemCount(); i++) {
+            if (themeFilter.getItemAt(i).getId() == themeId) {
+                themeFilter.removeItemAt(i);
+                return;
+            }
+        }
     }
 }
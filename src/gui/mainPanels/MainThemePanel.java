@@ -4,16 +4,20 @@ import java.awt.BorderLayout;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import bussinesLogic.ErrorHandler;
 import bussinesLogic.ThemeDTO;
-import bussinesLogic.datenBank.QuizDBDataManager;
-import bussinesLogic.serialization.QuizSManager;
+import bussinesLogic.tiered.QuizTieredDataManager;
 import gui.GuiConstants;
 import gui.panels.LabelFieldPanel;
 import gui.panels.LabelJListPanel;
@@ -22,6 +26,8 @@ import gui.panels.SouthPanel;
 import gui.panels.SubPanel;
 import gui.swing.MyButton;
 import gui.swing.MyLabel;
+import helpers.ChangeEvent;
+import helpers.ChangeEventBus;
 import helpers.ThemeListItem;
 
 /**
@@ -31,8 +37,8 @@ import helpers.ThemeListItem;
  * ensuring stable references even when theme titles change.
  * </p>
  * <p>
- * Maintains a list of registered {@link ThemeChangeListener}s so that other panels
- * can be notified immediately when themes are added, updated, or deleted.
+ * Publishes every added, updated or deleted theme on the {@link ChangeEventBus}, so
+ * that registered {@link ThemeChangeListener}s can apply just the changed themes.
  * </p>
  *
  * <h2>UI Layout:</h2>
@@ -44,9 +50,10 @@ import helpers.ThemeListItem;
  *
  * <h2>Key features:</h2>
  * <ul>
- *   <li>Duplicate title checking for both add and edit</li>
+ *   <li>Duplicate title checking for both add and edit; similar titles (typos)
+ *       are suggested while typing and have to be confirmed on save</li>
  *   <li>Selection restore after save</li>
- *   <li>Consistent refresh from {@link QuizSManager} after modifications</li>
+ *   <li>Consistent refresh from {@link QuizTieredDataManager} after modifications</li>
  * </ul>
  * 
  * @author 
@@ -59,6 +66,7 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
     private LabelFieldPanel labelFieldPanel;
     private LabelTextAreaPanel labelTextPanel;
     private MyLabel titleLabel;
+    private Timer similarTitleTimer;
 
     private List<ThemeDTO> allThemes = new ArrayList<>();
     private List<ThemeListItem> themeItems = new ArrayList<>();
@@ -66,9 +74,7 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
     private int selectedThemeId = NO_SELECTION;
 
     private LabelJListPanel<ThemeListItem> labelJListPanel;
-    private final List<ThemeChangeListener> themeChangeListeners = new ArrayList<>();
-    private final QuizDBDataManager dbManager = QuizDBDataManager.getInstance();
-    private final QuizSManager sManager = QuizSManager.getInstance();
+    private final QuizTieredDataManager dataManager = QuizTieredDataManager.getInstance();
 
 
     /**
@@ -78,7 +84,7 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
      */
     public void addOnThemeChangeListener(ThemeChangeListener listener) {
         if (listener != null) {
-            themeChangeListeners.add(listener);
+            ChangeEventBus.getInstance().subscribe(ChangeEvent.Entity.THEME, listener::onThemesChanged);
         }
     }
 
@@ -118,6 +124,7 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
 
         labelFieldPanel = new LabelFieldPanel(LABEL_TITLE, EMPTY_STRING);
         labelFieldPanel.getTextField().setEditable(true);
+        initSimilarTitleHint();
         p.add(labelFieldPanel);
 
         labelTextPanel = new LabelTextAreaPanel(LABEL_THEME_INFORMATION, EMPTY_STRING);
@@ -127,6 +134,42 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
         return p;
     }
 
+    /**
+     * Shows existing themes with a similar title while a new title is typed, so
+     * that editors notice a theme they were about to create twice.
+     */
+    private void initSimilarTitleHint() {
+        similarTitleTimer = new Timer(SEARCH_DELAY_MS, e -> showSimilarThemes());
+        similarTitleTimer.setRepeats(false);
+        labelFieldPanel.getTextField().getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                similarTitleTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                similarTitleTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                similarTitleTimer.restart();
+            }
+        });
+    }
+
+    private void showSimilarThemes() {
+        String title = labelFieldPanel.getText().trim();
+        if (selectedThemeId != NO_SELECTION || title.isEmpty()) {
+            return;
+        }
+        List<ThemeDTO> similar = dataManager.findSimilarThemes(title, TYPE_AHEAD_SIMILARITY, SIMILAR_TITLE_LIMIT);
+        showMessage(similar.isEmpty() ? EMPTY_STRING
+                : String.format(SIMILAR_THEMES_HINT,
+                        similar.stream().map(ThemeDTO::getTitle).collect(Collectors.joining(", "))));
+    }
+
     /** @return Title label subpanel. */
     private SubPanel initTitlePanel() {
         SubPanel p = new SubPanel(1, 1);
@@ -152,7 +195,7 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
 
     /** Reloads theme data from manager and rebuilds ThemeListItem list. */
     private void refreshThemesAndItems() {
-        allThemes = dbManager.getAllThemes();
+        allThemes = dataManager.getAllThemes();
         themeItems = allThemes.stream()
                               .map(theme -> new ThemeListItem(theme.getId(), theme.getTitle()))
                               .collect(Collectors.toList());
@@ -206,27 +249,79 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
             showMessage(WARNING_THEME_EXISTS);
             return;
         }
+        if (!confirmNearDuplicates(title)) {
+            return;
+        }
 
-        if (selectedThemeId == NO_SELECTION) {
-            ThemeDTO theme = new ThemeDTO();
-            theme.setTitle(title);
-            theme.setText(info);
-            dbManager.saveTheme(theme);
-            sManager.saveTheme(theme);
-            selectedThemeId = theme.getId();
-            showMessage(ErrorHandler.getInstance().getInfo());
-        } else {
-            ThemeDTO selectedTheme = getThemeById(selectedThemeId);
-            if (selectedTheme != null) {
-                selectedTheme.setTitle(title);
-                selectedTheme.setText(info);
-                dbManager.saveTheme(selectedTheme);
-                showMessage(THEME_SUCCESFULLY_UPDATED);
-            }
+        final boolean created = selectedThemeId == NO_SELECTION;
+        if (!created && getThemeById(selectedThemeId) == null) {
+            selectThemeById(selectedThemeId);
+            return;
+        }
+        final ThemeDTO theme = new ThemeDTO();
+        if (!created) {
+            // themes from the data manager are shared snapshots, so save a changed copy
+            theme.setId(selectedThemeId);
         }
+        theme.setTitle(title);
+        theme.setText(info);
+
+        setButtonsEnabled(false);
+        showMessage(SAVING);
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return dataManager.saveTheme(theme);
+            }
+
+            @Override
+            protected void done() {
+                setButtonsEnabled(true);
+                String result;
+                try {
+                    result = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    result = ERROR_SAVE + cause.getMessage();
+                }
+                if (result != null) {
+                    // nothing changed, so there is nothing to publish
+                    showMessage(result);
+                    return;
+                }
+                showMessage(created ? THEME_SUCCESFULLY_CREATED : THEME_SUCCESFULLY_UPDATED);
+                if (created) {
+                    selectedThemeId = theme.getId();
+                }
+                reloadAndNotify(theme.getId(), created ? ChangeEvent.Kind.CREATED : ChangeEvent.Kind.UPDATED);
+                selectThemeById(selectedThemeId);
+            }
+        }.execute();
+    }
 
-        reloadAndNotify();
-        selectThemeById(selectedThemeId);
+    /**
+     * Asks for confirmation if other themes have a very similar title.
+     *
+     * @return {@code true} if there are none, the title is unchanged or the user
+     *         wants to save anyway
+     */
+    private boolean confirmNearDuplicates(String title) {
+        ThemeDTO stored = selectedThemeId == NO_SELECTION ? null : getThemeById(selectedThemeId);
+        if (stored != null && title.equals(stored.getTitle())) {
+            return true;
+        }
+        List<String> similar = dataManager.findSimilarThemes(title, NEAR_DUPLICATE_SIMILARITY, SIMILAR_TITLE_LIMIT)
+                .stream()
+                .filter(theme -> theme.getId() != selectedThemeId)
+                .map(theme -> "- " + theme.getTitle())
+                .collect(Collectors.toList());
+        if (similar.isEmpty()) {
+            return true;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+                String.format(NEAR_DUPLICATE_WARNING, String.join("\n", similar)), NEAR_DUPLICATE_TITLE,
+                JOptionPane.YES_NO_OPTION);
+        return confirm == JOptionPane.YES_OPTION;
     }
 
     /** Deletes the selected theme after user confirmation. */
@@ -238,19 +333,43 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
         int confirm = JOptionPane.showConfirmDialog(this, THEME_DELETE_INFORMATION, DELETE_CONFIRMATION,
                                                     JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            ThemeDTO toDelete = getThemeById(selectedThemeId);
+            final ThemeDTO toDelete = getThemeById(selectedThemeId);
             if (toDelete != null) {
-                String error = dbManager.deleteTheme(toDelete);
-                showMessage(error);
-                selectedThemeId = NO_SELECTION;
-                reset();
-                reloadAndNotify();
+                setButtonsEnabled(false);
+                showMessage(DELETING);
+                new SwingWorker<String, Void>() {
+                    @Override
+                    protected String doInBackground() {
+                        return dataManager.deleteTheme(toDelete);
+                    }
+
+                    @Override
+                    protected void done() {
+                        setButtonsEnabled(true);
+                        try {
+                            showMessage(get());
+                        } catch (InterruptedException | ExecutionException e) {
+                            Throwable cause = e.getCause() != null ? e.getCause() : e;
+                            showMessage(ERROR_SAVE + cause.getMessage());
+                            return;
+                        }
+                        reset();
+                        reloadAndNotify(toDelete.getId(), ChangeEvent.Kind.DELETED);
+                    }
+                }.execute();
             } else {
                 showMessage(CHOOSE_A_THEME_MSG);
             }
         }
     }
 
+    /** Locks saving and deleting while a theme is written in the background. */
+    private void setButtonsEnabled(boolean enabled) {
+        for (MyButton button : bottomPanel.getButtonsPanel().getButtons()) {
+            button.setEnabled(enabled);
+        }
+    }
+
     /** Clears list selection and resets form fields. */
     private void reset() {
         labelJListPanel.getList().clearSelection();
@@ -268,7 +387,7 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
 
     /** @return Theme object by ID, or null if not found. */
     private ThemeDTO getThemeById(int id) {
-        return allThemes.stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+        return dataManager.getThemeById(id);
     }
 
     /** Selects the theme in the list by ID, or clears selection if not found. */
@@ -284,18 +403,16 @@ public class MainThemePanel extends SubPanel implements GuiConstants {
         selectedThemeId = NO_SELECTION;
     }
 
-    /** Refreshes theme list from data and notifies listeners. */
-    private void reloadAndNotify() {
+    /**
+     * Refreshes theme list from data and publishes the change of one theme.
+     *
+     * @param themeId the ID of the changed theme
+     * @param kind    what happened to the theme
+     */
+    private void reloadAndNotify(int themeId, ChangeEvent.Kind kind) {
         refreshThemesAndItems();
         labelJListPanel.updateList(themeItems);
-        notifyThemeChangeListeners();
-    }
-
-    /** Notifies all registered ThemeChangeListeners that themes have changed. */
-    private void notifyThemeChangeListeners() {
-        for (ThemeChangeListener listener : themeChangeListeners) {
-            listener.onThemesChanged();
-        }
+        ChangeEventBus.getInstance().publish(ChangeEvent.Entity.THEME, themeId, kind);
     }
 
     /** Displays a message in the bottom message area. */
@@ -1,5 +1,9 @@
 package gui.mainPanels;
 
+import java.util.List;
+
+import helpers.ChangeEvent;
+
 /**
  * Listener interface to be implemented by classes that want to be notified
  * when the list of questions has changed.
@@ -20,9 +24,12 @@ public interface QuestionsChangeListener {
     /**
      * Callback method invoked when the questions list has changed.
      * <p>
-     * This method should contain logic to refresh UI components,
-     * reload data, or handle any state changes related to the questions.
+     * The events describe exactly which questions were created, updated or
+     * deleted, so implementations should only touch the affected entries
+     * instead of reloading all questions.
      * </p>
+     *
+     * @param changes the coalesced question changes of one EDT tick
      */
-    void onQuestionsChanged();
+    void onQuestionsChanged(List<ChangeEvent> changes);
 }
@@ -1,5 +1,9 @@
 package gui.mainPanels;
 
+import java.util.List;
+
+import helpers.ChangeEvent;
+
 /**
  * Listener interface for reacting to changes in the list of themes.
  * <p>
@@ -16,10 +20,13 @@ public interface ThemeChangeListener {
     /**
      * Called when the list of themes has changed.
      * <p>
-     * This method should update any UI or internal state that depends
-     * on the current list of available themes.
+     * The events describe exactly which themes were created, updated or
+     * deleted. Deleting a theme also deletes its questions; no separate
+     * question events are published for them.
      * </p>
+     *
+     * @param changes the coalesced theme changes of one EDT tick
      */
-    void onThemesChanged();
+    void onThemesChanged(List<ChangeEvent> changes);
 }
 
@@ -0,0 +1,76 @@
+package helpers;
+
+/**
+ * Describes a single change of a persisted entity: which kind of entity, its ID
+ * and whether it was created, updated or deleted.
+ * <p>
+ * Events are published through the {@link ChangeEventBus}, which lets listeners
+ * apply exactly the changed entries instead of reloading everything.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class ChangeEvent {
+
+	/** The type of entity that changed. */
+	public enum Entity {
+		THEME, QUESTION
+	}
+
+	/** What happened to the entity. */
+	public enum Kind {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final Entity entity;
+	private final int id;
+	private final Kind kind;
+
+	/**
+	 * Constructs a change event.
+	 *
+	 * @param entity the type of the changed entity
+	 * @param id     the ID of the changed entity
+	 * @param kind   what happened to the entity
+	 */
+	public ChangeEvent(Entity entity, int id, Kind kind) {
+		this.entity = entity;
+		this.id = id;
+		this.kind = kind;
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Combines this event with a later event for the same entity, so that a
+	 * listener only sees the net effect.
+	 *
+	 * @param later the later event for the same entity and ID
+	 * @return the combined event, or {@code null} if the two cancel out
+	 *         (created and deleted again)
+	 */
+	ChangeEvent merge(ChangeEvent later) {
+		if (kind == Kind.CREATED) {
+			return later.kind == Kind.DELETED ? null : this;
+		}
+		if (kind == Kind.DELETED && later.kind == Kind.CREATED) {
+			return new ChangeEvent(entity, id, Kind.UPDATED);
+		}
+		return later;
+	}
+
+	@Override
+	public String toString() {
+		return "ChangeEvent{" + entity + " " + id + " " + kind + '}';
+	}
+}
@@ -0,0 +1,111 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Delivers {@link ChangeEvent}s to subscribed listeners on the Swing event
+ * dispatch thread.
+ * <p>
+ * Events published during one EDT tick are collected and delivered together in
+ * a single batch per entity type. Several events for the same entity are
+ * coalesced into their net effect (e.g. created and then updated is delivered
+ * as created), so listeners do the minimal amount of work.
+ * </p>
+ * <p>
+ * Publishing is thread-safe; delivery always happens on the EDT.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class ChangeEventBus {
+
+	private static class Holder {
+		private static final ChangeEventBus INSTANCE = new ChangeEventBus();
+	}
+
+	private final Map<ChangeEvent.Entity, List<Consumer<List<ChangeEvent>>>> listeners = new EnumMap<>(
+			ChangeEvent.Entity.class);
+
+	/** Pending events keyed by entity and ID, in the order they were first published. */
+	private final Map<Long, ChangeEvent> pending = new LinkedHashMap<>();
+
+	private boolean flushScheduled;
+
+	private ChangeEventBus() {
+		for (ChangeEvent.Entity entity : ChangeEvent.Entity.values()) {
+			listeners.put(entity, new CopyOnWriteArrayList<>());
+		}
+	}
+
+	/**
+	 * Returns the application-wide event bus.
+	 *
+	 * @return the singleton instance
+	 */
+	public static ChangeEventBus getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Registers a listener for changes of one entity type. The listener receives
+	 * all coalesced events of one EDT tick as an unmodifiable list.
+	 *
+	 * @param entity   the entity type to listen to
+	 * @param listener the listener; ignored if {@code null}
+	 */
+	public void subscribe(ChangeEvent.Entity entity, Consumer<List<ChangeEvent>> listener) {
+		if (listener != null) {
+			listeners.get(entity).add(listener);
+		}
+	}
+
+	/**
+	 * Publishes a change. Delivery is deferred to the end of the current EDT tick.
+	 *
+	 * @param entity the type of the changed entity
+	 * @param id     the ID of the changed entity
+	 * @param kind   what happened to the entity
+	 */
+	public void publish(ChangeEvent.Entity entity, int id, ChangeEvent.Kind kind) {
+		ChangeEvent event = new ChangeEvent(entity, id, kind);
+		long key = ((long) entity.ordinal() << 32) | (id & 0xFFFFFFFFL);
+		synchronized (pending) {
+			ChangeEvent previous = pending.remove(key);
+			ChangeEvent merged = previous == null ? event : previous.merge(event);
+			if (merged != null) {
+				pending.put(key, merged);
+			}
+			if (!flushScheduled) {
+				flushScheduled = true;
+				SwingUtilities.invokeLater(this::flush);
+			}
+		}
+	}
+
+	/** Delivers all pending events, grouped by entity type. */
+	private void flush() {
+		Map<ChangeEvent.Entity, List<ChangeEvent>> batches = new EnumMap<>(ChangeEvent.Entity.class);
+		synchronized (pending) {
+			for (ChangeEvent event : pending.values()) {
+				batches.computeIfAbsent(event.getEntity(), e -> new ArrayList<>()).add(event);
+			}
+			pending.clear();
+			flushScheduled = false;
+		}
+		for (Map.Entry<ChangeEvent.Entity, List<ChangeEvent>> batch : batches.entrySet()) {
+			List<ChangeEvent> events = Collections.unmodifiableList(batch.getValue());
+			for (Consumer<List<ChangeEvent>> listener : listeners.get(batch.getKey())) {
+				listener.accept(events);
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package helpers;
+
+import java.awt.EventQueue;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports calls of the data manager that are made on the Swing event dispatch
+ * thread (EDT).
+ * <p>
+ * Work on the EDT blocks the whole user interface, so the panels run their
+ * persistence and statistics work in {@link javax.swing.SwingWorker}s. The data
+ * manager checks every call with this guard; a call on the EDT is written to
+ * {@code System.err} with its stack trace, once per operation, and counted
+ * every time.
+ * </p>
+ * <p>
+ * The system property {@value #MODE_PROPERTY} selects what is reported:
+ * </p>
+ * <ul>
+ * <li>{@code blocking} (default): calls that reach the database or the disk,
+ * e.g. saving, deleting and reloading.</li>
+ * <li>{@code all}: every call, including reads of the in-memory local
+ * tier.</li>
+ * <li>{@code off}: nothing.</li>
+ * </ul>
+ * <p>
+ * <b>Thread-safety:</b> The guard can be called from any thread.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public final class EdtGuard {
+
+	/** The system property that selects the {@link Mode}. */
+	public static final String MODE_PROPERTY = "quiz.edtGuard";
+
+	/** What the guard reports. */
+	public enum Mode {
+		OFF, BLOCKING, ALL
+	}
+
+	private final Mode mode;
+
+	/** The operations already written to {@code System.err}. */
+	private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong violations = new AtomicLong();
+
+	private EdtGuard() {
+		mode = parseMode(System.getProperty(MODE_PROPERTY));
+	}
+
+	private static class Holder {
+		private static final EdtGuard INSTANCE = new EdtGuard();
+	}
+
+	/**
+	 * Returns the application-wide guard.
+	 *
+	 * @return the singleton instance
+	 */
+	public static EdtGuard getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Checks a call that may block on the database or the disk.
+	 *
+	 * @param operation the name of the called method
+	 */
+	public void blocking(String operation) {
+		if (mode != Mode.OFF) {
+			check(operation);
+		}
+	}
+
+	/**
+	 * Checks a call that only reads the in-memory data; reported in mode
+	 * {@link Mode#ALL} only.
+	 *
+	 * @param operation the name of the called method
+	 */
+	public void read(String operation) {
+		if (mode == Mode.ALL) {
+			check(operation);
+		}
+	}
+
+	/** @return the number of reported calls on the EDT since the start */
+	public long getViolationCount() {
+		return violations.get();
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	private void check(String operation) {
+		if (!EventQueue.isDispatchThread()) {
+			return;
+		}
+		violations.incrementAndGet();
+		if (reported.add(operation)) {
+			new IllegalStateException("Datenzugriff im Event-Dispatch-Thread: " + operation).printStackTrace();
+		}
+	}
+
+	private static Mode parseMode(String value) {
+		if (value == null || value.trim().isEmpty()) {
+			return Mode.BLOCKING;
+		}
+		try {
+			return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			return Mode.BLOCKING;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package helpers;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive {@code int} values.
+ * <p>
+ * Used as an adjacency array, e.g. the question IDs belonging to one theme,
+ * without boxing every element into an {@link Integer}.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class IntList {
+
+	private static final int[] EMPTY = new int[0];
+
+	private int[] elements;
+	private int size;
+
+	/**
+	 * Creates an empty list.
+	 */
+	public IntList() {
+		elements = EMPTY;
+	}
+
+	/**
+	 * Copy constructor; creates a list with the same elements as {@code other}.
+	 *
+	 * @param other the list to copy
+	 */
+	public IntList(IntList other) {
+		elements = Arrays.copyOf(other.elements, other.size);
+		size = other.size;
+	}
+
+	/**
+	 * Appends a value.
+	 *
+	 * @param value the value to append
+	 */
+	public void add(int value) {
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(4, size << 1));
+		}
+		elements[size++] = value;
+	}
+
+	/**
+	 * Removes the first occurrence of a value, keeping the order of the
+	 * remaining elements.
+	 *
+	 * @param value the value to remove
+	 * @return {@code true} if the value was found and removed
+	 */
+	public boolean removeValue(int value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == value) {
+				System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the value at the index.
+	 *
+	 * @param index the zero-based index
+	 * @return the value
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public int get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return elements[index];
+	}
+
+	/**
+	 * Returns the number of elements.
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns whether the list is empty.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns a copy of the elements.
+	 *
+	 * @return a new array with exactly {@link #size()} elements
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+}
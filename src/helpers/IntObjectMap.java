@@ -0,0 +1,240 @@
+package helpers;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hash map from primitive {@code int} keys to object values using open addressing
+ * with linear probing.
+ * <p>
+ * Keys are stored in a plain {@code int[]}, so lookups neither box the key nor
+ * allocate entry objects. Removal uses backward-shift deletion, which keeps probe
+ * sequences short without tombstones.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> This class is not thread-safe.
+ * </p>
+ *
+ * @param <V> the value type
+ *
+ * @author DejanKrstovski
+ */
+public class IntObjectMap<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private int[] keys;
+	private Object[] values;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+	/**
+	 * Creates an empty map with a default capacity.
+	 */
+	public IntObjectMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty map able to hold the expected number of entries without
+	 * resizing.
+	 *
+	 * @param expectedSize the expected number of entries
+	 */
+	public IntObjectMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * Copy constructor; creates a map with the same entries as {@code other}.
+	 *
+	 * @param other the map to copy
+	 */
+	public IntObjectMap(IntObjectMap<V> other) {
+		this.keys = other.keys.clone();
+		this.values = other.values.clone();
+		this.size = other.size;
+		this.mask = other.mask;
+		this.resizeAt = other.resizeAt;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int slotOf(int key) {
+		int slot = mix(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the value mapped to the key.
+	 *
+	 * @param key the key
+	 * @return the value, or {@code null} if the key is not present
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int slot = slotOf(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * Returns whether the key is present.
+	 *
+	 * @param key the key
+	 * @return {@code true} if a value is mapped to the key
+	 */
+	public boolean containsKey(int key) {
+		return slotOf(key) >= 0;
+	}
+
+	/**
+	 * Maps the key to the value, replacing any previous mapping.
+	 *
+	 * @param key   the key
+	 * @param value the value; must not be {@code null}
+	 * @return the previous value, or {@code null} if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("null values are not supported");
+		}
+		int slot = mix(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				V old = (V) values[slot];
+				values[slot] = value;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping for the key.
+	 *
+	 * @param key the key
+	 * @return the removed value, or {@code null} if the key was not present
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int slot = slotOf(key);
+		if (slot < 0) {
+			return null;
+		}
+		V old = (V) values[slot];
+		size--;
+		// backward-shift deletion: pull following entries of the cluster into the gap
+		int gap = slot;
+		int next = (gap + 1) & mask;
+		while (values[next] != null) {
+			int home = mix(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[gap] = null;
+		return old;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = mix(oldKeys[i]) & mask;
+				while (values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of entries.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns whether the map is empty.
+	 *
+	 * @return {@code true} if the map has no entries
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns all keys in ascending order.
+	 *
+	 * @return a new sorted array of keys
+	 */
+	public int[] sortedKeys() {
+		int[] result = new int[size];
+		int n = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null) {
+				result[n++] = keys[i];
+			}
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Passes every value to the action, in no particular order.
+	 *
+	 * @param action the action to run for each value
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachValue(Consumer<? super V> action) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				action.accept((V) values[i]);
+			}
+		}
+	}
+}
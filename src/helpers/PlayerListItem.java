@@ -0,0 +1,21 @@
+package helpers;
+
+/**
+ * Represents a player item with an identifier and a name,
+ * used for displaying player profiles in GUI components such as combo boxes.
+ */
+public class PlayerListItem {
+    private final int id;
+    private final String name;
+
+    public PlayerListItem(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+
+    @Override
+    public String toString() { return name; } // the combo box will display the name.
+}
@@ -4,8 +4,21 @@ import java.util.List;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
 
 public interface QuizDataInterface {
 
@@ -18,13 +31,258 @@ public interface QuizDataInterface {
 	public List<PlayerAnswerDTO> getAllPlayerAnswers();
 	public List<QuestionDTO> getQuestionsFor(ThemeDTO theme);
 	public List<AnswerDTO> getAnswersFor(QuestionDTO question);
+	public ThemeDTO getThemeById(int id);
+	public QuestionDTO getQuestionById(int id);
+
+	/**
+	 * Full-text search over question titles, texts and answers. Only questions
+	 * containing all words of the query are returned, the most relevant first.
+	 *
+	 * @param query the search text
+	 * @param theme only search the questions of this theme; {@code null} for all
+	 * @param limit the maximum number of results
+	 * @return the matching questions, best first
+	 */
+	public List<QuestionDTO> searchQuestions(String query, ThemeDTO theme, int limit);
+
+	/**
+	 * Finds themes whose title is similar to the given one, tolerating typos.
+	 *
+	 * @param title         the title to compare with
+	 * @param minSimilarity the minimum similarity, from 0 (anything) to 1
+	 *                      (same words)
+	 * @param limit         the maximum number of results
+	 * @return the similar themes, most similar first
+	 */
+	public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit);
+
+	/**
+	 * Finds questions whose title is similar to the given one, tolerating typos.
+	 *
+	 * @param title         the title to compare with
+	 * @param theme         only search the questions of this theme; {@code null}
+	 *                      for all
+	 * @param minSimilarity the minimum similarity, from 0 (anything) to 1
+	 *                      (same words)
+	 * @param limit         the maximum number of results
+	 * @return the similar questions, most similar first
+	 */
+	public List<QuestionDTO> findSimilarQuestions(String title, ThemeDTO theme, double minSimilarity, int limit);
+
+	/**
+	 * Finds questions with nearly the same text and answers as the given one,
+	 * e.g. copies that only differ in punctuation, case or answer order.
+	 *
+	 * @param question the question to check, with its answers set
+	 * @return the duplicates in all themes, most similar first; never the
+	 *         question itself
+	 */
+	public List<QuestionDTO> findDuplicatesOf(QuestionDTO question);
+
+	/**
+	 * Finds all groups of duplicate questions in the bank.
+	 *
+	 * @return the groups, ordered by the theme they are reported under
+	 */
+	public List<DuplicateGroup> findDuplicateGroups();
+
+	/**
+	 * Returns the running answer counts of a question, kept up to date with
+	 * every saved player answer.
+	 *
+	 * @param question the question
+	 * @param range    the days to count; {@link DateRange#ALL_TIME} for all
+	 * @return the counts, including how often each answer was chosen
+	 */
+	public AnswerTotals getQuestionTotals(QuestionDTO question, DateRange range);
+
+	/**
+	 * Returns the running answer counts of all questions of a theme.
+	 *
+	 * @param theme the theme
+	 * @param range the days to count; {@link DateRange#ALL_TIME} for all
+	 * @return the summed counts
+	 */
+	public AnswerTotals getThemeTotals(ThemeDTO theme, DateRange range);
+
+	/**
+	 * Returns how long players took to answer a question, over all time.
+	 *
+	 * @param question the question
+	 * @return the recorded durations, with their percentiles
+	 */
+	public DurationHistogram getQuestionDurations(QuestionDTO question);
+
+	/**
+	 * Returns how long players took to answer the questions of a theme, over
+	 * all time.
+	 *
+	 * @param theme the theme
+	 * @return the recorded durations, with their percentiles
+	 */
+	public DurationHistogram getThemeDurations(ThemeDTO theme);
+
+	/**
+	 * Returns the running counts of all player answers.
+	 *
+	 * @param range the days to count; {@link DateRange#ALL_TIME} for all
+	 * @return the counts over all themes
+	 */
+	public AnswerTotals getAnswerTotals(DateRange range);
+
+	/**
+	 * Returns how often each answer option was chosen, for every answered
+	 * question of the bank at once.
+	 *
+	 * @param range the days to count; {@link DateRange#ALL_TIME} for all
+	 * @return the option counts, ordered by question ID
+	 */
+	public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range);
+
+	/**
+	 * Returns the answer counts and median answer time of every answered
+	 * question of the bank at once, e.g. to rank them.
+	 *
+	 * @param range the days to count; {@link DateRange#ALL_TIME} for all
+	 * @return the statistics, ordered by question ID
+	 */
+	public List<QuestionStatistics> getQuestionStatistics(DateRange range);
+
+	/**
+	 * Returns the answer counts over time, read from the per-day totals.
+	 *
+	 * @param theme      the theme, or {@code null} for all themes
+	 * @param range      the days to read; {@link DateRange#ALL_TIME} for all
+	 * @param resolution one point per day or per week
+	 * @return the points with answers, in time order
+	 */
+	public TrendSeries getAnswerSeries(ThemeDTO theme, DateRange range, TrendSeries.Resolution resolution);
+
+	/**
+	 * Returns a number that changes with every change of the themes, questions,
+	 * answers or player answers, e.g. to tell whether cached statistics are
+	 * still valid. It starts again with every start of the application.
+	 *
+	 * @return the current data version
+	 */
+	public long getDataVersion();
+
+	/**
+	 * Records whether a known player, e.g. a quiz server session, answered a
+	 * question correctly, for the item response model. Call it in addition to
+	 * saving the player answers.
+	 *
+	 * @param respondent identifies the player
+	 * @param question   the answered question
+	 * @param correct    whether exactly the correct answers were chosen
+	 * @return the new ability estimate of the player
+	 */
+	public AbilityEstimate recordResponse(String respondent, QuestionDTO question, boolean correct);
+
+	/**
+	 * @param respondent identifies the player
+	 * @return the ability estimate of the player, from the answers recorded
+	 *         since the start of the application
+	 */
+	public AbilityEstimate getAbility(String respondent);
+
+	/**
+	 * Returns the item response parameters of a question: difficulty with
+	 * confidence interval, discrimination and point-biserial correlation.
+	 *
+	 * @param question the question
+	 * @return the parameters from all evaluated answers of the question
+	 */
+	public ItemCalibration getItemCalibration(QuestionDTO question);
+
+	/**
+	 * Returns the item response parameters of every question with evaluated
+	 * answers at once.
+	 *
+	 * @return the parameters, ordered by question ID
+	 */
+	public List<ItemCalibration> getItemCalibrations();
+
+	/**
+	 * @return all player profiles, ordered by ID
+	 */
+	public List<PlayerDTO> getAllPlayers();
+
+	/**
+	 * Returns the statistics of one player, counted over the answers saved
+	 * with the ID of this player only.
+	 *
+	 * @param player the player
+	 * @return the statistics of the player; stays valid while answers are saved
+	 */
+	public PlayerStatistics getPlayerStatistics(PlayerDTO player);
+
+	/**
+	 * Returns a page of a live ranking of the players with a profile, read
+	 * from memory without touching the database.
+	 *
+	 * @param theme   the theme, or {@code null} for all themes
+	 * @param ranking what the players are ranked by
+	 * @param offset  the number of players to skip
+	 * @param limit   the maximum number of players to return
+	 * @return the players from rank {@code offset + 1} on, best first
+	 */
+	public List<LeaderboardEntry> getLeaderboard(ThemeDTO theme, Leaderboard.Ranking ranking, int offset, int limit);
+
+	/**
+	 * Returns the rank and the counts of one player in a live ranking.
+	 *
+	 * @param player  the player
+	 * @param theme   the theme, or {@code null} for all themes
+	 * @param ranking what the players are ranked by
+	 * @return the entry of the player, {@code null} if the player has no
+	 *         evaluated answers there
+	 */
+	public LeaderboardEntry getLeaderboardEntry(PlayerDTO player, ThemeDTO theme, Leaderboard.Ranking ranking);
+
+	/**
+	 * Saves or updates a player profile. A new profile gets its ID assigned.
+	 *
+	 * @param player the profile to save
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public String savePlayer(PlayerDTO player);
 	
 
 	public String savePlayerAnswer(PlayerAnswerDTO answer);
+
+	/**
+	 * Saves many player answers at once, e.g. the answers collected from many
+	 * players within a few milliseconds. Faster than calling
+	 * {@link #savePlayerAnswer(PlayerAnswerDTO)} per answer.
+	 *
+	 * @param answers the answers to save
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public String savePlayerAnswers(List<PlayerAnswerDTO> answers);
 	
 	public String saveTheme(ThemeDTO theme);
 	public String deleteTheme(ThemeDTO theme);
 	
 	public String saveQuestion(QuestionDTO question);
+
+	/**
+	 * Saves a question, optionally rejecting it if the bank already contains a
+	 * question with nearly the same text and answers.
+	 *
+	 * @param question          the question to save, with its answers set
+	 * @param rejectDuplicates  {@code true} to check for duplicates first
+	 * @return "Success", or an error message
+	 */
+	public String saveQuestion(QuestionDTO question, boolean rejectDuplicates);
+
+	/**
+	 * Saves many questions with their answers as one batch, e.g. for a bulk
+	 * import. Faster than calling {@link #saveQuestion(QuestionDTO)} per question.
+	 *
+	 * @param questions the questions to save
+	 * @return "Success", or an error message
+	 */
+	public String saveQuestions(List<QuestionDTO> questions);
 	public String deleteQuestion(QuestionDTO question);
 }
@@ -5,43 +5,118 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.DataTransportObject;
 import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
+import bussinesLogic.repository.QuizRepository;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
 import persistence.mariaDB.createDB.DBConnection;
 import persistence.mariaDB.entity.AnswerDAO;
 import persistence.mariaDB.entity.PlayerAnswerDAO;
+import persistence.mariaDB.entity.PlayerDAO;
 import persistence.mariaDB.entity.QuestionDAO;
 import persistence.mariaDB.entity.ThemeDAO;
 
 public class DBManager {
 
-	private static DBManager instance;
 	private Connection connection = DBConnection.getConnection();
 
-	private List<ThemeDTO> themeCache;
-	private List<QuestionDTO> questionCache;
-	private List<AnswerDTO> answerCache;
-	private List<PlayerAnswerDTO> playerAnswerCache;
+	/** Indexed in-memory copy of all tables, loaded on the first read. */
+	private final QuizRepository repository = new QuizRepository();
+
+	private volatile boolean loaded;
+
+	/** Counts and highest IDs of all tables, in the layout of {@link QuizRepository#getStamp()}. */
+	private static final String SQL_STAMP = "SELECT "
+			+ "(SELECT COUNT(*) FROM THEME), (SELECT COALESCE(MAX(ID), 0) FROM THEME), "
+			+ "(SELECT COUNT(*) FROM QUESTION), (SELECT COALESCE(MAX(ID), 0) FROM QUESTION), "
+			+ "(SELECT COUNT(*) FROM ANSWER), (SELECT COALESCE(MAX(ID), 0) FROM ANSWER), "
+			+ "(SELECT COUNT(*) FROM PLAYERANSWER), (SELECT COALESCE(MAX(ID), 0) FROM PLAYERANSWER), "
+			+ "(SELECT COUNT(*) FROM PLAYER), (SELECT COALESCE(MAX(ID), 0) FROM PLAYER)";
+
+	/** IGNORE skips duplicate IDs or request keys and rows with missing foreign keys. */
+	private static final String SQL_REPLICATE_WITH_ID = "INSERT IGNORE INTO PLAYERANSWER "
+			+ "(ID, QUESTIONID, ANSWERID, CREATED_AT, REQUESTKEY, DURATION, PLAYERID) VALUES (?, ?, ?, ?, ?, ?, ?)";
+	private static final String SQL_REPLICATE_NEW_ID = "INSERT IGNORE INTO PLAYERANSWER "
+			+ "(QUESTIONID, ANSWERID, CREATED_AT, REQUESTKEY, DURATION, PLAYERID) VALUES (?, ?, ?, ?, ?, ?)";
 
 	private DBManager() {
-		refreshThemes();
-		refreshQuestions();
-		refreshAnswers();
-		refreshPlayerAnswers();
 	}
 
-	public static DBManager getInstance() {
-		if (instance == null) {
-			instance = new DBManager();
+	/**
+	 * Reads all tables into the repository on first use, so that callers which
+	 * only write or compare stamps never pay for a full load.
+	 */
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (!loaded) {
+				refreshThemes();
+				refreshQuestions();
+				refreshAnswers();
+				refreshPlayerAnswers();
+				refreshPlayers();
+				loaded = true;
+			}
 		}
-		return instance;
+	}
+
+	/**
+	 * Reads the row count and highest ID of every table with a single query.
+	 *
+	 * @return the stamp in the layout of {@link QuizRepository#getStamp()}, or
+	 *         {@code null} if the database is not reachable
+	 */
+	public long[] readStamp() {
+		if (connection == null) {
+			return null;
+		}
+		try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(SQL_STAMP)) {
+			if (!rs.next()) {
+				return null;
+			}
+			long[] stamp = new long[10];
+			for (int i = 0; i < stamp.length; i++) {
+				stamp[i] = rs.getLong(i + 1);
+			}
+			return stamp;
+		} catch (SQLException e) {
+			return null;
+		}
+	}
+
+	/** Lazily creates the singleton; the JVM guarantees thread-safe initialization. */
+	private static class Holder {
+		private static final DBManager INSTANCE = new DBManager();
+	}
+
+	public static DBManager getInstance() {
+		return Holder.INSTANCE;
 	}
 
 	private <T extends MariaAccessObject> List<DataTransportObject> getAllFromDAO(Class<T> daoClass, String tableName) {
@@ -103,59 +178,234 @@ public class DBManager {
 	}
 
 	private void refreshThemes() {
-		themeCache = getAllFromDAO(ThemeDAO.class, "Theme").stream().map(t -> (ThemeDTO) t)
-				.collect(Collectors.toList());
+		repository.loadThemes(getAllFromDAO(ThemeDAO.class, "Theme").stream().map(t -> (ThemeDTO) t)
+				.collect(Collectors.toList()));
 	}
 
 	private void refreshQuestions() {
-		questionCache = getAllFromDAO(QuestionDAO.class, "Question").stream().map(q -> (QuestionDTO) q)
-				.collect(Collectors.toList());
+		repository.loadQuestions(getAllFromDAO(QuestionDAO.class, "Question").stream().map(q -> (QuestionDTO) q)
+				.collect(Collectors.toList()));
 	}
 
 	private void refreshAnswers() {
-		answerCache = getAllFromDAO(AnswerDAO.class, "Answer").stream().map(a -> (AnswerDTO) a)
-				.collect(Collectors.toList());
+		repository.loadAnswers(getAllFromDAO(AnswerDAO.class, "Answer").stream().map(a -> (AnswerDTO) a)
+				.collect(Collectors.toList()));
 	}
 	
 	private void refreshPlayerAnswers() {
-		playerAnswerCache = getAllFromDAO(PlayerAnswerDAO.class, "PlayerAnswer").stream().map(a -> (PlayerAnswerDTO) a)
-				.collect(Collectors.toList());
+		repository.loadPlayerAnswers(getAllFromDAO(PlayerAnswerDAO.class, "PlayerAnswer").stream()
+				.map(a -> (PlayerAnswerDTO) a).collect(Collectors.toList()));
+	}
+
+	private void refreshPlayers() {
+		repository.loadPlayers(getAllFromDAO(PlayerDAO.class, "Player").stream().map(p -> (PlayerDTO) p)
+				.collect(Collectors.toList()));
 	}
 
 	public List<ThemeDTO> getAllThemes() {
-		return themeCache;
+		ensureLoaded();
+		return repository.getAllThemes();
 	}
 
 	public List<QuestionDTO> getAllQuestions() {
-		return questionCache;
+		ensureLoaded();
+		return repository.getAllQuestions();
 	}
 
 	public List<AnswerDTO> getAllAnswers() {
-		return answerCache;
+		ensureLoaded();
+		return repository.getAllAnswers();
 	}
 	
 	public List<PlayerAnswerDTO> getAllPlayerAnswers() {
-		return playerAnswerCache;
+		ensureLoaded();
+		return repository.getAllPlayerAnswers();
+	}
+
+	public ThemeDTO getThemeById(int id) {
+		ensureLoaded();
+		return repository.getTheme(id);
+	}
+
+	public QuestionDTO getQuestionById(int id) {
+		ensureLoaded();
+		return repository.getQuestion(id);
+	}
+
+	public List<QuestionDTO> getQuestionsFor(int themeId) {
+		ensureLoaded();
+		return repository.getQuestionsFor(themeId);
+	}
+
+	/** @see QuizRepository#searchQuestions(String, int, int) */
+	public List<QuestionDTO> searchQuestions(String query, int themeId, int limit) {
+		ensureLoaded();
+		return repository.searchQuestions(query, themeId, limit);
+	}
+
+	/** @see QuizRepository#findSimilarThemes(String, double, int) */
+	public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit) {
+		ensureLoaded();
+		return repository.findSimilarThemes(title, minSimilarity, limit);
+	}
+
+	/** @see QuizRepository#findSimilarQuestions(String, int, double, int) */
+	public List<QuestionDTO> findSimilarQuestions(String title, int themeId, double minSimilarity, int limit) {
+		ensureLoaded();
+		return repository.findSimilarQuestions(title, themeId, minSimilarity, limit);
+	}
+
+	/** @see QuizRepository#findDuplicatesOf(QuestionDTO) */
+	public List<QuestionDTO> findDuplicatesOf(QuestionDTO question) {
+		ensureLoaded();
+		return repository.findDuplicatesOf(question);
+	}
+
+	/** @see QuizRepository#findDuplicateGroups() */
+	public List<DuplicateGroup> findDuplicateGroups() {
+		ensureLoaded();
+		return repository.findDuplicateGroups();
+	}
+
+	/** @see QuizRepository#getQuestionTotals(int, DateRange) */
+	public AnswerTotals getQuestionTotals(int questionId, DateRange range) {
+		ensureLoaded();
+		return repository.getQuestionTotals(questionId, range);
+	}
+
+	/** @see QuizRepository#getThemeTotals(int, DateRange) */
+	public AnswerTotals getThemeTotals(int themeId, DateRange range) {
+		ensureLoaded();
+		return repository.getThemeTotals(themeId, range);
+	}
+
+	/** @see QuizRepository#getQuestionDurations(int) */
+	public DurationHistogram getQuestionDurations(int questionId) {
+		ensureLoaded();
+		return repository.getQuestionDurations(questionId);
+	}
+
+	/** @see QuizRepository#getThemeDurations(int) */
+	public DurationHistogram getThemeDurations(int themeId) {
+		ensureLoaded();
+		return repository.getThemeDurations(themeId);
 	}
 
-	public String saveTheme(ThemeDTO theme) {
-		String result = saveDAO(new ThemeDAO(theme));
-		if (result == null)
-			refreshThemes();
+	/** @see QuizRepository#getAnswerTotals(DateRange) */
+	public AnswerTotals getAnswerTotals(DateRange range) {
+		ensureLoaded();
+		return repository.getAnswerTotals(range);
+	}
+
+	/** @see QuizRepository#getAnswerOptionCounts(DateRange) */
+	public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+		ensureLoaded();
+		return repository.getAnswerOptionCounts(range);
+	}
+
+	/** @see QuizRepository#getQuestionStatistics(DateRange) */
+	public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+		ensureLoaded();
+		return repository.getQuestionStatistics(range);
+	}
+
+	/** @see QuizRepository#getAnswerSeries(int, DateRange, TrendSeries.Resolution) */
+	public TrendSeries getAnswerSeries(int themeId, DateRange range, TrendSeries.Resolution resolution) {
+		ensureLoaded();
+		return repository.getAnswerSeries(themeId, range, resolution);
+	}
+
+	/** @see QuizRepository#getVersion() */
+	public long getDataVersion() {
+		ensureLoaded();
+		return repository.getVersion();
+	}
+
+	/** @see QuizRepository#recordResponse(String, int, boolean) */
+	public AbilityEstimate recordResponse(String respondent, int questionId, boolean correct) {
+		ensureLoaded();
+		return repository.recordResponse(respondent, questionId, correct);
+	}
+
+	/** @see QuizRepository#getAbility(String) */
+	public AbilityEstimate getAbility(String respondent) {
+		return repository.getAbility(respondent);
+	}
+
+	/** @see QuizRepository#getItemCalibration(int) */
+	public ItemCalibration getItemCalibration(int questionId) {
+		ensureLoaded();
+		return repository.getItemCalibration(questionId);
+	}
+
+	/** @see QuizRepository#getItemCalibrations() */
+	public List<ItemCalibration> getItemCalibrations() {
+		ensureLoaded();
+		return repository.getItemCalibrations();
+	}
+
+	/** @see QuizRepository#getLeaderboard(int, Leaderboard.Ranking, int, int) */
+	public List<LeaderboardEntry> getLeaderboard(int themeId, Leaderboard.Ranking ranking, int offset, int limit) {
+		ensureLoaded();
+		return repository.getLeaderboard(themeId, ranking, offset, limit);
+	}
+
+	/** @see QuizRepository#getLeaderboardEntry(int, int, Leaderboard.Ranking) */
+	public LeaderboardEntry getLeaderboardEntry(int playerId, int themeId, Leaderboard.Ranking ranking) {
+		ensureLoaded();
+		return repository.getLeaderboardEntry(playerId, themeId, ranking);
+	}
+
+	/** @see QuizRepository#getPlayerStatistics(int) */
+	public PlayerStatistics getPlayerStatistics(int playerId) {
+		ensureLoaded();
+		return repository.getPlayerStatistics(playerId);
+	}
+
+	public List<PlayerDTO> getAllPlayers() {
+		ensureLoaded();
+		return repository.getAllPlayers();
+	}
+
+	public PlayerDTO getPlayerById(int id) {
+		ensureLoaded();
+		return repository.getPlayer(id);
+	}
+
+	public List<AnswerDTO> getAnswersFor(int questionId) {
+		ensureLoaded();
+		return repository.getAnswersFor(questionId);
+	}
+
+	public synchronized String saveTheme(ThemeDTO theme) {
+		ThemeDAO dao = new ThemeDAO(theme);
+		String result = saveDAO(dao);
+		if (result == null) {
+			theme.setId(dao.getId());
+			repository.putTheme(theme);
+		}
 		return result;
 	}
 
-	public String deleteTheme(ThemeDTO theme) {
+	public synchronized String savePlayer(PlayerDTO player) {
+		PlayerDAO dao = new PlayerDAO(player);
+		String result = saveDAO(dao);
+		if (result == null) {
+			player.setId(dao.getId());
+			repository.putPlayer(player);
+		}
+		return result;
+	}
+
+	public synchronized String deleteTheme(ThemeDTO theme) {
 		String result = deleteDAO(new ThemeDAO(theme));
 		if ("Success".equals(result)) {
-			refreshThemes();
-			refreshQuestions();
-			refreshAnswers();
+			repository.removeTheme(theme.getId());
 		}
 		return result;
 	}
 
-	public String saveQuestion(QuestionDTO question) {
+	public synchronized String saveQuestion(QuestionDTO question) {
 		QuestionDAO dao = new QuestionDAO(question);
 		String result = saveDAO(dao);
 		
@@ -165,54 +415,353 @@ public class DBManager {
 		int questionId = dao.getId();
 		question.setId(questionId);
 
-		for (AnswerDTO answer : question.getAnswers()) {
-			answer.setQuestionId(questionId);
-			deleteAnswer(answer);
-		}
+		// AnswerDAO deletes by question id, so one statement removes all old answers
+		// and every answer below is inserted again
+		AnswerDTO oldAnswers = new AnswerDTO();
+		oldAnswers.setQuestionId(questionId);
+		deleteDAO(new AnswerDAO(oldAnswers));
 
 		if (question.getAnswers() != null) {
 			for (AnswerDTO answer : question.getAnswers()) {
 				answer.setQuestionId(questionId);
-				saveDAO(new AnswerDAO(answer));
+				AnswerDAO answerDao = new AnswerDAO(answer);
+				answerDao.setId(-1);
+				if (saveDAO(answerDao) == null)
+					answer.setId(answerDao.getId());
 			}
 		}
-		refreshQuestions();
-		refreshAnswers();
+		repository.update(tx -> {
+			tx.putQuestion(question);
+			tx.replaceAnswersFor(questionId, question.getAnswers());
+		});
 		
 		return "Success";
 	}
 
-	public String deleteQuestion(QuestionDTO question) {
+	/**
+	 * Saves many questions with their answers in one transaction, using JDBC
+	 * batches instead of one round trip per row. New questions are inserted,
+	 * questions that already have an ID are updated; the answers of both are
+	 * inserted again, as {@link #saveQuestion(QuestionDTO)} does.
+	 *
+	 * @param questions the questions to save; their IDs and the IDs of their
+	 *                  answers are set on success
+	 * @return "Success", or the error message if nothing was saved
+	 */
+	public synchronized String saveQuestions(List<QuestionDTO> questions) {
+		if (questions.isEmpty()) {
+			return "Success";
+		}
+		List<QuestionDTO> inserts = new ArrayList<>();
+		List<QuestionDTO> updates = new ArrayList<>();
+		for (QuestionDTO question : questions) {
+			(question.getId() > 0 ? updates : inserts).add(question);
+		}
+		List<AnswerDTO> answers = new ArrayList<>();
+		for (QuestionDTO question : questions) {
+			if (question.getAnswers() != null) {
+				answers.addAll(question.getAnswers());
+			}
+		}
+		int[] previousAnswerIds = answers.stream().mapToInt(AnswerDTO::getId).toArray();
+		try {
+			connection.setAutoCommit(false);
+			if (!inserts.isEmpty()) {
+				try (PreparedStatement stmt = connection.prepareStatement(
+						new QuestionDAO(inserts.get(0)).getInsertStatement(), Statement.RETURN_GENERATED_KEYS)) {
+					for (QuestionDTO question : inserts) {
+						new QuestionDAO(question).prepareInsert(stmt);
+						stmt.addBatch();
+					}
+					stmt.executeBatch();
+					readGeneratedIds(stmt, inserts);
+				}
+			}
+			if (!updates.isEmpty()) {
+				try (PreparedStatement stmt = connection.prepareStatement(
+						new QuestionDAO(updates.get(0)).getUpdateStatement())) {
+					for (QuestionDTO question : updates) {
+						new QuestionDAO(question).prepareUpdate(stmt);
+						stmt.addBatch();
+					}
+					stmt.executeBatch();
+				}
+				// AnswerDAO deletes by question id, so one statement per question removes its old answers
+				AnswerDTO oldAnswers = new AnswerDTO();
+				try (PreparedStatement stmt = connection.prepareStatement(
+						new AnswerDAO(oldAnswers).getDeleteStatement())) {
+					for (QuestionDTO question : updates) {
+						oldAnswers.setQuestionId(question.getId());
+						new AnswerDAO(oldAnswers).prepareDelete(stmt);
+						stmt.addBatch();
+					}
+					stmt.executeBatch();
+				}
+			}
+			for (QuestionDTO question : questions) {
+				if (question.getAnswers() != null) {
+					question.getAnswers().forEach(answer -> answer.setQuestionId(question.getId()));
+				}
+			}
+			if (!answers.isEmpty()) {
+				try (PreparedStatement stmt = connection.prepareStatement(
+						new AnswerDAO(answers.get(0)).getInsertStatement(), Statement.RETURN_GENERATED_KEYS)) {
+					for (AnswerDTO answer : answers) {
+						new AnswerDAO(answer).prepareInsert(stmt);
+						stmt.addBatch();
+					}
+					stmt.executeBatch();
+					readGeneratedIds(stmt, answers);
+				}
+			}
+			connection.commit();
+		} catch (SQLException e) {
+			try {
+				connection.rollback();
+			} catch (SQLException ignore) {
+			}
+			// nothing was stored, so hand the DTOs back without the rolled back IDs
+			for (QuestionDTO question : inserts) {
+				question.setId(-1);
+			}
+			for (int i = 0; i < answers.size(); i++) {
+				answers.get(i).setId(previousAnswerIds[i]);
+			}
+			return e.getMessage();
+		} finally {
+			try {
+				connection.setAutoCommit(true);
+			} catch (SQLException ignore) {
+			}
+		}
+		repository.update(tx -> {
+			for (QuestionDTO question : questions) {
+				tx.putQuestion(question);
+				tx.replaceAnswersFor(question.getId(), question.getAnswers());
+			}
+		});
+		return "Success";
+	}
+
+	/** Copies the generated keys of a batch insert to the DTOs, in order. */
+	private static void readGeneratedIds(PreparedStatement stmt, List<? extends DataTransportObject> dtos)
+			throws SQLException {
+		try (ResultSet keys = stmt.getGeneratedKeys()) {
+			for (DataTransportObject dto : dtos) {
+				if (!keys.next()) {
+					throw new SQLException("Missing generated key");
+				}
+				dto.setId(keys.getInt(1));
+			}
+		}
+	}
+
+	public synchronized String deleteQuestion(QuestionDTO question) {
 		String result = deleteDAO(new QuestionDAO(question));
 		if ("Success".equals(result)) {
-			refreshQuestions();
-			refreshAnswers();
+			repository.removeQuestion(question.getId());
 		}
 		return result;
 	}
 
-	public String saveAnswer(AnswerDTO answer) {
-		String result = saveDAO(new AnswerDAO(answer));
-		if (result == null)
-			refreshAnswers();
+	public synchronized String saveAnswer(AnswerDTO answer) {
+		AnswerDAO dao = new AnswerDAO(answer);
+		String result = saveDAO(dao);
+		if (result == null) {
+			answer.setId(dao.getId());
+			repository.putAnswer(answer);
+		}
 		return result;
 	}
 
-	public String deleteAnswer(AnswerDTO answer) {
+	public synchronized String deleteAnswer(AnswerDTO answer) {
 		String result = deleteDAO(new AnswerDAO(answer));
 		if ("Success".equals(result))
-			refreshAnswers();
+			repository.replaceAnswersFor(answer.getQuestionId(), null);
 		return result;
 	}
 	
-	public String savePlayerAnswer(PlayerAnswerDTO playerAnswer) {
-		String result = saveDAO(new PlayerAnswerDAO(playerAnswer));
-		if(result == null)
-			refreshPlayerAnswers();
+	public synchronized String savePlayerAnswer(PlayerAnswerDTO playerAnswer) {
+		if (playerAnswer.getCreatedAt() == null)
+			playerAnswer.setCreatedAt(LocalDateTime.now());
+		PlayerAnswerDAO dao = new PlayerAnswerDAO(playerAnswer);
+		String result = saveDAO(dao);
+		if (result == null) {
+			playerAnswer.setId(dao.getId());
+			repository.addPlayerAnswer(playerAnswer);
+		}
 	    return result;
 	}
 
-	public String deleteAllPlayerAnswers() {
+	/**
+	 * Inserts many player answers in one transaction with a JDBC batch.
+	 *
+	 * @param playerAnswers the answers to insert; their IDs are set on success
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public synchronized String savePlayerAnswers(List<PlayerAnswerDTO> playerAnswers) {
+		if (playerAnswers.isEmpty()) {
+			return null;
+		}
+		try {
+			connection.setAutoCommit(false);
+			PlayerAnswerDAO dao = new PlayerAnswerDAO(playerAnswers.get(0));
+			LocalDateTime now = LocalDateTime.now();
+			try (PreparedStatement stmt = connection.prepareStatement(dao.getInsertStatement(),
+					Statement.RETURN_GENERATED_KEYS)) {
+				for (PlayerAnswerDTO playerAnswer : playerAnswers) {
+					if (playerAnswer.getCreatedAt() == null)
+						playerAnswer.setCreatedAt(now);
+					new PlayerAnswerDAO(playerAnswer).prepareInsert(stmt);
+					stmt.addBatch();
+				}
+				stmt.executeBatch();
+				readGeneratedIds(stmt, playerAnswers);
+			}
+			connection.commit();
+		} catch (SQLException e) {
+			try {
+				connection.rollback();
+			} catch (SQLException ignore) {
+			}
+			playerAnswers.forEach(playerAnswer -> playerAnswer.setId(0));
+			return e.getMessage();
+		} finally {
+			try {
+				connection.setAutoCommit(true);
+			} catch (SQLException ignore) {
+			}
+		}
+		repository.update(tx -> playerAnswers.forEach(tx::addPlayerAnswer));
+		return null;
+	}
+
+	/**
+	 * Inserts replicated player answers in one transaction. Each answer is
+	 * inserted with its ID and request key; rows whose request key is already
+	 * stored are skipped, so a batch can safely be applied more than once. If
+	 * the ID is taken by a different row, the answer gets a new ID instead.
+	 * Answers whose question or answer no longer exists are dropped, just as
+	 * the foreign keys would have deleted them.
+	 * <p>
+	 * The inserted rows are added to the loaded tables with their final IDs, so
+	 * the next read does not have to load all tables again.
+	 * </p>
+	 *
+	 * @param playerAnswers the answers to insert; they are not modified
+	 * @param requestKeys   the idempotency key of each answer, same order
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public synchronized String replicatePlayerAnswers(List<PlayerAnswerDTO> playerAnswers, List<String> requestKeys) {
+		if (connection == null) {
+			return "No database connection";
+		}
+		try {
+			connection.setAutoCommit(false);
+			// rows of an earlier attempt of this batch are already loaded or will be
+			Map<String, Integer> before = readStoredIds(requestKeys);
+			List<Integer> insert = new ArrayList<>();
+			for (int i = 0; i < playerAnswers.size(); i++) {
+				if (!before.containsKey(requestKeys.get(i))) {
+					insert.add(i);
+				}
+			}
+			if (insert.isEmpty()) {
+				connection.commit();
+				return null;
+			}
+			try (PreparedStatement stmt = connection.prepareStatement(SQL_REPLICATE_WITH_ID)) {
+				for (int i : insert) {
+					stmt.setInt(1, playerAnswers.get(i).getId());
+					prepareReplicate(stmt, 2, playerAnswers.get(i), requestKeys.get(i));
+					stmt.addBatch();
+				}
+				stmt.executeBatch();
+			}
+			Map<String, Integer> stored = readStoredIds(requestKeys);
+			List<Integer> retry = new ArrayList<>();
+			for (int i : insert) {
+				if (!stored.containsKey(requestKeys.get(i))) {
+					retry.add(i);
+				}
+			}
+			if (!retry.isEmpty()) {
+				try (PreparedStatement stmt = connection.prepareStatement(SQL_REPLICATE_NEW_ID)) {
+					for (int i : retry) {
+						prepareReplicate(stmt, 1, playerAnswers.get(i), requestKeys.get(i));
+						stmt.addBatch();
+					}
+					stmt.executeBatch();
+				}
+				stored = readStoredIds(requestKeys);
+			}
+			connection.commit();
+			if (loaded) {
+				List<PlayerAnswerDTO> inserted = new ArrayList<>(insert.size());
+				for (int i : insert) {
+					Integer id = stored.get(requestKeys.get(i));
+					if (id != null) {
+						inserted.add(copyWithId(playerAnswers.get(i), id));
+					}
+				}
+				repository.update(tx -> inserted.forEach(tx::addPlayerAnswer));
+			}
+			return null;
+		} catch (SQLException e) {
+			try {
+				connection.rollback();
+			} catch (SQLException ignore) {
+			}
+			return e.getMessage();
+		} finally {
+			try {
+				connection.setAutoCommit(true);
+			} catch (SQLException ignore) {
+			}
+		}
+	}
+
+	private static void prepareReplicate(PreparedStatement stmt, int first, PlayerAnswerDTO pa, String requestKey)
+			throws SQLException {
+		stmt.setInt(first, pa.getQuestionId());
+		stmt.setInt(first + 1, pa.getAnswerId());
+		stmt.setTimestamp(first + 2, pa.getCreatedAt() != null ? Timestamp.valueOf(pa.getCreatedAt()) : null);
+		stmt.setString(first + 3, requestKey);
+		PlayerAnswerDAO.setDuration(stmt, first + 4, pa.getDurationMillis());
+		PlayerAnswerDAO.setPlayer(stmt, first + 5, pa.getPlayerId());
+	}
+
+	/** @return the ID of each stored row, by request key */
+	private Map<String, Integer> readStoredIds(List<String> requestKeys) throws SQLException {
+		String placeholders = String.join(", ", Collections.nCopies(requestKeys.size(), "?"));
+		Map<String, Integer> stored = new HashMap<>();
+		try (PreparedStatement stmt = connection.prepareStatement(
+				"SELECT REQUESTKEY, ID FROM PLAYERANSWER WHERE REQUESTKEY IN (" + placeholders + ")")) {
+			for (int i = 0; i < requestKeys.size(); i++) {
+				stmt.setString(i + 1, requestKeys.get(i));
+			}
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					stored.put(rs.getString(1), rs.getInt(2));
+				}
+			}
+		}
+		return stored;
+	}
+
+	/** @return a copy of a replicated answer with the ID it got in the database */
+	private static PlayerAnswerDTO copyWithId(PlayerAnswerDTO pa, int id) {
+		PlayerAnswerDTO copy = new PlayerAnswerDTO();
+		copy.setId(id);
+		copy.setQuestionId(pa.getQuestionId());
+		copy.setAnswerId(pa.getAnswerId());
+		copy.setCreatedAt(pa.getCreatedAt());
+		copy.setDurationMillis(pa.getDurationMillis());
+		copy.setPlayerId(pa.getPlayerId());
+		return copy;
+	}
+
+	public synchronized String deleteAllPlayerAnswers() {
 	    String sql = PlayerAnswerDAO.getDeleteAllStatement();
 
 	    try {
@@ -221,7 +770,7 @@ public class DBManager {
 	            stmt.executeUpdate();
 	        }
 	        connection.commit();
-	        refreshPlayerAnswers(); 
+	        repository.clearPlayerAnswers();
 	        return "Success";
 	    } catch (SQLException e) {
 	        try {
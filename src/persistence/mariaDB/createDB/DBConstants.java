@@ -79,15 +79,60 @@ public interface DBConstants {
 			      	ON DELETE CASCADE
 			    )
 			""";
+	/**
+	 * Player profiles. Player answers refer to them by PLAYERID without a
+	 * foreign key, so answers replicated before their profile are kept.
+	 */
+	public static final String CREATE_PLAYER_PROFILE_TABLE = """
+				CREATE TABLE IF NOT EXISTS PLAYER (
+			  		ID INT AUTO_INCREMENT PRIMARY KEY,
+			  		NAME VARCHAR(100) NOT NULL UNIQUE
+				)
+			""";
+
 	public static final String CREATE_PLAYER_TABLE = """
 				CREATE TABLE IF NOT EXISTS PLAYERANSWER (
 			  		ID INT AUTO_INCREMENT PRIMARY KEY,
 			 		QUESTIONID INT NOT NULL,
 			  		ANSWERID INT NOT NULL,
 			  		CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+			  		REQUESTKEY VARCHAR(36) NULL UNIQUE,
+			  		DURATION INT NULL,
+			  		PLAYERID INT NULL,
 
 			  		FOREIGN KEY (QUESTIONID) REFERENCES QUESTION(ID) ON DELETE CASCADE,
 			  		FOREIGN KEY (ANSWERID) REFERENCES ANSWER(ID) ON DELETE CASCADE
 				)
 			""";
+
+	/**
+	 * Adds the idempotency key of replicated player answers to databases created
+	 * before the column existed.
+	 */
+	public static final String ALTER_PLAYER_TABLE_ADD_REQUESTKEY = """
+				ALTER TABLE PLAYERANSWER ADD COLUMN IF NOT EXISTS REQUESTKEY VARCHAR(36) NULL UNIQUE
+			""";
+
+	/**
+	 * Adds the answer duration in milliseconds to databases created before the
+	 * column existed.
+	 */
+	public static final String ALTER_PLAYER_TABLE_ADD_DURATION = """
+				ALTER TABLE PLAYERANSWER ADD COLUMN IF NOT EXISTS DURATION INT NULL
+			""";
+
+	/**
+	 * Adds the player of an answer to databases created before the column
+	 * existed; {@code NULL} for anonymous answers.
+	 */
+	public static final String ALTER_PLAYER_TABLE_ADD_PLAYERID = """
+				ALTER TABLE PLAYERANSWER ADD COLUMN IF NOT EXISTS PLAYERID INT NULL
+			""";
+
+	/**
+	 * Index for reading the answers of one player, in time order.
+	 */
+	public static final String CREATE_PLAYER_TABLE_INDEX_PLAYERID = """
+				CREATE INDEX IF NOT EXISTS IDX_PLAYERANSWER_PLAYER ON PLAYERANSWER (PLAYERID, CREATED_AT)
+			""";
 }
@@ -24,7 +24,12 @@ public class DBCreator implements DBConstants {
 			stmt.execute(CREATE_THEME_TABLE);
 			stmt.execute(CREATE_QUESTION_TABLE);
 			stmt.execute(CREATE_ANSWER_TABLE);
+			stmt.execute(CREATE_PLAYER_PROFILE_TABLE);
 			stmt.execute(CREATE_PLAYER_TABLE);
+			stmt.execute(ALTER_PLAYER_TABLE_ADD_REQUESTKEY);
+			stmt.execute(ALTER_PLAYER_TABLE_ADD_DURATION);
+			stmt.execute(ALTER_PLAYER_TABLE_ADD_PLAYERID);
+			stmt.execute(CREATE_PLAYER_TABLE_INDEX_PLAYERID);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -3,6 +3,7 @@ package persistence.mariaDB.entity;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 
 import bussinesLogic.DataTransportObject;
@@ -10,8 +11,8 @@ import bussinesLogic.PlayerAnswerDTO;
 import persistence.mariaDB.MariaAccessObject;
 
 public class PlayerAnswerDAO extends MariaAccessObject {
-	private static final String SQL_INSERT = "INSERT INTO PLAYERANSWER (QUESTIONID, ANSWERID, CREATED_AT) VALUES (?, ?, ?)";
-	private static final String SQL_UPDATE = "UPDATE PLAYERANSWER SET QUESTIONID = ?, ANSWERID = ?, CREATED_AT = ? WHERE ID = ?";
+	private static final String SQL_INSERT = "INSERT INTO PLAYERANSWER (QUESTIONID, ANSWERID, CREATED_AT, DURATION, PLAYERID) VALUES (?, ?, ?, ?, ?)";
+	private static final String SQL_UPDATE = "UPDATE PLAYERANSWER SET QUESTIONID = ?, ANSWERID = ?, CREATED_AT = ?, DURATION = ?, PLAYERID = ? WHERE ID = ?";
 	private static final String SQL_DELETE = "DELETE FROM PLAYERANSWER WHERE ID = ?";
 	private static final String SQL_DELETE_ALL = "DELETE FROM PLAYERANSWER";
 
@@ -20,12 +21,16 @@ public class PlayerAnswerDAO extends MariaAccessObject {
 	private int questionId;
 	private int answerId;
 	private LocalDateTime createdAt;
+	private int durationMillis;
+	private int playerId;
 
 	public PlayerAnswerDAO(PlayerAnswerDTO dto) {
 		super(dto.getId());
 		this.questionId = dto.getQuestionId();
 		this.answerId = dto.getAnswerId();
 		this.createdAt = dto.getCreatedAt();
+		this.durationMillis = dto.getDurationMillis();
+		this.playerId = dto.getPlayerId();
 	}
 
 	public PlayerAnswerDAO(Object[] row) {
@@ -34,6 +39,10 @@ public class PlayerAnswerDAO extends MariaAccessObject {
 		this.answerId = (Integer) row[2];
 		Timestamp ts = (Timestamp) row[3];
 		this.createdAt = (ts != null ? ts.toLocalDateTime() : null);
+		// DURATION follows REQUESTKEY; tables without it have no recorded durations
+		this.durationMillis = (row.length > 5 && row[5] != null ? ((Number) row[5]).intValue() : 0);
+		// PLAYERID follows DURATION; NULL for anonymous answers
+		this.playerId = (row.length > 6 && row[6] != null ? ((Number) row[6]).intValue() : 0);
 	}
 
 	@Override
@@ -67,6 +76,8 @@ public class PlayerAnswerDAO extends MariaAccessObject {
 		dto.setQuestionId(questionId);
 		dto.setAnswerId(answerId);
 		dto.setCreatedAt(createdAt);
+		dto.setDurationMillis(durationMillis);
+		dto.setPlayerId(playerId);
 		return dto;
 	}
 
@@ -80,6 +91,8 @@ public class PlayerAnswerDAO extends MariaAccessObject {
 			} else {
 				stmt.setTimestamp(3, null);
 			}
+			setDuration(stmt, 4, durationMillis);
+			setPlayer(stmt, 5, playerId);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -95,7 +108,9 @@ public class PlayerAnswerDAO extends MariaAccessObject {
 			} else {
 				stmt.setTimestamp(3, null);
 			}
-			stmt.setInt(4, getId());
+			setDuration(stmt, 4, durationMillis);
+			setPlayer(stmt, 5, playerId);
+			stmt.setInt(6, getId());
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -110,6 +125,24 @@ public class PlayerAnswerDAO extends MariaAccessObject {
 		}
 	}
 
+	/** Sets the duration parameter, {@code NULL} if none was recorded. */
+	public static void setDuration(PreparedStatement stmt, int index, int durationMillis) throws SQLException {
+		if (durationMillis > 0) {
+			stmt.setInt(index, durationMillis);
+		} else {
+			stmt.setNull(index, Types.INTEGER);
+		}
+	}
+
+	/** Sets the player parameter, {@code NULL} for an anonymous answer. */
+	public static void setPlayer(PreparedStatement stmt, int index, int playerId) throws SQLException {
+		if (playerId > 0) {
+			stmt.setInt(index, playerId);
+		} else {
+			stmt.setNull(index, Types.INTEGER);
+		}
+	}
+
 	// Getters and setters
 	public LocalDateTime getCreatedAt() {
 		return createdAt;
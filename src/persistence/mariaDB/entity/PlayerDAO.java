@@ -0,0 +1,100 @@
+package persistence.mariaDB.entity;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import bussinesLogic.DataTransportObject;
+import bussinesLogic.PlayerDTO;
+import persistence.mariaDB.MariaAccessObject;
+
+/**
+ * This class represents the entity Player, the profile of a player
+ */
+public class PlayerDAO extends MariaAccessObject {
+
+	private final String SQL_INSERT = "INSERT INTO QUIZ.PLAYER (NAME) VALUES (?);";
+	private final String SQL_UPDATE = "UPDATE QUIZ.PLAYER SET NAME = ? WHERE (ID = ?);";
+	private final String SQL_SELECT = "SELECT * from QUIZ.PLAYER;";
+	private final String SQL_DELETE = "DELETE FROM QUIZ.PLAYER WHERE (ID = ?)";
+
+	private String name;
+
+	/**
+	 * Constructs a PlayerDAO-instance using the corresponding instance of the PlayerDTO class.
+	 * @param dto
+	 */
+	public PlayerDAO(PlayerDTO dto) {
+		super(dto.getId());
+		name = dto.getName();
+	}
+
+	/**
+	 * Set fields values using the result set of the SQL select command.
+	 * @param row
+	 */
+	public PlayerDAO(Object[] row) {
+		super((int) row[0]);
+		name = (String) row[1];
+	}
+
+	@Override
+	public String getSelectStatement() {
+		return SQL_SELECT;
+	}
+
+	@Override
+	public String getInsertStatement() {
+		return SQL_INSERT;
+	}
+
+	@Override
+	public String getUpdateStatement() {
+		return SQL_UPDATE;
+	}
+
+	@Override
+	public String getDeleteStatement() {
+		return SQL_DELETE;
+	}
+
+	@Override
+	public DataTransportObject toDTO() {
+		return new PlayerDTO(getId(), name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public void prepareDelete(PreparedStatement stmt) {
+		try {
+			stmt.setInt(1, getId());
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void prepareInsert(PreparedStatement stmt) {
+		try {
+			stmt.setString(1, name);
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void prepareUpdate(PreparedStatement stmt) {
+		try {
+			stmt.setString(1, name);
+			stmt.setInt(2, getId());
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+}
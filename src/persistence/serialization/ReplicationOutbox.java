@@ -0,0 +1,303 @@
+package persistence.serialization;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import bussinesLogic.PlayerAnswerDTO;
+
+/**
+ * Durable queue of player answers that still have to be written to the
+ * secondary backend.
+ * <p>
+ * The entries appended together are stored as one file in the outbox folder,
+ * named after the sequence number of the first one, so the queue survives
+ * restarts and keeps its order. A file is written under a temporary name,
+ * synced and then renamed in one step, so it is either complete or absent;
+ * the folder is synced before an append returns. A file is only removed
+ * after the secondary backend has committed all of its entries.
+ * </p>
+ * <p>
+ * A file that cannot be read on start, e.g. after an incompatible class
+ * change, still holds answers the players were told are saved. It is moved to
+ * the {@code quarantine} subfolder and reported, never deleted.
+ * </p>
+ * <p>
+ * Each entry carries a random request key. The secondary backend stores this
+ * key with a unique constraint, so replaying an entry (e.g. after a crash
+ * between the commit and the removal of the file) has no effect.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class ReplicationOutbox implements Folders {
+
+	/** One queued player answer. */
+	public static final class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long sequence;
+		private final String requestKey;
+		private final PlayerAnswerDTO playerAnswer;
+		private final long enqueuedAt;
+
+		/** Sequence number of the first entry in the same file, i.e. the name of the file. */
+		private transient long fileSequence;
+
+		private Entry(long sequence, String requestKey, PlayerAnswerDTO playerAnswer, long enqueuedAt) {
+			this.sequence = sequence;
+			this.requestKey = requestKey;
+			this.playerAnswer = playerAnswer;
+			this.enqueuedAt = enqueuedAt;
+		}
+
+		public long getSequence() {
+			return sequence;
+		}
+
+		/** @return the idempotency key of this entry */
+		public String getRequestKey() {
+			return requestKey;
+		}
+
+		public PlayerAnswerDTO getPlayerAnswer() {
+			return playerAnswer;
+		}
+
+		/** @return the time the entry was queued, in milliseconds since the epoch */
+		public long getEnqueuedAt() {
+			return enqueuedAt;
+		}
+	}
+
+	private final File folder = new File(DATA_FOLDER, "outbox");
+	private final File quarantine = new File(folder, "quarantine");
+
+	/**
+	 * Entries in sequence order; mirrors the files in {@link #folder}. Batches
+	 * are taken from and acknowledged at the head.
+	 */
+	private final Deque<Entry> pending = new ArrayDeque<>();
+
+	/** File sequence -> number of its entries that are not removed yet. */
+	private final Map<Long, Integer> openEntriesByFile = new HashMap<>();
+
+	private long nextSequence = 1;
+
+	/** Names of the files moved to {@link #quarantine} on start. */
+	private final List<String> quarantined = new ArrayList<>();
+
+	/** Creates the outbox and loads the entries left over from the last run. */
+	public ReplicationOutbox() {
+		folder.mkdirs();
+		File[] temporary = folder.listFiles((d, n) -> n.endsWith(".tmp"));
+		if (temporary != null) {
+			for (File f : temporary) {
+				// never renamed, so the append that wrote it reported an error
+				f.delete();
+			}
+		}
+		List<Entry> loaded = new ArrayList<>();
+		File[] files = folder.listFiles((d, n) -> n.endsWith(".ser"));
+		if (files != null) {
+			for (File f : files) {
+				// new files must not take the name of one that stays behind
+				nextSequence = Math.max(nextSequence, sequenceOf(f) + 1);
+				Entry[] entries;
+				try {
+					entries = readEntries(f);
+				} catch (IOException | ClassNotFoundException | ClassCastException e) {
+					quarantine(f, e);
+					continue;
+				}
+				long fileSequence = entries[0].getSequence();
+				for (Entry entry : entries) {
+					entry.fileSequence = fileSequence;
+					loaded.add(entry);
+					nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+				}
+				openEntriesByFile.put(fileSequence, entries.length);
+			}
+		}
+		loaded.sort((a, b) -> Long.compare(a.getSequence(), b.getSequence()));
+		pending.addAll(loaded);
+	}
+
+	/** @return the entries of one file, at least one */
+	private static Entry[] readEntries(File f) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(f))) {
+			Entry[] entries = (Entry[]) ois.readObject();
+			if (entries.length == 0) {
+				throw new IOException("empty outbox file");
+			}
+			return entries;
+		}
+	}
+
+	/** @return the sequence number in the name of an outbox file, 0 if it has none */
+	private static long sequenceOf(File f) {
+		try {
+			return Long.parseLong(f.getName().substring(0, f.getName().length() - ".ser".length()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/** Moves an unreadable file out of the queue and reports it. */
+	private void quarantine(File f, Exception cause) {
+		quarantine.mkdirs();
+		// a later file may get the same name, so the time keeps both
+		File target = new File(quarantine, f.getName() + "." + System.currentTimeMillis());
+		try {
+			Files.move(f.toPath(), target.toPath());
+			System.err.println("Unreadable outbox file moved to " + target + ": " + cause);
+		} catch (IOException e) {
+			System.err.println("Unreadable outbox file left in place: " + f + ": " + cause);
+		}
+		quarantined.add(f.getName());
+	}
+
+	private File fileFor(long sequence) {
+		return new File(folder, String.format("%019d.ser", sequence));
+	}
+
+	/**
+	 * Appends player answers to the outbox in one file, so either all or none
+	 * of them are queued. The answers are on disk when this method returns.
+	 *
+	 * @param playerAnswers the answers to replicate; they are not modified afterwards
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public synchronized String appendAll(List<PlayerAnswerDTO> playerAnswers) {
+		if (playerAnswers.isEmpty()) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		Entry[] entries = new Entry[playerAnswers.size()];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = new Entry(nextSequence + i, UUID.randomUUID().toString(), playerAnswers.get(i), now);
+			entries[i].fileSequence = nextSequence;
+		}
+		File file = fileFor(nextSequence);
+		File tmp = new File(file.getPath() + ".tmp");
+		try {
+			try (FileOutputStream fos = new FileOutputStream(tmp);
+					ObjectOutputStream oos = new ObjectOutputStream(fos)) {
+				oos.writeObject(entries);
+				oos.flush();
+				fos.getFD().sync();
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			tmp.delete();
+			return e.getMessage();
+		}
+		syncFolder();
+		nextSequence += entries.length;
+		pending.addAll(Arrays.asList(entries));
+		openEntriesByFile.put(entries[0].fileSequence, entries.length);
+		return null;
+	}
+
+	/**
+	 * Syncs the folder, so the name of a new file survives a power loss too. Not
+	 * every platform can open a folder for this; there the file system takes
+	 * care of it.
+	 */
+	private void syncFolder() {
+		try (FileChannel channel = FileChannel.open(folder.toPath(), StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// e.g. on Windows, where folders cannot be opened as files
+		}
+	}
+
+	/**
+	 * Returns the oldest entries without removing them.
+	 *
+	 * @param max the maximum number of entries
+	 * @return a new list with at most {@code max} entries, oldest first
+	 */
+	public synchronized List<Entry> peek(int max) {
+		List<Entry> result = new ArrayList<>(Math.min(max, pending.size()));
+		Iterator<Entry> it = pending.iterator();
+		while (result.size() < max && it.hasNext()) {
+			result.add(it.next());
+		}
+		return result;
+	}
+
+	/**
+	 * Removes entries that have been committed by the secondary backend. The
+	 * entries are those returned by {@link #peek(int)}, so they are taken from
+	 * the head in one step each.
+	 *
+	 * @param done the entries to remove, oldest first
+	 */
+	public synchronized void remove(List<Entry> done) {
+		for (Entry entry : done) {
+			if (pending.peekFirst() == entry) {
+				pending.pollFirst();
+			} else if (!pending.remove(entry)) {
+				// already removed, e.g. by clear()
+				continue;
+			}
+			int open = openEntriesByFile.merge(entry.fileSequence, -1, Integer::sum);
+			if (open == 0) {
+				openEntriesByFile.remove(entry.fileSequence);
+				fileFor(entry.fileSequence).delete();
+			}
+		}
+	}
+
+	/** Removes all entries. */
+	public synchronized void clear() {
+		for (long fileSequence : openEntriesByFile.keySet()) {
+			fileFor(fileSequence).delete();
+		}
+		openEntriesByFile.clear();
+		pending.clear();
+	}
+
+	/** @return the number of entries that are not replicated yet */
+	public synchronized int size() {
+		return pending.size();
+	}
+
+	/**
+	 * @return the age of the oldest entry in milliseconds, {@code 0} if the
+	 *         outbox is empty
+	 */
+	public synchronized long getLagMillis() {
+		if (pending.isEmpty()) {
+			return 0;
+		}
+		return Math.max(0, System.currentTimeMillis() - pending.peekFirst().getEnqueuedAt());
+	}
+
+	/**
+	 * @return the names of the files that could not be read on start and were
+	 *         moved to the quarantine folder; their answers are not replicated
+	 */
+	public synchronized List<String> getQuarantinedFiles() {
+		return new ArrayList<>(quarantined);
+	}
+}
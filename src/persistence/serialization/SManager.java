@@ -6,17 +6,33 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.ToIntFunction;
 
 import org.junit.platform.console.options.Theme;
 
 import bussinesLogic.AnswerDTO;
 import bussinesLogic.ErrorHandler;
 import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
 import bussinesLogic.QuestionDTO;
 import bussinesLogic.ThemeDTO;
+import bussinesLogic.repository.QuizRepository;
+import bussinesLogic.search.DuplicateGroup;
+import bussinesLogic.statistics.AbilityEstimate;
+import bussinesLogic.statistics.AnswerOptionCounts;
+import bussinesLogic.statistics.AnswerTotals;
+import bussinesLogic.statistics.DurationHistogram;
+import bussinesLogic.statistics.ItemCalibration;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.statistics.PlayerStatistics;
+import bussinesLogic.statistics.QuestionStatistics;
+import bussinesLogic.statistics.TrendSeries;
+import bussinesLogic.statistics.DateRange;
 import gui.GuiConstants;
 import helpers.QuizDataInterface;
 
@@ -29,6 +45,11 @@ import helpers.QuizDataInterface;
  * dedicated folder.
  * </p>
  * <p>
+ * Player answers are partitioned by player: the answers of a player profile
+ * are stored in a subfolder named after the player ID, anonymous answers stay
+ * in the player answers folder itself.
+ * </p>
+ * <p>
  * The folder path used for data storage is currently hardcoded and should
  * ideally be configurable.
  * </p>
@@ -54,21 +75,15 @@ public class SManager implements Folders, Constants {
 	private final File questionsFolder;
 	private final File answersFolder;
 	private final File playerAnswersFolder;
+	private final File playersFolder;
 	private int maxThemeId = 0;
 	private int maxQuestionId = 0;
 	private int maxAnswerId = 0;
 	private int maxPlayerAnswerId = 0;
+	private int maxPlayerId = 0;
 
-	/** Cached list of all themes loaded from data store. */
-	private List<ThemeDTO> allThemesCache = new ArrayList<>();
-
-	/** Cached list of all questions across all themes. */
-	private List<QuestionDTO> allQuestionsCache = new ArrayList<>();
-
-	/** List of answers related to a particular question. */
-	private List<AnswerDTO> allAnswersCache = new ArrayList<>();
-
-	private List<PlayerAnswerDTO> allPlayerAnswersCache = new ArrayList<>();
+	/** Indexed in-memory copy of all files in the data store. */
+	private final QuizRepository repository = new QuizRepository();
 
 	ErrorHandler errorHandler = ErrorHandler.getInstance();
 
@@ -79,12 +94,14 @@ public class SManager implements Folders, Constants {
 		this.questionsFolder = new File(QUESTIONS_FOLDER);
 		this.answersFolder = new File(ANSWERS_FOLDER);
 		this.playerAnswersFolder = new File(PLAYERANSWERS_FOLDER);
+		this.playersFolder = new File(DATA_FOLDER, "players");
 
 		baseFolder.mkdir();
 		themesFolder.mkdirs();
 		questionsFolder.mkdirs();
 		answersFolder.mkdirs();
 		playerAnswersFolder.mkdirs();
+		playersFolder.mkdirs();
 
 		refreshAll();
 	}
@@ -127,7 +144,7 @@ public class SManager implements Folders, Constants {
 
 			}
 		}
-		this.allThemesCache = list;
+		repository.loadThemes(list);
 	}
 
 	private void refreshQuestions() {
@@ -144,7 +161,7 @@ public class SManager implements Folders, Constants {
 				}
 			}
 		}
-		this.allQuestionsCache = list;
+		repository.loadQuestions(list);
 	}
 
 	private void refreshAnswers() {
@@ -162,12 +179,25 @@ public class SManager implements Folders, Constants {
 
 			}
 		}
-		this.allAnswersCache = list;
+		repository.loadAnswers(list);
 	}
 
 	private void refreshPlayerAnswers() {
 		List<PlayerAnswerDTO> list = new ArrayList<>();
-		File[] files = playerAnswersFolder.listFiles((d, n) -> n.endsWith(".ser"));
+		readPlayerAnswers(playerAnswersFolder, list);
+		File[] partitions = playerAnswersFolder.listFiles(File::isDirectory);
+		if (partitions != null) {
+			for (File partition : partitions) {
+				readPlayerAnswers(partition, list);
+			}
+		}
+		// the partitions are read one after the other; the IDs give the order of saving
+		list.sort(Comparator.comparingInt(PlayerAnswerDTO::getId));
+		repository.loadPlayerAnswers(list);
+	}
+
+	private void readPlayerAnswers(File folder, List<PlayerAnswerDTO> list) {
+		File[] files = folder.listFiles((d, n) -> n.endsWith(".ser"));
 		if (files != null) {
 			for (File f : files) {
 				PlayerAnswerDTO a = readObj(f, PlayerAnswerDTO.class);
@@ -180,7 +210,21 @@ public class SManager implements Folders, Constants {
 
 			}
 		}
-		this.allPlayerAnswersCache = list;
+	}
+
+	private void refreshPlayers() {
+		List<PlayerDTO> list = new ArrayList<>();
+		File[] files = playersFolder.listFiles((d, n) -> n.endsWith(".ser"));
+		if (files != null) {
+			for (File f : files) {
+				PlayerDTO p = readObj(f, PlayerDTO.class);
+				if (p != null) {
+					maxPlayerId = Math.max(maxPlayerId, p.getId());
+					list.add(p);
+				}
+			}
+		}
+		repository.loadPlayers(list);
 	}
 
 	private void refreshAll() {
@@ -188,22 +232,153 @@ public class SManager implements Folders, Constants {
 		refreshQuestions();
 		refreshAnswers();
 		refreshPlayerAnswers();
+		refreshPlayers();
 	}
 
 	public List<ThemeDTO> getAllThemes() {
-		return allThemesCache;
+		return repository.getAllThemes();
 	}
 
 	public List<QuestionDTO> getAllQuestions() {
-		return allQuestionsCache;
+		return repository.getAllQuestions();
 	}
 
 	public List<AnswerDTO> getAllAnswers() {
-		return allAnswersCache;
+		return repository.getAllAnswers();
 	}
 
 	public List<PlayerAnswerDTO> getAllPlayerAnswers() {
-		return allPlayerAnswersCache;
+		return repository.getAllPlayerAnswers();
+	}
+
+	public List<PlayerDTO> getAllPlayers() {
+		return repository.getAllPlayers();
+	}
+
+	public PlayerDTO getPlayerById(int id) {
+		return repository.getPlayer(id);
+	}
+
+	public ThemeDTO getThemeById(int id) {
+		return repository.getTheme(id);
+	}
+
+	public QuestionDTO getQuestionById(int id) {
+		return repository.getQuestion(id);
+	}
+
+	public List<QuestionDTO> getQuestionsFor(int themeId) {
+		return repository.getQuestionsFor(themeId);
+	}
+
+	/** @see QuizRepository#searchQuestions(String, int, int) */
+	public List<QuestionDTO> searchQuestions(String query, int themeId, int limit) {
+		return repository.searchQuestions(query, themeId, limit);
+	}
+
+	/** @see QuizRepository#findSimilarThemes(String, double, int) */
+	public List<ThemeDTO> findSimilarThemes(String title, double minSimilarity, int limit) {
+		return repository.findSimilarThemes(title, minSimilarity, limit);
+	}
+
+	/** @see QuizRepository#findSimilarQuestions(String, int, double, int) */
+	public List<QuestionDTO> findSimilarQuestions(String title, int themeId, double minSimilarity, int limit) {
+		return repository.findSimilarQuestions(title, themeId, minSimilarity, limit);
+	}
+
+	/** @see QuizRepository#findDuplicatesOf(QuestionDTO) */
+	public List<QuestionDTO> findDuplicatesOf(QuestionDTO question) {
+		return repository.findDuplicatesOf(question);
+	}
+
+	/** @see QuizRepository#findDuplicateGroups() */
+	public List<DuplicateGroup> findDuplicateGroups() {
+		return repository.findDuplicateGroups();
+	}
+
+	/** @see QuizRepository#getQuestionTotals(int, DateRange) */
+	public AnswerTotals getQuestionTotals(int questionId, DateRange range) {
+		return repository.getQuestionTotals(questionId, range);
+	}
+
+	/** @see QuizRepository#getThemeTotals(int, DateRange) */
+	public AnswerTotals getThemeTotals(int themeId, DateRange range) {
+		return repository.getThemeTotals(themeId, range);
+	}
+
+	/** @see QuizRepository#getQuestionDurations(int) */
+	public DurationHistogram getQuestionDurations(int questionId) {
+		return repository.getQuestionDurations(questionId);
+	}
+
+	/** @see QuizRepository#getThemeDurations(int) */
+	public DurationHistogram getThemeDurations(int themeId) {
+		return repository.getThemeDurations(themeId);
+	}
+
+	/** @see QuizRepository#getAnswerTotals(DateRange) */
+	public AnswerTotals getAnswerTotals(DateRange range) {
+		return repository.getAnswerTotals(range);
+	}
+
+	/** @see QuizRepository#getAnswerOptionCounts(DateRange) */
+	public List<AnswerOptionCounts> getAnswerOptionCounts(DateRange range) {
+		return repository.getAnswerOptionCounts(range);
+	}
+
+	/** @see QuizRepository#getQuestionStatistics(DateRange) */
+	public List<QuestionStatistics> getQuestionStatistics(DateRange range) {
+		return repository.getQuestionStatistics(range);
+	}
+
+	/** @see QuizRepository#getAnswerSeries(int, DateRange, TrendSeries.Resolution) */
+	public TrendSeries getAnswerSeries(int themeId, DateRange range, TrendSeries.Resolution resolution) {
+		return repository.getAnswerSeries(themeId, range, resolution);
+	}
+
+	/** @see QuizRepository#getVersion() */
+	public long getDataVersion() {
+		return repository.getVersion();
+	}
+
+	/** @see QuizRepository#recordResponse(String, int, boolean) */
+	public AbilityEstimate recordResponse(String respondent, int questionId, boolean correct) {
+		return repository.recordResponse(respondent, questionId, correct);
+	}
+
+	/** @see QuizRepository#getAbility(String) */
+	public AbilityEstimate getAbility(String respondent) {
+		return repository.getAbility(respondent);
+	}
+
+	/** @see QuizRepository#getItemCalibration(int) */
+	public ItemCalibration getItemCalibration(int questionId) {
+		return repository.getItemCalibration(questionId);
+	}
+
+	/** @see QuizRepository#getItemCalibrations() */
+	public List<ItemCalibration> getItemCalibrations() {
+		return repository.getItemCalibrations();
+	}
+
+	/** @see QuizRepository#getLeaderboard(int, Leaderboard.Ranking, int, int) */
+	public List<LeaderboardEntry> getLeaderboard(int themeId, Leaderboard.Ranking ranking, int offset, int limit) {
+		return repository.getLeaderboard(themeId, ranking, offset, limit);
+	}
+
+	/** @see QuizRepository#getLeaderboardEntry(int, int, Leaderboard.Ranking) */
+	public LeaderboardEntry getLeaderboardEntry(int playerId, int themeId, Leaderboard.Ranking ranking) {
+		return repository.getLeaderboardEntry(playerId, themeId, ranking);
+	}
+
+	/** @see QuizRepository#getPlayerStatistics(int) */
+	public PlayerStatistics getPlayerStatistics(int playerId) {
+		return repository.getPlayerStatistics(playerId);
+	}
+
+	/** @see QuizRepository#getStamp() */
+	public long[] getStamp() {
+		return repository.getStamp();
 	}
 
 	/**
@@ -211,23 +386,47 @@ public class SManager implements Folders, Constants {
 	 * 
 	 * @param question the {@link Question} whose answers are requested; must not be
 	 *                 null
-	 * @return list of answers, or null if question or answers not found
-	 * @throws IllegalArgumentException if question is null
+	 * @return list of answers, empty if the question has none
 	 */
 	public List<AnswerDTO> getAnswersForQuestion(QuestionDTO question) {
-		List<AnswerDTO> answersForQuestion = new ArrayList<>();
-		for (AnswerDTO answer : allAnswersCache) {
-			if (answer != null && answer.getQuestionId() == question.getId()) {
-				answersForQuestion.add(answer);
-			}
-		}
-		return answersForQuestion;
+		return repository.getAnswersFor(question.getId());
 	}
 
 	private File fileFor(File folder, int id) {
 		return new File(folder, id + ".ser");
 	}
 
+	/** @return the file of a player answer in the partition of its player, which is created if needed */
+	private File playerAnswerFile(PlayerAnswerDTO pa) {
+		File folder = playerAnswersFolder;
+		if (pa.getPlayerId() > 0) {
+			folder = new File(playerAnswersFolder, String.valueOf(pa.getPlayerId()));
+			folder.mkdirs();
+		}
+		return fileFor(folder, pa.getId());
+	}
+
+	/**
+	 * Saves or updates a player profile. If the ID is less than one, assigns a
+	 * new ID.
+	 *
+	 * @param player the {@link PlayerDTO} to save; must not be null
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public synchronized String savePlayer(PlayerDTO player) {
+		try {
+			if (player.getId() < 1) {
+				player.setId(++maxPlayerId);
+			}
+			writeObj(fileFor(playersFolder, player.getId()), player);
+			maxPlayerId = Math.max(maxPlayerId, player.getId());
+			repository.putPlayer(player);
+			return null;
+		} catch (IOException e) {
+			return e.getMessage();
+		}
+	}
+
 	/**
 	 * Saves or updates the given theme by serializing it to a file. If the theme ID
 	 * is less than zero, assigns a new ID.
@@ -236,115 +435,277 @@ public class SManager implements Folders, Constants {
 	 * @return success message if saved, error message otherwise
 	 * @throws IllegalArgumentException if theme is null
 	 */
-	public String saveTheme(ThemeDTO theme) {
+	public synchronized String saveTheme(ThemeDTO theme) {
 		try {
 			if (theme.getId() < 0) {
-				theme.setId(maxThemeId + 1);
+				theme.setId(++maxThemeId);
 			}
 			writeObj(fileFor(themesFolder, theme.getId()), theme);
-			refreshThemes();
+			maxThemeId = Math.max(maxThemeId, theme.getId());
+			repository.putTheme(theme);
 			return null; // analog: null = Erfolg
 		} catch (IOException e) {
 			return e.getMessage();
 		}
 	}
 
-	public String deleteTheme(ThemeDTO theme) {
+	public synchronized String deleteTheme(ThemeDTO theme) {
 		File f = fileFor(themesFolder, theme.getId());
 		if (!f.exists())
 			return "Not found";
 		if (f.delete()) {
 			// Kaskade: zugehörige Fragen/Antworten entfernen
-			List<QuestionDTO> toDeleteQuestions = allQuestionsCache.stream()
-					.filter(q -> q.getThemeId() == theme.getId()).collect(Collectors.toList());
-			for (QuestionDTO question : toDeleteQuestions) {
+			for (QuestionDTO question : repository.getQuestionsFor(theme.getId())) {
 				deleteQuestion(question);
 			}
-			refreshThemes();
+			repository.removeTheme(theme.getId());
 			return "Success";
 		}
 		return "Delete failed";
 	}
 
-	public String saveQuestion(QuestionDTO question) {
+	public synchronized String saveQuestion(QuestionDTO question) {
         try {
             if (question.getId() < 1) {
-                question.setId(maxQuestionId+1);
+                question.setId(++maxQuestionId);
             }
             // persistiere Question
             writeObj(fileFor(questionsFolder, question.getId()), question);
+            maxQuestionId = Math.max(maxQuestionId, question.getId());
 
             // Answers neu setzen: erst alte zu question löschen
             if (question.getAnswers() != null) {
-                List<AnswerDTO> old = allAnswersCache.stream()
-                        .filter(a -> a.getQuestionId() == question.getId())
-                        .collect(Collectors.toList());
-                for (AnswerDTO a : old) deleteAnswer(a);
+                for (AnswerDTO a : repository.getAnswersFor(question.getId())) {
+                    fileFor(answersFolder, a.getId()).delete();
+                }
 
                 for (AnswerDTO a : question.getAnswers()) {
-                    if (a.getId() < 1) a.setId(nextId(maxAnswerId));
+                    if (a.getId() < 1) a.setId(++maxAnswerId);
                     a.setQuestionId(question.getId());
                     writeObj(fileFor(answersFolder, a.getId()), a);
+                    maxAnswerId = Math.max(maxAnswerId, a.getId());
                 }
             }
-
-            refreshQuestions();
-            refreshAnswers();
-            return "QUESTION_SAVED";
+            repository.update(tx -> {
+                tx.putQuestion(question);
+                if (question.getAnswers() != null)
+                    tx.replaceAnswersFor(question.getId(), question.getAnswers());
+            });
+            return "Success";
         } catch (IOException e) {
             return e.getMessage();
         }
     }
-	public String deleteQuestion(QuestionDTO question) {
+	/**
+	 * Saves many questions with their answers and publishes them in a single
+	 * repository update.
+	 * 
+	 * @param questions the questions to save; questions and answers without ID
+	 *                  get a new one, existing IDs are kept
+	 * @return "Success", or the error message of the first failed write
+	 */
+	public synchronized String saveQuestions(List<QuestionDTO> questions) {
+		List<QuestionDTO> saved = new ArrayList<>(questions.size());
+		String result = "Success";
+		try {
+			for (QuestionDTO question : questions) {
+				if (question.getId() < 1) {
+					question.setId(++maxQuestionId);
+				}
+				maxQuestionId = Math.max(maxQuestionId, question.getId());
+				if (question.getAnswers() != null) {
+					for (AnswerDTO a : repository.getAnswersFor(question.getId())) {
+						fileFor(answersFolder, a.getId()).delete();
+					}
+					for (AnswerDTO a : question.getAnswers()) {
+						if (a.getId() < 1) a.setId(++maxAnswerId);
+						a.setQuestionId(question.getId());
+						writeObj(fileFor(answersFolder, a.getId()), a);
+						maxAnswerId = Math.max(maxAnswerId, a.getId());
+					}
+				}
+				writeObj(fileFor(questionsFolder, question.getId()), question);
+				saved.add(question);
+			}
+		} catch (IOException e) {
+			result = e.getMessage();
+		}
+		// publish what is on disk, even after a failure
+		repository.update(tx -> {
+			for (QuestionDTO question : saved) {
+				tx.putQuestion(question);
+				if (question.getAnswers() != null)
+					tx.replaceAnswersFor(question.getId(), question.getAnswers());
+			}
+		});
+		return result;
+	}
+
+	public synchronized String deleteQuestion(QuestionDTO question) {
         File f = fileFor(questionsFolder, question.getId());
         if (!f.exists()) return "Not found";
         if (f.delete()) {
             // zugehörige Antworten löschen
-            List<AnswerDTO> toDelete = allAnswersCache.stream()
-                    .filter(a -> a.getQuestionId() == question.getId())
-                    .collect(Collectors.toList());
-            for (AnswerDTO a : toDelete) {
-                deleteAnswer(a);
+            for (AnswerDTO a : repository.getAnswersFor(question.getId())) {
+                fileFor(answersFolder, a.getId()).delete();
             }
-            refreshQuestions();
-            refreshAnswers();
+            repository.removeQuestion(question.getId());
             return "Success";
         }
         return "Delete failed";
     }
 
-    public String saveAnswer(AnswerDTO answer) {
+    public synchronized String saveAnswer(AnswerDTO answer) {
         try {
-            if (answer.getId() < 1) answer.setId(nextId(maxAnswerId));
+            if (answer.getId() < 1) answer.setId(++maxAnswerId);
             writeObj(fileFor(answersFolder, answer.getId()), answer);
-            refreshAnswers();
+            maxAnswerId = Math.max(maxAnswerId, answer.getId());
+            repository.putAnswer(answer);
             return null;
         } catch (IOException e) {
             return e.getMessage();
         }
     }
 
-    public String deleteAnswer(AnswerDTO answer) {
+    public synchronized String deleteAnswer(AnswerDTO answer) {
         File f = fileFor(answersFolder, answer.getId());
         if (!f.exists()) return "Not found";
         if (f.delete()) {
-            refreshAnswers();
+            repository.removeAnswer(answer.getId());
             return "Success";
         }
         return "Delete failed";
     }
 
-    public String savePlayerAnswer(PlayerAnswerDTO pa) {
+    public synchronized String savePlayerAnswer(PlayerAnswerDTO pa) {
         try {
-            if (pa.getId() < 1) pa.setId(nextId(maxPlayerAnswerId));
-            writeObj(fileFor(playerAnswersFolder, pa.getId()), pa);
-            refreshPlayerAnswers();
+            if (pa.getId() < 1) pa.setId(++maxPlayerAnswerId);
+            if (pa.getCreatedAt() == null) pa.setCreatedAt(LocalDateTime.now());
+            writeObj(playerAnswerFile(pa), pa);
+            maxPlayerAnswerId = Math.max(maxPlayerAnswerId, pa.getId());
+            repository.addPlayerAnswer(pa);
             return null;
         } catch (IOException e) {
             return e.getMessage();
         }
     }
 
+    /**
+     * Sets the ID and the creation time of the player answers that have none,
+     * without saving them, so they can be queued elsewhere first.
+     *
+     * @param answers the answers to prepare
+     */
+    public synchronized void assignPlayerAnswerIds(List<PlayerAnswerDTO> answers) {
+        LocalDateTime now = LocalDateTime.now();
+        for (PlayerAnswerDTO pa : answers) {
+            if (pa.getId() < 1) pa.setId(++maxPlayerAnswerId);
+            if (pa.getCreatedAt() == null) pa.setCreatedAt(now);
+        }
+    }
+
+    /**
+     * Saves many player answers and publishes them as one repository change.
+     * If a file cannot be written, the answers written before stay saved.
+     *
+     * @param answers the answers to save; their IDs are set
+     * @return {@code null} on success, error message otherwise
+     */
+    public synchronized String savePlayerAnswers(List<PlayerAnswerDTO> answers) {
+        List<PlayerAnswerDTO> written = new ArrayList<>(answers.size());
+        String result = null;
+        LocalDateTime now = LocalDateTime.now();
+        for (PlayerAnswerDTO pa : answers) {
+            try {
+                if (pa.getId() < 1) pa.setId(maxPlayerAnswerId + 1);
+                if (pa.getCreatedAt() == null) pa.setCreatedAt(now);
+                writeObj(playerAnswerFile(pa), pa);
+                maxPlayerAnswerId = Math.max(maxPlayerAnswerId, pa.getId());
+                written.add(pa);
+            } catch (IOException e) {
+                result = e.getMessage();
+                break;
+            }
+        }
+        repository.update(tx -> written.forEach(tx::addPlayerAnswer));
+        return result;
+    }
+
+
+    public synchronized String deleteAllPlayerAnswers() {
+        clearPlayerAnswers();
+        repository.clearPlayerAnswers();
+        return "Success";
+    }
+
+	/**
+	 * Replaces the whole data store with the given data, keeping all IDs. Used to
+	 * bring this store in line with another backend.
+	 * 
+	 * @return {@code null} on success, error message otherwise
+	 */
+	public synchronized String replaceAll(List<ThemeDTO> themes, List<QuestionDTO> questions, List<AnswerDTO> answers,
+			List<PlayerAnswerDTO> playerAnswers, List<PlayerDTO> players) {
+		try {
+			clearFolder(themesFolder);
+			clearFolder(questionsFolder);
+			clearFolder(answersFolder);
+			clearPlayerAnswers();
+			clearFolder(playersFolder);
+			maxThemeId = writeAll(themesFolder, themes, ThemeDTO::getId);
+			maxQuestionId = writeAll(questionsFolder, questions, QuestionDTO::getId);
+			maxAnswerId = writeAll(answersFolder, answers, AnswerDTO::getId);
+			maxPlayerAnswerId = 0;
+			for (PlayerAnswerDTO pa : playerAnswers) {
+				writeObj(playerAnswerFile(pa), pa);
+				maxPlayerAnswerId = Math.max(maxPlayerAnswerId, pa.getId());
+			}
+			maxPlayerId = writeAll(playersFolder, players, PlayerDTO::getId);
+		} catch (IOException e) {
+			// whatever was written is still consistent with the files on disk
+			refreshAll();
+			return e.getMessage();
+		}
+		repository.update(tx -> {
+			tx.loadThemes(themes);
+			tx.loadQuestions(questions);
+			tx.loadAnswers(answers);
+			tx.loadPlayerAnswers(playerAnswers);
+			tx.loadPlayers(players);
+		});
+		return null;
+	}
+
+	/** Deletes the anonymous player answers and all player partitions. */
+	private void clearPlayerAnswers() {
+		clearFolder(playerAnswersFolder);
+		File[] partitions = playerAnswersFolder.listFiles(File::isDirectory);
+		if (partitions != null) {
+			for (File partition : partitions) {
+				clearFolder(partition);
+				partition.delete();
+			}
+		}
+	}
+
+	private void clearFolder(File folder) {
+		File[] files = folder.listFiles((d, n) -> n.endsWith(".ser"));
+		if (files != null) {
+			for (File f : files) {
+				f.delete();
+			}
+		}
+	}
+
+	/** Writes one file per object and returns the highest ID written. */
+	private <T> int writeAll(File folder, List<T> objects, ToIntFunction<T> id) throws IOException {
+		int max = 0;
+		for (T o : objects) {
+			writeObj(fileFor(folder, id.applyAsInt(o)), o);
+			max = Math.max(max, id.applyAsInt(o));
+		}
+		return max;
+	}
 
 	/**
 	 * Reads and returns a theme by its unique ID.
@@ -375,8 +736,4 @@ public class SManager implements Folders, Constants {
 //		}
 //		return null;
 //	}
-
-	private int nextId(int id) {
-		return id + 1;
-	}
 }
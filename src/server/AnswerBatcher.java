@@ -0,0 +1,129 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import bussinesLogic.PlayerAnswerDTO;
+import helpers.QuizDataInterface;
+
+/**
+ * Collects the player answers submitted by many sessions and saves them
+ * together with {@link QuizDataInterface#savePlayerAnswers(List)}.
+ * <p>
+ * A single writer thread takes everything that is queued, saves it as one
+ * batch and then reports the result to every submitter. While a batch is being
+ * written, the next one fills up, so the batches grow with the load and no
+ * fixed delay is added when the server is idle. A submitter waits until its
+ * answers are saved, so a player never gets a confirmation for an answer that
+ * was lost.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+final class AnswerBatcher implements ServerConstants {
+
+	/** Answers of one submission and the result handed back to it. */
+	private static final class Submission {
+		private final List<PlayerAnswerDTO> answers;
+		private final CompletableFuture<String> result = new CompletableFuture<>();
+
+		private Submission(List<PlayerAnswerDTO> answers) {
+			this.answers = answers;
+		}
+	}
+
+	private final QuizDataInterface dataManager;
+	private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+	private final Thread writer;
+	/** Guards {@link #closed}, so no submission is queued after the last drain. */
+	private final Object lock = new Object();
+	private boolean closed;
+	/** Submissions taken by the writer and not yet answered; writer thread only. */
+	private final List<Submission> batch = new ArrayList<>();
+
+	AnswerBatcher(QuizDataInterface dataManager) {
+		this.dataManager = dataManager;
+		writer = new Thread(this::writeBatches, "answer-batcher");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Queues answers and waits until they are saved.
+	 *
+	 * @param answers the answers of one player
+	 * @return {@code null} on success, error message otherwise
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *                              waiting
+	 */
+	String save(List<PlayerAnswerDTO> answers) throws InterruptedException {
+		Submission submission = new Submission(answers);
+		synchronized (lock) {
+			if (closed) {
+				return SERVER_STOPPED;
+			}
+			queue.add(submission);
+		}
+		try {
+			return submission.result.get();
+		} catch (ExecutionException e) {
+			return e.getCause().getMessage();
+		}
+	}
+
+	private void writeBatches() {
+		try {
+			writeUntilInterrupted();
+		} finally {
+			synchronized (lock) {
+				closed = true;
+			}
+			for (Submission submission : batch) {
+				submission.result.complete(SERVER_STOPPED);
+			}
+			Submission left;
+			while ((left = queue.poll()) != null) {
+				left.result.complete(SERVER_STOPPED);
+			}
+		}
+	}
+
+	private void writeUntilInterrupted() {
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				break;
+			}
+			int count = batch.get(0).answers.size();
+			Submission next;
+			while (count < MAX_ANSWER_BATCH && (next = queue.poll()) != null) {
+				batch.add(next);
+				count += next.answers.size();
+			}
+			List<PlayerAnswerDTO> answers = new ArrayList<>(count);
+			for (Submission submission : batch) {
+				answers.addAll(submission.answers);
+			}
+			String result;
+			try {
+				result = dataManager.savePlayerAnswers(answers);
+			} catch (RuntimeException e) {
+				result = e.getMessage() != null ? e.getMessage() : e.toString();
+			}
+			for (Submission submission : batch) {
+				submission.result.complete(result);
+			}
+			batch.clear();
+		}
+	}
+
+	/** Stops the writer; answers still queued are rejected. */
+	void close() {
+		writer.interrupt();
+	}
+}
@@ -0,0 +1,120 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * Binary framing of the live quiz show (see {@link LiveQuizBroadcaster}).
+ * <p>
+ * Every frame is {@code int length | byte type | payload}, big-endian, where
+ * {@code length} counts the type byte and the payload. Strings are written as
+ * {@code unsigned short byteCount | UTF-8 bytes}.
+ * </p>
+ * <ul>
+ * <li>{@link #QUESTION}, host to participants: {@code int round, int questionId,
+ * int durationMillis, string title, string text, byte answerCount} and per
+ * answer {@code int answerId, string text}.</li>
+ * <li>{@link #RESULT}, host to participants: {@code int round, byte
+ * correctCount, int[] correctAnswerIds, int answered}.</li>
+ * <li>{@link #ANSWER}, participant to host: {@code int round, byte count, int[]
+ * answerIds}. Only the first answer of a participant per round counts.</li>
+ * </ul>
+ *
+ * @author DejanKrstovski
+ */
+public final class LiveProtocol {
+
+	public static final byte QUESTION = 1;
+	public static final byte RESULT = 2;
+	public static final byte ANSWER = 16;
+
+	/** Largest frame a participant may send; an answer needs far less. */
+	static final int MAX_INBOUND_FRAME = 1024;
+
+	/** Length prefix and type byte. */
+	static final int HEADER = 5;
+
+	private static final int MAX_STRING_BYTES = 0xFFFF;
+
+	private LiveProtocol() {
+	}
+
+	/**
+	 * Encodes a question once into a direct buffer that is shared by all
+	 * connections.
+	 *
+	 * @return a read-only buffer holding the whole frame, positioned at 0
+	 */
+	static ByteBuffer encodeQuestion(int round, QuestionDTO question, List<AnswerDTO> answers, int durationMillis) {
+		byte[] title = utf8(question.getTitle());
+		byte[] text = utf8(question.getText());
+		int count = Math.min(answers.size(), Byte.MAX_VALUE);
+		byte[][] answerTexts = new byte[count][];
+		int size = HEADER + 12 + 2 + title.length + 2 + text.length + 1;
+		for (int i = 0; i < count; i++) {
+			answerTexts[i] = utf8(answers.get(i).getText());
+			size += 4 + 2 + answerTexts[i].length;
+		}
+		ByteBuffer frame = ByteBuffer.allocateDirect(size);
+		frame.putInt(size - 4).put(QUESTION).putInt(round).putInt(question.getId()).putInt(durationMillis);
+		putString(frame, title);
+		putString(frame, text);
+		frame.put((byte) count);
+		for (int i = 0; i < count; i++) {
+			frame.putInt(answers.get(i).getId());
+			putString(frame, answerTexts[i]);
+		}
+		frame.flip();
+		return frame.asReadOnlyBuffer();
+	}
+
+	/** @return a read-only frame with the solution of a round, positioned at 0 */
+	static ByteBuffer encodeResult(int round, int[] correctAnswerIds, int answered) {
+		int size = HEADER + 4 + 1 + 4 * correctAnswerIds.length + 4;
+		ByteBuffer frame = ByteBuffer.allocateDirect(size);
+		frame.putInt(size - 4).put(RESULT).putInt(round).put((byte) correctAnswerIds.length);
+		for (int id : correctAnswerIds) {
+			frame.putInt(id);
+		}
+		frame.putInt(answered).flip();
+		return frame.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Encodes the answer of a participant; for clients and tests.
+	 *
+	 * @return the frame, positioned at 0
+	 */
+	public static ByteBuffer encodeAnswer(int round, int... answerIds) {
+		ByteBuffer frame = ByteBuffer.allocate(HEADER + 4 + 1 + 4 * answerIds.length);
+		frame.putInt(frame.capacity() - 4).put(ANSWER).putInt(round).put((byte) answerIds.length);
+		for (int id : answerIds) {
+			frame.putInt(id);
+		}
+		frame.flip();
+		return frame;
+	}
+
+	private static byte[] utf8(String value) {
+		byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		if (bytes.length <= MAX_STRING_BYTES) {
+			return bytes;
+		}
+		// cut at a character boundary
+		int end = MAX_STRING_BYTES;
+		while ((bytes[end] & 0xC0) == 0x80) {
+			end--;
+		}
+		byte[] cut = new byte[end];
+		System.arraycopy(bytes, 0, cut, 0, end);
+		return cut;
+	}
+
+	private static void putString(ByteBuffer frame, byte[] bytes) {
+		frame.putShort((short) bytes.length).put(bytes);
+	}
+}
@@ -0,0 +1,467 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.QuestionDTO;
+import helpers.QuizDataInterface;
+
+/**
+ * Live "quiz show": one host pushes the same question to many participants at
+ * once and collects their answers until a deadline.
+ * <p>
+ * All connections are served by a single thread with a NIO {@link Selector};
+ * participants connect over TCP and talk {@link LiveProtocol}. A question is
+ * encoded once into a direct buffer; every connection gets a
+ * {@link ByteBuffer#duplicate() duplicate} of it, which shares the bytes and
+ * only has its own position, so fanning out copies nothing. A connection that
+ * cannot keep up keeps its unsent views queued and is dropped when too many
+ * pile up.
+ * </p>
+ * <p>
+ * Answers are counted as they arrive, so the host sees the distribution live
+ * through {@link #getLiveResult()}. When the deadline passes or the next
+ * question is sent, the solution is sent to everyone and all answers of the
+ * round are saved with one {@link QuizDataInterface#savePlayerAnswers(List)}
+ * call on a background thread; the listener then receives the final
+ * {@link LiveRoundResult}.
+ * </p>
+ * <p>
+ * <b>Thread-safety:</b> The public methods may be called from any thread; they
+ * hand their work to the selector thread.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class LiveQuizBroadcaster {
+
+	/** Unsent frames a connection may have before it is dropped. */
+	private static final int MAX_QUEUED_FRAMES = 8;
+
+	/** One participant. Only used by the selector thread. */
+	private static final class Connection {
+		private final SocketChannel channel;
+		private final ByteBuffer in = ByteBuffer.allocate(LiveProtocol.MAX_INBOUND_FRAME + 4);
+		private final Queue<ByteBuffer> out = new ArrayDeque<>(2);
+		private int answeredRound;
+
+		private Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+	}
+
+	/** The question being answered. Written by the selector thread, counts read by any thread. */
+	private static final class Round {
+		private final int id;
+		private final QuestionDTO question;
+		private final int[] answerIds;
+		private final int[] correctIds;
+		private final long started;
+		private final long deadline;
+		private final ByteBuffer frame;
+		private final AtomicIntegerArray counts;
+		private volatile int answered;
+		private volatile int correct;
+		private final List<PlayerAnswerDTO> playerAnswers = new ArrayList<>();
+
+		private Round(int id, QuestionDTO question, List<AnswerDTO> answers, long started, long deadline,
+				ByteBuffer frame) {
+			this.id = id;
+			this.question = question;
+			this.answerIds = answers.stream().mapToInt(AnswerDTO::getId).limit(Byte.MAX_VALUE).toArray();
+			this.correctIds = answers.stream().filter(AnswerDTO::isCorrect).mapToInt(AnswerDTO::getId).toArray();
+			Arrays.sort(correctIds);
+			this.started = started;
+			this.deadline = deadline;
+			this.frame = frame;
+			this.counts = new AtomicIntegerArray(answerIds.length);
+		}
+
+		private LiveRoundResult snapshot(long now, boolean closed) {
+			int[] values = new int[counts.length()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = counts.get(i);
+			}
+			return new LiveRoundResult(id, question.getId(), answerIds.clone(), values, answered, correct,
+					Math.max(0, deadline - now), closed, null);
+		}
+	}
+
+	private final QuizDataInterface dataManager;
+	private final Consumer<LiveRoundResult> onRoundSaved;
+	private final Consumer<String> onStopped;
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final Thread selectorThread;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	private final ExecutorService saver = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "live-quiz-saver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile boolean open = true;
+	private volatile int participants;
+	private volatile Round round;
+	private int nextRoundId = 1;
+
+	/**
+	 * Opens the port and starts the selector thread.
+	 *
+	 * @param dataManager  receives the answers of every closed round
+	 * @param port         the TCP port; 0 picks a free one
+	 * @param onRoundSaved called with the final result after the answers of a
+	 *                     round were saved, on a background thread
+	 * @param onStopped    called with the error message if the selector thread
+	 *                     stops on its own, on that thread
+	 * @throws IOException if the port cannot be opened
+	 */
+	public LiveQuizBroadcaster(QuizDataInterface dataManager, int port, Consumer<LiveRoundResult> onRoundSaved,
+			Consumer<String> onStopped) throws IOException {
+		this.dataManager = dataManager;
+		this.onRoundSaved = onRoundSaved;
+		this.onStopped = onStopped;
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(port), ServerConstants.BACKLOG);
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		selectorThread = new Thread(this::run, "live-quiz-selector");
+		selectorThread.setDaemon(true);
+		selectorThread.start();
+	}
+
+	/** @return the bound TCP port */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/** @return {@code false} once the broadcaster was closed or its thread stopped */
+	public boolean isRunning() {
+		return open;
+	}
+
+	/** @return the number of connected participants */
+	public int getParticipantCount() {
+		return participants;
+	}
+
+	/**
+	 * Sends a question to all participants. A round that is still open is
+	 * closed first.
+	 *
+	 * @param question       the question
+	 * @param answers        its answers in the order they are shown
+	 * @param durationMillis how long answers are accepted
+	 */
+	public void broadcast(QuestionDTO question, List<AnswerDTO> answers, int durationMillis) {
+		List<AnswerDTO> copy = new ArrayList<>(answers);
+		post(() -> {
+			closeRound();
+			int id = nextRoundId++;
+			long now = System.currentTimeMillis();
+			Round next = new Round(id, question, copy, now, now + durationMillis,
+					LiveProtocol.encodeQuestion(id, question, copy, durationMillis));
+			round = next;
+			sendToAll(next.frame);
+		});
+	}
+
+	/** Closes the open round before its deadline. */
+	public void closeRoundNow() {
+		post(this::closeRound);
+	}
+
+	/** @return the counts of the open round, or {@code null} if none is open */
+	public LiveRoundResult getLiveResult() {
+		Round current = round;
+		return current == null ? null : current.snapshot(System.currentTimeMillis(), false);
+	}
+
+	/** Closes the open round, disconnects everyone and stops the thread. */
+	public void close() {
+		post(() -> {
+			closeRound();
+			open = false;
+		});
+		try {
+			selectorThread.join(5_000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		saver.shutdown();
+		try {
+			saver.awaitTermination(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void post(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	private void run() {
+		try {
+			while (open) {
+				Round current = round;
+				long timeout = current == null ? 0 : Math.max(1, current.deadline - System.currentTimeMillis());
+				selector.select(timeout);
+				Runnable task;
+				while ((task = tasks.poll()) != null) {
+					task.run();
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						accept();
+					} else {
+						if (key.isReadable()) {
+							read(key);
+						}
+						if (key.isValid() && key.isWritable()) {
+							flush(key);
+						}
+					}
+				}
+				current = round;
+				if (current != null && System.currentTimeMillis() >= current.deadline) {
+					closeRound();
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			open = false;
+			// the answers of the open round are still saved
+			closeRound();
+			if (onStopped != null) {
+				onStopped.accept(e.getMessage() != null ? e.getMessage() : e.toString());
+			}
+		} finally {
+			for (SelectionKey key : selector.keys()) {
+				closeQuietly(key);
+			}
+			try {
+				selector.close();
+				serverChannel.close();
+			} catch (IOException ignore) {
+			}
+		}
+	}
+
+	/**
+	 * Accepts all pending connections. A connection that cannot be set up is
+	 * closed; only an error of the listening socket is thrown.
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			SelectionKey key;
+			try {
+				channel.configureBlocking(false);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				key = channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+			} catch (IOException e) {
+				try {
+					channel.close();
+				} catch (IOException ignore) {
+				}
+				continue;
+			}
+			participants++;
+			Round current = round;
+			if (current != null) {
+				// late joiners still get the open question
+				send(key, current.frame);
+			}
+		}
+	}
+
+	private void read(SelectionKey key) {
+		Connection connection = (Connection) key.attachment();
+		try {
+			if (connection.channel.read(connection.in) < 0) {
+				closeQuietly(key);
+				return;
+			}
+		} catch (IOException e) {
+			closeQuietly(key);
+			return;
+		}
+		ByteBuffer in = connection.in;
+		in.flip();
+		while (in.remaining() >= 4) {
+			int length = in.getInt(in.position());
+			if (length < 1 || length > LiveProtocol.MAX_INBOUND_FRAME) {
+				closeQuietly(key);
+				return;
+			}
+			if (in.remaining() < 4 + length) {
+				break;
+			}
+			int end = in.position() + 4 + length;
+			in.position(in.position() + 4);
+			if (in.get() == LiveProtocol.ANSWER) {
+				receiveAnswer(connection, in, end);
+			}
+			in.position(end);
+		}
+		in.compact();
+	}
+
+	/** Counts the first valid answer of a participant in the open round. */
+	private void receiveAnswer(Connection connection, ByteBuffer in, int end) {
+		Round current = round;
+		if (end - in.position() < 5) {
+			return;
+		}
+		int roundId = in.getInt();
+		int count = in.get();
+		if (current == null || roundId != current.id || connection.answeredRound == roundId || count < 1
+				|| end - in.position() < 4 * count) {
+			return;
+		}
+		int[] chosen = new int[count];
+		for (int i = 0; i < count; i++) {
+			chosen[i] = in.getInt();
+		}
+		chosen = Arrays.stream(chosen).distinct().sorted().toArray();
+		int[] indexes = new int[chosen.length];
+		for (int i = 0; i < chosen.length; i++) {
+			indexes[i] = indexOf(current.answerIds, chosen[i]);
+			if (indexes[i] < 0) {
+				return;
+			}
+		}
+		connection.answeredRound = roundId;
+		LocalDateTime now = LocalDateTime.now();
+		// measured from sending the question, so it includes the network delay
+		int durationMillis = (int) Math.max(1, System.currentTimeMillis() - current.started);
+		for (int i = 0; i < chosen.length; i++) {
+			current.counts.incrementAndGet(indexes[i]);
+			PlayerAnswerDTO playerAnswer = new PlayerAnswerDTO();
+			playerAnswer.setQuestionId(current.question.getId());
+			playerAnswer.setAnswerId(chosen[i]);
+			playerAnswer.setCreatedAt(now);
+			playerAnswer.setDurationMillis(durationMillis);
+			current.playerAnswers.add(playerAnswer);
+		}
+		current.answered++;
+		if (Arrays.equals(chosen, current.correctIds)) {
+			current.correct++;
+		}
+	}
+
+	/** Sends the solution, then saves the answers in the background. */
+	private void closeRound() {
+		Round current = round;
+		if (current == null) {
+			return;
+		}
+		round = null;
+		sendToAll(LiveProtocol.encodeResult(current.id, current.correctIds, current.answered));
+		LiveRoundResult result = current.snapshot(current.deadline, true);
+		List<PlayerAnswerDTO> playerAnswers = current.playerAnswers;
+		saver.execute(() -> {
+			String error = playerAnswers.isEmpty() ? null : dataManager.savePlayerAnswers(playerAnswers);
+			if (onRoundSaved != null) {
+				onRoundSaved.accept(result.saved(error));
+			}
+		});
+	}
+
+	private void sendToAll(ByteBuffer frame) {
+		for (SelectionKey key : selector.keys()) {
+			if (key.isValid() && key.attachment() instanceof Connection) {
+				send(key, frame);
+			}
+		}
+	}
+
+	/** Writes a view of a shared frame, or queues it if the socket is full. */
+	private void send(SelectionKey key, ByteBuffer frame) {
+		Connection connection = (Connection) key.attachment();
+		ByteBuffer view = frame.duplicate();
+		if (!connection.out.isEmpty()) {
+			if (connection.out.size() >= MAX_QUEUED_FRAMES) {
+				closeQuietly(key);
+			} else {
+				connection.out.add(view);
+			}
+			return;
+		}
+		try {
+			connection.channel.write(view);
+		} catch (IOException e) {
+			closeQuietly(key);
+			return;
+		}
+		if (view.hasRemaining()) {
+			connection.out.add(view);
+			key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+		}
+	}
+
+	private void flush(SelectionKey key) {
+		Connection connection = (Connection) key.attachment();
+		try {
+			ByteBuffer view;
+			while ((view = connection.out.peek()) != null) {
+				connection.channel.write(view);
+				if (view.hasRemaining()) {
+					return;
+				}
+				connection.out.poll();
+			}
+			key.interestOps(SelectionKey.OP_READ);
+		} catch (IOException e) {
+			closeQuietly(key);
+		}
+	}
+
+	private void closeQuietly(SelectionKey key) {
+		if (key.attachment() instanceof Connection && key.isValid()) {
+			participants--;
+		}
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (IOException ignore) {
+		}
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,79 @@
+package server;
+
+/**
+ * Answer counts of one round of the live quiz show, either while it is running
+ * or after it has been closed and saved.
+ *
+ * @author DejanKrstovski
+ */
+public final class LiveRoundResult {
+
+	private final int round;
+	private final int questionId;
+	private final int[] answerIds;
+	private final int[] answerCounts;
+	private final int answered;
+	private final int correct;
+	private final long remainingMillis;
+	private final boolean closed;
+	private final String saveError;
+
+	LiveRoundResult(int round, int questionId, int[] answerIds, int[] answerCounts, int answered, int correct,
+			long remainingMillis, boolean closed, String saveError) {
+		this.round = round;
+		this.questionId = questionId;
+		this.answerIds = answerIds;
+		this.answerCounts = answerCounts;
+		this.answered = answered;
+		this.correct = correct;
+		this.remainingMillis = remainingMillis;
+		this.closed = closed;
+		this.saveError = saveError;
+	}
+
+	/** @return a copy of this closed result with the outcome of saving it */
+	LiveRoundResult saved(String error) {
+		return new LiveRoundResult(round, questionId, answerIds, answerCounts, answered, correct, 0, true, error);
+	}
+
+	public int getRound() {
+		return round;
+	}
+
+	public int getQuestionId() {
+		return questionId;
+	}
+
+	/** @return the answer IDs in the order they were sent */
+	public int[] getAnswerIds() {
+		return answerIds.clone();
+	}
+
+	/** @return how many participants chose each answer, same order as {@link #getAnswerIds()} */
+	public int[] getAnswerCounts() {
+		return answerCounts.clone();
+	}
+
+	/** @return the number of participants who answered */
+	public int getAnswered() {
+		return answered;
+	}
+
+	/** @return the number of participants who chose exactly the correct answers */
+	public int getCorrect() {
+		return correct;
+	}
+
+	public long getRemainingMillis() {
+		return remainingMillis;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/** @return the error of saving the answers, or {@code null} */
+	public String getSaveError() {
+		return saveError;
+	}
+}
@@ -0,0 +1,463 @@
+package server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.PlayerAnswerDTO;
+import bussinesLogic.PlayerDTO;
+import bussinesLogic.QuestionDTO;
+import bussinesLogic.ThemeDTO;
+import bussinesLogic.statistics.Leaderboard;
+import bussinesLogic.statistics.LeaderboardEntry;
+import bussinesLogic.tiered.QuizTieredDataManager;
+import bussinesLogic.transfer.Json;
+import helpers.QuizDataInterface;
+import persistence.mariaDB.createDB.DBCreator;
+
+/**
+ * Headless quiz server, so a classroom or a company can play without every
+ * player running the Swing {@code QuizApp}.
+ * <p>
+ * The server is built on the JDK {@link HttpServer}. Requests and responses
+ * are JSON:
+ * </p>
+ * <ul>
+ * <li>{@code POST /sessions} with {@code {"themeId": 3, "count": 10,
+ * "playerId": 5}}, all optional, starts a quiz of randomly drawn questions and
+ * returns its session ID. With a player profile the answers count for its
+ * statistics and on the leaderboard.</li>
+ * <li>{@code GET /sessions/{id}/question} returns the current question with its
+ * answers, without the solution. Asking again returns the same question.</li>
+ * <li>{@code POST /sessions/{id}/answer} with {@code {"answerIds": [12, 14]}}
+ * answers the current question and moves on. The response tells whether the
+ * answer was correct and which answers are.</li>
+ * <li>{@code GET /sessions/{id}/results} returns the score so far.</li>
+ * <li>{@code GET /leaderboard?ranking=score&themeId=3&offset=0&limit=10}
+ * returns a page of a ranking: {@code score}, {@code accuracy} or
+ * {@code streak}, over all themes without {@code themeId}.</li>
+ * <li>{@code GET /leaderboard/{playerId}} with the same parameters returns the
+ * rank of one player.</li>
+ * </ul>
+ * <p>
+ * The leaderboard is read from the {@link Leaderboard} in memory and never
+ * from the database, so a kiosk display may poll it as often as it likes.
+ * </p>
+ * <p>
+ * Every request runs on its own virtual thread, so thousands of players
+ * waiting for the data layer cost no platform threads. Sessions are kept in a
+ * {@link SessionStore} and expire after {@link #SESSION_TTL_MILLIS} without a
+ * request. Submitted answers are saved in batches by an {@link AnswerBatcher}
+ * instead of one write per answer. Each session is a known player for the
+ * item response model, see {@link QuizDataInterface#recordResponse}.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+public class QuizServer implements ServerConstants {
+
+	/** Ends a request with an error status and message. */
+	private static final class RequestException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		private final int status;
+
+		private RequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+
+	private final QuizDataInterface dataManager;
+	private final HttpServer http;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final SessionStore sessions = new SessionStore(SESSION_TTL_MILLIS);
+	private final AnswerBatcher batcher;
+
+	/**
+	 * Creates the server; call {@link #start()} to accept requests.
+	 *
+	 * @param dataManager the quiz data to play with
+	 * @param port        the TCP port; 0 picks a free one
+	 * @throws IOException if the port cannot be bound
+	 */
+	public QuizServer(QuizDataInterface dataManager, int port) throws IOException {
+		this.dataManager = dataManager;
+		this.batcher = new AnswerBatcher(dataManager);
+		http = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+		http.setExecutor(executor);
+		http.createContext("/sessions", this::handle);
+		http.createContext("/leaderboard", this::handle);
+	}
+
+	public void start() {
+		http.start();
+	}
+
+	/** Stops accepting requests and ends the running ones. */
+	public void stop() {
+		http.stop(1);
+		executor.shutdown();
+		batcher.close();
+		sessions.close();
+	}
+
+	/** @return the bound TCP port */
+	public int getPort() {
+		return http.getAddress().getPort();
+	}
+
+	/** @return the number of running sessions */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		int status = 200;
+		String body;
+		try {
+			body = route(exchange);
+		} catch (RequestException e) {
+			status = e.status;
+			body = error(e.getMessage());
+		} catch (IllegalArgumentException | ClassCastException e) {
+			status = 400;
+			body = error(INVALID_REQUEST + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			status = 503;
+			body = error(SERVER_STOPPED);
+		} catch (RuntimeException e) {
+			status = 500;
+			body = error(INTERNAL_ERROR + (e.getMessage() != null ? e.getMessage() : e.toString()));
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/** Dispatches {@code /sessions}, {@code /sessions/{id}/{action}} and {@code /leaderboard[/{playerId}]}. */
+	private String route(HttpExchange exchange) throws IOException, InterruptedException {
+		String[] path = exchange.getRequestURI().getPath().split("/");
+		String method = exchange.getRequestMethod();
+		if (path.length >= 2 && "leaderboard".equals(path[1])) {
+			requireMethod(method, "GET");
+			return leaderboard(path, queryParameters(exchange));
+		}
+		if (path.length == 2) {
+			requireMethod(method, "POST");
+			return startSession(readBody(exchange));
+		}
+		if (path.length != 4) {
+			throw new RequestException(404, NOT_FOUND);
+		}
+		QuizSession session = sessions.get(path[2]);
+		if (session == null) {
+			throw new RequestException(404, SESSION_NOT_FOUND);
+		}
+		session.lock().lock();
+		try {
+			switch (path[3]) {
+			case "question":
+				requireMethod(method, "GET");
+				return currentQuestion(session);
+			case "answer":
+				requireMethod(method, "POST");
+				return submitAnswer(session, readBody(exchange));
+			case "results":
+				requireMethod(method, "GET");
+				return results(session);
+			default:
+				throw new RequestException(404, NOT_FOUND);
+			}
+		} finally {
+			session.lock().unlock();
+		}
+	}
+
+	private String startSession(Map<String, Object> request) {
+		int themeId = intValue(request.get("themeId"), -1);
+		int count = Math.min(intValue(request.get("count"), DEFAULT_QUESTION_COUNT), MAX_QUESTION_COUNT);
+		int playerId = intValue(request.get("playerId"), 0);
+		if (playerId != 0 && dataManager.getAllPlayers().stream().noneMatch(p -> p.getId() == playerId)) {
+			throw new RequestException(404, PLAYER_NOT_FOUND);
+		}
+		List<QuestionDTO> pool;
+		if (themeId > 0) {
+			ThemeDTO theme = dataManager.getThemeById(themeId);
+			if (theme == null) {
+				throw new RequestException(404, THEME_NOT_FOUND);
+			}
+			pool = dataManager.getQuestionsFor(theme);
+		} else {
+			pool = dataManager.getAllQuestions();
+		}
+		if (pool.isEmpty() || count < 1) {
+			throw new RequestException(404, NO_QUESTIONS);
+		}
+		QuizSession session = sessions.create(drawQuestions(pool, count), playerId);
+		StringBuilder json = new StringBuilder("{\"session\":");
+		Json.quote(json, session.getId());
+		return json.append(",\"total\":").append(session.getTotal()).append('}').toString();
+	}
+
+	/**
+	 * Draws distinct random questions without copying or shuffling the whole
+	 * pool, which may hold the entire bank.
+	 */
+	private static int[] drawQuestions(List<QuestionDTO> pool, int count) {
+		count = Math.min(count, pool.size());
+		Set<Integer> picked = new LinkedHashSet<>();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (picked.size() < count) {
+			picked.add(random.nextInt(pool.size()));
+		}
+		int[] ids = new int[count];
+		int i = 0;
+		for (int index : picked) {
+			ids[i++] = pool.get(index).getId();
+		}
+		return ids;
+	}
+
+	/** Loads the current question on first request. Caller holds the session lock. */
+	private String currentQuestion(QuizSession session) {
+		while (session.getCurrentQuestion() == null && !session.isFinished()) {
+			QuestionDTO question = dataManager.getQuestionById(session.nextQuestionId());
+			if (question == null) {
+				session.skipQuestion();
+			} else {
+				session.setCurrent(question, dataManager.getAnswersFor(question), System.currentTimeMillis());
+			}
+		}
+		if (session.isFinished()) {
+			return results(session);
+		}
+		QuestionDTO question = session.getCurrentQuestion();
+		StringBuilder json = new StringBuilder("{\"finished\":false,\"index\":").append(session.getPosition() + 1)
+				.append(",\"total\":").append(session.getTotal()).append(",\"question\":{\"id\":")
+				.append(question.getId()).append(",\"title\":");
+		Json.quote(json, question.getTitle());
+		json.append(",\"text\":");
+		Json.quote(json, question.getText());
+		json.append(",\"answers\":[");
+		List<AnswerDTO> answers = session.getCurrentAnswers();
+		for (int i = 0; i < answers.size(); i++) {
+			json.append(i == 0 ? "" : ",").append("{\"id\":").append(answers.get(i).getId()).append(",\"text\":");
+			Json.quote(json, answers.get(i).getText());
+			json.append('}');
+		}
+		return json.append("]}}").toString();
+	}
+
+	/**
+	 * Saves the chosen answers of the current question, one player answer per
+	 * chosen answer like the play panel does. Caller holds the session lock.
+	 */
+	private String submitAnswer(QuizSession session, Map<String, Object> request) throws InterruptedException {
+		QuestionDTO question = session.getCurrentQuestion();
+		if (question == null) {
+			throw new RequestException(409, NO_OPEN_QUESTION);
+		}
+		Object ids = request.get("answerIds");
+		if (!(ids instanceof List) || ((List<?>) ids).isEmpty()) {
+			throw new RequestException(400, NO_ANSWER_CHOSEN);
+		}
+		Set<Integer> chosen = new HashSet<>();
+		for (Object id : (List<?>) ids) {
+			chosen.add(intValue(id, -1));
+		}
+		Set<Integer> correct = new HashSet<>();
+		Set<Integer> shown = new HashSet<>();
+		for (AnswerDTO answer : session.getCurrentAnswers()) {
+			shown.add(answer.getId());
+			if (answer.isCorrect()) {
+				correct.add(answer.getId());
+			}
+		}
+		if (!shown.containsAll(chosen)) {
+			throw new RequestException(400, INVALID_ANSWER);
+		}
+		int durationMillis = (int) Math.min(Integer.MAX_VALUE,
+				Math.max(1, System.currentTimeMillis() - session.getCurrentShownAt()));
+		// one time for all rows, so the submission can be told apart later
+		LocalDateTime now = LocalDateTime.now();
+		List<PlayerAnswerDTO> playerAnswers = new ArrayList<>(chosen.size());
+		for (int answerId : chosen) {
+			PlayerAnswerDTO playerAnswer = new PlayerAnswerDTO();
+			playerAnswer.setQuestionId(question.getId());
+			playerAnswer.setAnswerId(answerId);
+			playerAnswer.setCreatedAt(now);
+			playerAnswer.setDurationMillis(durationMillis);
+			playerAnswer.setPlayerId(session.getPlayerId());
+			playerAnswers.add(playerAnswer);
+		}
+		String result = batcher.save(playerAnswers);
+		if (result != null) {
+			throw new RequestException(503, result);
+		}
+		boolean wasCorrect = chosen.equals(correct);
+		session.completeCurrent(wasCorrect);
+		if (!correct.isEmpty()) {
+			dataManager.recordResponse(session.getId(), question, wasCorrect);
+		}
+		StringBuilder json = new StringBuilder("{\"correct\":").append(wasCorrect).append(",\"correctAnswerIds\":[");
+		int i = 0;
+		for (int id : correct) {
+			json.append(i++ == 0 ? "" : ",").append(id);
+		}
+		return json.append("],\"finished\":").append(session.isFinished()).append('}').toString();
+	}
+
+	/** Caller holds the session lock. */
+	private String results(QuizSession session) {
+		return new StringBuilder("{\"finished\":").append(session.isFinished()).append(",\"answered\":")
+				.append(session.getAnswered()).append(",\"correct\":").append(session.getCorrect())
+				.append(",\"total\":").append(session.getTotal()).append('}').toString();
+	}
+
+	/** Returns a page of a ranking, or the rank of the player in the path. */
+	private String leaderboard(String[] path, Map<String, String> query) {
+		if (path.length > 3) {
+			throw new RequestException(404, NOT_FOUND);
+		}
+		String rankingName = query.getOrDefault("ranking", "score");
+		Leaderboard.Ranking ranking;
+		try {
+			ranking = Leaderboard.Ranking.valueOf(rankingName.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new RequestException(400, UNKNOWN_RANKING + rankingName);
+		}
+		ThemeDTO theme = null;
+		int themeId = Integer.parseInt(query.getOrDefault("themeId", "0"));
+		if (themeId > 0) {
+			theme = dataManager.getThemeById(themeId);
+			if (theme == null) {
+				throw new RequestException(404, THEME_NOT_FOUND);
+			}
+		}
+		StringBuilder json = new StringBuilder("{\"ranking\":");
+		Json.quote(json, ranking.name().toLowerCase(Locale.ROOT));
+		json.append(",\"themeId\":").append(themeId);
+		if (path.length == 3) {
+			LeaderboardEntry entry = dataManager.getLeaderboardEntry(new PlayerDTO(Integer.parseInt(path[2]), null),
+					theme, ranking);
+			if (entry == null) {
+				throw new RequestException(404, PLAYER_NOT_RANKED);
+			}
+			json.append(",\"player\":");
+			appendEntry(json, entry);
+			return json.append('}').toString();
+		}
+		int offset = Math.max(0, Integer.parseInt(query.getOrDefault("offset", "0")));
+		int limit = Math.min(Integer.parseInt(query.getOrDefault("limit", String.valueOf(DEFAULT_LEADERBOARD_SIZE))),
+				MAX_LEADERBOARD_SIZE);
+		json.append(",\"offset\":").append(offset).append(",\"players\":[");
+		List<LeaderboardEntry> entries = dataManager.getLeaderboard(theme, ranking, offset, limit);
+		for (int i = 0; i < entries.size(); i++) {
+			json.append(i == 0 ? "" : ",");
+			appendEntry(json, entries.get(i));
+		}
+		return json.append("]}").toString();
+	}
+
+	private static void appendEntry(StringBuilder json, LeaderboardEntry entry) {
+		json.append("{\"rank\":").append(entry.getRank()).append(",\"playerId\":").append(entry.getPlayerId())
+				.append(",\"name\":");
+		Json.quote(json, entry.getPlayerName());
+		json.append(",\"score\":").append(entry.getCorrect()).append(",\"answered\":").append(entry.getEvaluated())
+				.append(",\"accuracy\":").append(entry.getAccuracy()).append(",\"streak\":").append(entry.getStreak())
+				.append(",\"longestStreak\":").append(entry.getLongestStreak()).append('}');
+	}
+
+	private static void requireMethod(String method, String expected) {
+		if (!expected.equals(method)) {
+			throw new RequestException(405, METHOD_NOT_ALLOWED);
+		}
+	}
+
+	/** @return the JSON object of the request body; empty if there is no body */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+		String text;
+		try (InputStream in = exchange.getRequestBody()) {
+			text = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+		}
+		if (text.isEmpty()) {
+			return Map.of();
+		}
+		Object value = Json.parse(text);
+		if (!(value instanceof Map)) {
+			throw new IllegalArgumentException("JSON-Objekt erwartet");
+		}
+		return (Map<String, Object>) value;
+	}
+
+	/** @return the parameters of the query string; a parameter without a value maps to an empty string */
+	private static Map<String, String> queryParameters(HttpExchange exchange) {
+		Map<String, String> parameters = new HashMap<>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return parameters;
+		}
+		for (String pair : query.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+					URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return parameters;
+	}
+
+	private static int intValue(Object value, int defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		if (!(value instanceof Double)) {
+			throw new IllegalArgumentException("Zahl erwartet: " + value);
+		}
+		return ((Double) value).intValue();
+	}
+
+	private static String error(String message) {
+		StringBuilder json = new StringBuilder("{\"error\":");
+		Json.quote(json, message);
+		return json.append('}').toString();
+	}
+
+	/**
+	 * Starts the server on the given port, or on {@link #DEFAULT_PORT}.
+	 *
+	 * @param args optional port number
+	 * @throws IOException if the port cannot be bound
+	 */
+	public static void main(String[] args) throws IOException {
+		DBCreator.createDB();
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		QuizServer server = new QuizServer(QuizTieredDataManager.getInstance(), port);
+		server.start();
+		System.out.println(String.format(SERVER_STARTED, server.getPort()));
+	}
+}
@@ -0,0 +1,131 @@
+package server;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import bussinesLogic.AnswerDTO;
+import bussinesLogic.QuestionDTO;
+
+/**
+ * State of one player's quiz on the {@link QuizServer}: the questions drawn at
+ * the start, the position and the score.
+ * <p>
+ * Only question IDs are kept; the current question and its answers are loaded
+ * when the player asks for it. <b>Thread-safety:</b> Requests of the same
+ * session are serialized with {@link #lock()}, a {@link ReentrantLock} and not
+ * {@code synchronized}, so a virtual thread waiting for its answers to be
+ * saved does not pin its carrier thread.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+final class QuizSession {
+
+	private final String id;
+	private final int[] questionIds;
+	/** The player profile the answers are saved for, 0 for anonymous answers. */
+	private final int playerId;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** Guarded by {@link #lock}. */
+	private int position;
+	private int answered;
+	private int correct;
+	private QuestionDTO currentQuestion;
+	/** The answers of the current question in the order they were sent. */
+	private List<AnswerDTO> currentAnswers;
+	/** When the current question was loaded for the player, in milliseconds. */
+	private long currentShownAt;
+
+	private volatile long lastAccess;
+
+	QuizSession(String id, int[] questionIds, int playerId, long now) {
+		this.id = id;
+		this.questionIds = questionIds;
+		this.playerId = playerId;
+		this.lastAccess = now;
+	}
+
+	String getId() {
+		return id;
+	}
+
+	int getPlayerId() {
+		return playerId;
+	}
+
+	ReentrantLock lock() {
+		return lock;
+	}
+
+	void touch(long now) {
+		lastAccess = now;
+	}
+
+	boolean isExpired(long now, long ttlMillis) {
+		return now - lastAccess > ttlMillis;
+	}
+
+	int getTotal() {
+		return questionIds.length;
+	}
+
+	/** @return the ID of the next question to ask, or -1 if all were asked */
+	int nextQuestionId() {
+		return position < questionIds.length ? questionIds[position] : -1;
+	}
+
+	/** Skips a question that was deleted since the session started. */
+	void skipQuestion() {
+		position++;
+	}
+
+	int getPosition() {
+		return position;
+	}
+
+	boolean isFinished() {
+		return position >= questionIds.length;
+	}
+
+	QuestionDTO getCurrentQuestion() {
+		return currentQuestion;
+	}
+
+	List<AnswerDTO> getCurrentAnswers() {
+		return currentAnswers;
+	}
+
+	long getCurrentShownAt() {
+		return currentShownAt;
+	}
+
+	void setCurrent(QuestionDTO question, List<AnswerDTO> answers, long now) {
+		currentQuestion = question;
+		currentAnswers = answers;
+		currentShownAt = now;
+	}
+
+	/**
+	 * Records the outcome of the current question and moves on to the next.
+	 *
+	 * @param wasCorrect whether exactly the correct answers were chosen
+	 */
+	void completeCurrent(boolean wasCorrect) {
+		answered++;
+		if (wasCorrect) {
+			correct++;
+		}
+		position++;
+		currentQuestion = null;
+		currentAnswers = null;
+	}
+
+	int getAnswered() {
+		return answered;
+	}
+
+	int getCorrect() {
+		return correct;
+	}
+}
@@ -0,0 +1,39 @@
+package server;
+
+/**
+ * Settings and messages of the headless {@link QuizServer}.
+ *
+ * @author DejanKrstovski
+ */
+public interface ServerConstants {
+
+	// Settings
+	public static final int DEFAULT_PORT = 8080;
+	/** Connections the operating system queues while all are being accepted. */
+	public static final int BACKLOG = 4096;
+	/** Sessions without a request for this long are removed. */
+	public static final long SESSION_TTL_MILLIS = 30 * 60 * 1000;
+	public static final int DEFAULT_QUESTION_COUNT = 10;
+	public static final int MAX_QUESTION_COUNT = 100;
+	/** Maximum number of player answers saved in one batch. */
+	public static final int MAX_ANSWER_BATCH = 2000;
+	public static final int DEFAULT_LEADERBOARD_SIZE = 10;
+	public static final int MAX_LEADERBOARD_SIZE = 100;
+
+	// Messages
+	public static final String SERVER_STARTED = "Quiz-Server läuft auf Port %d";
+	public static final String SESSION_NOT_FOUND = "Sitzung nicht gefunden oder abgelaufen.";
+	public static final String NOT_FOUND = "Unbekannte Adresse.";
+	public static final String METHOD_NOT_ALLOWED = "Methode nicht erlaubt.";
+	public static final String INVALID_REQUEST = "Ungültige Anfrage: ";
+	public static final String THEME_NOT_FOUND = "Das Thema konnte nicht gefunden werden.";
+	public static final String PLAYER_NOT_FOUND = "Der Spieler konnte nicht gefunden werden.";
+	public static final String PLAYER_NOT_RANKED = "Der Spieler hat noch keine gewerteten Antworten.";
+	public static final String UNKNOWN_RANKING = "Unbekannte Rangliste: ";
+	public static final String NO_QUESTIONS = "Keine Fragen vorhanden.";
+	public static final String NO_ANSWER_CHOSEN = "Bitte mindestens eine Antwort auswählen.";
+	public static final String NO_OPEN_QUESTION = "Keine offene Frage. Bitte zuerst die Frage abrufen.";
+	public static final String INVALID_ANSWER = "Die Antwort gehört nicht zur aktuellen Frage.";
+	public static final String SERVER_STOPPED = "Der Server wird beendet.";
+	public static final String INTERNAL_ERROR = "Interner Serverfehler: ";
+}
@@ -0,0 +1,92 @@
+package server;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory store of the running {@link QuizSession}s.
+ * <p>
+ * Sessions live in a {@link ConcurrentHashMap}, so requests of different
+ * players never wait for each other. A session expires when it has not been
+ * used for the time to live; expired sessions are never returned and are
+ * removed by a background sweep.
+ * </p>
+ *
+ * @author DejanKrstovski
+ */
+final class SessionStore {
+
+	private final ConcurrentHashMap<String, QuizSession> sessions = new ConcurrentHashMap<>();
+	private final SecureRandom random = new SecureRandom();
+	private final long ttlMillis;
+
+	private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "session-sweeper");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @param ttlMillis how long a session may stay unused
+	 */
+	SessionStore(long ttlMillis) {
+		this.ttlMillis = ttlMillis;
+		long period = Math.max(1_000, ttlMillis / 4);
+		sweeper.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Starts a new session.
+	 *
+	 * @param questionIds the questions of the quiz, in the order they are asked
+	 * @param playerId    the player profile, 0 for anonymous answers
+	 * @return the session with a new, unguessable ID
+	 */
+	QuizSession create(int[] questionIds, int playerId) {
+		byte[] token = new byte[16];
+		random.nextBytes(token);
+		QuizSession session = new QuizSession(HexFormat.of().formatHex(token), questionIds, playerId,
+				System.currentTimeMillis());
+		sessions.put(session.getId(), session);
+		return session;
+	}
+
+	/**
+	 * Returns a session and marks it as used.
+	 *
+	 * @param id the session ID
+	 * @return the session, or {@code null} if it does not exist or has expired
+	 */
+	QuizSession get(String id) {
+		QuizSession session = sessions.get(id);
+		if (session == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if (session.isExpired(now, ttlMillis)) {
+			sessions.remove(id, session);
+			return null;
+		}
+		session.touch(now);
+		return session;
+	}
+
+	/** @return the number of sessions, including expired ones not swept yet */
+	int size() {
+		return sessions.size();
+	}
+
+	void evictExpired() {
+		long now = System.currentTimeMillis();
+		sessions.values().removeIf(session -> session.isExpired(now, ttlMillis));
+	}
+
+	void close() {
+		sweeper.shutdownNow();
+		sessions.clear();
+	}
+}